@@ -0,0 +1,103 @@
+package com.siar.screening.service;
+
+import com.siar.screening.config.ScreeningConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo por par de nombres de la normalización y de Jaro-Winkler.
+ * 
+ * Compara la API por cadenas ({@code calculateSimilarity}, que normaliza en
+ * cada llamada) con la comparación sobre nombres ya normalizados que usa el
+ * screening, con y sin umbral, y la normalización directa con la servida
+ * desde la caché.
+ * 
+ * Ejecución (desde backend/benchmarks, después de {@code mvn -B package}):
+ * <pre>
+ *   java -jar target/benchmarks.jar JaroWinklerBenchmark -prof gc
+ * </pre>
+ * El modo SampleTime reporta los percentiles p50/p99/p99.9 por operación y
+ * {@code -prof gc} la tasa de asignación (gc.alloc.rate.norm, bytes/op).
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JaroWinklerBenchmark {
+    
+    private static final int PAIRS = 4096;
+    
+    private final JaroWinklerService jaroWinklerService = new JaroWinklerService();
+    private final NameNormalizationService nameNormalizationService = new NameNormalizationService(new ScreeningConfiguration());
+    
+    private String[] subjects;
+    private String[] entries;
+    private char[][] normalizedSubjects;
+    private char[][] normalizedEntries;
+    private double threshold;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticWatchlist names = new SyntheticWatchlist(42);
+        subjects = new String[PAIRS];
+        entries = new String[PAIRS];
+        normalizedSubjects = new char[PAIRS][];
+        normalizedEntries = new char[PAIRS][];
+        for (int i = 0; i < PAIRS; i++) {
+            subjects[i] = names.personName();
+            entries[i] = names.personName();
+            normalizedSubjects[i] = jaroWinklerService.normalizeString(subjects[i]).toCharArray();
+            normalizedEntries[i] = jaroWinklerService.normalizeString(entries[i]).toCharArray();
+        }
+        threshold = jaroWinklerService.thresholdFor(WatchlistMatchingService.MATCH_THRESHOLD);
+    }
+    
+    private int nextPair() {
+        next = (next + 1) & (PAIRS - 1);
+        return next;
+    }
+    
+    @Benchmark
+    public double calculateSimilarity() {
+        int pair = nextPair();
+        return jaroWinklerService.calculateSimilarity(subjects[pair], entries[pair]);
+    }
+    
+    @Benchmark
+    public String normalizeString() {
+        return jaroWinklerService.normalizeString(subjects[nextPair()]);
+    }
+    
+    @Benchmark
+    public String cachedNormalize() {
+        return nameNormalizationService.normalize(subjects[nextPair()]);
+    }
+    
+    @Benchmark
+    public double normalizedSimilarity() {
+        int pair = nextPair();
+        char[] subject = normalizedSubjects[pair];
+        char[] entry = normalizedEntries[pair];
+        return jaroWinklerService.calculateNormalizedSimilarity(subject, 0, subject.length, entry, 0, entry.length);
+    }
+    
+    @Benchmark
+    public double similarityAtThreshold() {
+        int pair = nextPair();
+        return jaroWinklerService.similarityAtLeast(normalizedSubjects[pair], normalizedEntries[pair], threshold);
+    }
+}
@@ -0,0 +1,189 @@
+package com.siar.screening.service;
+
+import com.siar.screening.config.ScreeningConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Listas y sujetos sintéticos con nombres hispanos para los benchmarks del
+ * motor de screening.
+ * 
+ * Genera nombres de una o dos palabras de nombre y uno o dos apellidos, con
+ * acentos, partículas ("de", "del", "de la") y alias reordenados o con el
+ * segundo apellido omitido, en proporciones parecidas a las listas PEP y de
+ * sanciones. La semilla es fija para que las corridas sean comparables.
+ */
+final class SyntheticWatchlist {
+    
+    private static final String[] GIVEN_NAMES = {
+        "José", "Juan", "Luis", "Carlos", "Jesús", "Manuel", "Pedro", "Miguel", "Rafael", "Francisco",
+        "Antonio", "Alejandro", "Fernando", "Ricardo", "Jorge", "Andrés", "Guillermo", "Héctor", "Javier",
+        "Eduardo", "Ramón", "Víctor", "Óscar", "Gustavo", "Diego", "Freddy", "Wilmer", "Yonathan",
+        "María", "Ana", "Carmen", "Rosa", "Gabriela", "Daniela", "Valentina", "Isabel", "Yolanda",
+        "Xiomara", "Mariela", "Beatriz", "Luisa", "Elena", "Patricia", "Milagros", "Yusmary", "Nohemí"
+    };
+    
+    private static final String[] SURNAMES = {
+        "Pérez", "García", "Rodríguez", "González", "Hernández", "López", "Martínez", "Sánchez", "Ramírez",
+        "Torres", "Flores", "Rivera", "Gómez", "Díaz", "Chávez", "Vásquez", "Castillo", "Jiménez", "Moreno",
+        "Romero", "Álvarez", "Mendoza", "Ruiz", "Herrera", "Medina", "Aguilar", "Vargas", "Castro", "Ortiz",
+        "Silva", "Quintero", "Zambrano", "Yépez", "Villalobos", "Bracho", "Urdaneta", "Carrasquel", "Briceño",
+        "Guevara", "Marcano", "Salazar", "Rondón", "Peña", "Montilla", "Colmenares", "Arráiz", "Echeverría",
+        "Rojas", "Suárez", "Contreras", "Figueroa", "Méndez", "Cabrera", "Paredes", "Ochoa", "Uzcátegui"
+    };
+    
+    private static final String[] COMPOUND_SURNAMES = {
+        "de la Cruz", "del Valle", "de los Santos", "de León", "del Castillo", "de la Rosa"
+    };
+    
+    private static final String[] NATIONALITIES = {
+        "VEN", "VEN", "VEN", "COL", "MEX", "ESP", "PAN", "ECU", "PER", "CUB"
+    };
+    
+    private final Random random;
+    
+    SyntheticWatchlist(long seed) {
+        this.random = new Random(seed);
+    }
+    
+    /**
+     * Nombre completo en orden "nombres apellidos"
+     */
+    String personName() {
+        StringBuilder name = new StringBuilder(40);
+        name.append(pick(GIVEN_NAMES));
+        if (random.nextInt(100) < 55) {
+            name.append(' ').append(pick(GIVEN_NAMES));
+        }
+        name.append(' ').append(surname());
+        if (random.nextInt(100) < 70) {
+            name.append(' ').append(surname());
+        }
+        return name.toString();
+    }
+    
+    /**
+     * Construye un bucket con {@code size} entradas; cerca de un tercio con alias
+     */
+    WatchlistIndexBucket bucket(JaroWinklerService jaroWinklerService, int size) {
+        WatchlistIndexBucket.Builder builder = WatchlistIndexBucket.builder();
+        for (int entry = 0; entry < size; entry++) {
+            String name = personName();
+            List<String> aliases = new ArrayList<>(2);
+            if (random.nextInt(100) < 30) {
+                aliases.add(jaroWinklerService.normalizeString(reorder(name)));
+                if (random.nextBoolean()) {
+                    aliases.add(jaroWinklerService.normalizeString(dropLastToken(name)));
+                }
+            }
+            builder.add(
+                entry + 1L,
+                name,
+                jaroWinklerService.normalizeString(name),
+                aliases,
+                attributes()
+            );
+        }
+        return builder.build();
+    }
+    
+    /**
+     * Sujetos a evaluar: un tercio presentes en la lista tal cual, un tercio
+     * con variaciones (errores de tipeo, orden "apellidos, nombres", apellido
+     * omitido) y un tercio sin relación con la lista.
+     */
+    List<String> subjects(WatchlistIndexBucket bucket, int count) {
+        List<String> subjects = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            switch (i % 3) {
+                case 0:
+                    subjects.add(bucket.getEntryName(random.nextInt(bucket.size())));
+                    break;
+                case 1:
+                    subjects.add(variant(bucket.getEntryName(random.nextInt(bucket.size()))));
+                    break;
+                default:
+                    subjects.add(personName());
+            }
+        }
+        Collections.shuffle(subjects, random);
+        return subjects;
+    }
+    
+    /**
+     * Servicio de comparación cableado sin contexto de Spring
+     */
+    static WatchlistMatchingService matchingService(JaroWinklerService jaroWinklerService) {
+        ScreeningConfiguration configuration = new ScreeningConfiguration();
+        return new WatchlistMatchingService(
+            new CandidateBlockingService(
+                configuration,
+                jaroWinklerService,
+                new ScreeningMetrics(new SimpleMeterRegistry())
+            ),
+            jaroWinklerService,
+            new TokenSetSimilarityService(jaroWinklerService, configuration),
+            new MatchScoringService(configuration)
+        );
+    }
+    
+    private String surname() {
+        return random.nextInt(100) < 6 ? pick(COMPOUND_SURNAMES) : pick(SURNAMES);
+    }
+    
+    private SubjectAttributes attributes() {
+        String document = random.nextBoolean() ? "V-" + (5_000_000 + random.nextInt(25_000_000)) : null;
+        LocalDate dateOfBirth = random.nextInt(100) < 60
+            ? LocalDate.of(1940 + random.nextInt(60), 1 + random.nextInt(12), 1 + random.nextInt(28))
+            : null;
+        return SubjectAttributes.of(document, dateOfBirth, pick(NATIONALITIES));
+    }
+    
+    private String variant(String name) {
+        switch (random.nextInt(3)) {
+            case 0:
+                return reorder(name);
+            case 1:
+                return dropLastToken(name);
+            default:
+                char[] chars = name.toCharArray();
+                int position = random.nextInt(chars.length);
+                if (chars[position] != ' ') {
+                    chars[position] = (char) ('a' + random.nextInt(26));
+                }
+                return new String(chars);
+        }
+    }
+    
+    /**
+     * "José Luis Pérez García" -> "Pérez García, José Luis"
+     */
+    private static String reorder(String name) {
+        String[] tokens = name.split(" ");
+        int split = tokens.length > 3 ? 2 : 1;
+        StringBuilder reordered = new StringBuilder(name.length() + 2);
+        for (int i = split; i < tokens.length; i++) {
+            if (reordered.length() > 0) reordered.append(' ');
+            reordered.append(tokens[i]);
+        }
+        reordered.append(',');
+        for (int i = 0; i < split; i++) {
+            reordered.append(' ').append(tokens[i]);
+        }
+        return reordered.toString();
+    }
+    
+    private static String dropLastToken(String name) {
+        int last = name.lastIndexOf(' ');
+        return last > 0 ? name.substring(0, last) : name;
+    }
+    
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
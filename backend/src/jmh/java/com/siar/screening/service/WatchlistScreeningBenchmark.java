@@ -0,0 +1,85 @@
+package com.siar.screening.service;
+
+import com.siar.screening.model.Match;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Screening de un sujeto contra una lista completa: el ciclo de
+ * {@code ScreeningExecutionService.screenAgainstWatchlist} (bloqueo,
+ * Jaro-Winkler, tokens, alias y puntaje compuesto) sin persistencia.
+ * 
+ * Las listas sintéticas de 10k, 100k y 1M entradas se construyen una vez
+ * por trial; la operación medida incluye preparar el sujeto (normalización
+ * y tokens), igual que en el screening real.
+ * 
+ * Ejecución (desde backend/benchmarks, después de {@code mvn -B package}):
+ * <pre>
+ *   java -Xmx4g -jar target/benchmarks.jar WatchlistScreeningBenchmark -prof gc
+ *   java -Xmx4g -jar target/benchmarks.jar WatchlistScreeningBenchmark -p entries=100000 -t 4
+ * </pre>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class WatchlistScreeningBenchmark {
+    
+    private static final int SUBJECTS = 1024;
+    
+    @Param({"10000", "100000", "1000000"})
+    public int entries;
+    
+    private JaroWinklerService jaroWinklerService;
+    private WatchlistMatchingService watchlistMatchingService;
+    private WatchlistIndexBucket bucket;
+    private List<String> subjects;
+    
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+        
+        int next() {
+            next = (next + 1) & (SUBJECTS - 1);
+            return next;
+        }
+    }
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        jaroWinklerService = new JaroWinklerService();
+        watchlistMatchingService = SyntheticWatchlist.matchingService(jaroWinklerService);
+        
+        SyntheticWatchlist watchlist = new SyntheticWatchlist(7);
+        bucket = watchlist.bucket(jaroWinklerService, entries);
+        subjects = watchlist.subjects(bucket, SUBJECTS);
+    }
+    
+    @Benchmark
+    public List<Match> screenAgainstWatchlist(Cursor cursor) {
+        String name = subjects.get(cursor.next());
+        ScreeningSubject subject = new ScreeningSubject(
+            name,
+            jaroWinklerService.normalizeString(name).toCharArray(),
+            SubjectAttributes.NONE,
+            Collections.emptySet()
+        );
+        return watchlistMatchingService.findMatches(bucket, subject);
+    }
+}
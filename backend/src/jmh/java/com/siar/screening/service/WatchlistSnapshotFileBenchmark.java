@@ -0,0 +1,74 @@
+package com.siar.screening.service;
+
+import com.siar.screening.model.EntityType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga de una fotografía desde su archivo ({@link WatchlistSnapshotFile#read}).
+ * 
+ * Los arreglos de enteros quedan mapeados fuera del heap, pero los caracteres
+ * de los nombres se copian a un {@code char[]} en cada carga: Jaro-Winkler y
+ * el bloqueo recorren ese arreglo en su ciclo interno, y leerlo a través de
+ * un {@link java.nio.CharBuffer} directo agrega una comprobación de límites y
+ * de orden de bytes por carácter en cada comparación. Compararlos desde el
+ * archivo mapeado queda fuera de alcance; este benchmark mide lo que cuesta
+ * la copia (con {@code -prof gc} se ve la asignación por carga).
+ * 
+ * Ejecución (desde backend/benchmarks, después de {@code mvn -B package}):
+ * <pre>
+ *   java -Xmx4g -jar target/benchmarks.jar WatchlistSnapshotFileBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class WatchlistSnapshotFileBenchmark {
+    
+    @Param({"100000", "1000000"})
+    public int entries;
+    
+    private Path file;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        JaroWinklerService jaroWinklerService = new JaroWinklerService();
+        WatchlistIndexBucket bucket = new SyntheticWatchlist(7).bucket(jaroWinklerService, entries);
+        WatchlistSnapshot snapshot = new WatchlistSnapshot(
+            1L, "benchmark", "benchmark", "benchmark", Map.of(EntityType.PERSON, bucket)
+        );
+        
+        file = Files.createTempFile("watchlist-snapshot", ".bin");
+        WatchlistSnapshotFile.write(snapshot, file);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+    
+    @Benchmark
+    public WatchlistSnapshot read() throws IOException {
+        return WatchlistSnapshotFile.read(file);
+    }
+}
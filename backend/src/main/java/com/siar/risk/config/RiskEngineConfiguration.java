@@ -0,0 +1,108 @@
+package com.siar.risk.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración del motor de cálculo de riesgo
+ */
+@Configuration
+@ConfigurationProperties(prefix = "siar.risk")
+@Data
+public class RiskEngineConfiguration {
+    
+    /**
+     * Recálculo masivo de la cartera ante una nueva configuración de riesgo
+     */
+    private RecalculationConfig recalculation = new RecalculationConfig();
+    
+    /**
+     * Simulación de configuraciones candidatas sobre la cartera
+     */
+    private SimulationConfig simulation = new SimulationConfig();
+    
+    /**
+     * Caché de la configuración de riesgo activa
+     */
+    private ActiveConfigurationCacheConfig activeConfiguration = new ActiveConfigurationCacheConfig();
+    
+    @Data
+    public static class RecalculationConfig {
+        
+        /**
+         * Evaluaciones leídas por página
+         */
+        private int pageSize = 1000;
+        
+        /**
+         * Hilos de cálculo; 0 usa la cantidad de procesadores
+         */
+        private int parallelism = 0;
+        
+        /**
+         * Recálculos ejecutados a la vez; los demás esperan en cola
+         */
+        private int concurrentRuns = 1;
+        
+        /**
+         * Minutos sin registrar una página tras los que un recálculo RUNNING
+         * se considera interrumpido y se marca FAILED al iniciar la aplicación
+         */
+        private int staleAfterMinutes = 15;
+    }
+    
+    @Data
+    public static class SimulationConfig {
+        
+        /**
+         * Evaluaciones leídas por página al construir la fotografía de la cartera
+         */
+        private int pageSize = 5000;
+        
+        /**
+         * Antigüedad máxima de la fotografía en memoria antes de reconstruirla
+         */
+        private long snapshotMaxAgeSeconds = 900;
+        
+        /**
+         * Expedientes con mayor variación de puntaje incluidos por defecto
+         */
+        private int topMovers = 50;
+        
+        /**
+         * Factores incluidos por defecto entre los que explican el cambio
+         */
+        private int topFactors = 20;
+        
+        /**
+         * Límite de expedientes y factores que se pueden solicitar
+         */
+        private int maxTop = 1000;
+    }
+    
+    @Data
+    public static class ActiveConfigurationCacheConfig {
+        
+        /**
+         * Conservar en memoria la configuración activa y su modelo compilado
+         */
+        private boolean enabled = true;
+        
+        /**
+         * Escuchar en PostgreSQL (LISTEN) los cambios de configuración hechos
+         * por cualquier nodo o directamente en la base de datos
+         */
+        private boolean listenEnabled = true;
+        
+        /**
+         * Espera máxima de cada consulta de notificaciones
+         */
+        private int pollTimeoutMs = 500;
+        
+        /**
+         * Espera antes de reconectar tras perder la conexión de escucha
+         */
+        private long reconnectDelayMs = 5000;
+    }
+}
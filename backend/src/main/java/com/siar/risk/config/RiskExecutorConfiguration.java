@@ -0,0 +1,57 @@
+package com.siar.risk.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecutores del recálculo masivo de riesgo.
+ * 
+ * El cálculo de cada página es de CPU y se reparte en un ForkJoinPool
+ * propio, separado del pool común y del ejecutor de screening.
+ */
+@Configuration
+public class RiskExecutorConfiguration {
+    
+    @Bean(name = "riskScoringExecutor", destroyMethod = "shutdown")
+    public ForkJoinPool riskScoringExecutor(RiskEngineConfiguration riskEngineConfiguration) {
+        int parallelism = riskEngineConfiguration.getRecalculation().getParallelism();
+        if (parallelism <= 0) {
+            parallelism = Runtime.getRuntime().availableProcessors();
+        }
+        
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ForkJoinPool(
+            parallelism,
+            pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("risk-scoring-" + threadNumber.incrementAndGet());
+                return thread;
+            },
+            null,
+            false
+        );
+    }
+    
+    /**
+     * Hilos que conducen los recálculos: leen páginas, reparten el cálculo
+     * en riskScoringExecutor y escriben el informe de impacto.
+     */
+    @Bean(name = "riskRecalculationExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService riskRecalculationExecutor(RiskEngineConfiguration riskEngineConfiguration) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(
+            Math.max(1, riskEngineConfiguration.getRecalculation().getConcurrentRuns()),
+            runnable -> {
+                Thread thread = new Thread(runnable, "risk-recalculation-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+    }
+}
@@ -0,0 +1,29 @@
+package com.siar.risk.controller;
+
+import com.siar.risk.model.RiskConfiguration;
+import com.siar.risk.service.RiskConfigurationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/risk-configurations")
+@RequiredArgsConstructor
+public class RiskConfigurationController {
+    
+    private final RiskConfigurationService configurationService;
+    
+    /**
+     * POST /api/v1/risk-configurations/{configurationId}/activate
+     * Activa una configuración de riesgo
+     */
+    @PostMapping("/{configurationId}/activate")
+    @PreAuthorize("hasPermission('risk:configuration:activate')")
+    public ResponseEntity<RiskConfiguration> activateConfiguration(
+        @PathVariable String configurationId,
+        @RequestHeader("X-User-Id") String userId
+    ) {
+        return ResponseEntity.ok(configurationService.activateConfiguration(configurationId, userId));
+    }
+}
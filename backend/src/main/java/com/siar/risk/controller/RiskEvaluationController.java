@@ -3,8 +3,11 @@ package com.siar.risk.controller;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.siar.risk.dto.CreateEvaluationRequest;
 import com.siar.risk.dto.OverrideRequest;
+import com.siar.risk.dto.RiskSimulationRequest;
+import com.siar.risk.dto.RiskSimulationResult;
 import com.siar.risk.model.RiskEvaluation;
 import com.siar.risk.service.RiskEvaluationService;
+import com.siar.risk.service.RiskSimulationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,6 +22,7 @@ import java.util.List;
 public class RiskEvaluationController {
     
     private final RiskEvaluationService evaluationService;
+    private final RiskSimulationService simulationService;
     
     /**
      * POST /api/v1/dossiers/{dossierId}/risk-evaluations/initial
@@ -133,4 +137,16 @@ public class RiskEvaluationController {
         RiskEvaluation evaluation = evaluationService.triggerReevaluation(dossierId, triggerReason, userId);
         return ResponseEntity.status(HttpStatus.ACCEPTED).body(evaluation);
     }
+    
+    /**
+     * POST /api/v1/risk-evaluations/simulations
+     * Simula una configuración candidata sobre la cartera vigente, sin registrar cambios
+     */
+    @PostMapping("/simulations")
+    @PreAuthorize("hasPermission('risk:configuration:simulate')")
+    public ResponseEntity<RiskSimulationResult> simulateConfiguration(
+        @RequestBody RiskSimulationRequest request
+    ) {
+        return ResponseEntity.ok(simulationService.simulate(request));
+    }
 }
@@ -0,0 +1,54 @@
+package com.siar.risk.controller;
+
+import com.siar.risk.model.RiskRecalculationImpact;
+import com.siar.risk.model.RiskRecalculationRun;
+import com.siar.risk.service.RiskRecalculationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/risk-recalculations")
+@RequiredArgsConstructor
+public class RiskRecalculationController {
+    
+    private final RiskRecalculationService recalculationService;
+    
+    /**
+     * POST /api/v1/risk-recalculations
+     * Recalcula la cartera con una configuración y genera el informe de impacto
+     */
+    @PostMapping
+    @PreAuthorize("hasPermission('risk:configuration:recalculate')")
+    public ResponseEntity<RiskRecalculationRun> startRecalculation(
+        @RequestParam String configurationId,
+        @RequestHeader("X-User-Id") String userId
+    ) {
+        RiskRecalculationRun run = recalculationService.startRecalculation(configurationId, userId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(run);
+    }
+    
+    /**
+     * GET /api/v1/risk-recalculations/{runId}
+     * Obtiene el avance y el resumen del recálculo
+     */
+    @GetMapping("/{runId}")
+    @PreAuthorize("hasPermission('risk:evaluation:read')")
+    public ResponseEntity<RiskRecalculationRun> getRun(@PathVariable String runId) {
+        return ResponseEntity.ok(recalculationService.getRun(runId));
+    }
+    
+    /**
+     * GET /api/v1/risk-recalculations/{runId}/impacts
+     * Expedientes cuyo nivel de riesgo cambiaría
+     */
+    @GetMapping("/{runId}/impacts")
+    @PreAuthorize("hasPermission('risk:evaluation:read')")
+    public ResponseEntity<List<RiskRecalculationImpact>> getImpacts(@PathVariable String runId) {
+        return ResponseEntity.ok(recalculationService.getImpacts(runId));
+    }
+}
@@ -0,0 +1,16 @@
+package com.siar.risk.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.siar.risk.model.RiskLevel;
+
+/**
+ * Columnas de una evaluación necesarias para recalcularla, sin cargar la entidad completa.
+ */
+public interface EvaluationFactorsView {
+    String getEvaluationId();
+    String getDossierId();
+    JsonNode getRiskFactorsJson();
+    RiskLevel getPreliminaryRiskLevel();
+    RiskLevel getFinalRiskLevel();
+    Boolean getHasManualOverride();
+}
@@ -0,0 +1,21 @@
+package com.siar.risk.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+
+/**
+ * Configuración candidata a simular sobre la cartera.
+ * 
+ * Se indica una configuración registrada (configurationId) o los pesos y
+ * umbrales en línea, con el mismo formato que {@link com.siar.risk.model.RiskConfiguration}.
+ */
+@Data
+public class RiskSimulationRequest {
+    private String configurationId;
+    private JsonNode categoryWeights;
+    private JsonNode factorWeights;
+    private JsonNode thresholds;
+    private Integer topMovers;
+    private Integer topFactors;
+    private Boolean refreshSnapshot;
+}
@@ -0,0 +1,30 @@
+package com.siar.risk.dto;
+
+import com.siar.risk.model.RiskLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RiskSimulationResult {
+    private String baseConfigurationId;
+    private String candidateConfigurationId;
+    private LocalDateTime snapshotTakenAt;
+    private Long evaluatedCount;
+    private Long failedCount;
+    private Map<RiskLevel, Long> levelsBefore;
+    private Map<RiskLevel, Long> levelsAfter;
+    private Map<String, Long> transitions;          // "BAJO->MEDIO" → expedientes
+    private Map<String, Double> categoryShift;      // Cambio promedio del puntaje ponderado por categoría
+    private List<SimulationFactorDriver> factorDrivers;
+    private List<SimulationMover> topMovers;
+    private Long durationMs;
+}
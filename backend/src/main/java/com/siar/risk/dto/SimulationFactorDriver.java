@@ -0,0 +1,23 @@
+package com.siar.risk.dto;
+
+import com.siar.risk.model.RiskCategory;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Factor presente en los expedientes que cambian de nivel en la simulación.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SimulationFactorDriver {
+    private RiskCategory category;
+    private String factor;
+    private Double baseWeight;        // null si la configuración vigente no lo pondera
+    private Double candidateWeight;   // null si la candidata no lo pondera
+    private Long upgrades;            // Expedientes que suben de nivel con el factor aplicado
+    private Long downgrades;          // Expedientes que bajan de nivel con el factor aplicado
+}
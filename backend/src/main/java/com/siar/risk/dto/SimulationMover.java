@@ -0,0 +1,23 @@
+package com.siar.risk.dto;
+
+import com.siar.risk.model.RiskLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Expediente con mayor variación de puntaje en la simulación.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SimulationMover {
+    private String evaluationId;
+    private String dossierId;
+    private RiskLevel levelBefore;
+    private RiskLevel levelAfter;
+    private Double scoreBefore;
+    private Double scoreAfter;
+}
@@ -0,0 +1,41 @@
+package com.siar.risk.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Estado de versionado de las evaluaciones de un expediente.
+ * 
+ * Guarda la última versión asignada y la evaluación APPROVED vigente, de
+ * modo que asignar versión y obtener la evaluación vigente no recorren el
+ * historial del expediente. La fila se actualiza con sentencias atómicas
+ * de {@link com.siar.risk.repository.DossierEvaluationPointerRepository}.
+ */
+@Entity
+@Table(name = "dossier_evaluation_pointers")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DossierEvaluationPointer {
+    
+    @Id
+    @Column(length = 50)
+    private String dossierId;  // FK to Dossier
+    
+    @Column(nullable = false)
+    private Integer lastVersion;
+    
+    @Column(length = 50)
+    private String currentEvaluationId;  // FK to RiskEvaluation (APPROVED vigente)
+    
+    private Integer currentVersion;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
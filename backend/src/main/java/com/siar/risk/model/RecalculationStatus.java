@@ -0,0 +1,8 @@
+package com.siar.risk.model;
+
+public enum RecalculationStatus {
+    QUEUED,      // En espera de un hilo de recálculo
+    RUNNING,     // Recorriendo la cartera
+    COMPLETED,   // Informe de impacto completo
+    FAILED       // Interrumpido por error
+}
@@ -16,6 +16,7 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "risk_evaluations", indexes = {
     @Index(name = "idx_dossier_id", columnList = "dossierId"),
+    @Index(name = "idx_dossier_status_version", columnList = "dossierId, status, version"),
     @Index(name = "idx_status", columnList = "status"),
     @Index(name = "idx_evaluation_date", columnList = "evaluationDate"),
     @Index(name = "idx_final_risk_level", columnList = "finalRiskLevel"),
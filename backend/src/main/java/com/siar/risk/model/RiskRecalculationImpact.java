@@ -0,0 +1,56 @@
+package com.siar.risk.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+/**
+ * Expediente cuyo nivel de riesgo cambiaría con la configuración recalculada.
+ * 
+ * Solo se registran los expedientes que cambian de nivel; los demás quedan
+ * contados en {@link RiskRecalculationRun}.
+ */
+@Entity
+@Table(name = "risk_recalculation_impacts", indexes = {
+    @Index(name = "idx_recalculation_impact_run", columnList = "runId, dossierId")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RiskRecalculationImpact {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long impactId;
+    
+    @Column(nullable = false, length = 50)
+    private String runId;
+    
+    @Column(nullable = false, length = 50)
+    private String dossierId;
+    
+    @Column(nullable = false, length = 50)
+    private String evaluationId;  // Evaluación APPROVED recalculada
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private RiskLevel currentRiskLevel;  // Nivel calculado de la evaluación vigente
+    
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10)
+    private RiskLevel finalRiskLevel;  // Nivel final vigente (puede venir de un override)
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private RiskLevel newRiskLevel;
+    
+    @Column(nullable = false)
+    private Double newAdjustedScore;
+    
+    @Column(nullable = false)
+    private Boolean hasManualOverride;
+}
@@ -0,0 +1,84 @@
+package com.siar.risk.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.vladmihalcea.hibernate.type.json.JsonBinaryType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Type;
+import org.hibernate.annotations.TypeDef;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Recálculo de la cartera con una configuración de riesgo.
+ * 
+ * Resume el informe de impacto; el detalle de los expedientes que cambian
+ * de nivel está en {@link RiskRecalculationImpact}.
+ */
+@Entity
+@Table(name = "risk_recalculation_runs", indexes = {
+    @Index(name = "idx_recalculation_configuration", columnList = "configurationId"),
+    @Index(name = "idx_recalculation_requested_at", columnList = "requestedAt")
+})
+@TypeDef(name = "jsonb", typeClass = JsonBinaryType.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RiskRecalculationRun {
+    
+    @Id
+    @Column(length = 50)
+    private String runId;
+    
+    @Column(nullable = false, length = 50)
+    private String configurationId;
+    
+    @Column(nullable = false)
+    private Integer configurationVersion;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 15)
+    private RecalculationStatus status;
+    
+    @Column(nullable = false, length = 50)
+    private String requestedBy;  // FK to User
+    
+    @Column(nullable = false)
+    private LocalDateTime requestedAt;
+    
+    private LocalDateTime startedAt;
+    
+    private LocalDateTime completedAt;
+    
+    // Última página registrada; un RUNNING sin latido reciente quedó interrumpido
+    private LocalDateTime heartbeatAt;
+    
+    @Column(nullable = false)
+    private Long evaluatedCount;
+    
+    @Column(nullable = false)
+    private Long changedCount;
+    
+    @Column(nullable = false)
+    private Long failedCount;
+    
+    // Cantidad de expedientes por transición, p. ej. {"BAJO->MEDIO": 12}
+    @Type(type = "jsonb")
+    @Column(columnDefinition = "jsonb")
+    private JsonNode levelTransitionsJson;
+    
+    @Column(columnDefinition = "TEXT")
+    private String errorMessage;
+    
+    @PrePersist
+    protected void onCreate() {
+        requestedAt = LocalDateTime.now();
+        if (evaluatedCount == null) evaluatedCount = 0L;
+        if (changedCount == null) changedCount = 0L;
+        if (failedCount == null) failedCount = 0L;
+    }
+}
@@ -0,0 +1,67 @@
+package com.siar.risk.repository;
+
+import com.siar.risk.model.DossierEvaluationPointer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DossierEvaluationPointerRepository extends JpaRepository<DossierEvaluationPointer, String> {
+    
+    /**
+     * Incrementa la versión del expediente; 0 si el expediente aún no tiene
+     * fila. El bloqueo de la fila serializa las asignaciones concurrentes
+     * hasta el fin de la transacción.
+     */
+    @Modifying
+    @Query(value = "UPDATE dossier_evaluation_pointers " +
+                   "SET last_version = last_version + 1, updated_at = CURRENT_TIMESTAMP " +
+                   "WHERE dossier_id = :dossierId",
+           nativeQuery = true)
+    int incrementVersion(@Param("dossierId") String dossierId);
+    
+    /**
+     * Crea la fila del expediente a partir de sus evaluaciones existentes
+     * con la versión siguiente; si otra transacción la creó antes, incrementa
+     * la versión de esa fila.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO dossier_evaluation_pointers (dossier_id, last_version, updated_at) " +
+                   "SELECT :dossierId, COALESCE(MAX(e.version), 0) + 1, CURRENT_TIMESTAMP " +
+                   "FROM risk_evaluations e WHERE e.dossier_id = :dossierId " +
+                   "ON CONFLICT (dossier_id) DO UPDATE " +
+                   "SET last_version = dossier_evaluation_pointers.last_version + 1, updated_at = CURRENT_TIMESTAMP",
+           nativeQuery = true)
+    int initializeVersion(@Param("dossierId") String dossierId);
+    
+    /**
+     * Última versión asignada; dentro de la transacción que la incrementó
+     * la fila sigue bloqueada, por lo que el valor leído es el propio.
+     */
+    @Query(value = "SELECT last_version FROM dossier_evaluation_pointers WHERE dossier_id = :dossierId",
+           nativeQuery = true)
+    Integer findLastVersion(@Param("dossierId") String dossierId);
+    
+    /**
+     * Apunta a la evaluación aprobada si es más reciente que la vigente.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO dossier_evaluation_pointers " +
+                   "(dossier_id, last_version, current_evaluation_id, current_version, updated_at) " +
+                   "VALUES (:dossierId, :version, :evaluationId, :version, CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT (dossier_id) DO UPDATE " +
+                   "SET current_evaluation_id = EXCLUDED.current_evaluation_id, " +
+                   "current_version = EXCLUDED.current_version, " +
+                   "last_version = GREATEST(dossier_evaluation_pointers.last_version, EXCLUDED.last_version), " +
+                   "updated_at = CURRENT_TIMESTAMP " +
+                   "WHERE dossier_evaluation_pointers.current_version IS NULL " +
+                   "OR dossier_evaluation_pointers.current_version < EXCLUDED.current_version",
+           nativeQuery = true)
+    int advanceCurrent(
+        @Param("dossierId") String dossierId,
+        @Param("evaluationId") String evaluationId,
+        @Param("version") Integer version
+    );
+}
@@ -1,9 +1,12 @@
 package com.siar.risk.repository;
 
+import com.siar.risk.dto.EvaluationFactorsView;
 import com.siar.risk.model.EvaluationStatus;
 import com.siar.risk.model.RiskEvaluation;
 import com.siar.risk.model.RiskLevel;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -11,6 +14,7 @@ import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RiskEvaluationRepository extends JpaRepository<RiskEvaluation, String> {
@@ -19,6 +23,8 @@ public interface RiskEvaluationRepository extends JpaRepository<RiskEvaluation,
     
     List<RiskEvaluation> findByDossierIdAndStatus(String dossierId, EvaluationStatus status);
     
+    Optional<RiskEvaluation> findFirstByDossierIdAndStatusOrderByVersionDesc(String dossierId, EvaluationStatus status);
+    
     List<RiskEvaluation> findByStatus(EvaluationStatus status);
     
     List<RiskEvaluation> findByFinalRiskLevel(RiskLevel riskLevel);
@@ -38,4 +44,33 @@ public interface RiskEvaluationRepository extends JpaRepository<RiskEvaluation,
     
     @Query("SELECT e FROM RiskEvaluation e WHERE e.hasManualOverride = true")
     List<RiskEvaluation> findWithManualOverrides();
+    
+    /**
+     * Página de evaluaciones APPROVED a continuación de afterEvaluationId (keyset
+     * sobre la clave primaria), solo con las columnas que usa el recálculo.
+     */
+    @Query("SELECT e.evaluationId AS evaluationId, e.dossierId AS dossierId, " +
+           "e.riskFactorsJson AS riskFactorsJson, e.preliminaryRiskLevel AS preliminaryRiskLevel, " +
+           "e.finalRiskLevel AS finalRiskLevel, e.hasManualOverride AS hasManualOverride " +
+           "FROM RiskEvaluation e WHERE e.status = 'APPROVED' AND e.evaluationId > :afterEvaluationId " +
+           "ORDER BY e.evaluationId")
+    List<EvaluationFactorsView> findApprovedAfter(
+        @Param("afterEvaluationId") String afterEvaluationId,
+        Pageable pageable
+    );
+    
+    /**
+     * Marca como SUPERSEDED, en una sentencia, las evaluaciones APPROVED
+     * del expediente anteriores a la versión indicada.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE RiskEvaluation e " +
+           "SET e.status = com.siar.risk.model.EvaluationStatus.SUPERSEDED, e.updatedAt = :now " +
+           "WHERE e.dossierId = :dossierId AND e.status = com.siar.risk.model.EvaluationStatus.APPROVED " +
+           "AND e.version < :version")
+    int supersedeApprovedBefore(
+        @Param("dossierId") String dossierId,
+        @Param("version") Integer version,
+        @Param("now") LocalDateTime now
+    );
 }
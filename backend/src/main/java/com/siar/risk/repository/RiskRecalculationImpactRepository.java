@@ -0,0 +1,13 @@
+package com.siar.risk.repository;
+
+import com.siar.risk.model.RiskRecalculationImpact;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RiskRecalculationImpactRepository extends JpaRepository<RiskRecalculationImpact, Long> {
+    
+    List<RiskRecalculationImpact> findByRunIdOrderByDossierId(String runId);
+}
@@ -0,0 +1,36 @@
+package com.siar.risk.repository;
+
+import com.siar.risk.model.RecalculationStatus;
+import com.siar.risk.model.RiskRecalculationRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RiskRecalculationRunRepository extends JpaRepository<RiskRecalculationRun, String> {
+    
+    List<RiskRecalculationRun> findByConfigurationIdOrderByRequestedAtDesc(String configurationId);
+    
+    List<RiskRecalculationRun> findByStatus(RecalculationStatus status);
+    
+    /**
+     * Marca como FAILED los recálculos RUNNING cuyo último latido es anterior
+     * al indicado: el nodo que los ejecutaba se detuvo sin terminarlos.
+     */
+    @Modifying
+    @Query("UPDATE RiskRecalculationRun r " +
+           "SET r.status = com.siar.risk.model.RecalculationStatus.FAILED, " +
+           "r.completedAt = :now, r.errorMessage = :errorMessage " +
+           "WHERE r.status = com.siar.risk.model.RecalculationStatus.RUNNING " +
+           "AND r.heartbeatAt < :staleBefore")
+    int failStaleRuns(
+        @Param("staleBefore") LocalDateTime staleBefore,
+        @Param("now") LocalDateTime now,
+        @Param("errorMessage") String errorMessage
+    );
+}
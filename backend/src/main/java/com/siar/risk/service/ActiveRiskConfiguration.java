@@ -0,0 +1,25 @@
+package com.siar.risk.service;
+
+import com.siar.risk.model.RiskConfiguration;
+
+/**
+ * Configuración de riesgo activa junto con su modelo compilado.
+ */
+public final class ActiveRiskConfiguration {
+    
+    private final RiskConfiguration configuration;
+    private final CompiledRiskModel model;
+    
+    ActiveRiskConfiguration(RiskConfiguration configuration, CompiledRiskModel model) {
+        this.configuration = configuration;
+        this.model = model;
+    }
+    
+    public RiskConfiguration getConfiguration() {
+        return configuration;
+    }
+    
+    public CompiledRiskModel getModel() {
+        return model;
+    }
+}
@@ -0,0 +1,85 @@
+package com.siar.risk.service;
+
+import com.siar.risk.config.RiskEngineConfiguration;
+import com.siar.risk.model.RiskConfiguration;
+import com.siar.risk.repository.RiskConfigurationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Configuración de riesgo activa en memoria.
+ * 
+ * La configuración cambia rara vez, por lo que se lee una vez y se conserva
+ * con su modelo compilado hasta que se invalida: al confirmarse una
+ * activación en este nodo ({@link RiskConfigurationChangedEvent}) o al
+ * recibir la notificación de PostgreSQL que emite el trigger sobre
+ * risk_configurations ({@link RiskConfigurationChangeListener}), lo que
+ * también cubre los cambios de otros nodos o hechos directamente en la base.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ActiveRiskConfigurationCache {
+    
+    private final RiskConfigurationRepository configurationRepository;
+    private final RiskCalculationEngine calculationEngine;
+    private final RiskEngineConfiguration riskEngineConfiguration;
+    
+    // Se incrementa en cada invalidación; una carga iniciada antes no se conserva
+    private final AtomicLong generation = new AtomicLong();
+    
+    private volatile ActiveRiskConfiguration active;
+    
+    /**
+     * Configuración activa y su modelo compilado
+     */
+    public ActiveRiskConfiguration get() {
+        if (!riskEngineConfiguration.getActiveConfiguration().isEnabled()) {
+            return load();
+        }
+        
+        ActiveRiskConfiguration current = active;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            current = active;
+            if (current != null) {
+                return current;
+            }
+            long loadedGeneration = generation.get();
+            current = load();
+            if (generation.get() == loadedGeneration) {
+                active = current;
+            }
+            return current;
+        }
+    }
+    
+    /**
+     * Descarta la configuración en memoria y, si se indica, el modelo compilado de la configuración cambiada
+     */
+    public void invalidate(String configurationId) {
+        generation.incrementAndGet();
+        active = null;
+        if (configurationId != null) {
+            calculationEngine.evict(configurationId);
+        }
+        log.info("Active risk configuration cache invalidated: changed={}", configurationId);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onConfigurationChanged(RiskConfigurationChangedEvent event) {
+        invalidate(event.getConfigurationId());
+    }
+    
+    private ActiveRiskConfiguration load() {
+        RiskConfiguration config = configurationRepository.findByIsActiveTrue()
+            .orElseThrow(() -> new RuntimeException("No active risk configuration found"));
+        return new ActiveRiskConfiguration(config, calculationEngine.getModel(config));
+    }
+}
@@ -0,0 +1,252 @@
+package com.siar.risk.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.siar.risk.model.RiskCategory;
+import com.siar.risk.model.RiskConfiguration;
+import com.siar.risk.model.RiskLevel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuración de riesgo compilada a arreglos indexados.
+ * 
+ * Se construye una vez por {@link RiskConfiguration}: cada categoría queda
+ * en la posición de su ordinal en {@link RiskCategory} y cada factor recibe
+ * un índice en un arreglo plano de pesos, con los factores de una categoría
+ * contiguos. Los factores de una evaluación se traducen una vez con
+ * {@link #values} y el puntaje se calcula con {@link #score}, que solo
+ * recorre arreglos y no crea objetos.
+ * 
+ * Las instancias son inmutables y se comparten entre hilos.
+ */
+public final class CompiledRiskModel {
+    
+    private static final RiskCategory[] CATEGORIES = RiskCategory.values();
+    
+    /**
+     * Nombre de cada categoría en el JSON de factores y en el resultado, por ordinal.
+     */
+    private static final String[] FACTOR_KEYS = new String[CATEGORIES.length];
+    
+    static {
+        FACTOR_KEYS[RiskCategory.SUBJECT_RISK.ordinal()] = "subjectRisk";
+        FACTOR_KEYS[RiskCategory.PRODUCT_RISK.ordinal()] = "productRisk";
+        FACTOR_KEYS[RiskCategory.CHANNEL_RISK.ordinal()] = "channelRisk";
+        FACTOR_KEYS[RiskCategory.GEOGRAPHIC_RISK.ordinal()] = "geographicRisk";
+        FACTOR_KEYS[RiskCategory.INTERNAL_CONTROLS.ordinal()] = "internalControls";
+    }
+    
+    private static final int CONTROLS = RiskCategory.INTERNAL_CONTROLS.ordinal();
+    
+    private final String configurationId;
+    private final Integer version;
+    
+    private final double[] categoryWeights;
+    
+    // Factores de la categoría c: posiciones [categoryOffsets[c], categoryOffsets[c + 1])
+    private final int[] categoryOffsets;
+    private final double[] factorWeights;
+    private final List<Map<String, Integer>> factorIndexes;
+    
+    private final double lowToMedium;
+    private final double mediumToHigh;
+    
+    private CompiledRiskModel(String configurationId, Integer version, double[] categoryWeights,
+                              int[] categoryOffsets, double[] factorWeights,
+                              List<Map<String, Integer>> factorIndexes,
+                              double lowToMedium, double mediumToHigh) {
+        this.configurationId = configurationId;
+        this.version = version;
+        this.categoryWeights = categoryWeights;
+        this.categoryOffsets = categoryOffsets;
+        this.factorWeights = factorWeights;
+        this.factorIndexes = factorIndexes;
+        this.lowToMedium = lowToMedium;
+        this.mediumToHigh = mediumToHigh;
+    }
+    
+    /**
+     * Compila una configuración.
+     * 
+     * @throws IllegalArgumentException si falta un peso o un umbral
+     */
+    public static CompiledRiskModel compile(RiskConfiguration config) {
+        JsonNode categoryWeightsJson = require(config.getCategoryWeightsJson(), "categoryWeights", config);
+        JsonNode factorWeightsJson = require(config.getFactorWeightsJson(), "factorWeights", config);
+        JsonNode thresholdsJson = require(config.getThresholdsJson(), "thresholds", config);
+        
+        double[] categoryWeights = new double[CATEGORIES.length];
+        int[] categoryOffsets = new int[CATEGORIES.length + 1];
+        List<Double> factorWeights = new ArrayList<>();
+        List<Map<String, Integer>> factorIndexes = new ArrayList<>(CATEGORIES.length);
+        
+        for (RiskCategory category : CATEGORIES) {
+            int c = category.ordinal();
+            categoryWeights[c] = require(categoryWeightsJson.get(category.name()),
+                "categoryWeights." + category.name(), config).asDouble();
+            
+            JsonNode weights = require(factorWeightsJson.get(category.name()),
+                "factorWeights." + category.name(), config);
+            Map<String, Integer> index = new HashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = weights.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                index.put(field.getKey(), factorWeights.size());
+                factorWeights.add(field.getValue().asDouble());
+            }
+            factorIndexes.add(Collections.unmodifiableMap(index));
+            categoryOffsets[c + 1] = factorWeights.size();
+        }
+        
+        double lowToMedium = require(thresholdsJson.get("lowToMedium"), "thresholds.lowToMedium", config).asDouble();
+        double mediumToHigh = require(thresholdsJson.get("mediumToHigh"), "thresholds.mediumToHigh", config).asDouble();
+        
+        return new CompiledRiskModel(
+            config.getConfigurationId(),
+            config.getVersion(),
+            categoryWeights,
+            categoryOffsets,
+            factorWeights.stream().mapToDouble(Double::doubleValue).toArray(),
+            Collections.unmodifiableList(factorIndexes),
+            lowToMedium,
+            mediumToHigh
+        );
+    }
+    
+    private static JsonNode require(JsonNode node, String path, RiskConfiguration config) {
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            throw new IllegalArgumentException(
+                "Invalid risk configuration " + config.getConfigurationId() + ": missing " + path);
+        }
+        return node;
+    }
+    
+    /**
+     * Nombre de la categoría en el JSON de factores ("subjectRisk", ...).
+     */
+    public static String factorKey(RiskCategory category) {
+        return FACTOR_KEYS[category.ordinal()];
+    }
+    
+    /**
+     * Traduce los factores de una evaluación al arreglo que recibe {@link #score}.
+     * 
+     * Las categorías o factores ausentes cuentan como 0, es decir, no aplican.
+     * 
+     * @throws IllegalArgumentException si un factor que aplica no tiene peso en la configuración
+     */
+    public int[] values(JsonNode riskFactors) {
+        int[] values = new int[factorWeights.length];
+        for (RiskCategory category : CATEGORIES) {
+            JsonNode factors = riskFactors.path(FACTOR_KEYS[category.ordinal()]);
+            Map<String, Integer> index = factorIndexes.get(category.ordinal());
+            
+            Iterator<Map.Entry<String, JsonNode>> fields = factors.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                int value = field.getValue().path("value").asInt();
+                if (value <= 0) {
+                    continue;
+                }
+                Integer position = index.get(field.getKey());
+                if (position == null) {
+                    throw new IllegalArgumentException("Unknown risk factor for configuration "
+                        + configurationId + ": " + category + "." + field.getKey());
+                }
+                values[position] = value;
+            }
+        }
+        return values;
+    }
+    
+    /**
+     * Calcula el puntaje ajustado.
+     * 
+     * @param values Valores de los factores, obtenidos con {@link #values}
+     * @param rawScores Recibe el puntaje bruto de cada categoría, por ordinal;
+     *                  de largo {@link #categoryCount()}
+     * @return Puntaje ajustado por la mitigación de controles internos
+     */
+    public double score(int[] values, double[] rawScores) {
+        double grossScore = 0.0;
+        for (int c = 0; c < categoryWeights.length; c++) {
+            double totalWeightedValue = 0.0;
+            double totalApplicableWeight = 0.0;
+            for (int f = categoryOffsets[c]; f < categoryOffsets[c + 1]; f++) {
+                // Solo considerar factores que aplican (value > 0)
+                if (values[f] > 0) {
+                    totalWeightedValue += values[f] * factorWeights[f];
+                    totalApplicableWeight += factorWeights[f];
+                }
+            }
+            double rawScore = totalApplicableWeight > 0
+                ? totalWeightedValue / totalApplicableWeight
+                : 0.0;
+            rawScores[c] = rawScore;
+            grossScore += weightedScore(c, rawScore);
+        }
+        return grossScore * mitigationFactor(rawScores);
+    }
+    
+    /**
+     * Puntaje de la categoría según su peso en la configuración.
+     */
+    public double weightedScore(int category, double rawScore) {
+        return (rawScore * categoryWeights[category]) / 100.0;
+    }
+    
+    /**
+     * Factor de mitigación de controles internos a partir de los puntajes brutos.
+     */
+    public double mitigationFactor(double[] rawScores) {
+        return 1.0 - (rawScores[CONTROLS] / 10.0);
+    }
+    
+    public RiskLevel riskLevel(double adjustedScore) {
+        if (adjustedScore <= lowToMedium) {
+            return RiskLevel.BAJO;
+        } else if (adjustedScore <= mediumToHigh) {
+            return RiskLevel.MEDIO;
+        } else {
+            return RiskLevel.ALTO;
+        }
+    }
+    
+    public double categoryWeight(int category) {
+        return categoryWeights[category];
+    }
+    
+    public int categoryCount() {
+        return categoryWeights.length;
+    }
+    
+    /**
+     * Posición del factor en el arreglo de {@link #values}; -1 si la
+     * configuración no le asigna peso.
+     */
+    public int factorPosition(RiskCategory category, String factorName) {
+        Integer position = factorIndexes.get(category.ordinal()).get(factorName);
+        return position != null ? position : -1;
+    }
+    
+    public double factorWeight(int position) {
+        return factorWeights[position];
+    }
+    
+    public int factorCount() {
+        return factorWeights.length;
+    }
+    
+    public String getConfigurationId() {
+        return configurationId;
+    }
+    
+    public Integer getVersion() {
+        return version;
+    }
+}
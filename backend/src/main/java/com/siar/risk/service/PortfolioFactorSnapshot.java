@@ -0,0 +1,216 @@
+package com.siar.risk.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.siar.risk.dto.EvaluationFactorsView;
+import com.siar.risk.model.RiskCategory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Factores de riesgo de las evaluaciones vigentes en forma columnar.
+ * 
+ * Cada factor (categoría y nombre) es una columna byte[] con el valor de
+ * cada evaluación (0 si no aplica; la escala es 0-5), de modo que la
+ * cartera completa ocupa unos pocos bytes por evaluación y factor y se
+ * puede puntuar con cualquier {@link CompiledRiskModel} sin volver a leer
+ * el JSON. Las instancias no se modifican después de construidas.
+ */
+final class PortfolioFactorSnapshot {
+    
+    private final LocalDateTime takenAt;
+    private final int rowCount;
+    private final String[] evaluationIds;
+    private final String[] dossierIds;
+    private final RiskCategory[] columnCategories;
+    private final String[] columnFactors;
+    private final byte[][] columns;
+    private final long skippedCount;
+    
+    private PortfolioFactorSnapshot(LocalDateTime takenAt, int rowCount, String[] evaluationIds,
+                                    String[] dossierIds, RiskCategory[] columnCategories,
+                                    String[] columnFactors, byte[][] columns, long skippedCount) {
+        this.takenAt = takenAt;
+        this.rowCount = rowCount;
+        this.evaluationIds = evaluationIds;
+        this.dossierIds = dossierIds;
+        this.columnCategories = columnCategories;
+        this.columnFactors = columnFactors;
+        this.columns = columns;
+        this.skippedCount = skippedCount;
+    }
+    
+    /**
+     * Posición de cada columna en el arreglo de valores del modelo; -1 si
+     * el modelo no pondera el factor.
+     */
+    int[] columnPositions(CompiledRiskModel model) {
+        int[] positions = new int[columns.length];
+        for (int column = 0; column < columns.length; column++) {
+            positions[column] = model.factorPosition(columnCategories[column], columnFactors[column]);
+        }
+        return positions;
+    }
+    
+    /**
+     * Copia los valores de una fila al arreglo del modelo.
+     * 
+     * @param positions Resultado de {@link #columnPositions} para el modelo
+     * @return false si un factor que aplica no tiene peso en el modelo
+     */
+    boolean gather(int row, int[] positions, int[] values) {
+        Arrays.fill(values, 0);
+        for (int column = 0; column < columns.length; column++) {
+            byte value = columns[column][row];
+            if (value > 0) {
+                if (positions[column] < 0) {
+                    return false;
+                }
+                values[positions[column]] = value;
+            }
+        }
+        return true;
+    }
+    
+    boolean applies(int column, int row) {
+        return columns[column][row] > 0;
+    }
+    
+    LocalDateTime getTakenAt() {
+        return takenAt;
+    }
+    
+    int getRowCount() {
+        return rowCount;
+    }
+    
+    int getColumnCount() {
+        return columns.length;
+    }
+    
+    RiskCategory getColumnCategory(int column) {
+        return columnCategories[column];
+    }
+    
+    String getColumnFactor(int column) {
+        return columnFactors[column];
+    }
+    
+    String getEvaluationId(int row) {
+        return evaluationIds[row];
+    }
+    
+    String getDossierId(int row) {
+        return dossierIds[row];
+    }
+    
+    /**
+     * Evaluaciones omitidas al construir por valores fuera de escala.
+     */
+    long getSkippedCount() {
+        return skippedCount;
+    }
+    
+    /**
+     * Construcción incremental; las columnas crecen a medida que aparecen factores.
+     */
+    static final class Builder {
+        
+        private static final RiskCategory[] CATEGORIES = RiskCategory.values();
+        
+        private final Map<RiskCategory, Map<String, Integer>> columnIndexes = new EnumMap<>(RiskCategory.class);
+        private final List<RiskCategory> columnCategories = new ArrayList<>();
+        private final List<String> columnFactors = new ArrayList<>();
+        private final List<byte[]> columns = new ArrayList<>();
+        private String[] evaluationIds = new String[1024];
+        private String[] dossierIds = new String[1024];
+        private int rowCount;
+        private long skippedCount;
+        
+        /**
+         * Agrega una evaluación; se omite si algún valor está fuera de la escala.
+         */
+        void add(EvaluationFactorsView evaluation) {
+            JsonNode riskFactors = evaluation.getRiskFactorsJson();
+            if (riskFactors == null || !inRange(riskFactors)) {
+                skippedCount++;
+                return;
+            }
+            
+            if (rowCount == evaluationIds.length) {
+                grow(rowCount * 2);
+            }
+            int row = rowCount++;
+            evaluationIds[row] = evaluation.getEvaluationId();
+            dossierIds[row] = evaluation.getDossierId();
+            
+            for (RiskCategory category : CATEGORIES) {
+                Iterator<Map.Entry<String, JsonNode>> fields =
+                    riskFactors.path(CompiledRiskModel.factorKey(category)).fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    int value = field.getValue().path("value").asInt();
+                    if (value > 0) {
+                        columns.get(column(category, field.getKey()))[row] = (byte) value;
+                    }
+                }
+            }
+        }
+        
+        private static boolean inRange(JsonNode riskFactors) {
+            for (RiskCategory category : CATEGORIES) {
+                Iterator<JsonNode> factors = riskFactors.path(CompiledRiskModel.factorKey(category)).elements();
+                while (factors.hasNext()) {
+                    if (factors.next().path("value").asInt() > Byte.MAX_VALUE) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        
+        private int column(RiskCategory category, String factor) {
+            Map<String, Integer> index = columnIndexes.computeIfAbsent(category, key -> new HashMap<>());
+            Integer column = index.get(factor);
+            if (column == null) {
+                column = columns.size();
+                index.put(factor, column);
+                columnCategories.add(category);
+                columnFactors.add(factor);
+                columns.add(new byte[evaluationIds.length]);
+            }
+            return column;
+        }
+        
+        private void grow(int capacity) {
+            evaluationIds = Arrays.copyOf(evaluationIds, capacity);
+            dossierIds = Arrays.copyOf(dossierIds, capacity);
+            for (int column = 0; column < columns.size(); column++) {
+                columns.set(column, Arrays.copyOf(columns.get(column), capacity));
+            }
+        }
+        
+        PortfolioFactorSnapshot build(LocalDateTime takenAt) {
+            byte[][] trimmed = new byte[columns.size()][];
+            for (int column = 0; column < trimmed.length; column++) {
+                trimmed[column] = Arrays.copyOf(columns.get(column), rowCount);
+            }
+            return new PortfolioFactorSnapshot(
+                takenAt,
+                rowCount,
+                Arrays.copyOf(evaluationIds, rowCount),
+                Arrays.copyOf(dossierIds, rowCount),
+                columnCategories.toArray(new RiskCategory[0]),
+                columnFactors.toArray(new String[0]),
+                trimmed,
+                skippedCount
+            );
+        }
+    }
+}
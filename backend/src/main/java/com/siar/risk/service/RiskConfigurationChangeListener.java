@@ -0,0 +1,108 @@
+package com.siar.risk.service;
+
+import com.siar.risk.config.RiskEngineConfiguration;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Escucha en PostgreSQL los cambios de risk_configurations.
+ * 
+ * Mantiene una conexión del pool con LISTEN sobre el canal que notifica
+ * el trigger de scripts/11_risk_configuration_notify.sql e invalida
+ * {@link ActiveRiskConfigurationCache} con cada notificación, de modo que
+ * todos los nodos ven una activación en menos de un segundo sin consultar
+ * la tabla periódicamente. Al perder la conexión la caché se invalida,
+ * porque las notificaciones de ese intervalo no se reciben, y se reconecta.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RiskConfigurationChangeListener implements SmartLifecycle {
+    
+    public static final String CHANNEL = "risk_configuration_changed";
+    
+    private final DataSource dataSource;
+    private final ActiveRiskConfigurationCache activeConfigurationCache;
+    private final RiskEngineConfiguration riskEngineConfiguration;
+    
+    private volatile boolean running;
+    private volatile Thread thread;
+    
+    @Override
+    public void start() {
+        RiskEngineConfiguration.ActiveConfigurationCacheConfig config = riskEngineConfiguration.getActiveConfiguration();
+        if (!config.isEnabled() || !config.isListenEnabled()) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::listen, "risk-configuration-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = thread;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    private void listen() {
+        RiskEngineConfiguration.ActiveConfigurationCacheConfig config = riskEngineConfiguration.getActiveConfiguration();
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Listening for risk configuration changes on channel {}", CHANNEL);
+                
+                // Cambios ocurridos mientras no se escuchaba
+                activeConfigurationCache.invalidate(null);
+                
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(config.getPollTimeoutMs());
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        String configurationId = notification.getParameter();
+                        activeConfigurationCache.invalidate(
+                            configurationId == null || configurationId.isEmpty() ? null : configurationId);
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("Risk configuration listener disconnected, retrying in {} ms: {}",
+                    config.getReconnectDelayMs(), e.getMessage());
+                activeConfigurationCache.invalidate(null);
+                try {
+                    Thread.sleep(config.getReconnectDelayMs());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        log.info("Risk configuration listener stopped");
+    }
+}
@@ -0,0 +1,17 @@
+package com.siar.risk.service;
+
+/**
+ * Evento de aplicación publicado al cambiar la configuración de riesgo activa.
+ */
+public class RiskConfigurationChangedEvent {
+    
+    private final String configurationId;
+    
+    public RiskConfigurationChangedEvent(String configurationId) {
+        this.configurationId = configurationId;
+    }
+    
+    public String getConfigurationId() {
+        return configurationId;
+    }
+}
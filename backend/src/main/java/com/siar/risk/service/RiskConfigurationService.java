@@ -0,0 +1,62 @@
+package com.siar.risk.service;
+
+import com.siar.risk.model.RiskConfiguration;
+import com.siar.risk.repository.RiskConfigurationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RiskConfigurationService {
+    
+    private final RiskConfigurationRepository configurationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuditService auditService;
+    
+    /**
+     * Activa una configuración de riesgo y cierra la vigencia de la anterior
+     */
+    @Transactional
+    public RiskConfiguration activateConfiguration(String configurationId, String userId) {
+        log.info("Activating risk configuration: {}", configurationId);
+        
+        RiskConfiguration config = configurationRepository.findById(configurationId)
+            .orElseThrow(() -> new RuntimeException("Risk configuration not found: " + configurationId));
+        
+        if (Boolean.TRUE.equals(config.getIsActive())) {
+            return config;
+        }
+        
+        // Una configuración incompleta no puede quedar activa
+        CompiledRiskModel.compile(config);
+        
+        LocalDateTime now = LocalDateTime.now();
+        configurationRepository.findByIsActiveTrue().ifPresent(current -> {
+            current.setIsActive(false);
+            current.setEffectiveTo(now);
+            configurationRepository.save(current);
+        });
+        
+        config.setIsActive(true);
+        config.setEffectiveFrom(now);
+        config.setEffectiveTo(null);
+        config.setApprovedBy(userId);
+        config.setApprovedAt(now);
+        RiskConfiguration saved = configurationRepository.save(config);
+        
+        // La caché de este nodo se invalida al confirmarse la transacción;
+        // los demás nodos reciben la notificación del trigger
+        eventPublisher.publishEvent(new RiskConfigurationChangedEvent(configurationId));
+        
+        auditService.logEvent("RISK-009", "Configuración de riesgo activada",
+            userId, "RiskConfiguration", configurationId);
+        
+        return saved;
+    }
+}
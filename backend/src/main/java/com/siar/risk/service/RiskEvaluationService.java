@@ -5,9 +5,9 @@ import com.siar.risk.dto.CreateEvaluationRequest;
 import com.siar.risk.dto.OverrideRequest;
 import com.siar.risk.dto.RiskCalculationResult;
 import com.siar.risk.model.*;
+import com.siar.risk.repository.DossierEvaluationPointerRepository;
 import com.siar.risk.repository.EvaluationHistoryRepository;
 import com.siar.risk.repository.RiskAlertRepository;
-import com.siar.risk.repository.RiskConfigurationRepository;
 import com.siar.risk.repository.RiskEvaluationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,10 +23,11 @@ import java.time.LocalDateTime;
 public class RiskEvaluationService {
     
     private final RiskEvaluationRepository evaluationRepository;
-    private final RiskConfigurationRepository configurationRepository;
+    private final DossierEvaluationPointerRepository pointerRepository;
     private final EvaluationHistoryRepository historyRepository;
     private final RiskAlertRepository alertRepository;
     private final RiskCalculationEngine calculationEngine;
+    private final ActiveRiskConfigurationCache activeConfigurationCache;
     private final AuditService auditService;
     
     /**
@@ -40,13 +41,14 @@ public class RiskEvaluationService {
         validateMandatoryFactors(request.getRiskFactors());
         
         // Obtener configuración activa
-        RiskConfiguration activeConfig = configurationRepository.findByIsActiveTrue()
-            .orElseThrow(() -> new RuntimeException("No active risk configuration found"));
+        ActiveRiskConfiguration active = activeConfigurationCache.get();
+        RiskConfiguration activeConfig = active.getConfiguration();
         
         // Calcular riesgo
         RiskCalculationResult calculationResult = calculationEngine.calculateRisk(
             request.getRiskFactors(), 
-            activeConfig
+            activeConfig,
+            active.getModel()
         );
         
         // Generar ID y versión
@@ -126,12 +128,12 @@ public class RiskEvaluationService {
         evaluation.setRiskFactorsJson(updatedFactors);
         
         // Recalcular riesgo
-        RiskConfiguration activeConfig = configurationRepository.findByIsActiveTrue()
-            .orElseThrow(() -> new RuntimeException("No active risk configuration found"));
+        ActiveRiskConfiguration active = activeConfigurationCache.get();
         
         RiskCalculationResult calculationResult = calculationEngine.calculateRisk(
             updatedFactors, 
-            activeConfig
+            active.getConfiguration(),
+            active.getModel()
         );
         
         evaluation.setCalculationResultJson(calculationResult.toJson());
@@ -240,6 +242,9 @@ public class RiskEvaluationService {
         
         RiskEvaluation savedEvaluation = evaluationRepository.save(evaluation);
         
+        // Evaluación vigente del expediente
+        pointerRepository.advanceCurrent(evaluation.getDossierId(), evaluationId, evaluation.getVersion());
+        
         // Registrar en historial
         recordHistory(savedEvaluation, HistoryChangeType.APPROVED, userId, 
             null, approvalComments);
@@ -260,6 +265,12 @@ public class RiskEvaluationService {
         RiskEvaluation evaluation = evaluationRepository.findById(evaluationId)
             .orElseThrow(() -> new RuntimeException("Evaluation not found: " + evaluationId));
         
+        // Una evaluación aprobada es la vigente del expediente; se reemplaza con una reevaluación
+        if (evaluation.getStatus() != EvaluationStatus.PENDING_REVIEW && 
+            evaluation.getStatus() != EvaluationStatus.PENDING_SUPERVISOR_APPROVAL) {
+            throw new RuntimeException("Only PENDING_REVIEW or PENDING_SUPERVISOR_APPROVAL evaluations can be rejected");
+        }
+        
         evaluation.setStatus(EvaluationStatus.REJECTED);
         evaluation.setRejectionReason(rejectionReason);
         
@@ -324,9 +335,18 @@ public class RiskEvaluationService {
      * Obtiene la evaluación vigente de un expediente
      */
     public RiskEvaluation getCurrentEvaluation(String dossierId) {
-        return evaluationRepository.findByDossierIdAndStatus(dossierId, EvaluationStatus.APPROVED)
-            .stream()
-            .max((e1, e2) -> e1.getVersion().compareTo(e2.getVersion()))
+        DossierEvaluationPointer pointer = pointerRepository.findById(dossierId).orElse(null);
+        if (pointer != null && pointer.getCurrentEvaluationId() != null) {
+            RiskEvaluation current = evaluationRepository.findById(pointer.getCurrentEvaluationId()).orElse(null);
+            if (current != null && current.getStatus() == EvaluationStatus.APPROVED) {
+                return current;
+            }
+        }
+        
+        // Expedientes sin evaluación aprobada desde que existe el puntero, o
+        // cuya evaluación apuntada ya no está aprobada
+        return evaluationRepository
+            .findFirstByDossierIdAndStatusOrderByVersionDesc(dossierId, EvaluationStatus.APPROVED)
             .orElse(null);
     }
     
@@ -383,11 +403,11 @@ public class RiskEvaluationService {
     }
     
     private Integer getNextVersion(String dossierId) {
-        return evaluationRepository.findByDossierId(dossierId)
-            .stream()
-            .map(RiskEvaluation::getVersion)
-            .max(Integer::compareTo)
-            .orElse(0) + 1;
+        // Contador atómico por expediente; la primera vez parte de las versiones existentes
+        if (pointerRepository.incrementVersion(dossierId) == 0) {
+            pointerRepository.initializeVersion(dossierId);
+        }
+        return pointerRepository.findLastVersion(dossierId);
     }
     
     private boolean isDrasticChange(RiskLevel from, RiskLevel to) {
@@ -396,13 +416,8 @@ public class RiskEvaluationService {
     }
     
     private void supersedePreviousVersions(String dossierId, Integer currentVersion) {
-        evaluationRepository.findByDossierId(dossierId).stream()
-            .filter(e -> e.getVersion() < currentVersion)
-            .filter(e -> e.getStatus() == EvaluationStatus.APPROVED)
-            .forEach(e -> {
-                e.setStatus(EvaluationStatus.SUPERSEDED);
-                evaluationRepository.save(e);
-            });
+        int superseded = evaluationRepository.supersedeApprovedBefore(dossierId, currentVersion, LocalDateTime.now());
+        log.debug("Superseded {} previous evaluations of dossier {}", superseded, dossierId);
     }
     
     private void recordHistory(RiskEvaluation evaluation, HistoryChangeType changeType, 
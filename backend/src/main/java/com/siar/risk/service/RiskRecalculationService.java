@@ -0,0 +1,255 @@
+package com.siar.risk.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siar.risk.config.RiskEngineConfiguration;
+import com.siar.risk.dto.EvaluationFactorsView;
+import com.siar.risk.model.RecalculationStatus;
+import com.siar.risk.model.RiskConfiguration;
+import com.siar.risk.model.RiskLevel;
+import com.siar.risk.model.RiskRecalculationImpact;
+import com.siar.risk.model.RiskRecalculationRun;
+import com.siar.risk.repository.RiskConfigurationRepository;
+import com.siar.risk.repository.RiskEvaluationRepository;
+import com.siar.risk.repository.RiskRecalculationImpactRepository;
+import com.siar.risk.repository.RiskRecalculationRunRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Recálculo masivo de la cartera con una configuración de riesgo.
+ * 
+ * Recorre las evaluaciones APPROVED por páginas (keyset sobre evaluationId),
+ * calcula cada página en paralelo con el modelo compilado de la configuración
+ * y registra solo los expedientes cuyo nivel calculado cambiaría. No crea
+ * evaluaciones, borradores ni historial: el informe de impacto sirve para
+ * decidir a quién reevaluar con {@link RiskEvaluationService#triggerReevaluation}.
+ * 
+ * Un expediente que no se puede recalcular se cuenta como fallido y el
+ * recorrido continúa. Cada página registrada renueva el latido del recálculo;
+ * al iniciar la aplicación, los RUNNING sin latido reciente quedaron cortados
+ * por una detención y se marcan FAILED.
+ */
+@Service
+@Slf4j
+public class RiskRecalculationService {
+    
+    private final RiskConfigurationRepository configurationRepository;
+    private final RiskEvaluationRepository evaluationRepository;
+    private final RiskRecalculationRunRepository runRepository;
+    private final RiskRecalculationImpactRepository impactRepository;
+    private final RiskCalculationEngine calculationEngine;
+    private final RiskEngineConfiguration riskEngineConfiguration;
+    private final AuditService auditService;
+    private final ObjectMapper objectMapper;
+    private final ForkJoinPool riskScoringExecutor;
+    private final ExecutorService riskRecalculationExecutor;
+    
+    public RiskRecalculationService(
+        RiskConfigurationRepository configurationRepository,
+        RiskEvaluationRepository evaluationRepository,
+        RiskRecalculationRunRepository runRepository,
+        RiskRecalculationImpactRepository impactRepository,
+        RiskCalculationEngine calculationEngine,
+        RiskEngineConfiguration riskEngineConfiguration,
+        AuditService auditService,
+        ObjectMapper objectMapper,
+        @Qualifier("riskScoringExecutor") ForkJoinPool riskScoringExecutor,
+        @Qualifier("riskRecalculationExecutor") ExecutorService riskRecalculationExecutor
+    ) {
+        this.configurationRepository = configurationRepository;
+        this.evaluationRepository = evaluationRepository;
+        this.runRepository = runRepository;
+        this.impactRepository = impactRepository;
+        this.calculationEngine = calculationEngine;
+        this.riskEngineConfiguration = riskEngineConfiguration;
+        this.auditService = auditService;
+        this.objectMapper = objectMapper;
+        this.riskScoringExecutor = riskScoringExecutor;
+        this.riskRecalculationExecutor = riskRecalculationExecutor;
+    }
+    
+    /**
+     * Encola el recálculo de la cartera con la configuración indicada
+     */
+    public RiskRecalculationRun startRecalculation(String configurationId, String userId) {
+        RiskConfiguration config = configurationRepository.findById(configurationId)
+            .orElseThrow(() -> new RuntimeException("Risk configuration not found: " + configurationId));
+        
+        // Una configuración inválida se rechaza antes de encolar
+        calculationEngine.getModel(config);
+        
+        RiskRecalculationRun run = runRepository.save(RiskRecalculationRun.builder()
+            .runId(UUID.randomUUID().toString())
+            .configurationId(configurationId)
+            .configurationVersion(config.getVersion())
+            .status(RecalculationStatus.QUEUED)
+            .requestedBy(userId)
+            .build());
+        
+        riskRecalculationExecutor.submit(() -> execute(run.getRunId(), config));
+        
+        auditService.logEvent("RISK-008", "Recálculo de cartera solicitado",
+            userId, "RiskRecalculationRun", run.getRunId());
+        
+        log.info("Risk recalculation queued: runId={}, configuration={} v{}",
+            run.getRunId(), configurationId, config.getVersion());
+        
+        return run;
+    }
+    
+    /**
+     * Obtiene el resumen de un recálculo
+     */
+    public RiskRecalculationRun getRun(String runId) {
+        return runRepository.findById(runId)
+            .orElseThrow(() -> new RuntimeException("Risk recalculation not found: " + runId));
+    }
+    
+    /**
+     * Expedientes cuyo nivel cambiaría, ordenados por expediente
+     */
+    public List<RiskRecalculationImpact> getImpacts(String runId) {
+        getRun(runId);
+        return impactRepository.findByRunIdOrderByDossierId(runId);
+    }
+    
+    /**
+     * Marca FAILED los recálculos que una detención dejó en RUNNING
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void failInterruptedRuns() {
+        LocalDateTime now = LocalDateTime.now();
+        int failed = runRepository.failStaleRuns(
+            now.minusMinutes(riskEngineConfiguration.getRecalculation().getStaleAfterMinutes()),
+            now,
+            "Interrupted: no progress recorded before shutdown"
+        );
+        if (failed > 0) {
+            log.warn("Marked {} interrupted risk recalculations as FAILED", failed);
+        }
+    }
+    
+    private void execute(String runId, RiskConfiguration config) {
+        RiskRecalculationRun run = getRun(runId);
+        run.setStatus(RecalculationStatus.RUNNING);
+        run.setStartedAt(LocalDateTime.now());
+        run.setHeartbeatAt(run.getStartedAt());
+        run = runRepository.save(run);
+        
+        Map<String, Long> transitions = new TreeMap<>();
+        try {
+            CompiledRiskModel model = calculationEngine.getModel(config);
+            int pageSize = riskEngineConfiguration.getRecalculation().getPageSize();
+            String lastEvaluationId = "";
+            
+            while (true) {
+                List<EvaluationFactorsView> page = evaluationRepository.findApprovedAfter(
+                    lastEvaluationId, PageRequest.of(0, pageSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                lastEvaluationId = page.get(page.size() - 1).getEvaluationId();
+                
+                // El stream paralelo se ejecuta en el pool que lo invoca
+                List<Rescore> rescored = riskScoringExecutor.submit(() -> page.parallelStream()
+                    .map(evaluation -> rescore(model, evaluation))
+                    .collect(Collectors.toList())
+                ).join();
+                
+                List<RiskRecalculationImpact> impacts = new ArrayList<>();
+                long failed = 0;
+                for (Rescore rescore : rescored) {
+                    if (rescore.newRiskLevel == null) {
+                        failed++;
+                    } else if (rescore.newRiskLevel != rescore.currentRiskLevel) {
+                        impacts.add(toImpact(runId, rescore));
+                        transitions.merge(rescore.currentRiskLevel + "->" + rescore.newRiskLevel, 1L, Long::sum);
+                    }
+                }
+                impactRepository.saveAll(impacts);
+                
+                run.setEvaluatedCount(run.getEvaluatedCount() + page.size());
+                run.setChangedCount(run.getChangedCount() + impacts.size());
+                run.setFailedCount(run.getFailedCount() + failed);
+                run.setLevelTransitionsJson(objectMapper.valueToTree(transitions));
+                run.setHeartbeatAt(LocalDateTime.now());
+                run = runRepository.save(run);
+            }
+            
+            run.setStatus(RecalculationStatus.COMPLETED);
+            log.info("Risk recalculation completed: runId={}, evaluated={}, changed={}, failed={}, transitions={}",
+                runId, run.getEvaluatedCount(), run.getChangedCount(), run.getFailedCount(), transitions);
+        } catch (RuntimeException e) {
+            log.error("Risk recalculation failed: runId={}", runId, e);
+            run.setStatus(RecalculationStatus.FAILED);
+            run.setErrorMessage(e.getMessage());
+        }
+        
+        run.setCompletedAt(LocalDateTime.now());
+        runRepository.save(run);
+    }
+    
+    private Rescore rescore(CompiledRiskModel model, EvaluationFactorsView evaluation) {
+        // Nivel calculado vigente; las evaluaciones anteriores al nivel preliminar solo tienen el final
+        RiskLevel currentRiskLevel = evaluation.getPreliminaryRiskLevel() != null
+            ? evaluation.getPreliminaryRiskLevel()
+            : evaluation.getFinalRiskLevel();
+        try {
+            double[] rawScores = new double[model.categoryCount()];
+            double adjustedScore = model.score(model.values(evaluation.getRiskFactorsJson()), rawScores);
+            return new Rescore(evaluation, currentRiskLevel, model.riskLevel(adjustedScore), adjustedScore);
+        } catch (IllegalArgumentException e) {
+            log.warn("Evaluation {} cannot be recalculated: {}", evaluation.getEvaluationId(), e.getMessage());
+            return new Rescore(evaluation, currentRiskLevel, null, 0.0);
+        } catch (RuntimeException e) {
+            // Un expediente con datos inesperados no detiene el recálculo de la cartera
+            log.error("Evaluation {} failed during recalculation", evaluation.getEvaluationId(), e);
+            return new Rescore(evaluation, currentRiskLevel, null, 0.0);
+        }
+    }
+    
+    private RiskRecalculationImpact toImpact(String runId, Rescore rescore) {
+        return RiskRecalculationImpact.builder()
+            .runId(runId)
+            .dossierId(rescore.evaluation.getDossierId())
+            .evaluationId(rescore.evaluation.getEvaluationId())
+            .currentRiskLevel(rescore.currentRiskLevel)
+            .finalRiskLevel(rescore.evaluation.getFinalRiskLevel())
+            .newRiskLevel(rescore.newRiskLevel)
+            .newAdjustedScore(rescore.adjustedScore)
+            .hasManualOverride(Boolean.TRUE.equals(rescore.evaluation.getHasManualOverride()))
+            .build();
+    }
+    
+    private static final class Rescore {
+        private final EvaluationFactorsView evaluation;
+        private final RiskLevel currentRiskLevel;
+        private final RiskLevel newRiskLevel;
+        private final double adjustedScore;
+        
+        private Rescore(EvaluationFactorsView evaluation, RiskLevel currentRiskLevel,
+                        RiskLevel newRiskLevel, double adjustedScore) {
+            this.evaluation = evaluation;
+            this.currentRiskLevel = currentRiskLevel;
+            this.newRiskLevel = newRiskLevel;
+            this.adjustedScore = adjustedScore;
+        }
+    }
+}
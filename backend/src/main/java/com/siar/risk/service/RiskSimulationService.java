@@ -0,0 +1,435 @@
+package com.siar.risk.service;
+
+import com.siar.risk.config.RiskEngineConfiguration;
+import com.siar.risk.dto.EvaluationFactorsView;
+import com.siar.risk.dto.RiskSimulationRequest;
+import com.siar.risk.dto.RiskSimulationResult;
+import com.siar.risk.dto.SimulationFactorDriver;
+import com.siar.risk.dto.SimulationMover;
+import com.siar.risk.model.RiskCategory;
+import com.siar.risk.model.RiskConfiguration;
+import com.siar.risk.model.RiskLevel;
+import com.siar.risk.repository.RiskConfigurationRepository;
+import com.siar.risk.repository.RiskEvaluationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Simulación de una configuración de riesgo candidata sobre la cartera.
+ * 
+ * Puntúa todas las evaluaciones APPROVED con la configuración activa y con
+ * la candidata, y devuelve la distribución de niveles antes y después, las
+ * transiciones, el cambio promedio por categoría, los factores presentes en
+ * los expedientes que cambian de nivel y los expedientes con mayor variación.
+ * 
+ * Los factores se leen una vez a una {@link PortfolioFactorSnapshot} que se
+ * conserva en memoria y se reconstruye al vencer; cada simulación reparte
+ * las filas en tareas fork-join sobre riskScoringExecutor. No escribe nada.
+ */
+@Service
+@Slf4j
+public class RiskSimulationService {
+    
+    // Filas por tarea hoja
+    private static final int LEAF_ROWS = 8192;
+    
+    private static final RiskLevel[] LEVELS = RiskLevel.values();
+    
+    private final RiskConfigurationRepository configurationRepository;
+    private final RiskEvaluationRepository evaluationRepository;
+    private final RiskCalculationEngine calculationEngine;
+    private final ActiveRiskConfigurationCache activeConfigurationCache;
+    private final RiskEngineConfiguration riskEngineConfiguration;
+    private final ForkJoinPool riskScoringExecutor;
+    
+    private volatile PortfolioFactorSnapshot snapshot;
+    
+    public RiskSimulationService(
+        RiskConfigurationRepository configurationRepository,
+        RiskEvaluationRepository evaluationRepository,
+        RiskCalculationEngine calculationEngine,
+        ActiveRiskConfigurationCache activeConfigurationCache,
+        RiskEngineConfiguration riskEngineConfiguration,
+        @Qualifier("riskScoringExecutor") ForkJoinPool riskScoringExecutor
+    ) {
+        this.configurationRepository = configurationRepository;
+        this.evaluationRepository = evaluationRepository;
+        this.calculationEngine = calculationEngine;
+        this.activeConfigurationCache = activeConfigurationCache;
+        this.riskEngineConfiguration = riskEngineConfiguration;
+        this.riskScoringExecutor = riskScoringExecutor;
+    }
+    
+    /**
+     * Simula la configuración candidata frente a la configuración activa
+     */
+    public RiskSimulationResult simulate(RiskSimulationRequest request) {
+        long start = System.currentTimeMillis();
+        RiskEngineConfiguration.SimulationConfig config = riskEngineConfiguration.getSimulation();
+        
+        CompiledRiskModel base = activeConfigurationCache.get().getModel();
+        CompiledRiskModel candidate = compileCandidate(request);
+        
+        PortfolioFactorSnapshot portfolio = getSnapshot(Boolean.TRUE.equals(request.getRefreshSnapshot()));
+        int topMovers = limit(request.getTopMovers(), config.getTopMovers(), config.getMaxTop());
+        int topFactors = limit(request.getTopFactors(), config.getTopFactors(), config.getMaxTop());
+        
+        Simulation simulation = new Simulation(portfolio, base, candidate, topMovers);
+        Partial total = riskScoringExecutor.invoke(new SimulationTask(simulation, 0, portfolio.getRowCount()));
+        
+        long evaluated = portfolio.getRowCount() - total.failed;
+        RiskSimulationResult result = RiskSimulationResult.builder()
+            .baseConfigurationId(base.getConfigurationId())
+            .candidateConfigurationId(candidate.getConfigurationId())
+            .snapshotTakenAt(portfolio.getTakenAt())
+            .evaluatedCount(evaluated)
+            .failedCount(total.failed + portfolio.getSkippedCount())
+            .levelsBefore(histogram(total.transitions, true))
+            .levelsAfter(histogram(total.transitions, false))
+            .transitions(transitions(total.transitions))
+            .categoryShift(categoryShift(total.categoryShift, evaluated))
+            .factorDrivers(factorDrivers(simulation, total, topFactors))
+            .topMovers(topMovers(simulation, total))
+            .durationMs(System.currentTimeMillis() - start)
+            .build();
+        
+        log.info("Risk simulation completed: base={}, candidate={}, evaluated={}, failed={}, durationMs={}",
+            result.getBaseConfigurationId(), result.getCandidateConfigurationId(),
+            evaluated, result.getFailedCount(), result.getDurationMs());
+        
+        return result;
+    }
+    
+    private CompiledRiskModel compileCandidate(RiskSimulationRequest request) {
+        if (request.getConfigurationId() != null) {
+            RiskConfiguration config = configurationRepository.findById(request.getConfigurationId())
+                .orElseThrow(() -> new RuntimeException("Risk configuration not found: " + request.getConfigurationId()));
+            return calculationEngine.getModel(config);
+        }
+        
+        // Configuración en línea: se compila sin pasar por la caché del motor
+        return CompiledRiskModel.compile(RiskConfiguration.builder()
+            .configurationId("SIMULATION")
+            .categoryWeightsJson(request.getCategoryWeights())
+            .factorWeightsJson(request.getFactorWeights())
+            .thresholdsJson(request.getThresholds())
+            .build());
+    }
+    
+    private static int limit(Integer requested, int defaultValue, int max) {
+        if (requested == null || requested < 0) {
+            return defaultValue;
+        }
+        return Math.min(requested, max);
+    }
+    
+    /**
+     * Fotografía vigente de la cartera; se reconstruye si venció o se solicita
+     */
+    private PortfolioFactorSnapshot getSnapshot(boolean refresh) {
+        PortfolioFactorSnapshot current = snapshot;
+        if (!refresh && isFresh(current)) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (refresh || !isFresh(current)) {
+                current = loadSnapshot();
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+    
+    private boolean isFresh(PortfolioFactorSnapshot current) {
+        return current != null && current.getTakenAt()
+            .plusSeconds(riskEngineConfiguration.getSimulation().getSnapshotMaxAgeSeconds())
+            .isAfter(LocalDateTime.now());
+    }
+    
+    private PortfolioFactorSnapshot loadSnapshot() {
+        long start = System.currentTimeMillis();
+        LocalDateTime takenAt = LocalDateTime.now();
+        PortfolioFactorSnapshot.Builder builder = new PortfolioFactorSnapshot.Builder();
+        
+        int pageSize = riskEngineConfiguration.getSimulation().getPageSize();
+        String lastEvaluationId = "";
+        while (true) {
+            List<EvaluationFactorsView> page = evaluationRepository.findApprovedAfter(
+                lastEvaluationId, PageRequest.of(0, pageSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            lastEvaluationId = page.get(page.size() - 1).getEvaluationId();
+            page.forEach(builder::add);
+        }
+        
+        PortfolioFactorSnapshot loaded = builder.build(takenAt);
+        log.info("Portfolio factor snapshot loaded: evaluations={}, factors={}, skipped={}, durationMs={}",
+            loaded.getRowCount(), loaded.getColumnCount(), loaded.getSkippedCount(),
+            System.currentTimeMillis() - start);
+        return loaded;
+    }
+    
+    // ========== Resultado ==========
+    
+    private static Map<RiskLevel, Long> histogram(long[][] transitions, boolean before) {
+        Map<RiskLevel, Long> histogram = new EnumMap<>(RiskLevel.class);
+        for (RiskLevel level : LEVELS) {
+            histogram.put(level, 0L);
+        }
+        for (int from = 0; from < LEVELS.length; from++) {
+            for (int to = 0; to < LEVELS.length; to++) {
+                histogram.merge(LEVELS[before ? from : to], transitions[from][to], Long::sum);
+            }
+        }
+        return histogram;
+    }
+    
+    private static Map<String, Long> transitions(long[][] transitions) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int from = 0; from < LEVELS.length; from++) {
+            for (int to = 0; to < LEVELS.length; to++) {
+                if (from != to && transitions[from][to] > 0) {
+                    result.put(LEVELS[from] + "->" + LEVELS[to], transitions[from][to]);
+                }
+            }
+        }
+        return result;
+    }
+    
+    private static Map<String, Double> categoryShift(double[] shift, long evaluated) {
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (RiskCategory category : RiskCategory.values()) {
+            result.put(CompiledRiskModel.factorKey(category),
+                evaluated > 0 ? shift[category.ordinal()] / evaluated : 0.0);
+        }
+        return result;
+    }
+    
+    private static List<SimulationFactorDriver> factorDrivers(Simulation simulation, Partial total, int limit) {
+        PortfolioFactorSnapshot portfolio = simulation.portfolio;
+        List<SimulationFactorDriver> drivers = new ArrayList<>();
+        for (int column = 0; column < portfolio.getColumnCount(); column++) {
+            if (total.upgrades[column] + total.downgrades[column] == 0) {
+                continue;
+            }
+            drivers.add(SimulationFactorDriver.builder()
+                .category(portfolio.getColumnCategory(column))
+                .factor(portfolio.getColumnFactor(column))
+                .baseWeight(weight(simulation.base, simulation.basePositions[column]))
+                .candidateWeight(weight(simulation.candidate, simulation.candidatePositions[column]))
+                .upgrades(total.upgrades[column])
+                .downgrades(total.downgrades[column])
+                .build());
+        }
+        drivers.sort(Comparator.comparingLong(
+            (SimulationFactorDriver driver) -> driver.getUpgrades() + driver.getDowngrades()).reversed());
+        return drivers.size() > limit ? new ArrayList<>(drivers.subList(0, limit)) : drivers;
+    }
+    
+    private static Double weight(CompiledRiskModel model, int position) {
+        return position >= 0 ? model.factorWeight(position) : null;
+    }
+    
+    private static List<SimulationMover> topMovers(Simulation simulation, Partial total) {
+        List<Mover> movers = new ArrayList<>(total.movers);
+        movers.sort(Comparator.comparingDouble(Mover::delta).reversed());
+        
+        List<SimulationMover> result = new ArrayList<>(movers.size());
+        for (Mover mover : movers) {
+            result.add(SimulationMover.builder()
+                .evaluationId(simulation.portfolio.getEvaluationId(mover.row))
+                .dossierId(simulation.portfolio.getDossierId(mover.row))
+                .levelBefore(mover.levelBefore)
+                .levelAfter(mover.levelAfter)
+                .scoreBefore(mover.scoreBefore)
+                .scoreAfter(mover.scoreAfter)
+                .build());
+        }
+        return result;
+    }
+    
+    // ========== Cálculo fork-join ==========
+    
+    /**
+     * Datos compartidos por las tareas de una simulación.
+     */
+    private static final class Simulation {
+        private final PortfolioFactorSnapshot portfolio;
+        private final CompiledRiskModel base;
+        private final CompiledRiskModel candidate;
+        private final int[] basePositions;
+        private final int[] candidatePositions;
+        private final int topMovers;
+        
+        private Simulation(PortfolioFactorSnapshot portfolio, CompiledRiskModel base,
+                           CompiledRiskModel candidate, int topMovers) {
+            this.portfolio = portfolio;
+            this.base = base;
+            this.candidate = candidate;
+            this.basePositions = portfolio.columnPositions(base);
+            this.candidatePositions = portfolio.columnPositions(candidate);
+            this.topMovers = topMovers;
+        }
+    }
+    
+    private static final class SimulationTask extends RecursiveTask<Partial> {
+        
+        private final Simulation simulation;
+        private final int from;
+        private final int to;
+        
+        private SimulationTask(Simulation simulation, int from, int to) {
+            this.simulation = simulation;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected Partial compute() {
+            if (to - from <= LEAF_ROWS) {
+                return scoreRows();
+            }
+            int middle = (from + to) >>> 1;
+            SimulationTask left = new SimulationTask(simulation, from, middle);
+            left.fork();
+            Partial right = new SimulationTask(simulation, middle, to).compute();
+            return left.join().merge(right, simulation.topMovers);
+        }
+        
+        private Partial scoreRows() {
+            PortfolioFactorSnapshot portfolio = simulation.portfolio;
+            CompiledRiskModel base = simulation.base;
+            CompiledRiskModel candidate = simulation.candidate;
+            Partial partial = new Partial(portfolio.getColumnCount());
+            
+            // Buffers de la tarea; el recorrido de filas no crea objetos salvo los movers retenidos
+            int[] baseValues = new int[base.factorCount()];
+            int[] candidateValues = new int[candidate.factorCount()];
+            double[] baseRaw = new double[base.categoryCount()];
+            double[] candidateRaw = new double[candidate.categoryCount()];
+            
+            for (int row = from; row < to; row++) {
+                if (!portfolio.gather(row, simulation.basePositions, baseValues)
+                    || !portfolio.gather(row, simulation.candidatePositions, candidateValues)) {
+                    partial.failed++;
+                    continue;
+                }
+                double scoreBefore = base.score(baseValues, baseRaw);
+                double scoreAfter = candidate.score(candidateValues, candidateRaw);
+                RiskLevel levelBefore = base.riskLevel(scoreBefore);
+                RiskLevel levelAfter = candidate.riskLevel(scoreAfter);
+                partial.transitions[levelBefore.ordinal()][levelAfter.ordinal()]++;
+                
+                for (int c = 0; c < partial.categoryShift.length; c++) {
+                    partial.categoryShift[c] += candidate.weightedScore(c, candidateRaw[c])
+                        - base.weightedScore(c, baseRaw[c]);
+                }
+                
+                if (levelBefore != levelAfter) {
+                    long[] counts = levelAfter.ordinal() > levelBefore.ordinal()
+                        ? partial.upgrades
+                        : partial.downgrades;
+                    for (int column = 0; column < counts.length; column++) {
+                        if (portfolio.applies(column, row)) {
+                            counts[column]++;
+                        }
+                    }
+                }
+                
+                partial.offer(row, levelBefore, levelAfter, scoreBefore, scoreAfter, simulation.topMovers);
+            }
+            return partial;
+        }
+    }
+    
+    /**
+     * Acumulado de un rango de filas.
+     */
+    private static final class Partial {
+        private final long[][] transitions = new long[LEVELS.length][LEVELS.length];
+        private final double[] categoryShift = new double[RiskCategory.values().length];
+        private final long[] upgrades;
+        private final long[] downgrades;
+        private final PriorityQueue<Mover> movers = new PriorityQueue<>(Comparator.comparingDouble(Mover::delta));
+        private long failed;
+        
+        private Partial(int columns) {
+            this.upgrades = new long[columns];
+            this.downgrades = new long[columns];
+        }
+        
+        private void offer(int row, RiskLevel levelBefore, RiskLevel levelAfter,
+                           double scoreBefore, double scoreAfter, int limit) {
+            if (limit == 0) {
+                return;
+            }
+            double delta = Math.abs(scoreAfter - scoreBefore);
+            if (movers.size() < limit) {
+                movers.add(new Mover(row, levelBefore, levelAfter, scoreBefore, scoreAfter));
+            } else if (delta > movers.peek().delta()) {
+                movers.poll();
+                movers.add(new Mover(row, levelBefore, levelAfter, scoreBefore, scoreAfter));
+            }
+        }
+        
+        private Partial merge(Partial other, int limit) {
+            for (int from = 0; from < LEVELS.length; from++) {
+                for (int to = 0; to < LEVELS.length; to++) {
+                    transitions[from][to] += other.transitions[from][to];
+                }
+            }
+            for (int c = 0; c < categoryShift.length; c++) {
+                categoryShift[c] += other.categoryShift[c];
+            }
+            for (int column = 0; column < upgrades.length; column++) {
+                upgrades[column] += other.upgrades[column];
+                downgrades[column] += other.downgrades[column];
+            }
+            for (Mover mover : other.movers) {
+                if (movers.size() < limit) {
+                    movers.add(mover);
+                } else if (mover.delta() > movers.peek().delta()) {
+                    movers.poll();
+                    movers.add(mover);
+                }
+            }
+            failed += other.failed;
+            return this;
+        }
+    }
+    
+    private static final class Mover {
+        private final int row;
+        private final RiskLevel levelBefore;
+        private final RiskLevel levelAfter;
+        private final double scoreBefore;
+        private final double scoreAfter;
+        
+        private Mover(int row, RiskLevel levelBefore, RiskLevel levelAfter, double scoreBefore, double scoreAfter) {
+            this.row = row;
+            this.levelBefore = levelBefore;
+            this.levelAfter = levelAfter;
+            this.scoreBefore = scoreBefore;
+            this.scoreAfter = scoreAfter;
+        }
+        
+        private double delta() {
+            return Math.abs(scoreAfter - scoreBefore);
+        }
+    }
+}
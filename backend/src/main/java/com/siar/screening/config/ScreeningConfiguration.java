@@ -0,0 +1,377 @@
+package com.siar.screening.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuración del motor de screening contra listas restrictivas
+ */
+@Configuration
+@ConfigurationProperties(prefix = "siar.screening")
+@Data
+public class ScreeningConfiguration {
+    
+    /**
+     * Etapa de generación de candidatos previa a Jaro-Winkler
+     */
+    private BlockingConfig blocking = new BlockingConfig();
+    
+    /**
+     * Comparación por tokens de nombres compuestos (orden libre, apellidos omitidos)
+     */
+    private TokenSetConfig tokenSet = new TokenSetConfig();
+    
+    /**
+     * Ajuste del puntaje por atributos secundarios y supresión de falsos positivos
+     */
+    private ScoringConfig scoring = new ScoringConfig();
+    
+    /**
+     * Ejecutor dedicado para evaluar las listas en paralelo
+     */
+    private ExecutorConfig executor = new ExecutorConfig();
+    
+    /**
+     * Screenings individuales ejecutados en segundo plano
+     */
+    private AsyncConfig async = new AsyncConfig();
+    
+    /**
+     * Re-screening masivo de la cartera de expedientes
+     */
+    private BatchConfig batch = new BatchConfig();
+    
+    /**
+     * Re-screening delta al actualizarse una lista
+     */
+    private DeltaConfig delta = new DeltaConfig();
+    
+    /**
+     * Carga de archivos de listas restrictivas
+     */
+    private IngestionConfig ingestion = new IngestionConfig();
+    
+    /**
+     * Caché de nombres normalizados
+     */
+    private NormalizationConfig normalization = new NormalizationConfig();
+    
+    /**
+     * Reutilización de resultados para el mismo sujeto y las mismas versiones de listas
+     */
+    private ResultCacheConfig resultCache = new ResultCacheConfig();
+    
+    /**
+     * Índice inverso de nombres de expedientes para monitoreo continuo
+     */
+    private MonitoringConfig monitoring = new MonitoringConfig();
+    
+    /**
+     * Cola de revisión de coincidencias pendientes de decisión
+     */
+    private ReviewQueueConfig reviewQueue = new ReviewQueueConfig();
+    
+    /**
+     * Archivos binarios del índice de listas, cargados con memory-mapping
+     */
+    private SnapshotConfig snapshot = new SnapshotConfig();
+    
+    /**
+     * Nombres de personas jurídicas: forma jurídica y palabras vacías
+     */
+    private OrganizationConfig organization = new OrganizationConfig();
+    
+    /**
+     * Procesamiento asíncrono de los efectos de las decisiones
+     */
+    private DecisionOutboxConfig decisionOutbox = new DecisionOutboxConfig();
+    
+    @Data
+    public static class BlockingConfig {
+        /**
+         * Si está deshabilitado se compara contra todas las entradas de la lista
+         */
+        private boolean enabled = true;
+        
+        /**
+         * Fracción mínima de trigramas del nombre consultado que debe
+         * compartir una entrada para ser candidata
+         */
+        private double minTrigramOverlap = 0.2;
+        
+        /**
+         * Tokens con la misma clave fonética necesarios para ser candidata
+         * (se limita al número de tokens del nombre consultado)
+         */
+        private int minPhoneticTokens = 2;
+    }
+    
+    @Data
+    public static class TokenSetConfig {
+        /**
+         * Si está deshabilitado solo se compara el nombre completo con Jaro-Winkler
+         */
+        private boolean enabled = true;
+        
+        /**
+         * Similitud Jaro-Winkler mínima para emparejar dos tokens
+         */
+        private double tokenThreshold = 0.85;
+        
+        /**
+         * Penalización máxima por los tokens sobrantes del nombre más largo
+         * (por ejemplo, un segundo apellido omitido)
+         */
+        private double extraTokenPenalty = 0.25;
+    }
+    
+    @Data
+    public static class ScoringConfig {
+        /**
+         * Puntos sumados cuando el documento del sujeto coincide con el de la entrada
+         */
+        private int documentMatchBoost = 10;
+        
+        /**
+         * Puntos sumados cuando la fecha de nacimiento coincide
+         */
+        private int dateOfBirthMatchBoost = 5;
+        
+        /**
+         * Puntos restados cuando ambas fechas de nacimiento se conocen y difieren
+         */
+        private int dateOfBirthMismatchPenalty = 15;
+        
+        /**
+         * Puntos sumados cuando la nacionalidad coincide
+         */
+        private int nationalityMatchBoost = 3;
+        
+        /**
+         * Puntos restados cuando ambas nacionalidades se conocen y difieren
+         */
+        private int nationalityMismatchPenalty = 5;
+        
+        /**
+         * No registrar coincidencias con entradas ya decididas FALSE_POSITIVE
+         * para el mismo expediente
+         */
+        private boolean suppressFalsePositives = true;
+    }
+    
+    @Data
+    public static class ExecutorConfig {
+        /**
+         * Hilos del ejecutor; 0 usa el número de procesadores disponibles
+         */
+        private int parallelism = 0;
+        
+        /**
+         * Tiempo máximo de espera por los resultados de todas las listas
+         */
+        private long timeoutSeconds = 30;
+    }
+    
+    @Data
+    public static class AsyncConfig {
+        /**
+         * Screenings asíncronos que se ejecutan a la vez
+         */
+        private int workerThreads = 4;
+        
+        /**
+         * Solicitudes en espera antes de rechazar nuevas
+         */
+        private int queueCapacity = 100;
+    }
+    
+    @Data
+    public static class BatchConfig {
+        /**
+         * Expedientes leídos, evaluados y persistidos por página
+         */
+        private int pageSize = 1000;
+        
+        /**
+         * Trabajos masivos que pueden ejecutarse a la vez
+         */
+        private int concurrentJobs = 1;
+        
+        /**
+         * Trabajos finalizados que se conservan para consulta
+         */
+        private int retainedJobs = 20;
+    }
+    
+    @Data
+    public static class DeltaConfig {
+        /**
+         * Si está deshabilitado el job periódico no revisa cambios de versión
+         */
+        private boolean enabled = true;
+        
+        /**
+         * Intervalo de revisión de cambios de versión de las listas
+         */
+        private long checkIntervalMs = 300000;
+        
+        /**
+         * Usuario registrado como ejecutor de los screenings generados
+         */
+        private Long systemUserId = 1L;
+    }
+    
+    @Data
+    public static class IngestionConfig {
+        /**
+         * Registros por lote al volcar el archivo a la tabla de staging
+         */
+        private int batchSize = 1000;
+        
+        /**
+         * Ejecutar el re-screening delta de la lista al publicar una versión nueva
+         */
+        private boolean rescreenOnLoad = true;
+    }
+    
+    @Data
+    public static class NormalizationConfig {
+        /**
+         * Si está deshabilitado cada nombre se normaliza en cada uso
+         */
+        private boolean cacheEnabled = true;
+        
+        /**
+         * Máximo de nombres normalizados retenidos en memoria
+         */
+        private int cacheMaxSize = 200000;
+    }
+    
+    @Data
+    public static class ResultCacheConfig {
+        /**
+         * Si está deshabilitado cada screening se calcula completo
+         */
+        private boolean enabled = true;
+        
+        /**
+         * Antigüedad máxima del screening reutilizado; acota el efecto de
+         * cambios de configuración de comparación o puntaje
+         */
+        private long maxAgeHours = 720;
+    }
+    
+    @Data
+    public static class MonitoringConfig {
+        /**
+         * Escuchar en PostgreSQL (LISTEN) el alta, cambio de nombre y baja de
+         * expedientes para mantener el índice de nombres sin recargarlo
+         */
+        private boolean listenEnabled = true;
+        
+        /**
+         * Espera máxima de cada consulta de notificaciones
+         */
+        private int pollTimeoutMs = 500;
+        
+        /**
+         * Espera antes de reconectar tras perder la conexión de escucha
+         */
+        private long reconnectDelayMs = 5000;
+        
+        /**
+         * Cambios aplicados en memoria sobre el índice cargado antes de
+         * recargarlo desde la tabla dossier
+         */
+        private int maxPendingChanges = 10000;
+        
+        /**
+         * Antigüedad máxima del índice cuando no se escuchan los cambios
+         */
+        private long maxAgeMinutes = 60;
+    }
+    
+    @Data
+    public static class ReviewQueueConfig {
+        /**
+         * Duración de la asignación de una coincidencia a un revisor
+         */
+        private long leaseSeconds = 900;
+        
+        /**
+         * Coincidencias asignadas por solicitud si no se indica otra cantidad
+         */
+        private int claimSize = 10;
+        
+        private int pageSize = 50;
+        
+        private int maxPageSize = 200;
+    }
+    
+    @Data
+    public static class SnapshotConfig {
+        /**
+         * Si está deshabilitado el índice se construye siempre desde watchlist_entry
+         */
+        private boolean enabled = true;
+        
+        /**
+         * Directorio de los archivos; uno por lista y versión
+         */
+        private String directory = "data/watchlist-snapshots";
+    }
+    
+    @Data
+    public static class OrganizationConfig {
+        /**
+         * Formas jurídicas que se quitan al final del nombre; se comparan
+         * normalizadas y sin espacios ("C. A." equivale a "CA")
+         */
+        private List<String> legalSuffixes = new ArrayList<>(List.of(
+            "C.A.", "S.A.", "S.R.L.", "S.A.S.", "S.C.", "S.L.", "S.A.C.A.", "S.A.I.C.A.",
+            "Compañía Anónima", "Sociedad Anónima", "LLC", "L.L.C.", "Ltd", "Limited",
+            "Inc", "Incorporated", "Corp", "Corporation", "Co", "PLC", "LLP", "LP",
+            "GmbH", "AG", "N.V.", "B.V."
+        ));
+        
+        /**
+         * Palabras que no distinguen una organización de otra
+         */
+        private List<String> stopwords = new ArrayList<>(List.of(
+            "de", "del", "la", "las", "el", "los", "y", "e", "the", "of", "and"
+        ));
+    }
+    
+    @Data
+    public static class DecisionOutboxConfig {
+        /**
+         * Si está deshabilitado los efectos quedan pendientes en la bandeja
+         */
+        private boolean enabled = true;
+        
+        /**
+         * Intervalo entre revisiones de la bandeja
+         */
+        private long pollIntervalMs = 1000;
+        
+        /**
+         * Decisiones procesadas como máximo por revisión
+         */
+        private int batchSize = 100;
+        
+        /**
+         * Intentos antes de marcar la decisión como agotada (dead_lettered_at)
+         * para revisión manual y reencolado
+         */
+        private int maxAttempts = 10;
+        
+        /**
+         * Espera antes del reintento, multiplicada por el número de intentos
+         */
+        private long retryDelaySeconds = 30;
+    }
+}
@@ -0,0 +1,100 @@
+package com.siar.screening.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecutor acotado para el cálculo de similitud contra listas restrictivas.
+ * 
+ * El trabajo es de CPU, por lo que se usa un ForkJoinPool con tantos hilos
+ * como procesadores (o lo configurado), separado del pool común para no
+ * competir con otros usos de streams paralelos.
+ */
+@Configuration
+public class ScreeningExecutorConfiguration {
+    
+    @Bean(name = "screeningExecutor", destroyMethod = "shutdown")
+    public ExecutorService screeningExecutor(ScreeningConfiguration screeningConfiguration) {
+        int parallelism = screeningConfiguration.getExecutor().getParallelism();
+        if (parallelism <= 0) {
+            parallelism = Runtime.getRuntime().availableProcessors();
+        }
+        
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ForkJoinPool(
+            parallelism,
+            pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("screening-worker-" + threadNumber.incrementAndGet());
+                return thread;
+            },
+            null,
+            false
+        );
+    }
+    
+    /**
+     * Hilos que conducen los trabajos de screening masivo. Cada trabajo lee y
+     * persiste páginas en su hilo y reparte el cálculo en screeningExecutor;
+     * los trabajos adicionales esperan en cola.
+     */
+    @Bean(name = "screeningBatchExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService screeningBatchExecutor(ScreeningConfiguration screeningConfiguration) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(
+            Math.max(1, screeningConfiguration.getBatch().getConcurrentJobs()),
+            runnable -> {
+                Thread thread = new Thread(runnable, "screening-batch-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+    }
+    
+    /**
+     * Hilos que ejecutan los screenings solicitados en modo asíncrono. La
+     * cola es acotada para que una ráfaga de solicitudes se rechace en lugar
+     * de acumular trabajo sin límite.
+     */
+    @Bean(name = "screeningAsyncExecutor", destroyMethod = "shutdown")
+    public ExecutorService screeningAsyncExecutor(ScreeningConfiguration screeningConfiguration) {
+        ScreeningConfiguration.AsyncConfig config = screeningConfiguration.getAsync();
+        int workers = Math.max(1, config.getWorkerThreads());
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(
+            workers,
+            workers,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(Math.max(1, config.getQueueCapacity())),
+            runnable -> {
+                Thread thread = new Thread(runnable, "screening-async-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+    }
+    
+    /**
+     * Hilo que recarga en segundo plano el índice de nombres de
+     * expedientes cuando acumula demasiados cambios. Hay a lo sumo una
+     * recarga en curso, por lo que basta un hilo.
+     */
+    @Bean(name = "dossierIndexReloadExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService dossierIndexReloadExecutor() {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dossier-index-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package com.siar.screening.config;
+
+import com.siar.screening.service.NameNormalizationService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Métricas que se leen al momento de la exportación: la caché de
+ * normalización y los ejecutores del screening (hilos activos, cola,
+ * tareas completadas). Las métricas por screening las registra
+ * {@link com.siar.screening.service.ScreeningMetrics}.
+ */
+@Configuration
+public class ScreeningMetricsConfiguration {
+    
+    @Bean
+    public MeterBinder normalizationCacheMetrics(NameNormalizationService nameNormalizationService) {
+        return registry -> {
+            FunctionCounter.builder("siar.screening.normalization.cache", nameNormalizationService,
+                    service -> service.getCacheStats().getHits())
+                .description("Consultas a la caché de normalización")
+                .tag("outcome", "hit")
+                .register(registry);
+            FunctionCounter.builder("siar.screening.normalization.cache", nameNormalizationService,
+                    service -> service.getCacheStats().getMisses())
+                .description("Consultas a la caché de normalización")
+                .tag("outcome", "miss")
+                .register(registry);
+            FunctionCounter.builder("siar.screening.normalization.cache.evictions", nameNormalizationService,
+                    service -> service.getCacheStats().getEvictions())
+                .description("Descartes de la caché de normalización")
+                .register(registry);
+            Gauge.builder("siar.screening.normalization.cache.size", nameNormalizationService,
+                    service -> service.getCacheStats().getSize())
+                .description("Nombres en la caché de normalización")
+                .register(registry);
+        };
+    }
+    
+    @Bean
+    public MeterBinder screeningExecutorMetrics(
+        @Qualifier("screeningExecutor") ExecutorService screeningExecutor,
+        @Qualifier("screeningAsyncExecutor") ExecutorService screeningAsyncExecutor
+    ) {
+        return registry -> {
+            new ExecutorServiceMetrics(screeningExecutor, "screeningExecutor", Tags.empty()).bindTo(registry);
+            new ExecutorServiceMetrics(screeningAsyncExecutor, "screeningAsyncExecutor", Tags.empty()).bindTo(registry);
+        };
+    }
+}
@@ -1,13 +1,41 @@
 package com.siar.screening.controller;
 
+import com.siar.screening.dto.BlockingRecallReport;
+import com.siar.screening.dto.BlockingReportRequest;
+import com.siar.screening.dto.DecisionOutboxDeadLetter;
+import com.siar.screening.dto.DeltaRescreeningReport;
+import com.siar.screening.dto.DossierCandidateReport;
+import com.siar.screening.dto.NormalizationCacheStats;
+import com.siar.screening.dto.ReviewQueueItem;
+import com.siar.screening.dto.ReviewQueuePage;
+import com.siar.screening.dto.ScreeningBatchRequest;
+import com.siar.screening.dto.ScreeningBatchStatus;
 import com.siar.screening.dto.ScreeningExecutionRequest;
+import com.siar.screening.dto.ScreeningProgress;
 import com.siar.screening.dto.ScreeningResponse;
+import com.siar.screening.dto.WatchlistIngestionReport;
+import com.siar.screening.ingestion.WatchlistFileFormat;
+import com.siar.screening.ingestion.WatchlistIngestionService;
 import com.siar.screening.model.Screening;
+import com.siar.screening.service.CandidateBlockingService;
+import com.siar.screening.service.DeltaRescreeningService;
+import com.siar.screening.service.DossierNameIndexService;
+import com.siar.screening.service.MatchReviewQueueService;
+import com.siar.screening.service.NameNormalizationService;
+import com.siar.screening.service.ScreeningBatchService;
+import com.siar.screening.service.ScreeningDecisionOutboxProcessor;
 import com.siar.screening.service.ScreeningExecutionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/screening")
@@ -16,14 +44,48 @@ public class ScreeningController {
     @Autowired
     private ScreeningExecutionService screeningExecutionService;
     
+    @Autowired
+    private CandidateBlockingService candidateBlockingService;
+    
+    @Autowired
+    private ScreeningBatchService screeningBatchService;
+    
+    @Autowired
+    private DeltaRescreeningService deltaRescreeningService;
+    
+    @Autowired
+    private WatchlistIngestionService watchlistIngestionService;
+    
+    @Autowired
+    private NameNormalizationService nameNormalizationService;
+    
+    @Autowired
+    private DossierNameIndexService dossierNameIndexService;
+    
+    @Autowired
+    private MatchReviewQueueService matchReviewQueueService;
+    
+    @Autowired
+    private ScreeningDecisionOutboxProcessor decisionOutboxProcessor;
+    
     /**
-     * Ejecuta screening para un expediente.
+     * Ejecuta screening para un expediente. En modo asíncrono responde 202 con
+     * el screening en curso; el avance se consulta en /{screeningId}/status.
      */
     @PostMapping("/execute")
     public ResponseEntity<ScreeningResponse> executeScreening(
         @RequestBody ScreeningExecutionRequest request,
         @AuthenticationPrincipal User currentUser
     ) {
+        if (Boolean.TRUE.equals(request.getAsync())) {
+            Screening screening = screeningExecutionService.submitScreening(
+                request.getDossierId(),
+                request.getScreeningType(),
+                currentUser
+            );
+            return ResponseEntity.accepted().body(mapToResponse(screening));
+        }
+        
         Screening screening = screeningExecutionService.executeScreening(
             request.getDossierId(),
             request.getScreeningType(),
@@ -46,6 +108,16 @@ public class ScreeningController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Estado y avance de un screening, para consultas periódicas.
+     */
+    @GetMapping("/{screeningId}/status")
+    public ResponseEntity<ScreeningProgress> getScreeningStatus(
+        @PathVariable Long screeningId
+    ) {
+        return ResponseEntity.ok(screeningExecutionService.getScreeningProgress(screeningId));
+    }
+    
     /**
      * Obtiene historial de screenings de un expediente.
      */
@@ -60,8 +132,189 @@ public class ScreeningController {
         return ResponseEntity.ok(responses);
     }
     
+    /**
+     * Compara la etapa de bloqueo contra el barrido completo para una muestra de nombres.
+     */
+    @PostMapping("/blocking/report")
+    public ResponseEntity<BlockingRecallReport> getBlockingReport(
+        @RequestBody BlockingReportRequest request
+    ) {
+        BlockingRecallReport report = candidateBlockingService.evaluateRecall(
+            request.getNames(),
+            request.getEntityType()
+        );
+        return ResponseEntity.ok(report);
+    }
+    
+    /**
+     * Inicia el re-screening masivo de todos los expedientes.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ScreeningBatchStatus> startBatchScreening(
+        @RequestBody ScreeningBatchRequest request,
+        @AuthenticationPrincipal User currentUser
+    ) {
+        ScreeningBatchStatus status = screeningBatchService.startJob(
+            request.getScreeningType(),
+            currentUser.getId()
+        );
+        return ResponseEntity.accepted().body(status);
+    }
+    
+    /**
+     * Obtiene el avance y rendimiento de un trabajo de screening masivo.
+     */
+    @GetMapping("/batch/{jobId}")
+    public ResponseEntity<ScreeningBatchStatus> getBatchScreening(
+        @PathVariable String jobId
+    ) {
+        return ResponseEntity.ok(screeningBatchService.getJobStatus(jobId));
+    }
+    
+    /**
+     * Cancela un trabajo de screening masivo al terminar la página en curso.
+     */
+    @PostMapping("/batch/{jobId}/cancel")
+    public ResponseEntity<ScreeningBatchStatus> cancelBatchScreening(
+        @PathVariable String jobId
+    ) {
+        return ResponseEntity.ok(screeningBatchService.cancelJob(jobId));
+    }
+    
+    /**
+     * Compara las entradas nuevas o modificadas de una lista contra todos los expedientes.
+     */
+    @PostMapping("/delta/{watchlistId}")
+    public ResponseEntity<DeltaRescreeningReport> rescreenWatchlistDelta(
+        @PathVariable Long watchlistId
+    ) {
+        return ResponseEntity.ok(deltaRescreeningService.rescreenWatchlist(watchlistId));
+    }
+    
+    /**
+     * Carga un archivo de lista restrictiva y publica la nueva versión.
+     */
+    @PostMapping("/watchlists/{watchlistId}/ingest")
+    public ResponseEntity<WatchlistIngestionReport> ingestWatchlist(
+        @PathVariable Long watchlistId,
+        @RequestParam WatchlistFileFormat format,
+        @RequestParam(required = false) String version,
+        @RequestParam MultipartFile file
+    ) throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            return ResponseEntity.ok(watchlistIngestionService.ingest(watchlistId, format, input, version));
+        }
+    }
+    
+    /**
+     * Tasa de aciertos y ocupación de la caché de nombres normalizados.
+     */
+    @GetMapping("/normalization/cache")
+    public ResponseEntity<NormalizationCacheStats> getNormalizationCacheStats() {
+        return ResponseEntity.ok(nameNormalizationService.getCacheStats());
+    }
+    
+    /**
+     * Expedientes cuyo nombre de sujeto coincide con una entrada de lista (índice inverso).
+     */
+    @GetMapping("/watchlist-entries/{entryId}/dossier-candidates")
+    public ResponseEntity<DossierCandidateReport> getDossierCandidates(
+        @PathVariable Long entryId
+    ) {
+        return ResponseEntity.ok(dossierNameIndexService.findCandidates(entryId));
+    }
+    
+    /**
+     * Página de la cola de revisión por (similitud DESC, coincidencia); la
+     * siguiente página se pide con nextAfterScore y nextAfterMatchId.
+     */
+    @GetMapping("/review-queue")
+    public ResponseEntity<ReviewQueuePage> getReviewQueue(
+        @RequestParam(required = false) BigDecimal afterScore,
+        @RequestParam(required = false) Long afterMatchId,
+        @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(matchReviewQueueService.getPage(afterScore, afterMatchId, limit));
+    }
+    
+    /**
+     * Asigna al usuario las siguientes coincidencias libres de la cola.
+     */
+    @PostMapping("/review-queue/claim")
+    public ResponseEntity<List<ReviewQueueItem>> claimReviewQueueItems(
+        @RequestParam(required = false) Integer limit,
+        @AuthenticationPrincipal User currentUser
+    ) {
+        return ResponseEntity.ok(matchReviewQueueService.claim(currentUser.getId(), limit));
+    }
+    
+    /**
+     * Coincidencias asignadas al usuario con lease vigente.
+     */
+    @GetMapping("/review-queue/claimed")
+    public ResponseEntity<List<ReviewQueueItem>> getClaimedReviewQueueItems(
+        @AuthenticationPrincipal User currentUser
+    ) {
+        return ResponseEntity.ok(matchReviewQueueService.getClaimed(currentUser.getId()));
+    }
+    
+    @PostMapping("/review-queue/{matchId}/renew")
+    public ResponseEntity<Void> renewReviewQueueLease(
+        @PathVariable Long matchId,
+        @AuthenticationPrincipal User currentUser
+    ) {
+        matchReviewQueueService.renewLease(matchId, currentUser.getId());
+        return ResponseEntity.noContent().build();
+    }
+    
+    @PostMapping("/review-queue/{matchId}/release")
+    public ResponseEntity<Void> releaseReviewQueueItem(
+        @PathVariable Long matchId,
+        @AuthenticationPrincipal User currentUser
+    ) {
+        matchReviewQueueService.release(matchId, currentUser.getId());
+        return ResponseEntity.noContent().build();
+    }
+    
+    /**
+     * Decisiones cuyos efectos agotaron los reintentos de la bandeja de salida.
+     */
+    @GetMapping("/decision-outbox/dead-letters")
+    public ResponseEntity<List<DecisionOutboxDeadLetter>> getDecisionOutboxDeadLetters(
+        @RequestParam(defaultValue = "100") int limit
+    ) {
+        return ResponseEntity.ok(decisionOutboxProcessor.findDeadLetters(limit));
+    }
+    
+    /**
+     * Reencola decisiones agotadas; sin ids se reencolan todas.
+     */
+    @PostMapping("/decision-outbox/dead-letters/redrive")
+    public ResponseEntity<Map<String, Integer>> redriveDecisionOutboxDeadLetters(
+        @RequestBody(required = false) List<Long> ids
+    ) {
+        return ResponseEntity.ok(Map.of("decisionsRedriven", decisionOutboxProcessor.redriveDeadLetters(ids)));
+    }
+    
+    /**
+     * Datos del screening; las coincidencias se consultan aparte. En modo
+     * asíncrono el id y el estado IN_PROGRESS permiten consultar el avance.
+     */
     private ScreeningResponse mapToResponse(Screening screening) {
-        // Mapping logic here
-        return new ScreeningResponse();
+        ScreeningResponse response = new ScreeningResponse();
+        response.setId(screening.getId());
+        response.setDossierId(screening.getDossierId());
+        response.setScreeningType(screening.getScreeningType() != null
+            ? screening.getScreeningType().name() : null);
+        response.setExecutionDate(screening.getExecutionDate());
+        response.setStatus(screening.getStatus() != null
+            ? screening.getStatus().name() : null);
+        response.setTotalListsChecked(screening.getTotalListsChecked());
+        response.setTotalMatchesFound(screening.getTotalMatchesFound());
+        response.setHasRelevantMatches(screening.getHasRelevantMatches());
+        response.setOverallResult(screening.getOverallResult() != null
+            ? screening.getOverallResult().name() : null);
+        response.setExecutionDurationMs(screening.getExecutionDurationMs());
+        return response;
     }
 }
@@ -0,0 +1,169 @@
+package com.siar.screening.dto;
+
+import java.util.List;
+
+/**
+ * Comparación entre el screening con etapa de bloqueo y el barrido completo
+ * de las listas para una muestra de nombres.
+ * 
+ * El recall se informa al umbral de registro de coincidencias (70%) y al
+ * umbral de coincidencias relevantes que requieren revisión (85%).
+ */
+public class BlockingRecallReport {
+    
+    private Integer sampleSize;
+    private Integer listsChecked;
+    private Long entriesPerName;
+    private Long fullScanMatches;
+    private Long blockedMatches;
+    private Double recall;
+    private Long fullScanRelevantMatches;
+    private Long blockedRelevantMatches;
+    private Double relevantRecall;
+    private Double averageCandidates;
+    private Double candidateRatio;
+    private Long fullScanDurationMs;
+    private Long blockedDurationMs;
+    private Double fullScanNamesPerSecond;
+    private Double blockedNamesPerSecond;
+    private Double speedup;
+    private List<String> missedMatches;
+    
+    // Getters and Setters
+    
+    public Integer getSampleSize() {
+        return sampleSize;
+    }
+    
+    public void setSampleSize(Integer sampleSize) {
+        this.sampleSize = sampleSize;
+    }
+    
+    public Integer getListsChecked() {
+        return listsChecked;
+    }
+    
+    public void setListsChecked(Integer listsChecked) {
+        this.listsChecked = listsChecked;
+    }
+    
+    public Long getEntriesPerName() {
+        return entriesPerName;
+    }
+    
+    public void setEntriesPerName(Long entriesPerName) {
+        this.entriesPerName = entriesPerName;
+    }
+    
+    public Long getFullScanMatches() {
+        return fullScanMatches;
+    }
+    
+    public void setFullScanMatches(Long fullScanMatches) {
+        this.fullScanMatches = fullScanMatches;
+    }
+    
+    public Long getBlockedMatches() {
+        return blockedMatches;
+    }
+    
+    public void setBlockedMatches(Long blockedMatches) {
+        this.blockedMatches = blockedMatches;
+    }
+    
+    public Double getRecall() {
+        return recall;
+    }
+    
+    public void setRecall(Double recall) {
+        this.recall = recall;
+    }
+    
+    public Long getFullScanRelevantMatches() {
+        return fullScanRelevantMatches;
+    }
+    
+    public void setFullScanRelevantMatches(Long fullScanRelevantMatches) {
+        this.fullScanRelevantMatches = fullScanRelevantMatches;
+    }
+    
+    public Long getBlockedRelevantMatches() {
+        return blockedRelevantMatches;
+    }
+    
+    public void setBlockedRelevantMatches(Long blockedRelevantMatches) {
+        this.blockedRelevantMatches = blockedRelevantMatches;
+    }
+    
+    public Double getRelevantRecall() {
+        return relevantRecall;
+    }
+    
+    public void setRelevantRecall(Double relevantRecall) {
+        this.relevantRecall = relevantRecall;
+    }
+    
+    public Double getAverageCandidates() {
+        return averageCandidates;
+    }
+    
+    public void setAverageCandidates(Double averageCandidates) {
+        this.averageCandidates = averageCandidates;
+    }
+    
+    public Double getCandidateRatio() {
+        return candidateRatio;
+    }
+    
+    public void setCandidateRatio(Double candidateRatio) {
+        this.candidateRatio = candidateRatio;
+    }
+    
+    public Long getFullScanDurationMs() {
+        return fullScanDurationMs;
+    }
+    
+    public void setFullScanDurationMs(Long fullScanDurationMs) {
+        this.fullScanDurationMs = fullScanDurationMs;
+    }
+    
+    public Long getBlockedDurationMs() {
+        return blockedDurationMs;
+    }
+    
+    public void setBlockedDurationMs(Long blockedDurationMs) {
+        this.blockedDurationMs = blockedDurationMs;
+    }
+    
+    public Double getFullScanNamesPerSecond() {
+        return fullScanNamesPerSecond;
+    }
+    
+    public void setFullScanNamesPerSecond(Double fullScanNamesPerSecond) {
+        this.fullScanNamesPerSecond = fullScanNamesPerSecond;
+    }
+    
+    public Double getBlockedNamesPerSecond() {
+        return blockedNamesPerSecond;
+    }
+    
+    public void setBlockedNamesPerSecond(Double blockedNamesPerSecond) {
+        this.blockedNamesPerSecond = blockedNamesPerSecond;
+    }
+    
+    public Double getSpeedup() {
+        return speedup;
+    }
+    
+    public void setSpeedup(Double speedup) {
+        this.speedup = speedup;
+    }
+    
+    public List<String> getMissedMatches() {
+        return missedMatches;
+    }
+    
+    public void setMissedMatches(List<String> missedMatches) {
+        this.missedMatches = missedMatches;
+    }
+}
@@ -0,0 +1,28 @@
+package com.siar.screening.dto;
+
+import com.siar.screening.model.EntityType;
+import java.util.List;
+
+public class BlockingReportRequest {
+    
+    private List<String> names;
+    private EntityType entityType;
+    
+    // Getters and Setters
+    
+    public List<String> getNames() {
+        return names;
+    }
+    
+    public void setNames(List<String> names) {
+        this.names = names;
+    }
+    
+    public EntityType getEntityType() {
+        return entityType;
+    }
+    
+    public void setEntityType(EntityType entityType) {
+        this.entityType = entityType;
+    }
+}
@@ -0,0 +1,103 @@
+package com.siar.screening.dto;
+
+import com.siar.screening.model.DecisionType;
+import java.time.Instant;
+
+/**
+ * Decisión cuyos efectos agotaron los reintentos de la bandeja de salida
+ */
+public class DecisionOutboxDeadLetter {
+    
+    private Long id;
+    private Long decisionId;
+    private Long matchId;
+    private Long screeningId;
+    private Long dossierId;
+    private DecisionType decision;
+    private int attempts;
+    private String lastError;
+    private Instant createdAt;
+    private Instant deadLetteredAt;
+    
+    // Getters and Setters
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getDecisionId() {
+        return decisionId;
+    }
+    
+    public void setDecisionId(Long decisionId) {
+        this.decisionId = decisionId;
+    }
+    
+    public Long getMatchId() {
+        return matchId;
+    }
+    
+    public void setMatchId(Long matchId) {
+        this.matchId = matchId;
+    }
+    
+    public Long getScreeningId() {
+        return screeningId;
+    }
+    
+    public void setScreeningId(Long screeningId) {
+        this.screeningId = screeningId;
+    }
+    
+    public Long getDossierId() {
+        return dossierId;
+    }
+    
+    public void setDossierId(Long dossierId) {
+        this.dossierId = dossierId;
+    }
+    
+    public DecisionType getDecision() {
+        return decision;
+    }
+    
+    public void setDecision(DecisionType decision) {
+        this.decision = decision;
+    }
+    
+    public int getAttempts() {
+        return attempts;
+    }
+    
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+    
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+    
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public Instant getDeadLetteredAt() {
+        return deadLetteredAt;
+    }
+    
+    public void setDeadLetteredAt(Instant deadLetteredAt) {
+        this.deadLetteredAt = deadLetteredAt;
+    }
+}
@@ -0,0 +1,154 @@
+package com.siar.screening.dto;
+
+/**
+ * Resultado de un re-screening delta de una lista contra los expedientes
+ */
+public class DeltaRescreeningReport {
+    
+    private Long watchlistId;
+    private String watchlistCode;
+    private String previousVersion;
+    private String currentVersion;
+    private boolean stateInitialized;
+    private boolean skipped;
+    private long previousEntryId;
+    private long lastEntryId;
+    private int changedEntries;
+    private int entriesScreened;
+    private int dossiersIndexed;
+    private long candidatesEvaluated;
+    private int dossiersWithMatches;
+    private int matchesFound;
+    private int matchesSuppressed;
+    private long durationMs;
+    
+    // Getters and Setters
+    
+    public Long getWatchlistId() {
+        return watchlistId;
+    }
+    
+    public void setWatchlistId(Long watchlistId) {
+        this.watchlistId = watchlistId;
+    }
+    
+    public String getWatchlistCode() {
+        return watchlistCode;
+    }
+    
+    public void setWatchlistCode(String watchlistCode) {
+        this.watchlistCode = watchlistCode;
+    }
+    
+    public String getPreviousVersion() {
+        return previousVersion;
+    }
+    
+    public void setPreviousVersion(String previousVersion) {
+        this.previousVersion = previousVersion;
+    }
+    
+    public String getCurrentVersion() {
+        return currentVersion;
+    }
+    
+    public void setCurrentVersion(String currentVersion) {
+        this.currentVersion = currentVersion;
+    }
+    
+    public boolean isStateInitialized() {
+        return stateInitialized;
+    }
+    
+    public void setStateInitialized(boolean stateInitialized) {
+        this.stateInitialized = stateInitialized;
+    }
+    
+    public boolean isSkipped() {
+        return skipped;
+    }
+    
+    public void setSkipped(boolean skipped) {
+        this.skipped = skipped;
+    }
+    
+    public long getPreviousEntryId() {
+        return previousEntryId;
+    }
+    
+    public void setPreviousEntryId(long previousEntryId) {
+        this.previousEntryId = previousEntryId;
+    }
+    
+    public long getLastEntryId() {
+        return lastEntryId;
+    }
+    
+    public void setLastEntryId(long lastEntryId) {
+        this.lastEntryId = lastEntryId;
+    }
+    
+    public int getChangedEntries() {
+        return changedEntries;
+    }
+    
+    public void setChangedEntries(int changedEntries) {
+        this.changedEntries = changedEntries;
+    }
+    
+    public int getEntriesScreened() {
+        return entriesScreened;
+    }
+    
+    public void setEntriesScreened(int entriesScreened) {
+        this.entriesScreened = entriesScreened;
+    }
+    
+    public int getDossiersIndexed() {
+        return dossiersIndexed;
+    }
+    
+    public void setDossiersIndexed(int dossiersIndexed) {
+        this.dossiersIndexed = dossiersIndexed;
+    }
+    
+    public long getCandidatesEvaluated() {
+        return candidatesEvaluated;
+    }
+    
+    public void setCandidatesEvaluated(long candidatesEvaluated) {
+        this.candidatesEvaluated = candidatesEvaluated;
+    }
+    
+    public int getDossiersWithMatches() {
+        return dossiersWithMatches;
+    }
+    
+    public void setDossiersWithMatches(int dossiersWithMatches) {
+        this.dossiersWithMatches = dossiersWithMatches;
+    }
+    
+    public int getMatchesFound() {
+        return matchesFound;
+    }
+    
+    public void setMatchesFound(int matchesFound) {
+        this.matchesFound = matchesFound;
+    }
+    
+    public int getMatchesSuppressed() {
+        return matchesSuppressed;
+    }
+    
+    public void setMatchesSuppressed(int matchesSuppressed) {
+        this.matchesSuppressed = matchesSuppressed;
+    }
+    
+    public long getDurationMs() {
+        return durationMs;
+    }
+    
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+}
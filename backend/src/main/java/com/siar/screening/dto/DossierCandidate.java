@@ -0,0 +1,58 @@
+package com.siar.screening.dto;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Expediente cuyo nombre de sujeto coincide con una entrada de lista
+ */
+public class DossierCandidate {
+    
+    private Long dossierId;
+    private String subjectName;
+    private String matchedName;
+    private BigDecimal similarityScore;
+    private Map<String, Object> matchedFields;
+    
+    // Getters and Setters
+    
+    public Long getDossierId() {
+        return dossierId;
+    }
+    
+    public void setDossierId(Long dossierId) {
+        this.dossierId = dossierId;
+    }
+    
+    public String getSubjectName() {
+        return subjectName;
+    }
+    
+    public void setSubjectName(String subjectName) {
+        this.subjectName = subjectName;
+    }
+    
+    public String getMatchedName() {
+        return matchedName;
+    }
+    
+    public void setMatchedName(String matchedName) {
+        this.matchedName = matchedName;
+    }
+    
+    public BigDecimal getSimilarityScore() {
+        return similarityScore;
+    }
+    
+    public void setSimilarityScore(BigDecimal similarityScore) {
+        this.similarityScore = similarityScore;
+    }
+    
+    public Map<String, Object> getMatchedFields() {
+        return matchedFields;
+    }
+    
+    public void setMatchedFields(Map<String, Object> matchedFields) {
+        this.matchedFields = matchedFields;
+    }
+}
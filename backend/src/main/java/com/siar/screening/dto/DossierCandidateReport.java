@@ -0,0 +1,84 @@
+package com.siar.screening.dto;
+
+import java.util.List;
+
+/**
+ * Expedientes candidatos para una entrada de lista, obtenidos del índice inverso
+ */
+public class DossierCandidateReport {
+    
+    private Long watchlistEntryId;
+    private String entryName;
+    private int dossiersIndexed;
+    private int pendingChanges;
+    private int namesScreened;
+    private long candidatesEvaluated;
+    private List<DossierCandidate> candidates;
+    private long durationMs;
+    
+    // Getters and Setters
+    
+    public Long getWatchlistEntryId() {
+        return watchlistEntryId;
+    }
+    
+    public void setWatchlistEntryId(Long watchlistEntryId) {
+        this.watchlistEntryId = watchlistEntryId;
+    }
+    
+    public String getEntryName() {
+        return entryName;
+    }
+    
+    public void setEntryName(String entryName) {
+        this.entryName = entryName;
+    }
+    
+    public int getDossiersIndexed() {
+        return dossiersIndexed;
+    }
+    
+    public void setDossiersIndexed(int dossiersIndexed) {
+        this.dossiersIndexed = dossiersIndexed;
+    }
+    
+    public int getPendingChanges() {
+        return pendingChanges;
+    }
+    
+    public void setPendingChanges(int pendingChanges) {
+        this.pendingChanges = pendingChanges;
+    }
+    
+    public int getNamesScreened() {
+        return namesScreened;
+    }
+    
+    public void setNamesScreened(int namesScreened) {
+        this.namesScreened = namesScreened;
+    }
+    
+    public long getCandidatesEvaluated() {
+        return candidatesEvaluated;
+    }
+    
+    public void setCandidatesEvaluated(long candidatesEvaluated) {
+        this.candidatesEvaluated = candidatesEvaluated;
+    }
+    
+    public List<DossierCandidate> getCandidates() {
+        return candidates;
+    }
+    
+    public void setCandidates(List<DossierCandidate> candidates) {
+        this.candidates = candidates;
+    }
+    
+    public long getDurationMs() {
+        return durationMs;
+    }
+    
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+}
@@ -0,0 +1,113 @@
+package com.siar.screening.dto;
+
+import com.siar.screening.model.MatchType;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Coincidencia pendiente de decisión en la cola de revisión
+ */
+public class ReviewQueueItem {
+    
+    private Long matchId;
+    private Long screeningId;
+    private Long watchlistEntryId;
+    private String screenedName;
+    private String matchedName;
+    private BigDecimal similarityScore;
+    private MatchType matchType;
+    private Boolean isRelevant;
+    private Instant enqueuedAt;
+    private Long claimedBy;
+    private Instant leaseExpiresAt;
+    
+    // Getters and Setters
+    
+    public Long getMatchId() {
+        return matchId;
+    }
+    
+    public void setMatchId(Long matchId) {
+        this.matchId = matchId;
+    }
+    
+    public Long getScreeningId() {
+        return screeningId;
+    }
+    
+    public void setScreeningId(Long screeningId) {
+        this.screeningId = screeningId;
+    }
+    
+    public Long getWatchlistEntryId() {
+        return watchlistEntryId;
+    }
+    
+    public void setWatchlistEntryId(Long watchlistEntryId) {
+        this.watchlistEntryId = watchlistEntryId;
+    }
+    
+    public String getScreenedName() {
+        return screenedName;
+    }
+    
+    public void setScreenedName(String screenedName) {
+        this.screenedName = screenedName;
+    }
+    
+    public String getMatchedName() {
+        return matchedName;
+    }
+    
+    public void setMatchedName(String matchedName) {
+        this.matchedName = matchedName;
+    }
+    
+    public BigDecimal getSimilarityScore() {
+        return similarityScore;
+    }
+    
+    public void setSimilarityScore(BigDecimal similarityScore) {
+        this.similarityScore = similarityScore;
+    }
+    
+    public MatchType getMatchType() {
+        return matchType;
+    }
+    
+    public void setMatchType(MatchType matchType) {
+        this.matchType = matchType;
+    }
+    
+    public Boolean getIsRelevant() {
+        return isRelevant;
+    }
+    
+    public void setIsRelevant(Boolean isRelevant) {
+        this.isRelevant = isRelevant;
+    }
+    
+    public Instant getEnqueuedAt() {
+        return enqueuedAt;
+    }
+    
+    public void setEnqueuedAt(Instant enqueuedAt) {
+        this.enqueuedAt = enqueuedAt;
+    }
+    
+    public Long getClaimedBy() {
+        return claimedBy;
+    }
+    
+    public void setClaimedBy(Long claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+    
+    public Instant getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+    
+    public void setLeaseExpiresAt(Instant leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+}
@@ -0,0 +1,49 @@
+package com.siar.screening.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Página de la cola de revisión; la siguiente se pide con afterScore y afterMatchId
+ */
+public class ReviewQueuePage {
+    
+    private List<ReviewQueueItem> items;
+    private Boolean hasMore;
+    private BigDecimal nextAfterScore;
+    private Long nextAfterMatchId;
+    
+    // Getters and Setters
+    
+    public List<ReviewQueueItem> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<ReviewQueueItem> items) {
+        this.items = items;
+    }
+    
+    public Boolean getHasMore() {
+        return hasMore;
+    }
+    
+    public void setHasMore(Boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+    
+    public BigDecimal getNextAfterScore() {
+        return nextAfterScore;
+    }
+    
+    public void setNextAfterScore(BigDecimal nextAfterScore) {
+        this.nextAfterScore = nextAfterScore;
+    }
+    
+    public Long getNextAfterMatchId() {
+        return nextAfterMatchId;
+    }
+    
+    public void setNextAfterMatchId(Long nextAfterMatchId) {
+        this.nextAfterMatchId = nextAfterMatchId;
+    }
+}
@@ -0,0 +1,18 @@
+package com.siar.screening.dto;
+
+import com.siar.screening.model.ScreeningType;
+
+public class ScreeningBatchRequest {
+    
+    private ScreeningType screeningType = ScreeningType.PERIODIC;
+    
+    // Getters and Setters
+    
+    public ScreeningType getScreeningType() {
+        return screeningType;
+    }
+    
+    public void setScreeningType(ScreeningType screeningType) {
+        this.screeningType = screeningType;
+    }
+}
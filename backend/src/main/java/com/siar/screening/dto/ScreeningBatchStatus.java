@@ -0,0 +1,159 @@
+package com.siar.screening.dto;
+
+import com.siar.screening.model.ScreeningStatus;
+import com.siar.screening.model.ScreeningType;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Avance y rendimiento de un trabajo de screening masivo
+ */
+public class ScreeningBatchStatus {
+    
+    private String jobId;
+    private ScreeningStatus status;
+    private ScreeningType screeningType;
+    private Map<String, String> watchlistVersions;
+    private long totalDossiers;
+    private long processedDossiers;
+    private long screeningsWithMatches;
+    private long screeningsFromCache;
+    private long totalMatches;
+    private double progressPercentage;
+    private double dossiersPerSecond;
+    private Long estimatedRemainingSeconds;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long elapsedMs;
+    private String errorMessage;
+    
+    // Getters and Setters
+    
+    public String getJobId() {
+        return jobId;
+    }
+    
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+    
+    public ScreeningStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(ScreeningStatus status) {
+        this.status = status;
+    }
+    
+    public ScreeningType getScreeningType() {
+        return screeningType;
+    }
+    
+    public void setScreeningType(ScreeningType screeningType) {
+        this.screeningType = screeningType;
+    }
+    
+    public Map<String, String> getWatchlistVersions() {
+        return watchlistVersions;
+    }
+    
+    public void setWatchlistVersions(Map<String, String> watchlistVersions) {
+        this.watchlistVersions = watchlistVersions;
+    }
+    
+    public long getTotalDossiers() {
+        return totalDossiers;
+    }
+    
+    public void setTotalDossiers(long totalDossiers) {
+        this.totalDossiers = totalDossiers;
+    }
+    
+    public long getProcessedDossiers() {
+        return processedDossiers;
+    }
+    
+    public void setProcessedDossiers(long processedDossiers) {
+        this.processedDossiers = processedDossiers;
+    }
+    
+    public long getScreeningsWithMatches() {
+        return screeningsWithMatches;
+    }
+    
+    public void setScreeningsWithMatches(long screeningsWithMatches) {
+        this.screeningsWithMatches = screeningsWithMatches;
+    }
+    
+    public long getScreeningsFromCache() {
+        return screeningsFromCache;
+    }
+    
+    public void setScreeningsFromCache(long screeningsFromCache) {
+        this.screeningsFromCache = screeningsFromCache;
+    }
+    
+    public long getTotalMatches() {
+        return totalMatches;
+    }
+    
+    public void setTotalMatches(long totalMatches) {
+        this.totalMatches = totalMatches;
+    }
+    
+    public double getProgressPercentage() {
+        return progressPercentage;
+    }
+    
+    public void setProgressPercentage(double progressPercentage) {
+        this.progressPercentage = progressPercentage;
+    }
+    
+    public double getDossiersPerSecond() {
+        return dossiersPerSecond;
+    }
+    
+    public void setDossiersPerSecond(double dossiersPerSecond) {
+        this.dossiersPerSecond = dossiersPerSecond;
+    }
+    
+    public Long getEstimatedRemainingSeconds() {
+        return estimatedRemainingSeconds;
+    }
+    
+    public void setEstimatedRemainingSeconds(Long estimatedRemainingSeconds) {
+        this.estimatedRemainingSeconds = estimatedRemainingSeconds;
+    }
+    
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+    
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+    
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+    
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+    
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+    
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+}
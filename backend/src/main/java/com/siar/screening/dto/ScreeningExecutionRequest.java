@@ -7,6 +7,11 @@ public class ScreeningExecutionRequest {
     private Long dossierId;
     private ScreeningType screeningType;
     
+    /**
+     * Si es true se responde de inmediato con el screening IN_PROGRESS
+     */
+    private Boolean async;
+    
     public Long getDossierId() {
         return dossierId;
     }
@@ -22,4 +27,12 @@ public class ScreeningExecutionRequest {
     public void setScreeningType(ScreeningType screeningType) {
         this.screeningType = screeningType;
     }
+    
+    public Boolean getAsync() {
+        return async;
+    }
+    
+    public void setAsync(Boolean async) {
+        this.async = async;
+    }
 }
@@ -0,0 +1,112 @@
+package com.siar.screening.dto;
+
+import com.siar.screening.model.ScreeningStatus;
+import java.time.Instant;
+
+/**
+ * Estado y avance de un screening, para consultas periódicas
+ */
+public class ScreeningProgress {
+    
+    private Long screeningId;
+    private Long dossierId;
+    private ScreeningStatus status;
+    private Instant executionDate;
+    private Integer totalListsChecked;
+    private Integer listsCompleted;
+    private Integer totalMatchesFound;
+    private Boolean hasRelevantMatches;
+    private Long executionDurationMs;
+    private String errorMessage;
+    private Long cachedFromScreeningId;
+    
+    // Getters and Setters
+    
+    public Long getScreeningId() {
+        return screeningId;
+    }
+    
+    public void setScreeningId(Long screeningId) {
+        this.screeningId = screeningId;
+    }
+    
+    public Long getDossierId() {
+        return dossierId;
+    }
+    
+    public void setDossierId(Long dossierId) {
+        this.dossierId = dossierId;
+    }
+    
+    public ScreeningStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(ScreeningStatus status) {
+        this.status = status;
+    }
+    
+    public Instant getExecutionDate() {
+        return executionDate;
+    }
+    
+    public void setExecutionDate(Instant executionDate) {
+        this.executionDate = executionDate;
+    }
+    
+    public Integer getTotalListsChecked() {
+        return totalListsChecked;
+    }
+    
+    public void setTotalListsChecked(Integer totalListsChecked) {
+        this.totalListsChecked = totalListsChecked;
+    }
+    
+    public Integer getListsCompleted() {
+        return listsCompleted;
+    }
+    
+    public void setListsCompleted(Integer listsCompleted) {
+        this.listsCompleted = listsCompleted;
+    }
+    
+    public Integer getTotalMatchesFound() {
+        return totalMatchesFound;
+    }
+    
+    public void setTotalMatchesFound(Integer totalMatchesFound) {
+        this.totalMatchesFound = totalMatchesFound;
+    }
+    
+    public Boolean getHasRelevantMatches() {
+        return hasRelevantMatches;
+    }
+    
+    public void setHasRelevantMatches(Boolean hasRelevantMatches) {
+        this.hasRelevantMatches = hasRelevantMatches;
+    }
+    
+    public Long getExecutionDurationMs() {
+        return executionDurationMs;
+    }
+    
+    public void setExecutionDurationMs(Long executionDurationMs) {
+        this.executionDurationMs = executionDurationMs;
+    }
+    
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+    
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+    
+    public Long getCachedFromScreeningId() {
+        return cachedFromScreeningId;
+    }
+    
+    public void setCachedFromScreeningId(Long cachedFromScreeningId) {
+        this.cachedFromScreeningId = cachedFromScreeningId;
+    }
+}
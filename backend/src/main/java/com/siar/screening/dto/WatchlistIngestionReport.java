@@ -0,0 +1,147 @@
+package com.siar.screening.dto;
+
+import com.siar.screening.ingestion.WatchlistFileFormat;
+
+/**
+ * Resultado de la carga de un archivo de lista restrictiva
+ */
+public class WatchlistIngestionReport {
+    
+    private Long watchlistId;
+    private String watchlistCode;
+    private WatchlistFileFormat format;
+    private String previousVersion;
+    private String currentVersion;
+    private String checksumMd5;
+    private boolean unchanged;
+    private long recordsRead;
+    private long recordsSkipped;
+    private int entriesInserted;
+    private int entriesDeactivated;
+    private long stagingDurationMs;
+    private long applyDurationMs;
+    private long durationMs;
+    private DeltaRescreeningReport deltaRescreening;
+    
+    // Getters and Setters
+    
+    public Long getWatchlistId() {
+        return watchlistId;
+    }
+    
+    public void setWatchlistId(Long watchlistId) {
+        this.watchlistId = watchlistId;
+    }
+    
+    public String getWatchlistCode() {
+        return watchlistCode;
+    }
+    
+    public void setWatchlistCode(String watchlistCode) {
+        this.watchlistCode = watchlistCode;
+    }
+    
+    public WatchlistFileFormat getFormat() {
+        return format;
+    }
+    
+    public void setFormat(WatchlistFileFormat format) {
+        this.format = format;
+    }
+    
+    public String getPreviousVersion() {
+        return previousVersion;
+    }
+    
+    public void setPreviousVersion(String previousVersion) {
+        this.previousVersion = previousVersion;
+    }
+    
+    public String getCurrentVersion() {
+        return currentVersion;
+    }
+    
+    public void setCurrentVersion(String currentVersion) {
+        this.currentVersion = currentVersion;
+    }
+    
+    public String getChecksumMd5() {
+        return checksumMd5;
+    }
+    
+    public void setChecksumMd5(String checksumMd5) {
+        this.checksumMd5 = checksumMd5;
+    }
+    
+    public boolean isUnchanged() {
+        return unchanged;
+    }
+    
+    public void setUnchanged(boolean unchanged) {
+        this.unchanged = unchanged;
+    }
+    
+    public long getRecordsRead() {
+        return recordsRead;
+    }
+    
+    public void setRecordsRead(long recordsRead) {
+        this.recordsRead = recordsRead;
+    }
+    
+    public long getRecordsSkipped() {
+        return recordsSkipped;
+    }
+    
+    public void setRecordsSkipped(long recordsSkipped) {
+        this.recordsSkipped = recordsSkipped;
+    }
+    
+    public int getEntriesInserted() {
+        return entriesInserted;
+    }
+    
+    public void setEntriesInserted(int entriesInserted) {
+        this.entriesInserted = entriesInserted;
+    }
+    
+    public int getEntriesDeactivated() {
+        return entriesDeactivated;
+    }
+    
+    public void setEntriesDeactivated(int entriesDeactivated) {
+        this.entriesDeactivated = entriesDeactivated;
+    }
+    
+    public long getStagingDurationMs() {
+        return stagingDurationMs;
+    }
+    
+    public void setStagingDurationMs(long stagingDurationMs) {
+        this.stagingDurationMs = stagingDurationMs;
+    }
+    
+    public long getApplyDurationMs() {
+        return applyDurationMs;
+    }
+    
+    public void setApplyDurationMs(long applyDurationMs) {
+        this.applyDurationMs = applyDurationMs;
+    }
+    
+    public long getDurationMs() {
+        return durationMs;
+    }
+    
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+    
+    public DeltaRescreeningReport getDeltaRescreening() {
+        return deltaRescreening;
+    }
+    
+    public void setDeltaRescreening(DeltaRescreeningReport deltaRescreening) {
+        this.deltaRescreening = deltaRescreening;
+    }
+}
@@ -0,0 +1,160 @@
+package com.siar.screening.ingestion;
+
+import com.siar.screening.model.EntityType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lector de listas en CSV (RFC 4180) con fila de encabezado.
+ * 
+ * Columnas reconocidas: external_id, entity_type, name, aliases (separados
+ * por ';'), document, date_of_birth, nationality, country, address,
+ * sanction_program, sanction_date, remarks. Las demás se ignoran. Lee un
+ * registro por vez, admitiendo campos entre comillas con saltos de línea.
+ */
+class CsvWatchlistReader implements WatchlistRecordReader {
+    
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private final StringBuilder field = new StringBuilder();
+    private long line = 1;
+    
+    CsvWatchlistReader(InputStream input) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        
+        List<String> header = readRow();
+        if (header == null) {
+            throw new IOException("Empty watchlist CSV");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            // Quitar BOM y normalizar nombres de columna
+            String column = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            columns.put(column, i);
+        }
+        if (!columns.containsKey("external_id") || !columns.containsKey("name")) {
+            throw new IOException("Watchlist CSV requires external_id and name columns");
+        }
+    }
+    
+    @Override
+    public WatchlistRecord next() throws IOException {
+        List<String> row;
+        do {
+            row = readRow();
+            if (row == null) return null;
+        } while (row.size() == 1 && row.get(0).isEmpty());
+        
+        WatchlistRecord record = new WatchlistRecord();
+        record.setExternalId(value(row, "external_id"));
+        record.setName(value(row, "name"));
+        record.setEntityType(toEntityType(value(row, "entity_type")));
+        record.setDocument(value(row, "document"));
+        record.setDateOfBirth(date(row, "date_of_birth"));
+        record.setNationality(value(row, "nationality"));
+        record.setCountry(value(row, "country"));
+        record.setAddress(value(row, "address"));
+        record.setSanctionProgram(value(row, "sanction_program"));
+        record.setSanctionDate(date(row, "sanction_date"));
+        record.setRemarks(value(row, "remarks"));
+        
+        String aliases = value(row, "aliases");
+        if (aliases != null) {
+            for (String alias : aliases.split(";")) {
+                record.addAlias(alias);
+            }
+        }
+        return record;
+    }
+    
+    /**
+     * Lee una fila completa; null al final del archivo
+     */
+    private List<String> readRow() throws IOException {
+        int c = reader.read();
+        if (c == -1) return null;
+        
+        List<String> row = new ArrayList<>();
+        boolean quoted = false;
+        field.setLength(0);
+        
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field at line " + line);
+                }
+                if (c == QUOTE) {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == QUOTE) {
+                        field.append(QUOTE);
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    if (c == '\n') line++;
+                    field.append((char) c);
+                }
+            } else if (c == QUOTE && field.length() == 0) {
+                quoted = true;
+            } else if (c == SEPARATOR) {
+                row.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                line++;
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        
+        row.add(field.toString());
+        return row;
+    }
+    
+    private String value(List<String> row, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= row.size()) return null;
+        String value = row.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+    
+    private LocalDate date(List<String> row, String column) throws IOException {
+        String value = value(row, column);
+        if (value == null) return null;
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IOException("Invalid date '" + value + "' in column " + column + " at line " + (line - 1));
+        }
+    }
+    
+    private static EntityType toEntityType(String value) {
+        if (value == null) return EntityType.PERSON;
+        try {
+            return EntityType.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return EntityType.OTHER;
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,118 @@
+package com.siar.screening.ingestion;
+
+import com.siar.screening.model.EntityType;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector del archivo SDN de OFAC (sdn.xml).
+ * 
+ * Cada sdnEntry es un registro; la clave natural es su uid.
+ */
+class OfacSdnXmlReader extends XmlWatchlistReader {
+    
+    private String firstName;
+    private String lastName;
+    private String akaFirstName;
+    private String akaLastName;
+    private final List<String> akas = new ArrayList<>();
+    private String address;
+    private String city;
+    private String addressCountry;
+    
+    OfacSdnXmlReader(InputStream input) throws IOException {
+        super(input);
+    }
+    
+    @Override
+    protected boolean isRecordElement(String name) {
+        return "sdnEntry".equals(name);
+    }
+    
+    @Override
+    protected boolean onStart(WatchlistRecord record, String parent, String name) throws XMLStreamException {
+        if ("sdnEntry".equals(parent)) {
+            switch (name) {
+                case "uid": record.setExternalId(text()); return true;
+                case "firstName": firstName = text(); return true;
+                case "lastName": lastName = text(); return true;
+                case "sdnType": record.setEntityType(toEntityType(text())); return true;
+                case "remarks": record.setRemarks(text()); return true;
+                default: return false;
+            }
+        }
+        
+        switch (name) {
+            case "firstName":
+                if ("aka".equals(parent)) { akaFirstName = text(); return true; }
+                return false;
+            case "lastName":
+                if ("aka".equals(parent)) { akaLastName = text(); return true; }
+                return false;
+            case "program":
+                String program = text();
+                if (record.getSanctionProgram() == null) record.setSanctionProgram(program);
+                return true;
+            case "idNumber":
+                String document = text();
+                if (record.getDocument() == null) record.setDocument(document);
+                return true;
+            case "dateOfBirth":
+                if (record.getDateOfBirth() == null) record.setDateOfBirth(parseDate(text()));
+                else text();
+                return true;
+            case "country":
+                String country = text();
+                if ("nationality".equals(parent) || "citizenship".equals(parent)) {
+                    if (record.getNationality() == null) record.setNationality(toIso3(country));
+                } else if ("address".equals(parent) && addressCountry == null) {
+                    addressCountry = country;
+                }
+                return true;
+            case "address1":
+                if ("address".equals(parent) && address == null) { address = text(); return true; }
+                return false;
+            case "city":
+                if ("address".equals(parent) && city == null) { city = text(); return true; }
+                return false;
+            default:
+                return false;
+        }
+    }
+    
+    @Override
+    protected void onEnd(WatchlistRecord record, String name) {
+        if ("aka".equals(name)) {
+            akas.add(join(akaFirstName, akaLastName));
+            akaFirstName = null;
+            akaLastName = null;
+        } else if ("sdnEntry".equals(name)) {
+            record.setName(join(firstName, lastName));
+            akas.forEach(record::addAlias);
+            record.setCountry(addressCountry);
+            record.setAddress(join(address, city, addressCountry));
+            
+            firstName = null;
+            lastName = null;
+            akas.clear();
+            address = null;
+            city = null;
+            addressCountry = null;
+        }
+    }
+    
+    private static EntityType toEntityType(String sdnType) {
+        if (sdnType == null) return EntityType.OTHER;
+        switch (sdnType) {
+            case "Individual": return EntityType.PERSON;
+            case "Entity": return EntityType.COMPANY;
+            case "Vessel": return EntityType.VESSEL;
+            case "Aircraft": return EntityType.AIRCRAFT;
+            default: return EntityType.OTHER;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.siar.screening.ingestion;
+
+import com.siar.screening.model.EntityType;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lector de la lista consolidada del Consejo de Seguridad de la ONU.
+ * 
+ * Cada INDIVIDUAL o ENTITY es un registro; la clave natural es su DATAID.
+ */
+class UnConsolidatedXmlReader extends XmlWatchlistReader {
+    
+    private final String[] nameParts = new String[4];
+    private final List<String> aliases = new ArrayList<>();
+    private String listType;
+    
+    UnConsolidatedXmlReader(InputStream input) throws IOException {
+        super(input);
+    }
+    
+    @Override
+    protected boolean isRecordElement(String name) {
+        return "INDIVIDUAL".equals(name) || "ENTITY".equals(name);
+    }
+    
+    @Override
+    protected boolean onStart(WatchlistRecord record, String parent, String name) throws XMLStreamException {
+        if (parent == null) {
+            record.setEntityType("INDIVIDUAL".equals(name) ? EntityType.PERSON : EntityType.COMPANY);
+            return false;
+        }
+        
+        switch (name) {
+            case "DATAID": record.setExternalId(text()); return true;
+            case "FIRST_NAME": nameParts[0] = text(); return true;
+            case "SECOND_NAME": nameParts[1] = text(); return true;
+            case "THIRD_NAME": nameParts[2] = text(); return true;
+            case "FOURTH_NAME": nameParts[3] = text(); return true;
+            case "UN_LIST_TYPE": listType = text(); return true;
+            case "REFERENCE_NUMBER":
+                record.setSanctionProgram(join(listType, text()));
+                return true;
+            case "LISTED_ON": record.setSanctionDate(parseDate(text())); return true;
+            case "COMMENTS1": record.setRemarks(text()); return true;
+            case "ALIAS_NAME": aliases.add(text()); return true;
+            case "VALUE":
+                String value = text();
+                if ("NATIONALITY".equals(parent) && record.getNationality() == null) {
+                    record.setNationality(toIso3(value));
+                }
+                return true;
+            case "DATE":
+                LocalDate date = parseDate(text());
+                if (parent.endsWith("DATE_OF_BIRTH") && record.getDateOfBirth() == null) {
+                    record.setDateOfBirth(date);
+                }
+                return true;
+            case "NUMBER":
+                String number = text();
+                if (parent.endsWith("DOCUMENT") && record.getDocument() == null) {
+                    record.setDocument(number);
+                }
+                return true;
+            case "COUNTRY":
+                String country = text();
+                if (parent.endsWith("ADDRESS") && record.getCountry() == null) {
+                    record.setCountry(country);
+                    record.setAddress(country);
+                }
+                return true;
+            default:
+                return false;
+        }
+    }
+    
+    @Override
+    protected void onEnd(WatchlistRecord record, String name) {
+        if (isRecordElement(name)) {
+            record.setName(join(nameParts));
+            aliases.forEach(record::addAlias);
+            
+            Arrays.fill(nameParts, null);
+            aliases.clear();
+            listType = null;
+        }
+    }
+}
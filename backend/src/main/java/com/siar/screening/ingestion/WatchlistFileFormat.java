@@ -0,0 +1,33 @@
+package com.siar.screening.ingestion;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Formatos de archivo de listas restrictivas soportados por la carga
+ */
+public enum WatchlistFileFormat {
+    
+    OFAC_SDN_XML {      // sdn.xml / consolidated.xml de OFAC
+        @Override
+        public WatchlistRecordReader open(InputStream input) throws IOException {
+            return new OfacSdnXmlReader(input);
+        }
+    },
+    
+    UN_CONSOLIDATED_XML {   // Lista consolidada del Consejo de Seguridad ONU
+        @Override
+        public WatchlistRecordReader open(InputStream input) throws IOException {
+            return new UnConsolidatedXmlReader(input);
+        }
+    },
+    
+    CSV {               // CSV con encabezado (ver CsvWatchlistReader)
+        @Override
+        public WatchlistRecordReader open(InputStream input) throws IOException {
+            return new CsvWatchlistReader(input);
+        }
+    };
+    
+    public abstract WatchlistRecordReader open(InputStream input) throws IOException;
+}
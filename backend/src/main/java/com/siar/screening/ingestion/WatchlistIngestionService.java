@@ -0,0 +1,309 @@
+package com.siar.screening.ingestion;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siar.screening.config.ScreeningConfiguration;
+import com.siar.screening.dto.WatchlistIngestionReport;
+import com.siar.screening.model.Watchlist;
+import com.siar.screening.repository.WatchlistRepository;
+import com.siar.screening.service.DeltaRescreeningService;
+import com.siar.screening.service.WatchlistIndexService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Carga por streaming de archivos de listas restrictivas.
+ * 
+ * El archivo se lee registro por registro y se vuelca por lotes a
+ * watchlist_entry_staging mientras se calcula su MD5, de modo que la memoria
+ * usada no depende del tamaño del archivo. La comparación contra las entradas
+ * vigentes (por clave natural y huella de contenido), la desactivación de las
+ * retiradas o modificadas, la inserción de las nuevas y el cambio de versión
+ * de la lista se aplican en una sola transacción: los screenings ven la
+ * versión anterior completa o la nueva completa.
+ */
+@Service
+@Slf4j
+public class WatchlistIngestionService {
+    
+    private static final DateTimeFormatter VERSION_FORMAT =
+        DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+    
+    private static final String INSERT_STAGING =
+        "INSERT INTO watchlist_entry_staging (load_id, watchlist_id, external_id, content_hash, " +
+        "entity_type, name, aliases, document, date_of_birth, nationality, country, address, " +
+        "sanction_program, sanction_date, remarks) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?::jsonb, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String DELETE_STAGING =
+        "DELETE FROM watchlist_entry_staging WHERE load_id = ?";
+    
+    private static final String LOCK_WATCHLIST =
+        "SELECT id FROM watchlist WHERE id = ? FOR UPDATE";
+    
+    // Entradas vigentes ausentes del archivo o con contenido distinto
+    private static final String DEACTIVATE_ENTRIES =
+        "UPDATE watchlist_entry e SET is_active = false, updated_at = CURRENT_TIMESTAMP " +
+        "WHERE e.watchlist_id = ? AND e.is_active = true " +
+        "AND NOT EXISTS (SELECT 1 FROM watchlist_entry_staging s " +
+        "WHERE s.load_id = ? AND s.external_id = e.external_id AND s.content_hash = e.content_hash)";
+    
+    // Registros del archivo sin entrada vigente equivalente (nuevos o modificados)
+    private static final String INSERT_ENTRIES =
+        "INSERT INTO watchlist_entry (watchlist_id, external_id, content_hash, entity_type, name, " +
+        "aliases, document, date_of_birth, nationality, country, address, sanction_program, " +
+        "sanction_date, remarks, is_active) " +
+        "SELECT DISTINCT ON (s.external_id) s.watchlist_id, s.external_id, s.content_hash, " +
+        "s.entity_type, s.name, s.aliases, s.document, s.date_of_birth, s.nationality, s.country, " +
+        "s.address, s.sanction_program, s.sanction_date, s.remarks, true " +
+        "FROM watchlist_entry_staging s " +
+        "WHERE s.load_id = ? AND NOT EXISTS (SELECT 1 FROM watchlist_entry e " +
+        "WHERE e.watchlist_id = s.watchlist_id AND e.is_active = true AND e.external_id = s.external_id) " +
+        "ORDER BY s.external_id";
+    
+    private static final String UPDATE_WATCHLIST_VERSION =
+        "UPDATE watchlist SET version = ?, checksum_md5 = ?, last_update_date = ?, " +
+        "next_scheduled_update = ?, updated_at = CURRENT_TIMESTAMP, total_entries = " +
+        "(SELECT COUNT(*) FROM watchlist_entry WHERE watchlist_id = ? AND is_active = true) " +
+        "WHERE id = ?";
+    
+    private static final String UPDATE_WATCHLIST_CHECKED =
+        "UPDATE watchlist SET last_update_date = ?, next_scheduled_update = ? WHERE id = ?";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private WatchlistRepository watchlistRepository;
+    
+    @Autowired
+    private DeltaRescreeningService deltaRescreeningService;
+    
+    @Autowired
+    private WatchlistIndexService watchlistIndexService;
+    
+    @Autowired
+    private ScreeningConfiguration screeningConfiguration;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    /**
+     * Carga un archivo de lista y publica la nueva versión.
+     * 
+     * @param version Versión a registrar; si es null se usa la fecha y hora UTC de la carga
+     */
+    public WatchlistIngestionReport ingest(Long watchlistId, WatchlistFileFormat format, InputStream input, String version)
+        throws IOException {
+        long startTime = System.currentTimeMillis();
+        
+        Watchlist watchlist = watchlistRepository.findById(watchlistId)
+            .orElseThrow(() -> new RuntimeException("Watchlist not found: " + watchlistId));
+        
+        Instant loadedAt = Instant.now();
+        UUID loadId = UUID.randomUUID();
+        MessageDigest md5 = newMd5();
+        
+        WatchlistIngestionReport report = new WatchlistIngestionReport();
+        report.setWatchlistId(watchlistId);
+        report.setWatchlistCode(watchlist.getCode());
+        report.setFormat(format);
+        report.setPreviousVersion(watchlist.getVersion());
+        
+        try {
+            try (DigestInputStream digestInput = new DigestInputStream(new BufferedInputStream(input), md5);
+                 WatchlistRecordReader reader = format.open(digestInput)) {
+                stage(loadId, watchlistId, reader, report);
+                // El checksum cubre el archivo completo aunque el parser no lo consuma hasta el final
+                digestInput.on(true);
+                byte[] buffer = new byte[8192];
+                while (digestInput.read(buffer) != -1) {
+                    // Descartar
+                }
+            }
+            report.setStagingDurationMs(System.currentTimeMillis() - startTime);
+            
+            String checksum = HexFormat.of().formatHex(md5.digest());
+            report.setChecksumMd5(checksum);
+            Timestamp nextUpdate = nextScheduledUpdate(watchlist, loadedAt);
+            
+            if (checksum.equals(watchlist.getChecksumMd5())) {
+                // Mismo archivo que la versión vigente: solo registrar la verificación
+                jdbcTemplate.update(UPDATE_WATCHLIST_CHECKED, Timestamp.from(loadedAt), nextUpdate, watchlistId);
+                report.setUnchanged(true);
+                report.setCurrentVersion(watchlist.getVersion());
+            } else {
+                String newVersion = version != null ? version : VERSION_FORMAT.format(loadedAt);
+                long applyStart = System.currentTimeMillis();
+                transactionTemplate.executeWithoutResult(status ->
+                    apply(loadId, watchlistId, newVersion, checksum, loadedAt, nextUpdate, report)
+                );
+                report.setApplyDurationMs(System.currentTimeMillis() - applyStart);
+                report.setCurrentVersion(newVersion);
+            }
+        } finally {
+            jdbcTemplate.update(DELETE_STAGING, loadId);
+        }
+        
+        report.setDurationMs(System.currentTimeMillis() - startTime);
+        log.info("Watchlist loaded: list={}, version={}->{}, records={}, skipped={}, inserted={}, deactivated={}, unchanged={}, durationMs={}",
+            watchlist.getCode(), report.getPreviousVersion(), report.getCurrentVersion(),
+            report.getRecordsRead(), report.getRecordsSkipped(), report.getEntriesInserted(),
+            report.getEntriesDeactivated(), report.isUnchanged(), report.getDurationMs());
+        
+        if (!report.isUnchanged()) {
+            // Construir y escribir el índice de la nueva versión antes del primer screening
+            try {
+                watchlistRepository.findById(watchlistId).ifPresent(watchlistIndexService::getSnapshot);
+            } catch (RuntimeException e) {
+                // Se reintenta en el primer screening que use la lista
+                log.error("Watchlist index build after load failed: list={}", watchlist.getCode(), e);
+            }
+        }
+        
+        if (!report.isUnchanged() && screeningConfiguration.getIngestion().isRescreenOnLoad()) {
+            try {
+                report.setDeltaRescreening(deltaRescreeningService.rescreenWatchlist(watchlistId));
+            } catch (RuntimeException e) {
+                // La carga ya está publicada; el job de re-screening delta lo reintentará
+                log.error("Delta rescreening after load failed: list={}", watchlist.getCode(), e);
+            }
+        }
+        
+        return report;
+    }
+    
+    /**
+     * Vuelca los registros del archivo a staging en lotes.
+     */
+    private void stage(UUID loadId, Long watchlistId, WatchlistRecordReader reader, WatchlistIngestionReport report)
+        throws IOException {
+        int batchSize = screeningConfiguration.getIngestion().getBatchSize();
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        long read = 0;
+        long skipped = 0;
+        
+        WatchlistRecord record;
+        while ((record = reader.next()) != null) {
+            read++;
+            if (!record.isValid()) {
+                skipped++;
+                continue;
+            }
+            record.fitToColumns();
+            batch.add(toStagingRow(loadId, watchlistId, record));
+            
+            if (batch.size() == batchSize) {
+                jdbcTemplate.batchUpdate(INSERT_STAGING, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_STAGING, batch);
+        }
+        
+        report.setRecordsRead(read);
+        report.setRecordsSkipped(skipped);
+    }
+    
+    /**
+     * Aplica la diferencia y publica la nueva versión en la transacción actual.
+     */
+    private void apply(
+        UUID loadId,
+        Long watchlistId,
+        String version,
+        String checksum,
+        Instant loadedAt,
+        Timestamp nextUpdate,
+        WatchlistIngestionReport report
+    ) {
+        // Serializa cargas concurrentes de la misma lista
+        jdbcTemplate.queryForObject(LOCK_WATCHLIST, Long.class, watchlistId);
+        
+        report.setEntriesDeactivated(jdbcTemplate.update(DEACTIVATE_ENTRIES, watchlistId, loadId));
+        report.setEntriesInserted(jdbcTemplate.update(INSERT_ENTRIES, loadId));
+        
+        jdbcTemplate.update(UPDATE_WATCHLIST_VERSION,
+            version, checksum, Timestamp.from(loadedAt), nextUpdate, watchlistId, watchlistId);
+    }
+    
+    private Object[] toStagingRow(UUID loadId, Long watchlistId, WatchlistRecord record) {
+        return new Object[] {
+            loadId,
+            watchlistId,
+            record.getExternalId(),
+            record.contentHash(),
+            record.getEntityType().name(),
+            record.getName(),
+            toJson(record.getAliases()),
+            record.getDocument(),
+            record.getDateOfBirth() != null ? Date.valueOf(record.getDateOfBirth()) : null,
+            record.getNationality(),
+            record.getCountry(),
+            record.getAddress(),
+            record.getSanctionProgram(),
+            record.getSanctionDate() != null ? Date.valueOf(record.getSanctionDate()) : null,
+            record.getRemarks()
+        };
+    }
+    
+    private String toJson(List<String> aliases) {
+        if (aliases.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(aliases);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Cannot serialize aliases", e);
+        }
+    }
+    
+    /**
+     * Próxima actualización según la frecuencia de la lista; null si es manual
+     */
+    private Timestamp nextScheduledUpdate(Watchlist watchlist, Instant loadedAt) {
+        if (watchlist.getUpdateFrequency() == null) {
+            return null;
+        }
+        ZonedDateTime from = loadedAt.atZone(ZoneOffset.UTC);
+        switch (watchlist.getUpdateFrequency()) {
+            case DAILY: return Timestamp.from(from.plusDays(1).toInstant());
+            case WEEKLY: return Timestamp.from(from.plusWeeks(1).toInstant());
+            case MONTHLY: return Timestamp.from(from.plusMonths(1).toInstant());
+            case QUARTERLY: return Timestamp.from(from.plusMonths(3).toInstant());
+            default: return null;
+        }
+    }
+    
+    private static MessageDigest newMd5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.siar.screening.ingestion;
+
+import com.siar.screening.model.EntityType;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Registro leído de un archivo de lista restrictiva, antes de compararse
+ * con las entradas vigentes.
+ * 
+ * La clave natural es el identificador de la entrada en la fuente
+ * (externalId) y la huella de contenido permite detectar entradas
+ * modificadas sin comparar campo por campo.
+ */
+public class WatchlistRecord {
+    
+    private static final char FIELD_SEPARATOR = '\u001f';
+    
+    private String externalId;
+    private EntityType entityType = EntityType.OTHER;
+    private String name;
+    private List<String> aliases = new ArrayList<>();
+    private String document;
+    private LocalDate dateOfBirth;
+    private String nationality;
+    private String country;
+    private String address;
+    private String sanctionProgram;
+    private LocalDate sanctionDate;
+    private String remarks;
+    
+    /**
+     * Indica si el registro tiene los datos mínimos para cargarse
+     */
+    public boolean isValid() {
+        return externalId != null && !externalId.isBlank() && name != null && !name.isBlank();
+    }
+    
+    /**
+     * Agrega un alias no vacío y distinto del nombre principal
+     */
+    public void addAlias(String alias) {
+        if (alias == null) return;
+        alias = alias.trim();
+        if (!alias.isEmpty() && !alias.equalsIgnoreCase(name) && !aliases.contains(alias)) {
+            aliases.add(alias);
+        }
+    }
+    
+    /**
+     * Ajusta los campos a las longitudes de las columnas de watchlist_entry
+     */
+    public void fitToColumns() {
+        externalId = truncate(externalId, 100);
+        name = truncate(name, 500);
+        document = truncate(document, 100);
+        country = truncate(country, 100);
+        sanctionProgram = truncate(sanctionProgram, 100);
+        if (nationality != null && nationality.length() > 3) {
+            nationality = null;
+        }
+    }
+    
+    /**
+     * MD5 del contenido del registro (sin la clave natural)
+     */
+    public String contentHash() {
+        StringBuilder content = new StringBuilder(256);
+        content.append(entityType).append(FIELD_SEPARATOR)
+            .append(name).append(FIELD_SEPARATOR)
+            .append(String.join("|", aliases)).append(FIELD_SEPARATOR)
+            .append(document).append(FIELD_SEPARATOR)
+            .append(dateOfBirth).append(FIELD_SEPARATOR)
+            .append(nationality).append(FIELD_SEPARATOR)
+            .append(country).append(FIELD_SEPARATOR)
+            .append(address).append(FIELD_SEPARATOR)
+            .append(sanctionProgram).append(FIELD_SEPARATOR)
+            .append(sanctionDate).append(FIELD_SEPARATOR)
+            .append(remarks);
+        
+        try {
+            MessageDigest md5 = MessageDigest.getInstance("MD5");
+            return HexFormat.of().formatHex(md5.digest(content.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+    }
+    
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+    
+    // Getters and Setters
+    
+    public String getExternalId() {
+        return externalId;
+    }
+    
+    public void setExternalId(String externalId) {
+        this.externalId = externalId;
+    }
+    
+    public EntityType getEntityType() {
+        return entityType;
+    }
+    
+    public void setEntityType(EntityType entityType) {
+        this.entityType = entityType;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public List<String> getAliases() {
+        return aliases;
+    }
+    
+    public void setAliases(List<String> aliases) {
+        this.aliases = aliases;
+    }
+    
+    public String getDocument() {
+        return document;
+    }
+    
+    public void setDocument(String document) {
+        this.document = document;
+    }
+    
+    public LocalDate getDateOfBirth() {
+        return dateOfBirth;
+    }
+    
+    public void setDateOfBirth(LocalDate dateOfBirth) {
+        this.dateOfBirth = dateOfBirth;
+    }
+    
+    public String getNationality() {
+        return nationality;
+    }
+    
+    public void setNationality(String nationality) {
+        this.nationality = nationality;
+    }
+    
+    public String getCountry() {
+        return country;
+    }
+    
+    public void setCountry(String country) {
+        this.country = country;
+    }
+    
+    public String getAddress() {
+        return address;
+    }
+    
+    public void setAddress(String address) {
+        this.address = address;
+    }
+    
+    public String getSanctionProgram() {
+        return sanctionProgram;
+    }
+    
+    public void setSanctionProgram(String sanctionProgram) {
+        this.sanctionProgram = sanctionProgram;
+    }
+    
+    public LocalDate getSanctionDate() {
+        return sanctionDate;
+    }
+    
+    public void setSanctionDate(LocalDate sanctionDate) {
+        this.sanctionDate = sanctionDate;
+    }
+    
+    public String getRemarks() {
+        return remarks;
+    }
+    
+    public void setRemarks(String remarks) {
+        this.remarks = remarks;
+    }
+}
@@ -0,0 +1,20 @@
+package com.siar.screening.ingestion;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Lector incremental de registros de un archivo de lista restrictiva.
+ * 
+ * Las implementaciones leen el archivo como flujo y mantienen en memoria
+ * solo el registro en curso, independientemente del tamaño del archivo.
+ */
+public interface WatchlistRecordReader extends Closeable {
+    
+    /**
+     * Lee el siguiente registro.
+     * 
+     * @return El registro, o null al llegar al final del archivo
+     */
+    WatchlistRecord next() throws IOException;
+}
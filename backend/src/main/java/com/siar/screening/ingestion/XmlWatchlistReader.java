@@ -0,0 +1,165 @@
+package com.siar.screening.ingestion;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Base de los lectores XML con StAX (pull parser).
+ * 
+ * Recorre el documento evento por evento y entrega un registro cada vez que
+ * se cierra el elemento que lo contiene, sin construir el árbol del
+ * documento. Las subclases indican qué elemento es un registro y cómo
+ * interpretar sus elementos hijos.
+ */
+abstract class XmlWatchlistReader implements WatchlistRecordReader {
+    
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+        DateTimeFormatter.ISO_LOCAL_DATE,
+        DateTimeFormatter.ofPattern("d MMM yyyy", Locale.ENGLISH),
+        DateTimeFormatter.ofPattern("dd/MM/yyyy")
+    );
+    
+    private static final Map<String, String> ISO3_BY_COUNTRY_NAME = new HashMap<>();
+    
+    static {
+        for (String code : Locale.getISOCountries()) {
+            Locale locale = new Locale("", code);
+            ISO3_BY_COUNTRY_NAME.put(locale.getDisplayCountry(Locale.ENGLISH).toLowerCase(Locale.ROOT), locale.getISO3Country());
+        }
+    }
+    
+    private final XMLStreamReader xml;
+    private final Deque<String> path = new ArrayDeque<>();
+    
+    protected XmlWatchlistReader(InputStream input) throws IOException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        // Sin DTD ni entidades externas (XXE)
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        try {
+            this.xml = factory.createXMLStreamReader(input, "UTF-8");
+        } catch (XMLStreamException e) {
+            throw new IOException("Cannot open watchlist XML: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Indica si el elemento contiene un registro completo
+     */
+    protected abstract boolean isRecordElement(String name);
+    
+    /**
+     * Procesa la apertura de un elemento dentro de un registro.
+     * 
+     * @return true si consumió el elemento completo (por ejemplo con {@link #text()})
+     */
+    protected abstract boolean onStart(WatchlistRecord record, String parent, String name) throws XMLStreamException;
+    
+    /**
+     * Procesa el cierre de un elemento dentro de un registro (incluido el del registro)
+     */
+    protected void onEnd(WatchlistRecord record, String name) {
+    }
+    
+    @Override
+    public WatchlistRecord next() throws IOException {
+        try {
+            WatchlistRecord record = null;
+            String recordElement = null;
+            
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = xml.getLocalName();
+                    if (record == null) {
+                        if (isRecordElement(name)) {
+                            record = new WatchlistRecord();
+                            recordElement = name;
+                            path.clear();
+                            onStart(record, null, name);
+                            path.push(name);
+                        }
+                    } else if (!onStart(record, path.peek(), name)) {
+                        path.push(name);
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && record != null) {
+                    String name = xml.getLocalName();
+                    onEnd(record, name);
+                    if (path.size() == 1 && name.equals(recordElement)) {
+                        path.clear();
+                        return record;
+                    }
+                    path.pop();
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid watchlist XML at line " + xml.getLocation().getLineNumber()
+                + ": " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Lee el texto del elemento actual y avanza hasta su cierre
+     */
+    protected String text() throws XMLStreamException {
+        String text = xml.getElementText().trim();
+        return text.isEmpty() ? null : text;
+    }
+    
+    protected static String join(String... parts) {
+        StringBuilder joined = new StringBuilder();
+        for (String part : parts) {
+            if (part == null || part.isBlank()) continue;
+            if (joined.length() > 0) joined.append(' ');
+            joined.append(part.trim());
+        }
+        return joined.length() == 0 ? null : joined.toString();
+    }
+    
+    /**
+     * Interpreta fechas completas en los formatos usados por las fuentes;
+     * las fechas parciales ("1970", "circa 1970") se descartan.
+     */
+    protected static LocalDate parseDate(String value) {
+        if (value == null) return null;
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(value, format);
+            } catch (DateTimeParseException e) {
+                // Probar el siguiente formato
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Código ISO 3166 alfa-3 a partir del nombre del país en inglés
+     */
+    protected static String toIso3(String country) {
+        return country == null ? null : ISO3_BY_COUNTRY_NAME.get(country.trim().toLowerCase(Locale.ROOT));
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+}
@@ -63,6 +63,12 @@ public class Screening {
     @Column(name = "error_message", columnDefinition = "TEXT")
     private String errorMessage;
     
+    @Column(name = "subject_fingerprint", length = 64)
+    private String subjectFingerprint;
+    
+    @Column(name = "cached_from_screening_id")
+    private Long cachedFromScreeningId;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
     
@@ -202,6 +208,22 @@ public class Screening {
         this.errorMessage = errorMessage;
     }
     
+    public String getSubjectFingerprint() {
+        return subjectFingerprint;
+    }
+    
+    public void setSubjectFingerprint(String subjectFingerprint) {
+        this.subjectFingerprint = subjectFingerprint;
+    }
+    
+    public Long getCachedFromScreeningId() {
+        return cachedFromScreeningId;
+    }
+    
+    public void setCachedFromScreeningId(Long cachedFromScreeningId) {
+        this.cachedFromScreeningId = cachedFromScreeningId;
+    }
+    
     public Instant getCreatedAt() {
         return createdAt;
     }
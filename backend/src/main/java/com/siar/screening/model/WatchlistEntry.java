@@ -62,6 +62,12 @@ public class WatchlistEntry {
     @Column(name = "additional_info", columnDefinition = "jsonb")
     private Map<String, Object> additionalInfo;
     
+    @Column(name = "external_id", length = 100)
+    private String externalId;
+    
+    @Column(name = "content_hash", length = 32)
+    private String contentHash;
+    
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
     
@@ -196,6 +202,22 @@ public class WatchlistEntry {
         this.additionalInfo = additionalInfo;
     }
     
+    public String getExternalId() {
+        return externalId;
+    }
+    
+    public void setExternalId(String externalId) {
+        this.externalId = externalId;
+    }
+    
+    public String getContentHash() {
+        return contentHash;
+    }
+    
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+    
     public Boolean getIsActive() {
         return isActive;
     }
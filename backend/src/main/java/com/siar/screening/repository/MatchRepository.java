@@ -29,8 +29,12 @@ public interface MatchRepository extends JpaRepository<Match, Long> {
            "AND sd.decision = 'TRUE_MATCH'")
     List<Match> findTrueMatchesByScreeningId(@Param("screeningId") Long screeningId);
     
-    @Query("SELECT m FROM Match m WHERE m.requiresReview = true " +
-           "AND NOT EXISTS (SELECT 1 FROM ScreeningDecision sd WHERE sd.matchId = m.id)")
+    /**
+     * Todas las coincidencias pendientes; para recorrer la cola por páginas
+     * usar MatchReviewQueueService
+     */
+    @Query(value = "SELECT m.* FROM match_review_queue q JOIN match m ON m.id = q.match_id " +
+                   "ORDER BY q.similarity_score DESC, q.match_id", nativeQuery = true)
     List<Match> findPendingReview();
     
     List<Match> findByMatchType(MatchType matchType);
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,4 +39,13 @@ public interface ScreeningDecisionRepository extends JpaRepository<ScreeningDeci
     
     @Query("SELECT sd FROM ScreeningDecision sd WHERE sd.requiresEnhancedDueDiligence = true")
     List<ScreeningDecision> findRequiringEnhancedDueDiligence();
+    
+    /**
+     * Decisiones sobre pares expediente/entrada, de la más antigua a la más reciente:
+     * [dossierId, watchlistEntryId, decision]
+     */
+    @Query("SELECT s.dossierId, m.watchlistEntryId, sd.decision FROM ScreeningDecision sd, Match m, Screening s " +
+           "WHERE sd.matchId = m.id AND sd.screeningId = s.id AND s.dossierId IN :dossierIds " +
+           "ORDER BY sd.decidedAt ASC")
+    List<Object[]> findEntryDecisionsByDossierIds(@Param("dossierIds") Collection<Long> dossierIds);
 }
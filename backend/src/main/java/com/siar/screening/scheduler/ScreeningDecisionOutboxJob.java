@@ -0,0 +1,36 @@
+package com.siar.screening.scheduler;
+
+import com.siar.screening.config.ScreeningConfiguration;
+import com.siar.screening.service.ScreeningDecisionOutboxProcessor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Job que aplica los efectos pendientes de las decisiones de screening
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ScreeningDecisionOutboxJob {
+    
+    private final ScreeningDecisionOutboxProcessor outboxProcessor;
+    private final ScreeningConfiguration screeningConfiguration;
+    
+    @Scheduled(fixedDelayString = "${siar.screening.decision-outbox.poll-interval-ms:1000}")
+    public void processDecisionOutbox() {
+        if (!screeningConfiguration.getDecisionOutbox().isEnabled()) {
+            return;
+        }
+        
+        try {
+            int processed = outboxProcessor.processPending();
+            if (processed > 0) {
+                log.debug("Screening decision effects applied: decisions={}", processed);
+            }
+        } catch (Exception e) {
+            log.error("Error in screening decision outbox job", e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.siar.screening.scheduler;
+
+import com.siar.screening.config.ScreeningConfiguration;
+import com.siar.screening.dto.DeltaRescreeningReport;
+import com.siar.screening.service.DeltaRescreeningService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Job que revisa periódicamente si alguna lista activa cambió de versión
+ * y ejecuta el re-screening delta de sus entradas nuevas o modificadas
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WatchlistDeltaRescreeningJob {
+    
+    private final DeltaRescreeningService deltaRescreeningService;
+    private final ScreeningConfiguration screeningConfiguration;
+    
+    @Scheduled(fixedDelayString = "${siar.screening.delta.check-interval-ms:300000}")
+    public void rescreenChangedWatchlists() {
+        if (!screeningConfiguration.getDelta().isEnabled()) {
+            return;
+        }
+        
+        try {
+            List<DeltaRescreeningReport> reports = deltaRescreeningService.rescreenChangedWatchlists();
+            for (DeltaRescreeningReport report : reports) {
+                if (report.getDossiersWithMatches() > 0) {
+                    log.warn("Delta rescreening found new matches: list={}, dossiers={}, matches={}",
+                        report.getWatchlistCode(), report.getDossiersWithMatches(), report.getMatchesFound());
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error in watchlist delta rescreening job", e);
+        }
+    }
+}
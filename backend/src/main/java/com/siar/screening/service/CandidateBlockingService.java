@@ -0,0 +1,232 @@
+package com.siar.screening.service;
+
+import com.siar.screening.config.ScreeningConfiguration;
+import com.siar.screening.dto.BlockingRecallReport;
+import com.siar.screening.model.EntityType;
+import com.siar.screening.model.Watchlist;
+import com.siar.screening.repository.WatchlistRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Etapa de generación de candidatos (blocking) previa a Jaro-Winkler.
+ * 
+ * Reduce las entradas a comparar a las que comparten suficientes trigramas
+ * o claves fonéticas con el nombre consultado, de modo que el costo por
+ * nombre deja de ser proporcional al tamaño de la lista.
+ */
+@Service
+public class CandidateBlockingService {
+    
+    private static final ThreadLocal<NameBlockingIndex.Scratch> SCRATCH =
+        ThreadLocal.withInitial(NameBlockingIndex.Scratch::new);
+    
+    private static final int MAX_MISSED_REPORTED = 50;
+    
+    private static final BigDecimal MATCH_THRESHOLD = BigDecimal.valueOf(70);
+    private static final BigDecimal RELEVANT_THRESHOLD = BigDecimal.valueOf(85);
+    
+    @Autowired
+    private ScreeningConfiguration screeningConfiguration;
+    
+    @Autowired
+    private WatchlistRepository watchlistRepository;
+    
+    @Autowired
+    private WatchlistIndexService watchlistIndexService;
+    
+    @Autowired
+    private JaroWinklerService jaroWinklerService;
+    
+    @Autowired
+    private NameNormalizationService nameNormalizationService;
+    
+    @Autowired
+    private ScreeningMetrics screeningMetrics;
+    
+    public CandidateBlockingService() {
+    }
+    
+    /**
+     * Instancia fuera del contexto de Spring (pruebas y benchmarks), para
+     * obtener candidatos de buckets ya construidos
+     */
+    CandidateBlockingService(
+        ScreeningConfiguration screeningConfiguration,
+        JaroWinklerService jaroWinklerService,
+        ScreeningMetrics screeningMetrics
+    ) {
+        this.screeningConfiguration = screeningConfiguration;
+        this.jaroWinklerService = jaroWinklerService;
+        this.screeningMetrics = screeningMetrics;
+    }
+    
+    /**
+     * Obtiene las filas candidatas (nombres principales y alias) de la lista
+     * para un nombre normalizado; {@link WatchlistIndexBucket#ownerOf(int)}
+     * da la entrada de cada fila. Con el bloqueo deshabilitado devuelve todas
+     * las filas.
+     */
+    public int[] findCandidates(WatchlistIndexBucket bucket, char[] normalizedName) {
+        if (!screeningConfiguration.getBlocking().isEnabled()) {
+            return bucket.getBlockingIndex().allRows();
+        }
+        
+        int[] candidates = blockedCandidates(bucket, normalizedName);
+        screeningMetrics.recordBlocking(bucket.rowCount(), candidates.length);
+        return candidates;
+    }
+    
+    /**
+     * Candidatos de la etapa de bloqueo con la configuración vigente, sin
+     * registrar métricas: la evaluación de recall no debe alterar las del
+     * screening en producción.
+     */
+    private int[] blockedCandidates(WatchlistIndexBucket bucket, char[] normalizedName) {
+        ScreeningConfiguration.BlockingConfig config = screeningConfiguration.getBlocking();
+        return bucket.getBlockingIndex().candidates(
+            normalizedName, 0, normalizedName.length,
+            config.getMinTrigramOverlap(),
+            config.getMinPhoneticTokens(),
+            SCRATCH.get()
+        );
+    }
+    
+    /**
+     * Compara el bloqueo contra el barrido completo de las listas activas para
+     * una muestra de nombres: recall a los umbrales de 70% y 85% y rendimiento de ambos.
+     * 
+     * Los nombres se normalizan como en el screening del tipo de entidad y el
+     * bloqueo se evalúa con la configuración vigente aunque esté deshabilitado.
+     */
+    public BlockingRecallReport evaluateRecall(List<String> names, EntityType entityType) {
+        List<WatchlistIndexBucket> buckets = new ArrayList<>();
+        long entriesPerName = 0;
+        for (Watchlist watchlist : watchlistRepository.findActiveWatchlistsOrderedByPriority()) {
+            WatchlistIndexBucket bucket = watchlistIndexService.getSnapshot(watchlist).getBucket(entityType);
+            buckets.add(bucket);
+            entriesPerName += bucket.rowCount();
+        }
+        
+        List<char[]> queries = new ArrayList<>(names.size());
+        for (String name : names) {
+            queries.add(nameNormalizationService.normalize(name, entityType).toCharArray());
+        }
+        
+        // Barrido completo
+        long fullScanMatches = 0;
+        long fullScanRelevant = 0;
+        long fullStart = System.nanoTime();
+        for (char[] query : queries) {
+            for (WatchlistIndexBucket bucket : buckets) {
+                for (int row = 0; row < bucket.rowCount(); row++) {
+                    BigDecimal score = score(query, bucket, row);
+                    if (score == null) {
+                        continue;
+                    }
+                    if (score.compareTo(MATCH_THRESHOLD) >= 0) {
+                        fullScanMatches++;
+                    }
+                    if (score.compareTo(RELEVANT_THRESHOLD) >= 0) {
+                        fullScanRelevant++;
+                    }
+                }
+            }
+        }
+        long fullScanNanos = System.nanoTime() - fullStart;
+        
+        // Con etapa de bloqueo
+        long blockedMatches = 0;
+        long blockedRelevant = 0;
+        long candidates = 0;
+        long blockedStart = System.nanoTime();
+        for (char[] query : queries) {
+            for (WatchlistIndexBucket bucket : buckets) {
+                int[] rows = blockedCandidates(bucket, query);
+                candidates += rows.length;
+                for (int row : rows) {
+                    BigDecimal score = score(query, bucket, row);
+                    if (score == null) {
+                        continue;
+                    }
+                    if (score.compareTo(MATCH_THRESHOLD) >= 0) {
+                        blockedMatches++;
+                    }
+                    if (score.compareTo(RELEVANT_THRESHOLD) >= 0) {
+                        blockedRelevant++;
+                    }
+                }
+            }
+        }
+        long blockedNanos = System.nanoTime() - blockedStart;
+        
+        BlockingRecallReport report = new BlockingRecallReport();
+        report.setSampleSize(queries.size());
+        report.setListsChecked(buckets.size());
+        report.setEntriesPerName(entriesPerName);
+        report.setFullScanMatches(fullScanMatches);
+        report.setBlockedMatches(blockedMatches);
+        report.setRecall(fullScanMatches == 0 ? 1.0 : (double) blockedMatches / fullScanMatches);
+        report.setFullScanRelevantMatches(fullScanRelevant);
+        report.setBlockedRelevantMatches(blockedRelevant);
+        report.setRelevantRecall(fullScanRelevant == 0 ? 1.0 : (double) blockedRelevant / fullScanRelevant);
+        report.setAverageCandidates(queries.isEmpty() ? 0.0 : (double) candidates / queries.size());
+        report.setCandidateRatio(entriesPerName == 0 || queries.isEmpty()
+            ? 0.0 : (double) candidates / (entriesPerName * queries.size()));
+        report.setFullScanDurationMs(fullScanNanos / 1_000_000);
+        report.setBlockedDurationMs(blockedNanos / 1_000_000);
+        report.setFullScanNamesPerSecond(queries.size() / Math.max(fullScanNanos / 1e9, 1e-9));
+        report.setBlockedNamesPerSecond(queries.size() / Math.max(blockedNanos / 1e9, 1e-9));
+        report.setSpeedup((double) fullScanNanos / Math.max(blockedNanos, 1));
+        report.setMissedMatches(blockedMatches < fullScanMatches
+            ? findMissedMatches(queries, buckets) : List.of());
+        
+        return report;
+    }
+    
+    /**
+     * Pares (nombre, entrada) que supera el umbral en barrido completo
+     * pero que el bloqueo no propone como candidatos.
+     */
+    private List<String> findMissedMatches(List<char[]> queries, List<WatchlistIndexBucket> buckets) {
+        List<String> missed = new ArrayList<>();
+        for (char[] query : queries) {
+            for (WatchlistIndexBucket bucket : buckets) {
+                int[] rows = blockedCandidates(bucket, query);
+                int next = 0;
+                for (int row = 0; row < bucket.rowCount(); row++) {
+                    boolean candidate = next < rows.length && rows[next] == row;
+                    if (candidate) {
+                        next++;
+                        continue;
+                    }
+                    BigDecimal score = score(query, bucket, row);
+                    if (score != null && score.compareTo(MATCH_THRESHOLD) >= 0) {
+                        missed.add(new String(query) + " -> " + bucket.getEntryName(bucket.ownerOf(row)));
+                        if (missed.size() == MAX_MISSED_REPORTED) {
+                            return missed;
+                        }
+                    }
+                }
+            }
+        }
+        return missed;
+    }
+    
+    /**
+     * Puntaje de una fila, o null si no alcanza el umbral de coincidencia.
+     */
+    private BigDecimal score(char[] query, WatchlistIndexBucket bucket, int row) {
+        double similarity = jaroWinklerService.similarityAtLeast(
+            query, 0, query.length,
+            bucket.getChars(), bucket.rowStart(row), bucket.rowEnd(row),
+            jaroWinklerService.thresholdFor(MATCH_THRESHOLD)
+        );
+        return similarity == JaroWinklerService.BELOW_THRESHOLD
+            ? null : jaroWinklerService.toPercentage(similarity);
+    }
+}
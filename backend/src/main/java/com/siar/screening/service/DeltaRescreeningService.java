@@ -0,0 +1,480 @@
+package com.siar.screening.service;
+
+import com.siar.alert.service.AlertService;
+import com.siar.screening.config.ScreeningConfiguration;
+import com.siar.screening.dto.DeltaRescreeningReport;
+import com.siar.screening.model.*;
+import com.siar.screening.repository.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Re-screening delta al actualizarse una lista.
+ * 
+ * En lugar de volver a evaluar todos los expedientes contra la lista completa,
+ * obtiene las entradas agregadas o modificadas desde el último re-screening
+ * ({@link WatchlistDelta}) y compara solo esas entradas, con sus alias,
+ * contra los expedientes del mismo tipo de entidad en el índice inverso
+ * ({@link DossierNameIndexService}), en todos los tipos de entidad.
+ * Se genera un screening por cada expediente y tipo con coincidencias nuevas.
+ * 
+ * La versión comparada y la marca de agua de entradas se guardan en
+ * watchlist_delta_state y sobreviven a los reinicios. La comparación se hace
+ * fuera de toda transacción a partir del estado leído; después, en una
+ * transacción corta, se bloquea la fila de la lista, se comprueba que el
+ * estado no cambió, se insertan los screenings por lotes y se avanza la
+ * marca de agua. Con varios nodos solo uno registra cada versión y los demás
+ * la omiten.
+ */
+@Service
+@Slf4j
+public class DeltaRescreeningService {
+    
+    private static final String SELECT_STATES =
+        "SELECT watchlist_id, rescreened_version, rescreened_checksum, last_entry_id FROM watchlist_delta_state";
+    
+    private static final String SELECT_STATE =
+        "SELECT watchlist_id, rescreened_version, rescreened_checksum, last_entry_id " +
+        "FROM watchlist_delta_state WHERE watchlist_id = ?";
+    
+    // Una lista sin estado se compara completa contra los expedientes
+    private static final String INSERT_STATE =
+        "INSERT INTO watchlist_delta_state (watchlist_id, last_entry_id) VALUES (?, 0) " +
+        "ON CONFLICT (watchlist_id) DO NOTHING";
+    
+    private static final String CLAIM_STATE =
+        "SELECT watchlist_id, rescreened_version, rescreened_checksum, last_entry_id " +
+        "FROM watchlist_delta_state WHERE watchlist_id = ? FOR UPDATE SKIP LOCKED";
+    
+    private static final String UPDATE_STATE =
+        "UPDATE watchlist_delta_state SET rescreened_version = ?, rescreened_checksum = ?, " +
+        "last_entry_id = ?, rescreened_at = ? WHERE watchlist_id = ?";
+    
+    private static final String INSERT_SCREENING =
+        "INSERT INTO screening (id, dossier_id, screening_type, execution_date, " +
+        "screened_entity_name, screened_entity_type, status, total_lists_checked, " +
+        "total_matches_found, has_relevant_matches, overall_result, executed_by) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    // Valor de overall_result admitido por chk_screening_overall_result
+    private static final String RESULT_REVIEW_REQUIRED = "REVIEW_REQUIRED";
+    
+    @Autowired
+    private WatchlistRepository watchlistRepository;
+    
+    @Autowired
+    private ScreeningResultWriter screeningResultWriter;
+    
+    @Autowired
+    private WatchlistIndexService watchlistIndexService;
+    
+    @Autowired
+    private DossierNameIndexService dossierNameIndexService;
+    
+    @Autowired
+    private WatchlistMatchingService watchlistMatchingService;
+    
+    @Autowired
+    private JaroWinklerService jaroWinklerService;
+    
+    @Autowired
+    private MatchScoringService matchScoringService;
+    
+    @Autowired
+    private AlertService alertService;
+    
+    @Autowired
+    private ScreeningConfiguration screeningConfiguration;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Ejecuta el re-screening delta de las listas activas cuya versión
+     * cambió desde el último re-screening registrado.
+     */
+    public List<DeltaRescreeningReport> rescreenChangedWatchlists() {
+        Map<Long, DeltaState> states = new HashMap<>();
+        jdbcTemplate.query(SELECT_STATES, rs -> {
+            DeltaState state = DeltaState.of(rs);
+            states.put(state.watchlistId, state);
+        });
+        
+        List<DeltaRescreeningReport> reports = new ArrayList<>();
+        for (Watchlist watchlist : watchlistRepository.findActiveWatchlistsOrderedByPriority()) {
+            DeltaState state = states.get(watchlist.getId());
+            if (state == null || !state.isCurrent(watchlist.getVersion(), watchlist.getChecksumMd5())) {
+                reports.add(rescreen(watchlist));
+            }
+        }
+        return reports;
+    }
+    
+    /**
+     * Ejecuta el re-screening delta de una lista
+     */
+    public DeltaRescreeningReport rescreenWatchlist(Long watchlistId) {
+        Watchlist watchlist = watchlistRepository.findById(watchlistId)
+            .orElseThrow(() -> new RuntimeException("Watchlist not found: " + watchlistId));
+        return rescreen(watchlist);
+    }
+    
+    private DeltaRescreeningReport rescreen(Watchlist watchlist) {
+        long startTime = System.currentTimeMillis();
+        
+        WatchlistSnapshot current = watchlistIndexService.getSnapshot(watchlist);
+        
+        DeltaRescreeningReport report = new DeltaRescreeningReport();
+        report.setWatchlistId(watchlist.getId());
+        report.setWatchlistCode(watchlist.getCode());
+        report.setCurrentVersion(current.getVersion());
+        report.setStateInitialized(jdbcTemplate.update(INSERT_STATE, watchlist.getId()) > 0);
+        
+        DeltaState state = jdbcTemplate.queryForObject(SELECT_STATE, (rs, rowNum) -> DeltaState.of(rs), watchlist.getId());
+        report.setPreviousVersion(state.version);
+        report.setPreviousEntryId(state.lastEntryId);
+        report.setLastEntryId(state.lastEntryId);
+        if (state.isCurrent(current.getVersion(), current.getChecksumMd5())) {
+            // Otro nodo ya comparó esta versión
+            report.setDurationMs(System.currentTimeMillis() - startTime);
+            return report;
+        }
+        
+        // Comparación sin transacción ni bloqueos
+        WatchlistDelta delta = WatchlistDelta.since(current, state.lastEntryId);
+        List<DossierScreening> screenings = screenDelta(watchlist, current, delta, report);
+        
+        boolean recorded = Boolean.TRUE.equals(transactionTemplate.execute(status ->
+            recordClaimed(watchlist, current, state, delta, screenings)
+        ));
+        report.setDurationMs(System.currentTimeMillis() - startTime);
+        
+        if (!recorded) {
+            report.setSkipped(true);
+            report.setLastEntryId(state.lastEntryId);
+            log.info("Delta rescreening skipped, list claimed by another node: list={}", watchlist.getCode());
+            return report;
+        }
+        
+        for (DossierScreening screening : screenings) {
+            // Generar alerta para Oficial de Cumplimiento
+            alertService.createScreeningAlert(screening.screeningId, screening.dossierId);
+        }
+        report.setDossiersWithMatches(screenings.size());
+        
+        log.info("Delta rescreening completed: list={}, version={}->{}, entryId={}->{}, screened={}, dossiersWithMatches={}, matches={}, durationMs={}",
+            watchlist.getCode(), report.getPreviousVersion(), report.getCurrentVersion(),
+            report.getPreviousEntryId(), report.getLastEntryId(), report.getEntriesScreened(),
+            report.getDossiersWithMatches(), report.getMatchesFound(), report.getDurationMs());
+        
+        return report;
+    }
+    
+    /**
+     * Compara las entradas con id mayor que la marca de agua contra los
+     * expedientes de cada tipo de entidad.
+     * 
+     * @return Screenings por registrar, uno por expediente y tipo con coincidencias
+     */
+    private List<DossierScreening> screenDelta(
+        Watchlist watchlist,
+        WatchlistSnapshot current,
+        WatchlistDelta delta,
+        DeltaRescreeningReport report
+    ) {
+        report.setChangedEntries(delta.getChangedCount());
+        report.setLastEntryId(delta.getLastEntryId());
+        
+        List<DossierScreening> screenings = new ArrayList<>();
+        for (EntityType entityType : EntityType.values()) {
+            int[] changedEntries = delta.getChangedEntries(entityType);
+            if (changedEntries.length == 0) {
+                continue;
+            }
+            
+            WatchlistIndexBucket entries = current.getBucket(entityType);
+            DossierNameIndexService.DossierNames dossiers = dossierNameIndexService.getIndex(entityType);
+            report.setEntriesScreened(report.getEntriesScreened() + changedEntries.length);
+            report.setDossiersIndexed(report.getDossiersIndexed() + dossiers.size());
+            
+            Map<Long, DossierHits> matchesByDossier = screenEntries(entries, changedEntries, dossiers, report);
+            suppressFalsePositives(matchesByDossier, report);
+            for (Map.Entry<Long, DossierHits> hit : matchesByDossier.entrySet()) {
+                screenings.add(new DossierScreening(hit.getKey(), entityType, hit.getValue(), changedEntries.length));
+            }
+        }
+        return screenings;
+    }
+    
+    /**
+     * Bloquea el estado de la lista y, si no cambió desde que se leyó,
+     * inserta los screenings y registra la nueva marca de agua en la misma
+     * transacción.
+     * 
+     * @return false si la lista la está procesando otro nodo o ya la registró
+     */
+    private boolean recordClaimed(
+        Watchlist watchlist,
+        WatchlistSnapshot current,
+        DeltaState compared,
+        WatchlistDelta delta,
+        List<DossierScreening> screenings
+    ) {
+        List<DeltaState> claimed = jdbcTemplate.query(CLAIM_STATE, (rs, rowNum) -> DeltaState.of(rs), watchlist.getId());
+        if (claimed.isEmpty() || !claimed.get(0).isSameAs(compared)) {
+            return false;
+        }
+        
+        persistScreenings(watchlist, screenings);
+        jdbcTemplate.update(UPDATE_STATE, current.getVersion(), current.getChecksumMd5(),
+            delta.getLastEntryId(), Timestamp.from(Instant.now()), watchlist.getId());
+        return true;
+    }
+    
+    /**
+     * Compara el nombre principal y los alias de cada entrada modificada
+     * contra los expedientes candidatos del índice inverso, con una
+     * coincidencia por entrada y expediente (la de mayor similitud).
+     * 
+     * @return Coincidencias agrupadas por expediente
+     */
+    private Map<Long, DossierHits> screenEntries(
+        WatchlistIndexBucket entries,
+        int[] changedEntries,
+        DossierNameIndexService.DossierNames dossiers,
+        DeltaRescreeningReport report
+    ) {
+        double threshold = jaroWinklerService.thresholdFor(WatchlistMatchingService.MATCH_THRESHOLD);
+        Map<Long, DossierHits> matchesByDossier = new TreeMap<>();
+        long candidatesEvaluated = 0;
+        int matchesFound = 0;
+        
+        for (int entry : changedEntries) {
+            Map<Long, Match> entryMatches = new HashMap<>();
+            Map<Long, String> dossierNames = new HashMap<>();
+            
+            for (int row : entryRows(entries, entry)) {
+                char[] entryName = Arrays.copyOfRange(entries.getChars(), entries.rowStart(row), entries.rowEnd(row));
+                candidatesEvaluated += dossierNameIndexService.screen(dossiers, entryName, NameTokens.of(entryName), threshold,
+                    (bucket, dossier, similarity, method) -> {
+                        Map<String, Object> fields = watchlistMatchingService.matchedFields(entries, row, method);
+                        BigDecimal score = matchScoringService.compositeScore(
+                            jaroWinklerService.toPercentage(similarity),
+                            bucket.getEntryAttributes(dossier),
+                            entries.getEntryAttributes(entry),
+                            fields
+                        );
+                        long dossierId = bucket.getEntryId(dossier);
+                        Match best = entryMatches.get(dossierId);
+                        if (score.compareTo(WatchlistMatchingService.MATCH_THRESHOLD) >= 0
+                            && (best == null || score.compareTo(best.getSimilarityScore()) > 0)) {
+                            Match match = watchlistMatchingService.createMatch(
+                                entries.getEntryId(entry),
+                                entries.getEntryName(entry),
+                                bucket.getEntryName(dossier),
+                                score
+                            );
+                            match.setMatchedFields(fields);
+                            entryMatches.put(dossierId, match);
+                            dossierNames.put(dossierId, bucket.getEntryName(dossier));
+                        }
+                    });
+            }
+            
+            for (Map.Entry<Long, Match> hit : entryMatches.entrySet()) {
+                matchesByDossier.computeIfAbsent(hit.getKey(), dossierId -> new DossierHits(dossierNames.get(dossierId)))
+                    .matches.add(hit.getValue());
+                matchesFound++;
+            }
+        }
+        
+        report.setCandidatesEvaluated(report.getCandidatesEvaluated() + candidatesEvaluated);
+        report.setMatchesFound(report.getMatchesFound() + matchesFound);
+        return matchesByDossier;
+    }
+    
+    /**
+     * Descarta las coincidencias con entradas ya decididas FALSE_POSITIVE
+     * para el mismo expediente, en una consulta para todos los expedientes.
+     */
+    private void suppressFalsePositives(Map<Long, DossierHits> matchesByDossier, DeltaRescreeningReport report) {
+        if (matchesByDossier.isEmpty()) {
+            return;
+        }
+        
+        Map<Long, Set<Long>> suppressed = matchScoringService.findSuppressedEntries(matchesByDossier.keySet());
+        if (suppressed.isEmpty()) {
+            return;
+        }
+        
+        int removed = 0;
+        Iterator<Map.Entry<Long, DossierHits>> hits = matchesByDossier.entrySet().iterator();
+        while (hits.hasNext()) {
+            Map.Entry<Long, DossierHits> hit = hits.next();
+            Set<Long> entryIds = suppressed.get(hit.getKey());
+            if (entryIds == null) {
+                continue;
+            }
+            List<Match> matches = hit.getValue().matches;
+            int before = matches.size();
+            matches.removeIf(match -> entryIds.contains(match.getWatchlistEntryId()));
+            removed += before - matches.size();
+            if (matches.isEmpty()) {
+                hits.remove();
+            }
+        }
+        
+        report.setMatchesSuppressed(report.getMatchesSuppressed() + removed);
+        report.setMatchesFound(report.getMatchesFound() - removed);
+    }
+    
+    /**
+     * Fila del nombre principal seguida de las filas de alias de la entrada
+     */
+    private static int[] entryRows(WatchlistIndexBucket entries, int entry) {
+        int aliasStart = entries.aliasStart(entry);
+        int[] rows = new int[1 + entries.aliasEnd(entry) - aliasStart];
+        rows[0] = entry;
+        for (int i = 1; i < rows.length; i++) {
+            rows[i] = aliasStart + i - 1;
+        }
+        return rows;
+    }
+    
+    /**
+     * Inserta por lotes un screening por expediente con coincidencias nuevas,
+     * con un único resultado correspondiente a la lista actualizada.
+     */
+    private void persistScreenings(Watchlist watchlist, List<DossierScreening> screenings) {
+        if (screenings.isEmpty()) {
+            return;
+        }
+        long[] screeningIds = screeningResultWriter.nextIds("screening_id_seq", screenings.size());
+        
+        Timestamp executionDate = Timestamp.from(Instant.now());
+        List<Object[]> screeningRows = new ArrayList<>(screenings.size());
+        List<ScreeningResult> results = new ArrayList<>(screenings.size());
+        List<List<Match>> matchesByResult = new ArrayList<>(screenings.size());
+        
+        for (int i = 0; i < screenings.size(); i++) {
+            DossierScreening screening = screenings.get(i);
+            screening.screeningId = screeningIds[i];
+            List<Match> matches = screening.hits.matches;
+            
+            screeningRows.add(new Object[] {
+                screening.screeningId,
+                screening.dossierId,
+                ScreeningType.PERIODIC.name(),
+                executionDate,
+                screening.hits.dossierName,
+                screening.entityType.name(),
+                ScreeningStatus.COMPLETED.name(),
+                1,
+                matches.size(),
+                true,
+                RESULT_REVIEW_REQUIRED,
+                screeningConfiguration.getDelta().getSystemUserId()
+            });
+            
+            ScreeningResult result = new ScreeningResult();
+            result.setScreeningId(screening.screeningId);
+            result.setWatchlistId(watchlist.getId());
+            result.setWatchlistName(watchlist.getName());
+            result.setTotalEntriesChecked(screening.entriesChecked);
+            result.setMatchesFound(matches.size());
+            results.add(result);
+            matchesByResult.add(matches);
+        }
+        
+        jdbcTemplate.batchUpdate(INSERT_SCREENING, screeningRows);
+        screeningResultWriter.insertResults(results, matchesByResult);
+    }
+    
+    /**
+     * Coincidencias nuevas de un expediente
+     */
+    private static final class DossierHits {
+        
+        private final String dossierName;
+        private final List<Match> matches = new ArrayList<>();
+        
+        private DossierHits(String dossierName) {
+            this.dossierName = dossierName;
+        }
+    }
+    
+    /**
+     * Screening de un expediente pendiente de registrar
+     */
+    private static final class DossierScreening {
+        
+        private final long dossierId;
+        private final EntityType entityType;
+        private final DossierHits hits;
+        private final int entriesChecked;
+        private long screeningId;
+        
+        private DossierScreening(long dossierId, EntityType entityType, DossierHits hits, int entriesChecked) {
+            this.dossierId = dossierId;
+            this.entityType = entityType;
+            this.hits = hits;
+            this.entriesChecked = entriesChecked;
+        }
+    }
+    
+    /**
+     * Fila de watchlist_delta_state
+     */
+    private static final class DeltaState {
+        
+        private final long watchlistId;
+        private final String version;
+        private final String checksum;
+        private final long lastEntryId;
+        
+        private DeltaState(long watchlistId, String version, String checksum, long lastEntryId) {
+            this.watchlistId = watchlistId;
+            this.version = version;
+            this.checksum = checksum;
+            this.lastEntryId = lastEntryId;
+        }
+        
+        private static DeltaState of(ResultSet rs) throws SQLException {
+            return new DeltaState(
+                rs.getLong("watchlist_id"),
+                rs.getString("rescreened_version"),
+                rs.getString("rescreened_checksum"),
+                rs.getLong("last_entry_id")
+            );
+        }
+        
+        private boolean isCurrent(String currentVersion, String currentChecksum) {
+            return Objects.equals(version, currentVersion) && Objects.equals(checksum, currentChecksum);
+        }
+        
+        private boolean isSameAs(DeltaState other) {
+            return isCurrent(other.version, other.checksum) && lastEntryId == other.lastEntryId;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.siar.screening.service;
+
+import com.siar.screening.config.ScreeningConfiguration;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Escucha en PostgreSQL el alta, cambio de nombre y baja de expedientes.
+ * 
+ * Mantiene una conexión del pool con LISTEN sobre el canal que notifica el
+ * trigger de scripts/08_dossier_name_index.sql y aplica cada lote de
+ * notificaciones a {@link DossierNameIndexService}, de modo que el índice de
+ * todos los nodos refleja los cambios hechos por cualquiera de ellos o
+ * directamente en la base de datos. Al perder la conexión el índice se
+ * invalida, porque las notificaciones de ese intervalo no se reciben, y se
+ * reconecta.
+ */
+@Component
+@Slf4j
+public class DossierNameChangeListener implements SmartLifecycle {
+    
+    public static final String CHANNEL = "dossier_name_changed";
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private DossierNameIndexService dossierNameIndexService;
+    
+    @Autowired
+    private ScreeningConfiguration screeningConfiguration;
+    
+    private volatile boolean running;
+    private volatile Thread thread;
+    
+    @Override
+    public void start() {
+        if (!screeningConfiguration.getMonitoring().isListenEnabled()) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::listen, "dossier-name-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = thread;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    private void listen() {
+        ScreeningConfiguration.MonitoringConfig config = screeningConfiguration.getMonitoring();
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Listening for dossier name changes on channel {}", CHANNEL);
+                
+                // Cambios ocurridos mientras no se escuchaba
+                dossierNameIndexService.invalidate();
+                
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(config.getPollTimeoutMs());
+                    if (notifications == null) {
+                        continue;
+                    }
+                    Set<Long> dossierIds = new LinkedHashSet<>();
+                    for (PGNotification notification : notifications) {
+                        try {
+                            dossierIds.add(Long.valueOf(notification.getParameter()));
+                        } catch (NumberFormatException e) {
+                            log.warn("Ignoring dossier name notification with payload {}", notification.getParameter());
+                        }
+                    }
+                    try {
+                        dossierNameIndexService.apply(dossierIds);
+                    } catch (RuntimeException e) {
+                        log.error("Error applying dossier name changes, index invalidated: dossiers={}",
+                            dossierIds.size(), e);
+                        dossierNameIndexService.invalidate();
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("Dossier name listener disconnected, retrying in {} ms: {}",
+                    config.getReconnectDelayMs(), e.getMessage());
+                dossierNameIndexService.invalidate();
+                try {
+                    Thread.sleep(config.getReconnectDelayMs());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        log.info("Dossier name listener stopped");
+    }
+}
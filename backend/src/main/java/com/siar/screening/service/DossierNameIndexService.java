@@ -0,0 +1,536 @@
+package com.siar.screening.service;
+
+import com.siar.screening.config.ScreeningConfiguration;
+import com.siar.screening.dto.DossierCandidate;
+import com.siar.screening.dto.DossierCandidateReport;
+import com.siar.screening.model.EntityType;
+import com.siar.screening.model.WatchlistEntry;
+import com.siar.screening.repository.WatchlistEntryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Índice inverso en memoria de los nombres de sujeto de los expedientes.
+ * 
+ * Permite el screening en sentido inverso: comparar una entrada nueva de una
+ * lista contra la cartera completa usando la misma etapa de bloqueo y
+ * comparación que el screening directo. Lo usan el re-screening delta y la
+ * consulta de candidatos de una entrada. Las filas son expedientes de la
+ * tabla dossier (el id de la fila es dossier.id, el que registra el
+ * screening), agrupados por tipo de entidad y normalizados igual que el
+ * bucket del mismo tipo: las personas jurídicas por su nombre canónico.
+ * 
+ * El índice se carga una vez desde dossier y se mantiene con los cambios que
+ * notifica {@link DossierNameChangeListener}: al consultar se omiten las filas
+ * cargadas de los expedientes modificados o dados de baja y los nombres
+ * vigentes de los modificados se comparan en un bucket pequeño de cambios
+ * pendientes, construido en la primera consulta posterior a un cambio. Cuando
+ * los cambios superan el máximo configurado, el índice se recarga en segundo
+ * plano. Sin escucha de notificaciones se recarga al superar la antigüedad
+ * configurada.
+ */
+@Service
+@Slf4j
+public class DossierNameIndexService {
+    
+    private static final String SELECT_DOSSIER_NAMES =
+        "SELECT id, entity_name, entity_type FROM dossier WHERE entity_name IS NOT NULL";
+    
+    private static final String SELECT_DOSSIER_NAMES_BY_ID =
+        "SELECT id, entity_name, entity_type FROM dossier WHERE entity_name IS NOT NULL AND id IN (:ids)";
+    
+    private static final EntityType[] ENTITY_TYPES = EntityType.values();
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    
+    @Autowired
+    private WatchlistEntryRepository watchlistEntryRepository;
+    
+    @Autowired
+    private NameNormalizationService nameNormalizationService;
+    
+    @Autowired
+    private CandidateBlockingService candidateBlockingService;
+    
+    @Autowired
+    private JaroWinklerService jaroWinklerService;
+    
+    @Autowired
+    private TokenSetSimilarityService tokenSetSimilarityService;
+    
+    @Autowired
+    private MatchScoringService matchScoringService;
+    
+    @Autowired
+    private ScreeningConfiguration screeningConfiguration;
+    
+    @Autowired
+    @Qualifier("dossierIndexReloadExecutor")
+    private ExecutorService dossierIndexReloadExecutor;
+    
+    /**
+     * Cambios recibidos desde la última carga, por expediente
+     */
+    private final Map<Long, PendingChange> pending = new ConcurrentHashMap<>();
+    private final AtomicLong changeSequence = new AtomicLong();
+    
+    /**
+     * Se incrementa con cada cambio o carga; una generación construida con
+     * un valor anterior ya no está vigente
+     */
+    private final AtomicLong overlayVersion = new AtomicLong();
+    private final AtomicBoolean reloading = new AtomicBoolean();
+    private final Object publishLock = new Object();
+    
+    private volatile Map<EntityType, WatchlistIndexBucket> loaded;
+    private volatile Instant loadedAt;
+    private volatile Generation generation;
+    
+    /**
+     * Expedientes vigentes del tipo de entidad, normalizados igual que el
+     * bucket del mismo tipo.
+     */
+    public DossierNames getIndex(EntityType entityType) {
+        return getGeneration().names.get(entityType);
+    }
+    
+    /**
+     * Tipo de entidad registrado en dossier.entity_type; PERSON si no tiene.
+     */
+    public static EntityType entityType(String value) {
+        return value != null ? EntityType.valueOf(value) : EntityType.PERSON;
+    }
+    
+    /**
+     * Compara un nombre de entrada, ya normalizado para el tipo de entidad,
+     * contra los expedientes candidatos de la etapa de bloqueo. Para cada
+     * expediente con similitud igual o mayor al umbral llama al handler.
+     * 
+     * @return Candidatos evaluados
+     */
+    public long screen(DossierNames dossiers, char[] query, NameTokens tokens, double threshold, NameHitHandler handler) {
+        long candidatesEvaluated = 0;
+        for (WatchlistIndexBucket bucket : dossiers.buckets) {
+            char[] dossierChars = bucket.getChars();
+            int[] candidates = candidateBlockingService.findCandidates(bucket, query);
+            candidatesEvaluated += candidates.length;
+            
+            for (int dossier : candidates) {
+                if (!dossiers.isCurrent(bucket, dossier)) {
+                    continue;
+                }
+                
+                // Misma orientación que el screening directo: sujeto contra entrada
+                double similarity = jaroWinklerService.similarityAtLeast(
+                    dossierChars, bucket.rowStart(dossier), bucket.rowEnd(dossier),
+                    query, 0, query.length,
+                    threshold
+                );
+                String method = WatchlistMatchingService.METHOD_FULL_NAME;
+                if (similarity < 1.0) {
+                    double tokenSimilarity = tokenSetSimilarityService.similarityAtLeast(
+                        tokens, bucket, dossier, Math.max(threshold, similarity)
+                    );
+                    if (tokenSimilarity > similarity) {
+                        similarity = tokenSimilarity;
+                        method = WatchlistMatchingService.METHOD_TOKEN_SET;
+                    }
+                }
+                if (similarity == JaroWinklerService.BELOW_THRESHOLD) {
+                    continue;
+                }
+                handler.accept(bucket, dossier, similarity, method);
+            }
+        }
+        return candidatesEvaluated;
+    }
+    
+    /**
+     * Expedientes candidatos para una entrada de lista.
+     */
+    public DossierCandidateReport findCandidates(Long watchlistEntryId) {
+        WatchlistEntry entry = watchlistEntryRepository.findById(watchlistEntryId)
+            .orElseThrow(() -> new RuntimeException("Watchlist entry not found: " + watchlistEntryId));
+        return findCandidates(entry);
+    }
+    
+    /**
+     * Compara el nombre principal y los alias de la entrada contra los
+     * expedientes de su tipo de entidad, con un candidato por expediente (el
+     * de mayor puntaje), ordenados de mayor a menor puntaje.
+     */
+    public DossierCandidateReport findCandidates(WatchlistEntry entry) {
+        long startTime = System.currentTimeMillis();
+        EntityType entityType = entry.getEntityType() != null ? entry.getEntityType() : EntityType.PERSON;
+        Generation index = getGeneration();
+        DossierNames dossiers = index.names.get(entityType);
+        
+        SubjectAttributes entryAttributes = SubjectAttributes.of(
+            entry.getDocument(), entry.getDateOfBirth(), entry.getNationality()
+        );
+        double threshold = jaroWinklerService.thresholdFor(WatchlistMatchingService.MATCH_THRESHOLD);
+        
+        // Nombre principal seguido de los alias distintos, ya normalizados
+        List<String> names = new ArrayList<>();
+        names.add(nameNormalizationService.normalize(entry.getName(), entityType));
+        if (entry.getAliases() != null) {
+            for (String alias : entry.getAliases()) {
+                String normalized = nameNormalizationService.normalize(alias, entityType);
+                if (!normalized.isEmpty() && !names.contains(normalized)) {
+                    names.add(normalized);
+                }
+            }
+        }
+        
+        Map<Long, DossierCandidate> best = new HashMap<>();
+        long candidatesEvaluated = 0;
+        for (int i = 0; i < names.size(); i++) {
+            char[] query = names.get(i).toCharArray();
+            if (query.length == 0) {
+                continue;
+            }
+            boolean alias = i > 0;
+            candidatesEvaluated += screen(dossiers, query, NameTokens.of(query), threshold,
+                (bucket, dossier, similarity, method) -> {
+                    Map<String, Object> fields = new LinkedHashMap<>();
+                    fields.put("name", alias ? "ALIAS" : "PRIMARY");
+                    if (alias) {
+                        fields.put("alias", new String(query));
+                    }
+                    fields.put("method", method);
+                    BigDecimal score = matchScoringService.compositeScore(
+                        jaroWinklerService.toPercentage(similarity),
+                        bucket.getEntryAttributes(dossier),
+                        entryAttributes,
+                        fields
+                    );
+                    if (score.compareTo(WatchlistMatchingService.MATCH_THRESHOLD) < 0) {
+                        return;
+                    }
+                    
+                    long dossierId = bucket.getEntryId(dossier);
+                    DossierCandidate current = best.get(dossierId);
+                    if (current == null || score.compareTo(current.getSimilarityScore()) > 0) {
+                        DossierCandidate candidate = new DossierCandidate();
+                        candidate.setDossierId(dossierId);
+                        candidate.setSubjectName(bucket.getEntryName(dossier));
+                        candidate.setMatchedName(entry.getName());
+                        candidate.setSimilarityScore(score);
+                        candidate.setMatchedFields(fields);
+                        best.put(dossierId, candidate);
+                    }
+                });
+        }
+        
+        List<DossierCandidate> candidates = new ArrayList<>(best.values());
+        candidates.sort(Comparator.comparing(DossierCandidate::getSimilarityScore).reversed());
+        
+        DossierCandidateReport report = new DossierCandidateReport();
+        report.setWatchlistEntryId(entry.getId());
+        report.setEntryName(entry.getName());
+        report.setDossiersIndexed(dossiers.loaded.size());
+        report.setPendingChanges(index.pendingChanges);
+        report.setNamesScreened(names.size());
+        report.setCandidatesEvaluated(candidatesEvaluated);
+        report.setCandidates(candidates);
+        report.setDurationMs(System.currentTimeMillis() - startTime);
+        return report;
+    }
+    
+    /**
+     * Registra el nombre vigente de los expedientes notificados; los que ya
+     * no existen o no tienen nombre se retiran del índice.
+     */
+    public void apply(Collection<Long> dossierIds) {
+        if (dossierIds.isEmpty()) {
+            return;
+        }
+        
+        Map<Long, IndexedName> current = new HashMap<>();
+        namedParameterJdbcTemplate.query(SELECT_DOSSIER_NAMES_BY_ID,
+            new MapSqlParameterSource("ids", dossierIds), rs -> {
+                IndexedName name = toIndexedName(rs.getLong("id"), rs.getString("entity_name"),
+                    entityType(rs.getString("entity_type")));
+                if (name != null) {
+                    current.put(name.dossierId, name);
+                }
+            });
+        
+        // El número de secuencia se asigna después de leer el expediente
+        for (Long dossierId : new HashSet<>(dossierIds)) {
+            pending.put(dossierId, new PendingChange(changeSequence.incrementAndGet(), current.get(dossierId)));
+        }
+        overlayVersion.incrementAndGet();
+        
+        if (pending.size() > screeningConfiguration.getMonitoring().getMaxPendingChanges()) {
+            reloadAsync();
+        }
+    }
+    
+    /**
+     * Recarga el índice en la próxima consulta, por ejemplo cuando pudieron
+     * perderse notificaciones de cambios.
+     */
+    public void invalidate() {
+        loadedAt = null;
+    }
+    
+    /**
+     * Generación vigente. Si hubo cambios o una carga desde la última
+     * construida, arma los buckets de cambios pendientes; las consultas
+     * concurrentes esperan a esa construcción y la reutilizan.
+     */
+    private Generation getGeneration() {
+        if (loaded == null || isExpired()) {
+            synchronized (this) {
+                if (loaded == null || isExpired()) {
+                    reload();
+                }
+            }
+        }
+        
+        Generation current = generation;
+        if (current != null && current.version == overlayVersion.get()) {
+            return current;
+        }
+        
+        synchronized (publishLock) {
+            current = generation;
+            long version = overlayVersion.get();
+            if (current == null || current.version != version) {
+                // La versión se lee antes que los cambios: todo cambio que la
+                // incrementó ya está en pending
+                Map<EntityType, List<IndexedName>> changes = byEntityType(Collections.emptyList());
+                for (PendingChange change : pending.values()) {
+                    if (change.name != null) {
+                        changes.get(change.name.entityType).add(change.name);
+                    }
+                }
+                Set<Long> changed = Set.copyOf(pending.keySet());
+                
+                Map<EntityType, DossierNames> names = new EnumMap<>(EntityType.class);
+                for (EntityType entityType : ENTITY_TYPES) {
+                    names.put(entityType, new DossierNames(
+                        loaded.get(entityType), build(changes.get(entityType)), changed));
+                }
+                current = new Generation(version, names, changed.size());
+                generation = current;
+            }
+            return current;
+        }
+    }
+    
+    private boolean isExpired() {
+        ScreeningConfiguration.MonitoringConfig config = screeningConfiguration.getMonitoring();
+        if (loadedAt == null) {
+            return true;
+        }
+        if (config.isListenEnabled()) {
+            return false;
+        }
+        return loadedAt.plus(Duration.ofMinutes(config.getMaxAgeMinutes())).isBefore(Instant.now());
+    }
+    
+    private void reloadAsync() {
+        if (!reloading.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            dossierIndexReloadExecutor.execute(() -> {
+                try {
+                    reload();
+                } catch (RuntimeException e) {
+                    log.error("Error reloading dossier name index", e);
+                } finally {
+                    reloading.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Aplicación deteniéndose: la próxima carga incluye los cambios
+            reloading.set(false);
+        }
+    }
+    
+    /**
+     * Carga el índice desde dossier y descarta los cambios que la carga ya incluye.
+     * 
+     * Un cambio recibe su número de secuencia después de leerse el
+     * expediente; los numerados hasta el inicio de la carga ya están
+     * confirmados cuando comienza la consulta.
+     */
+    private synchronized void reload() {
+        long startTime = System.currentTimeMillis();
+        long loadedThrough = changeSequence.get();
+        Instant startedAt = Instant.now();
+        
+        List<IndexedName> names = new ArrayList<>();
+        jdbcTemplate.query(SELECT_DOSSIER_NAMES, rs -> {
+            IndexedName name = toIndexedName(rs.getLong("id"), rs.getString("entity_name"),
+                entityType(rs.getString("entity_type")));
+            if (name != null) {
+                names.add(name);
+            }
+        });
+        Map<EntityType, WatchlistIndexBucket> buckets = new EnumMap<>(EntityType.class);
+        byEntityType(names).forEach((entityType, typeNames) -> buckets.put(entityType, build(typeNames)));
+        
+        synchronized (publishLock) {
+            pending.values().removeIf(change -> change.sequence <= loadedThrough);
+            loaded = buckets;
+            loadedAt = startedAt;
+            overlayVersion.incrementAndGet();
+        }
+        
+        log.info("Dossier name index loaded: dossiers={}, pendingChanges={}, durationMs={}",
+            names.size(), pending.size(), System.currentTimeMillis() - startTime);
+    }
+    
+    private IndexedName toIndexedName(long dossierId, String subjectName, EntityType entityType) {
+        if (subjectName == null) {
+            return null;
+        }
+        String normalizedName = nameNormalizationService.normalize(subjectName, entityType);
+        if (normalizedName.isEmpty()) {
+            return null;
+        }
+        return new IndexedName(dossierId, subjectName, normalizedName, entityType);
+    }
+    
+    private static Map<EntityType, List<IndexedName>> byEntityType(List<IndexedName> names) {
+        Map<EntityType, List<IndexedName>> grouped = new EnumMap<>(EntityType.class);
+        for (EntityType entityType : ENTITY_TYPES) {
+            grouped.put(entityType, new ArrayList<>());
+        }
+        for (IndexedName name : names) {
+            grouped.get(name.entityType).add(name);
+        }
+        return grouped;
+    }
+    
+    private static WatchlistIndexBucket build(List<IndexedName> names) {
+        WatchlistIndexBucket.Builder builder = WatchlistIndexBucket.builder();
+        for (IndexedName name : names) {
+            builder.add(name.dossierId, name.subjectName, name.normalizedName, Collections.emptyList());
+        }
+        return builder.build();
+    }
+    
+    /**
+     * Recibe cada expediente cuya similitud con el nombre consultado alcanza el umbral
+     */
+    @FunctionalInterface
+    public interface NameHitHandler {
+        
+        void accept(WatchlistIndexBucket dossiers, int dossier, double similarity, String method);
+    }
+    
+    /**
+     * Expedientes de un tipo de entidad: los cargados, menos los que cambiaron
+     * desde la carga, y los nombres vigentes de esos cambios
+     */
+    public static final class DossierNames {
+        
+        private final WatchlistIndexBucket loaded;
+        private final WatchlistIndexBucket changes;
+        private final Set<Long> changed;
+        private final List<WatchlistIndexBucket> buckets;
+        
+        private DossierNames(WatchlistIndexBucket loaded, WatchlistIndexBucket changes, Set<Long> changed) {
+            this.loaded = loaded;
+            this.changes = changes;
+            this.changed = changed;
+            this.buckets = List.of(loaded, changes);
+        }
+        
+        /**
+         * Si la fila del bucket es el nombre vigente del expediente
+         */
+        public boolean isCurrent(WatchlistIndexBucket bucket, int dossier) {
+            return bucket == changes || !changed.contains(bucket.getEntryId(dossier));
+        }
+        
+        /**
+         * Filas cargadas más filas de cambios pendientes
+         */
+        public int size() {
+            return loaded.size() + changes.size();
+        }
+    }
+    
+    /**
+     * Nombre de expediente listo para indexar
+     */
+    private static final class IndexedName {
+        
+        private final long dossierId;
+        private final String subjectName;
+        private final String normalizedName;
+        private final EntityType entityType;
+        
+        private IndexedName(long dossierId, String subjectName, String normalizedName, EntityType entityType) {
+            this.dossierId = dossierId;
+            this.subjectName = subjectName;
+            this.normalizedName = normalizedName;
+            this.entityType = entityType;
+        }
+    }
+    
+    /**
+     * Cambio recibido de un expediente; sin nombre si se retiró del índice
+     */
+    private static final class PendingChange {
+        
+        private final long sequence;
+        private final IndexedName name;
+        
+        private PendingChange(long sequence, IndexedName name) {
+            this.sequence = sequence;
+            this.name = name;
+        }
+    }
+    
+    /**
+     * Expedientes vigentes por tipo de entidad
+     */
+    private static final class Generation {
+        
+        private final long version;
+        private final Map<EntityType, DossierNames> names;
+        private final int pendingChanges;
+        
+        private Generation(long version, Map<EntityType, DossierNames> names, int pendingChanges) {
+            this.version = version;
+            this.names = names;
+            this.pendingChanges = pendingChanges;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.siar.screening.service;
+
+import com.siar.screening.model.EntityType;
+import com.siar.screening.model.Match;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estrategias de comparación registradas, por tipo de entidad.
+ * 
+ * Las estrategias se descubren como beans de {@link EntityMatchingStrategy};
+ * agregar un tipo de entidad o cambiar la comparación de uno existente no
+ * requiere modificar el screening individual ni el masivo.
+ */
+@Service
+public class EntityMatchingStrategies {
+    
+    private final Map<EntityType, EntityMatchingStrategy> strategies = new EnumMap<>(EntityType.class);
+    
+    public EntityMatchingStrategies(List<EntityMatchingStrategy> registered) {
+        for (EntityMatchingStrategy strategy : registered) {
+            for (EntityType entityType : strategy.getEntityTypes()) {
+                EntityMatchingStrategy previous = strategies.put(entityType, strategy);
+                if (previous != null) {
+                    throw new IllegalStateException("Duplicate matching strategy for entity type: " + entityType);
+                }
+            }
+        }
+        for (EntityType entityType : EntityType.values()) {
+            if (!strategies.containsKey(entityType)) {
+                throw new IllegalStateException("No matching strategy for entity type: " + entityType);
+            }
+        }
+    }
+    
+    public EntityMatchingStrategy forType(EntityType entityType) {
+        return strategies.get(entityType);
+    }
+    
+    /**
+     * Busca coincidencias con la estrategia del tipo de entidad del bucket.
+     */
+    public List<Match> findMatches(EntityType entityType, WatchlistIndexBucket entries, ScreeningSubject subject) {
+        return forType(entityType).findMatches(entries, subject);
+    }
+}
@@ -0,0 +1,27 @@
+package com.siar.screening.service;
+
+import com.siar.screening.model.EntityType;
+import com.siar.screening.model.Match;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Comparación de un sujeto contra las entradas de una lista para los tipos
+ * de entidad que atiende. {@link EntityMatchingStrategies} elige la
+ * estrategia según el tipo de entidad del screening; cada tipo debe tener
+ * exactamente una.
+ */
+public interface EntityMatchingStrategy {
+    
+    /**
+     * Tipos de entidad que atiende la estrategia
+     */
+    Set<EntityType> getEntityTypes();
+    
+    /**
+     * Busca coincidencias del sujeto entre las entradas del bucket, que
+     * contiene solo entradas de un tipo atendido por la estrategia.
+     */
+    List<Match> findMatches(WatchlistIndexBucket entries, ScreeningSubject subject);
+}
@@ -0,0 +1,87 @@
+package com.siar.screening.service;
+
+import com.siar.screening.model.EntityType;
+import com.siar.screening.model.Match;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Embarcaciones y aeronaves: búsqueda exacta del número IMO o de la
+ * matrícula en una tabla hash del bucket
+ * ({@link WatchlistIndexBucket#entriesWithDocument(String)}).
+ * 
+ * Si el sujeto tiene identificador y coincide con entradas de la lista, se
+ * registran esas coincidencias al 100% sin comparar nombres: los nombres de
+ * buques y aeronaves se repiten y cambian, el identificador no. Si no tiene
+ * identificador, o no coincide con ninguna entrada, se compara el nombre
+ * como en {@link PersonMatchingStrategy}.
+ */
+@Service
+public class IdentifierMatchingStrategy implements EntityMatchingStrategy {
+    
+    private static final BigDecimal IDENTIFIER_SCORE = BigDecimal.valueOf(100);
+    
+    private static final String IMO_PREFIX = "IMO";
+    
+    @Autowired
+    private WatchlistMatchingService watchlistMatchingService;
+    
+    @Override
+    public Set<EntityType> getEntityTypes() {
+        return EnumSet.of(EntityType.VESSEL, EntityType.AIRCRAFT);
+    }
+    
+    @Override
+    public List<Match> findMatches(WatchlistIndexBucket entries, ScreeningSubject subject) {
+        String identifier = subject.getAttributes().getDocument();
+        if (identifier != null) {
+            List<Match> matches = new ArrayList<>();
+            for (String key : lookupKeys(identifier)) {
+                for (int entry : entries.entriesWithDocument(key)) {
+                    long entryId = entries.getEntryId(entry);
+                    if (subject.isSuppressed(entryId)) {
+                        continue;
+                    }
+                    Match match = watchlistMatchingService.createMatch(
+                        entryId, entries.getEntryName(entry), subject.getName(), IDENTIFIER_SCORE);
+                    match.setMatchedFields(matchedFields(key));
+                    matches.add(match);
+                }
+            }
+            if (!matches.isEmpty()) {
+                return matches;
+            }
+        }
+        return watchlistMatchingService.findMatches(entries, subject);
+    }
+    
+    /**
+     * El número IMO puede registrarse con o sin el prefijo "IMO"
+     */
+    private static List<String> lookupKeys(String identifier) {
+        if (identifier.startsWith(IMO_PREFIX) && identifier.length() > IMO_PREFIX.length()
+            && Character.isDigit(identifier.charAt(IMO_PREFIX.length()))) {
+            return List.of(identifier, identifier.substring(IMO_PREFIX.length()));
+        }
+        if (identifier.chars().allMatch(Character::isDigit)) {
+            return List.of(identifier, IMO_PREFIX + identifier);
+        }
+        return List.of(identifier);
+    }
+    
+    private static Map<String, Object> matchedFields(String identifier) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("name", "IDENTIFIER");
+        fields.put("document", identifier);
+        fields.put("method", WatchlistMatchingService.METHOD_IDENTIFIER);
+        return fields;
+    }
+}
@@ -3,7 +3,7 @@ package com.siar.screening.service;
 import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.text.Normalizer;
+import java.util.Arrays;
 
 @Service
 public class JaroWinklerService {
@@ -11,6 +11,16 @@ public class JaroWinklerService {
     private static final double DEFAULT_SCALING_FACTOR = 0.1;
     private static final int DEFAULT_PREFIX_LENGTH = 4;
     
+    /**
+     * Valor devuelto por similarityAtLeast cuando la similitud no alcanza el umbral
+     */
+    public static final double BELOW_THRESHOLD = -1.0;
+    
+    // Margen para que las cotas no descarten pares por error de redondeo
+    private static final double BOUND_TOLERANCE = 1e-9;
+    
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+    
     /**
      * Calcula la similitud Jaro-Winkler entre dos strings.
      * 
@@ -27,103 +37,163 @@ public class JaroWinklerService {
         s1 = normalizeString(s1);
         s2 = normalizeString(s2);
         
-        if (s1.equals(s2)) {
-            return 1.0;
+        return calculateNormalizedSimilarity(
+            s1.toCharArray(), 0, s1.length(),
+            s2.toCharArray(), 0, s2.length()
+        );
+    }
+    
+    /**
+     * Calcula la similitud Jaro-Winkler entre dos nombres ya normalizados.
+     * 
+     * Los rangos [from, to) permiten comparar directamente sobre los arreglos
+     * empaquetados del índice de listas, sin copiar ni volver a normalizar.
+     * 
+     * @return Similitud de 0.0 a 1.0 (0% a 100%)
+     */
+    public double calculateNormalizedSimilarity(
+        char[] s1, int s1From, int s1To,
+        char[] s2, int s2From, int s2To
+    ) {
+        // Sin umbral no hay poda: el resultado es siempre la similitud exacta
+        return similarityAtLeast(s1, s1From, s1To, s2, s2From, s2To, 0.0);
+    }
+    
+    /**
+     * Variante de {@link #similarityAtLeast(char[], int, int, char[], int, int, double)}
+     * para nombres normalizados completos.
+     */
+    public double similarityAtLeast(char[] s1, char[] s2, double threshold) {
+        return similarityAtLeast(s1, 0, s1.length, s2, 0, s2.length, threshold);
+    }
+    
+    /**
+     * Calcula la similitud Jaro-Winkler solo si puede alcanzar el umbral.
+     * 
+     * Antes de buscar coincidencias acota la similitud por la relación de
+     * longitudes y el prefijo común, y durante la búsqueda abandona en cuanto
+     * las coincidencias restantes ya no alcanzan el mínimo necesario. No asigna
+     * memoria: usa buffers por hilo.
+     * 
+     * @param threshold Similitud mínima de interés (0.0 a 1.0)
+     * @return La similitud exacta si es mayor o igual al umbral, o
+     *         {@link #BELOW_THRESHOLD} en caso contrario
+     */
+    public double similarityAtLeast(
+        char[] s1, int s1From, int s1To,
+        char[] s2, int s2From, int s2To,
+        double threshold
+    ) {
+        int s1Len = s1To - s1From;
+        int s2Len = s2To - s2From;
+        
+        if (Arrays.equals(s1, s1From, s1To, s2, s2From, s2To)) {
+            return 1.0 >= threshold ? 1.0 : BELOW_THRESHOLD;
         }
         
-        if (s1.isEmpty() || s2.isEmpty()) {
-            return 0.0;
+        if (s1Len == 0 || s2Len == 0) {
+            return 0.0 >= threshold ? 0.0 : BELOW_THRESHOLD;
         }
         
-        // Calcular similitud Jaro
-        double jaroSimilarity = calculateJaroSimilarity(s1, s2);
+        int prefixLength = calculateCommonPrefixLength(s1, s1From, s2, s2From, Math.min(s1Len, s2Len));
+        double prefixWeight = prefixLength * DEFAULT_SCALING_FACTOR;
         
-        // Calcular longitud del prefijo común
-        int prefixLength = calculateCommonPrefixLength(s1, s2);
+        // Similitud Jaro mínima para que Jaro-Winkler alcance el umbral
+        double requiredJaro = (threshold - prefixWeight) / (1.0 - prefixWeight);
         
-        // Aplicar Jaro-Winkler
-        return jaroSimilarity + (prefixLength * DEFAULT_SCALING_FACTOR * (1.0 - jaroSimilarity));
-    }
-    
-    private double calculateJaroSimilarity(String s1, String s2) {
-        int s1Len = s1.length();
-        int s2Len = s2.length();
+        // Cota por longitudes: a lo sumo min(len) coincidencias y sin transposiciones
+        int maxMatches = Math.min(s1Len, s2Len);
+        double maxJaro = ((double) maxMatches / s1Len + (double) maxMatches / s2Len + 1.0) / 3.0;
+        if (maxJaro < requiredJaro - BOUND_TOLERANCE) {
+            return BELOW_THRESHOLD;
+        }
+        
+        // Coincidencias necesarias: jaro <= (m/len1 + m/len2 + 1) / 3
+        int requiredMatches = (int) Math.ceil(
+            (3.0 * requiredJaro - 1.0) / (1.0 / s1Len + 1.0 / s2Len) - BOUND_TOLERANCE
+        );
         
         // Distancia máxima para considerar coincidencia
         int matchDistance = Math.max(s1Len, s2Len) / 2 - 1;
         if (matchDistance < 0) matchDistance = 0;
         
-        boolean[] s1Matches = new boolean[s1Len];
-        boolean[] s2Matches = new boolean[s2Len];
+        Scratch scratch = SCRATCH.get();
+        int stamp = scratch.nextStamp(s1Len, s2Len);
+        int[] s2Matched = scratch.s2Matched;
+        char[] s1MatchedChars = scratch.s1MatchedChars;
         
         int matches = 0;
-        int transpositions = 0;
         
         // Buscar coincidencias
         for (int i = 0; i < s1Len; i++) {
+            char c = s1[s1From + i];
             int start = Math.max(0, i - matchDistance);
             int end = Math.min(i + matchDistance + 1, s2Len);
             
             for (int j = start; j < end; j++) {
-                if (s2Matches[j] || s1.charAt(i) != s2.charAt(j)) {
+                if (s2Matched[j] == stamp || c != s2[s2From + j]) {
                     continue;
                 }
-                s1Matches[i] = true;
-                s2Matches[j] = true;
-                matches++;
+                s2Matched[j] = stamp;
+                s1MatchedChars[matches++] = c;
                 break;
             }
+            
+            if (matches + (s1Len - i - 1) < requiredMatches) {
+                return BELOW_THRESHOLD;
+            }
         }
         
         if (matches == 0) {
-            return 0.0;
+            return 0.0 >= threshold ? 0.0 : BELOW_THRESHOLD;
         }
         
-        // Contar transposiciones
+        // Contar transposiciones: orden de coincidencias en s1 contra s2
+        int transpositions = 0;
         int k = 0;
-        for (int i = 0; i < s1Len; i++) {
-            if (!s1Matches[i]) continue;
-            while (!s2Matches[k]) k++;
-            if (s1.charAt(i) != s2.charAt(k)) {
+        for (int j = 0; j < s2Len; j++) {
+            if (s2Matched[j] != stamp) continue;
+            if (s2[s2From + j] != s1MatchedChars[k]) {
                 transpositions++;
             }
             k++;
         }
         
-        return ((double) matches / s1Len +
+        double jaroSimilarity = ((double) matches / s1Len +
                 (double) matches / s2Len +
                 (double) (matches - transpositions / 2.0) / matches) / 3.0;
+        
+        // Aplicar Jaro-Winkler
+        double similarity = jaroSimilarity + (prefixLength * DEFAULT_SCALING_FACTOR * (1.0 - jaroSimilarity));
+        return similarity >= threshold ? similarity : BELOW_THRESHOLD;
     }
     
-    private int calculateCommonPrefixLength(String s1, String s2) {
-        int minLen = Math.min(s1.length(), s2.length());
+    /**
+     * Umbral en similitud (0.0-1.0) equivalente a un porcentaje mínimo,
+     * considerando el redondeo a dos decimales de {@link #toPercentage(double)}.
+     */
+    public double thresholdFor(BigDecimal minPercentage) {
+        return (minPercentage.doubleValue() - 0.005) / 100.0;
+    }
+    
+    private int calculateCommonPrefixLength(char[] s1, int s1From, char[] s2, int s2From, int minLen) {
         int maxPrefixLen = Math.min(DEFAULT_PREFIX_LENGTH, minLen);
         
         for (int i = 0; i < maxPrefixLen; i++) {
-            if (s1.charAt(i) != s2.charAt(i)) {
+            if (s1[s1From + i] != s2[s2From + i]) {
                 return i;
             }
         }
         return maxPrefixLen;
     }
     
-    private String normalizeString(String str) {
-        if (str == null) return "";
-        
-        // Convertir a minúsculas
-        str = str.toLowerCase();
-        
-        // Remover acentos
-        str = Normalizer.normalize(str, Normalizer.Form.NFD);
-        str = str.replaceAll("\\p{M}", "");
-        
-        // Remover caracteres especiales excepto espacios
-        str = str.replaceAll("[^a-z0-9\\s]", "");
-        
-        // Remover espacios múltiples
-        str = str.replaceAll("\\s+", " ").trim();
-        
-        return str;
+    /**
+     * Normaliza un nombre: minúsculas, sin acentos, sin caracteres especiales
+     * y con espacios simples. Para nombres que se repiten entre ejecuciones
+     * usar {@link NameNormalizationService#normalize(String)}.
+     */
+    public String normalizeString(String str) {
+        return NameFolder.fold(str);
     }
     
     /**
@@ -133,4 +203,31 @@ public class JaroWinklerService {
         return BigDecimal.valueOf(similarity * 100)
             .setScale(2, RoundingMode.HALF_UP);
     }
+    
+    /**
+     * Buffers reutilizables por hilo. Las posiciones coincidentes de la segunda
+     * cadena se marcan con un sello que cambia en cada comparación, de modo que
+     * no es necesario limpiar el arreglo.
+     */
+    private static final class Scratch {
+        
+        private int[] s2Matched = new int[64];
+        private char[] s1MatchedChars = new char[64];
+        private int stamp;
+        
+        private int nextStamp(int s1Len, int s2Len) {
+            if (s1MatchedChars.length < s1Len) {
+                s1MatchedChars = new char[Math.max(s1Len, s1MatchedChars.length * 2)];
+            }
+            if (s2Matched.length < s2Len) {
+                s2Matched = new int[Math.max(s2Len, s2Matched.length * 2)];
+                stamp = 0;
+            }
+            if (++stamp == Integer.MAX_VALUE) {
+                Arrays.fill(s2Matched, 0);
+                stamp = 1;
+            }
+            return stamp;
+        }
+    }
 }
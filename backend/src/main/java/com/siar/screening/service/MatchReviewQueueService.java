@@ -0,0 +1,223 @@
+package com.siar.screening.service;
+
+import com.siar.screening.config.ScreeningConfiguration;
+import com.siar.screening.dto.ReviewQueueItem;
+import com.siar.screening.dto.ReviewQueuePage;
+import com.siar.screening.model.MatchType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cola de trabajo de los revisores sobre las coincidencias pendientes de decisión.
+ * 
+ * La tabla match_review_queue contiene solo las coincidencias que requieren
+ * revisión y aún no tienen decisión (la mantienen triggers sobre match y
+ * screening_decision). Se recorre por (similarity_score DESC, match_id) con
+ * paginación por clave: cada página continúa desde la última fila de la
+ * anterior usando el índice, sin OFFSET.
+ * 
+ * Varios revisores toman trabajo a la vez con {@link #claim}: la selección
+ * usa FOR UPDATE SKIP LOCKED y asigna una lease con vencimiento, por lo que
+ * dos revisores no reciben la misma coincidencia. Si la lease vence sin
+ * decisión, la coincidencia vuelve a estar disponible.
+ */
+@Service
+public class MatchReviewQueueService {
+    
+    private static final String SELECT_ITEMS =
+        "SELECT q.match_id, q.screening_id, q.similarity_score, q.enqueued_at, q.claimed_by, " +
+        "q.lease_expires_at, m.watchlist_entry_id, m.screened_name, m.matched_name, m.match_type, m.is_relevant " +
+        "FROM match_review_queue q JOIN match m ON m.id = q.match_id ";
+    
+    private static final String ORDER_AND_LIMIT =
+        "ORDER BY q.similarity_score DESC, q.match_id LIMIT :limit";
+    
+    // El primer predicado acota el recorrido del índice; el segundo solo
+    // descarta las filas ya leídas con el mismo puntaje
+    private static final String SELECT_PAGE_AFTER =
+        SELECT_ITEMS +
+        "WHERE q.similarity_score <= :afterScore " +
+        "AND (q.similarity_score < :afterScore OR q.match_id > :afterMatchId) " +
+        ORDER_AND_LIMIT;
+    
+    private static final String SELECT_FIRST_PAGE =
+        SELECT_ITEMS + ORDER_AND_LIMIT;
+    
+    private static final String SELECT_CLAIMED =
+        SELECT_ITEMS +
+        "WHERE q.claimed_by = :reviewerId AND q.lease_expires_at > CURRENT_TIMESTAMP " +
+        "ORDER BY q.similarity_score DESC, q.match_id";
+    
+    private static final String CLAIM =
+        "WITH claimable AS (" +
+        "SELECT match_id FROM match_review_queue " +
+        "WHERE lease_expires_at IS NULL OR lease_expires_at <= CURRENT_TIMESTAMP " +
+        "ORDER BY similarity_score DESC, match_id " +
+        "LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+        "UPDATE match_review_queue q SET claimed_by = :reviewerId, claimed_at = CURRENT_TIMESTAMP, " +
+        "lease_expires_at = CURRENT_TIMESTAMP + make_interval(secs => :leaseSeconds) " +
+        "FROM claimable c WHERE q.match_id = c.match_id " +
+        "RETURNING q.match_id";
+    
+    private static final String SELECT_BY_IDS =
+        SELECT_ITEMS +
+        "WHERE q.match_id IN (:matchIds) " +
+        "ORDER BY q.similarity_score DESC, q.match_id";
+    
+    private static final String RENEW_LEASE =
+        "UPDATE match_review_queue " +
+        "SET lease_expires_at = CURRENT_TIMESTAMP + make_interval(secs => :leaseSeconds) " +
+        "WHERE match_id = :matchId AND claimed_by = :reviewerId AND lease_expires_at > CURRENT_TIMESTAMP";
+    
+    private static final String RELEASE =
+        "UPDATE match_review_queue SET claimed_by = NULL, claimed_at = NULL, lease_expires_at = NULL " +
+        "WHERE match_id = :matchId AND claimed_by = :reviewerId";
+    
+    private static final String SELECT_FOREIGN_CLAIM =
+        "SELECT COUNT(*) FROM match_review_queue " +
+        "WHERE match_id = :matchId AND claimed_by <> :reviewerId AND lease_expires_at > CURRENT_TIMESTAMP";
+    
+    private static final RowMapper<ReviewQueueItem> ITEM_MAPPER = (rs, rowNum) -> {
+        ReviewQueueItem item = new ReviewQueueItem();
+        item.setMatchId(rs.getLong("match_id"));
+        item.setScreeningId(rs.getLong("screening_id"));
+        item.setWatchlistEntryId(rs.getLong("watchlist_entry_id"));
+        item.setScreenedName(rs.getString("screened_name"));
+        item.setMatchedName(rs.getString("matched_name"));
+        item.setSimilarityScore(rs.getBigDecimal("similarity_score"));
+        item.setMatchType(MatchType.valueOf(rs.getString("match_type")));
+        item.setIsRelevant(rs.getBoolean("is_relevant"));
+        item.setEnqueuedAt(rs.getTimestamp("enqueued_at").toInstant());
+        
+        long claimedBy = rs.getLong("claimed_by");
+        item.setClaimedBy(rs.wasNull() ? null : claimedBy);
+        Timestamp leaseExpiresAt = rs.getTimestamp("lease_expires_at");
+        item.setLeaseExpiresAt(leaseExpiresAt != null ? leaseExpiresAt.toInstant() : null);
+        return item;
+    };
+    
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    
+    @Autowired
+    private ScreeningConfiguration screeningConfiguration;
+    
+    /**
+     * Obtiene una página de la cola, incluidas las coincidencias asignadas.
+     * 
+     * @param afterScore Puntaje de la última fila de la página anterior; null para la primera
+     * @param afterMatchId Coincidencia de la última fila de la página anterior
+     * @param limit Tamaño de página; null usa el configurado
+     */
+    public ReviewQueuePage getPage(BigDecimal afterScore, Long afterMatchId, Integer limit) {
+        int pageSize = pageSize(limit);
+        
+        // Una fila extra indica si hay página siguiente
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", pageSize + 1);
+        List<ReviewQueueItem> items;
+        if (afterScore == null) {
+            items = namedParameterJdbcTemplate.query(SELECT_FIRST_PAGE, params, ITEM_MAPPER);
+        } else {
+            if (afterMatchId == null) {
+                throw new IllegalArgumentException("afterMatchId is required with afterScore");
+            }
+            params.addValue("afterScore", afterScore).addValue("afterMatchId", afterMatchId);
+            items = namedParameterJdbcTemplate.query(SELECT_PAGE_AFTER, params, ITEM_MAPPER);
+        }
+        
+        ReviewQueuePage page = new ReviewQueuePage();
+        page.setHasMore(items.size() > pageSize);
+        if (items.size() > pageSize) {
+            items = new ArrayList<>(items.subList(0, pageSize));
+        }
+        page.setItems(items);
+        if (!items.isEmpty()) {
+            ReviewQueueItem last = items.get(items.size() - 1);
+            page.setNextAfterScore(last.getSimilarityScore());
+            page.setNextAfterMatchId(last.getMatchId());
+        }
+        return page;
+    }
+    
+    /**
+     * Asigna al revisor las siguientes coincidencias libres o con lease vencida,
+     * en orden de puntaje.
+     * 
+     * @return Coincidencias asignadas; vacía si no queda trabajo libre
+     */
+    public List<ReviewQueueItem> claim(Long reviewerId, Integer limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("reviewerId", reviewerId)
+            .addValue("limit", limit != null ? pageSize(limit) : screeningConfiguration.getReviewQueue().getClaimSize())
+            .addValue("leaseSeconds", screeningConfiguration.getReviewQueue().getLeaseSeconds());
+        
+        List<Long> matchIds = namedParameterJdbcTemplate.queryForList(CLAIM, params, Long.class);
+        if (matchIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return namedParameterJdbcTemplate.query(SELECT_BY_IDS,
+            new MapSqlParameterSource("matchIds", matchIds), ITEM_MAPPER);
+    }
+    
+    /**
+     * Coincidencias con lease vigente del revisor.
+     */
+    public List<ReviewQueueItem> getClaimed(Long reviewerId) {
+        return namedParameterJdbcTemplate.query(SELECT_CLAIMED,
+            new MapSqlParameterSource("reviewerId", reviewerId), ITEM_MAPPER);
+    }
+    
+    /**
+     * Extiende la lease vigente del revisor sobre una coincidencia.
+     */
+    public void renewLease(Long matchId, Long reviewerId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("matchId", matchId)
+            .addValue("reviewerId", reviewerId)
+            .addValue("leaseSeconds", screeningConfiguration.getReviewQueue().getLeaseSeconds());
+        if (namedParameterJdbcTemplate.update(RENEW_LEASE, params) == 0) {
+            throw new RuntimeException("No active lease on match: " + matchId);
+        }
+    }
+    
+    /**
+     * Devuelve a la cola una coincidencia asignada al revisor.
+     */
+    public void release(Long matchId, Long reviewerId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("matchId", matchId)
+            .addValue("reviewerId", reviewerId);
+        if (namedParameterJdbcTemplate.update(RELEASE, params) == 0) {
+            throw new RuntimeException("Match not claimed by reviewer: " + matchId);
+        }
+    }
+    
+    /**
+     * Verifica que la coincidencia no esté asignada a otro revisor con lease vigente.
+     */
+    public void checkNotClaimedByOther(Long matchId, Long reviewerId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("matchId", matchId)
+            .addValue("reviewerId", reviewerId);
+        Integer claims = namedParameterJdbcTemplate.queryForObject(SELECT_FOREIGN_CLAIM, params, Integer.class);
+        if (claims != null && claims > 0) {
+            throw new RuntimeException("Match claimed by another reviewer: " + matchId);
+        }
+    }
+    
+    private int pageSize(Integer limit) {
+        ScreeningConfiguration.ReviewQueueConfig config = screeningConfiguration.getReviewQueue();
+        if (limit == null || limit <= 0) {
+            return config.getPageSize();
+        }
+        return Math.min(limit, config.getMaxPageSize());
+    }
+}
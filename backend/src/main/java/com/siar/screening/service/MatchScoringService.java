@@ -0,0 +1,146 @@
+package com.siar.screening.service;
+
+import com.siar.screening.config.ScreeningConfiguration;
+import com.siar.screening.model.DecisionType;
+import com.siar.screening.repository.ScreeningDecisionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Etapa de puntaje compuesto posterior a la comparación de nombres.
+ * 
+ * Ajusta la similitud del nombre con los atributos secundarios del sujeto y
+ * de la entrada (documento, fecha de nacimiento, nacionalidad): las
+ * coincidencias confirman el candidato y las contradicciones lo bajan, de
+ * modo que un homónimo con otra fecha de nacimiento puede quedar por debajo
+ * del umbral y no generar coincidencia. Los atributos solo ajustan nombres
+ * que ya alcanzaron el umbral por sí mismos.
+ * 
+ * También obtiene las entradas que el oficial ya descartó como falso
+ * positivo para un expediente, que no vuelven a registrarse mientras la
+ * entrada no cambie (una entrada modificada se carga con otro id).
+ */
+@Service
+public class MatchScoringService {
+    
+    private static final BigDecimal MAX_SCORE = BigDecimal.valueOf(100);
+    
+    @Autowired
+    private ScreeningDecisionRepository screeningDecisionRepository;
+    
+    @Autowired
+    private ScreeningConfiguration screeningConfiguration;
+    
+    public MatchScoringService() {
+    }
+    
+    /**
+     * Instancia fuera del contexto de Spring (pruebas y benchmarks), sin
+     * supresión de falsos positivos por base de datos
+     */
+    MatchScoringService(ScreeningConfiguration screeningConfiguration) {
+        this.screeningConfiguration = screeningConfiguration;
+    }
+    
+    /**
+     * Entradas cuya última decisión para el expediente fue FALSE_POSITIVE
+     */
+    public Set<Long> findSuppressedEntries(Long dossierId) {
+        if (dossierId == null) {
+            return Collections.emptySet();
+        }
+        return findSuppressedEntries(Set.of(dossierId)).getOrDefault(dossierId, Collections.emptySet());
+    }
+    
+    /**
+     * Entradas suprimidas por expediente, en una sola consulta para varios expedientes
+     */
+    public Map<Long, Set<Long>> findSuppressedEntries(Collection<Long> dossierIds) {
+        if (!screeningConfiguration.getScoring().isSuppressFalsePositives() || dossierIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        
+        // Las decisiones llegan en orden cronológico: prevalece la última por par
+        Map<Long, Map<Long, DecisionType>> latest = new HashMap<>();
+        for (Object[] row : screeningDecisionRepository.findEntryDecisionsByDossierIds(dossierIds)) {
+            latest.computeIfAbsent((Long) row[0], id -> new HashMap<>()).put((Long) row[1], (DecisionType) row[2]);
+        }
+        
+        Map<Long, Set<Long>> suppressed = new HashMap<>();
+        latest.forEach((dossierId, decisions) -> decisions.forEach((entryId, decision) -> {
+            if (decision == DecisionType.FALSE_POSITIVE) {
+                suppressed.computeIfAbsent(dossierId, id -> new HashSet<>()).add(entryId);
+            }
+        }));
+        return suppressed;
+    }
+    
+    /**
+     * Calcula el puntaje compuesto y registra en {@code matchedFields} la
+     * evidencia de cada atributo comparado.
+     * 
+     * @param nameScore Similitud del nombre (%)
+     * @return Puntaje ajustado entre 0 y 100
+     */
+    public BigDecimal compositeScore(
+        BigDecimal nameScore,
+        SubjectAttributes subject,
+        SubjectAttributes entry,
+        Map<String, Object> matchedFields
+    ) {
+        if (subject == SubjectAttributes.NONE || entry == SubjectAttributes.NONE) {
+            return nameScore;
+        }
+        
+        ScreeningConfiguration.ScoringConfig config = screeningConfiguration.getScoring();
+        int adjustment = 0;
+        
+        // Documento: solo la igualdad es concluyente; las listas suelen
+        // registrar pasaportes extranjeros distintos de la cédula local
+        if (subject.getDocument() != null && subject.getDocument().equals(entry.getDocument())) {
+            adjustment += config.getDocumentMatchBoost();
+            matchedFields.put("document", "MATCH");
+        }
+        
+        if (subject.getDateOfBirth() != null && entry.getDateOfBirth() != null) {
+            if (subject.getDateOfBirth().equals(entry.getDateOfBirth())) {
+                adjustment += config.getDateOfBirthMatchBoost();
+                matchedFields.put("dateOfBirth", "MATCH");
+            } else {
+                adjustment -= config.getDateOfBirthMismatchPenalty();
+                matchedFields.put("dateOfBirth", "MISMATCH");
+            }
+        }
+        
+        if (subject.getNationality() != null && entry.getNationality() != null) {
+            if (subject.getNationality().equals(entry.getNationality())) {
+                adjustment += config.getNationalityMatchBoost();
+                matchedFields.put("nationality", "MATCH");
+            } else {
+                adjustment -= config.getNationalityMismatchPenalty();
+                matchedFields.put("nationality", "MISMATCH");
+            }
+        }
+        
+        if (adjustment == 0) {
+            return nameScore;
+        }
+        matchedFields.put("nameScore", nameScore);
+        matchedFields.put("attributeAdjustment", adjustment);
+        
+        BigDecimal score = nameScore.add(BigDecimal.valueOf(adjustment));
+        if (score.compareTo(MAX_SCORE) > 0) {
+            return MAX_SCORE.setScale(2, RoundingMode.HALF_UP);
+        }
+        return score.signum() < 0 ? BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP) : score;
+    }
+}
@@ -0,0 +1,376 @@
+package com.siar.screening.service;
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Índice de bloqueo sobre los nombres de un {@link WatchlistIndexBucket}.
+ * 
+ * Mantiene listas de postings por trigrama de caracteres, con el mismo
+ * relleno por palabra que pg_trgm (índice idx_entry_name_trgm), y por clave
+ * fonética de cada token ({@link SpanishPhoneticEncoder}). Con ellas se
+ * obtiene un conjunto reducido de filas candidatas antes de calcular
+ * Jaro-Winkler.
+ * 
+ * Los trigramas se codifican como enteros sobre el alfabeto normalizado
+ * (espacio, a-z, 0-9), por lo que los postings se guardan en formato CSR
+ * sin tablas hash. Las claves fonéticas se guardan ordenadas y se buscan por
+ * búsqueda binaria. Los postings son {@link IntBuffer}: arreglos al construir
+ * el índice o vistas sobre el archivo mapeado al leerlo de
+ * {@link WatchlistSnapshotFile}.
+ */
+public final class NameBlockingIndex {
+    
+    private static final int ALPHABET_SIZE = 37;
+    static final int TRIGRAM_SPACE = ALPHABET_SIZE * ALPHABET_SIZE * ALPHABET_SIZE;
+    
+    private final int rowCount;
+    private final IntBuffer trigramOffsets;
+    private final IntBuffer trigramRows;
+    private final IntBuffer prefixOffsets;
+    private final IntBuffer prefixRows;
+    private final String[] phoneticKeys;
+    private final IntBuffer phoneticOffsets;
+    private final IntBuffer phoneticRows;
+    
+    private NameBlockingIndex(
+        int rowCount,
+        IntBuffer trigramOffsets,
+        IntBuffer trigramRows,
+        IntBuffer prefixOffsets,
+        IntBuffer prefixRows,
+        String[] phoneticKeys,
+        IntBuffer phoneticOffsets,
+        IntBuffer phoneticRows
+    ) {
+        this.rowCount = rowCount;
+        this.trigramOffsets = trigramOffsets;
+        this.trigramRows = trigramRows;
+        this.prefixOffsets = prefixOffsets;
+        this.prefixRows = prefixRows;
+        this.phoneticKeys = phoneticKeys;
+        this.phoneticOffsets = phoneticOffsets;
+        this.phoneticRows = phoneticRows;
+    }
+    
+    /**
+     * Construye el índice sobre las filas [0, rowCount) del arreglo empaquetado.
+     */
+    static NameBlockingIndex build(char[] chars, int[] rowOffsets, int rowCount) {
+        int[] lastRow = new int[TRIGRAM_SPACE];
+        Arrays.fill(lastRow, -1);
+        int[] counts = new int[TRIGRAM_SPACE + 1];
+        int[] scratch = new int[64];
+        
+        // Primera pasada: contar filas por trigrama (sin repetir fila)
+        for (int row = 0; row < rowCount; row++) {
+            scratch = ensureCapacity(scratch, rowOffsets[row + 1] - rowOffsets[row]);
+            int n = trigrams(chars, rowOffsets[row], rowOffsets[row + 1], scratch);
+            for (int t = 0; t < n; t++) {
+                int code = scratch[t];
+                if (lastRow[code] != row) {
+                    lastRow[code] = row;
+                    counts[code + 1]++;
+                }
+            }
+        }
+        
+        int[] offsets = new int[TRIGRAM_SPACE + 1];
+        for (int code = 0; code < TRIGRAM_SPACE; code++) {
+            offsets[code + 1] = offsets[code] + counts[code + 1];
+        }
+        
+        // Segunda pasada: llenar postings en orden de fila
+        int[] rows = new int[offsets[TRIGRAM_SPACE]];
+        int[] cursor = Arrays.copyOf(offsets, TRIGRAM_SPACE);
+        Arrays.fill(lastRow, -1);
+        Map<String, List<Integer>> phonetic = new TreeMap<>();
+        
+        for (int row = 0; row < rowCount; row++) {
+            scratch = ensureCapacity(scratch, rowOffsets[row + 1] - rowOffsets[row]);
+            int n = trigrams(chars, rowOffsets[row], rowOffsets[row + 1], scratch);
+            for (int t = 0; t < n; t++) {
+                int code = scratch[t];
+                if (lastRow[code] != row) {
+                    lastRow[code] = row;
+                    rows[cursor[code]++] = row;
+                }
+            }
+            
+            for (String key : SpanishPhoneticEncoder.encodeTokens(chars, rowOffsets[row], rowOffsets[row + 1])) {
+                List<Integer> keyRows = phonetic.computeIfAbsent(key, k -> new ArrayList<>());
+                if (keyRows.isEmpty() || keyRows.get(keyRows.size() - 1) != row) {
+                    keyRows.add(row);
+                }
+            }
+        }
+        
+        // Claves en orden para la búsqueda binaria, postings en formato CSR
+        String[] phoneticKeys = phonetic.keySet().toArray(new String[0]);
+        int[] phoneticOffsets = new int[phoneticKeys.length + 1];
+        for (int k = 0; k < phoneticKeys.length; k++) {
+            phoneticOffsets[k + 1] = phoneticOffsets[k] + phonetic.get(phoneticKeys[k]).size();
+        }
+        int[] phoneticRows = new int[phoneticOffsets[phoneticKeys.length]];
+        for (int k = 0; k < phoneticKeys.length; k++) {
+            int p = phoneticOffsets[k];
+            for (int row : phonetic.get(phoneticKeys[k])) {
+                phoneticRows[p++] = row;
+            }
+        }
+        
+        // Postings por prefijo de tres caracteres (bonificación Winkler)
+        int[] prefixOffsets = new int[TRIGRAM_SPACE + 1];
+        for (int row = 0; row < rowCount; row++) {
+            prefixOffsets[prefix(chars, rowOffsets[row], rowOffsets[row + 1]) + 1]++;
+        }
+        for (int code = 0; code < TRIGRAM_SPACE; code++) {
+            prefixOffsets[code + 1] += prefixOffsets[code];
+        }
+        int[] prefixRows = new int[rowCount];
+        int[] prefixCursor = Arrays.copyOf(prefixOffsets, TRIGRAM_SPACE);
+        for (int row = 0; row < rowCount; row++) {
+            prefixRows[prefixCursor[prefix(chars, rowOffsets[row], rowOffsets[row + 1])]++] = row;
+        }
+        
+        return new NameBlockingIndex(
+            rowCount,
+            IntBuffer.wrap(offsets),
+            IntBuffer.wrap(rows),
+            IntBuffer.wrap(prefixOffsets),
+            IntBuffer.wrap(prefixRows),
+            phoneticKeys,
+            IntBuffer.wrap(phoneticOffsets),
+            IntBuffer.wrap(phoneticRows)
+        );
+    }
+    
+    void write(WatchlistSnapshotFile.Writer out) throws IOException {
+        out.ints(IntBuffer.wrap(new int[] {rowCount}));
+        out.ints(trigramOffsets);
+        out.ints(trigramRows);
+        out.ints(prefixOffsets);
+        out.ints(prefixRows);
+        out.strings(phoneticKeys);
+        out.ints(phoneticOffsets);
+        out.ints(phoneticRows);
+    }
+    
+    /**
+     * Índice sobre las secciones escritas con {@link #write}; solo las claves
+     * fonéticas se copian al heap.
+     */
+    static NameBlockingIndex read(WatchlistSnapshotFile.Reader in) {
+        int rowCount = in.ints().get(0);
+        IntBuffer trigramOffsets = in.ints();
+        IntBuffer trigramRows = in.ints();
+        IntBuffer prefixOffsets = in.ints();
+        IntBuffer prefixRows = in.ints();
+        
+        WatchlistSnapshotFile.StringTable keys = in.strings();
+        String[] phoneticKeys = new String[keys.size()];
+        for (int k = 0; k < phoneticKeys.length; k++) {
+            phoneticKeys[k] = keys.get(k);
+        }
+        IntBuffer phoneticOffsets = in.ints();
+        IntBuffer phoneticRows = in.ints();
+        
+        return new NameBlockingIndex(
+            rowCount, trigramOffsets, trigramRows, prefixOffsets, prefixRows,
+            phoneticKeys, phoneticOffsets, phoneticRows
+        );
+    }
+    
+    public int rowCount() {
+        return rowCount;
+    }
+    
+    /**
+     * Obtiene las filas candidatas para un nombre normalizado, en orden ascendente.
+     * 
+     * Una fila es candidata si comparte al menos {@code minTrigramOverlap} de
+     * los trigramas del nombre consultado, al menos {@code minPhoneticTokens}
+     * claves fonéticas (limitado al número de claves del nombre), o sus tres
+     * primeros caracteres, que reciben la bonificación de prefijo de Winkler
+     * y alcanzan el umbral con una similitud Jaro mucho menor. Si el nombre
+     * no produce trigramas se devuelven todas las filas.
+     */
+    int[] candidates(char[] query, int from, int to, double minTrigramOverlap, int minPhoneticTokens, Scratch scratch) {
+        int[] queryTrigrams = scratch.queryTrigrams(query, from, to);
+        int trigramCount = scratch.queryTrigramCount;
+        if (trigramCount == 0) {
+            return allRows();
+        }
+        
+        scratch.ensureRows(rowCount);
+        int[] trigramHits = scratch.trigramHits;
+        int[] phoneticHits = scratch.phoneticHits;
+        int candidateCount = 0;
+        int touchedCount = 0;
+        
+        int minShared = Math.max(1, (int) Math.ceil(trigramCount * minTrigramOverlap));
+        for (int t = 0; t < trigramCount; t++) {
+            int code = queryTrigrams[t];
+            int end = trigramOffsets.get(code + 1);
+            for (int p = trigramOffsets.get(code); p < end; p++) {
+                int row = trigramRows.get(p);
+                int hits = ++trigramHits[row];
+                if (hits == 1 && phoneticHits[row] == 0) {
+                    scratch.touched = push(scratch.touched, touchedCount++, row);
+                }
+                if (hits == minShared) {
+                    scratch.candidates = push(scratch.candidates, candidateCount++, row);
+                }
+            }
+        }
+        
+        String[] keys = SpanishPhoneticEncoder.encodeTokens(query, from, to).stream()
+            .distinct()
+            .toArray(String[]::new);
+        int minKeys = Math.min(minPhoneticTokens, keys.length);
+        if (minKeys > 0) {
+            for (String key : keys) {
+                int k = Arrays.binarySearch(phoneticKeys, key);
+                if (k < 0) continue;
+                int end = phoneticOffsets.get(k + 1);
+                for (int p = phoneticOffsets.get(k); p < end; p++) {
+                    int row = phoneticRows.get(p);
+                    int hits = ++phoneticHits[row];
+                    if (hits == 1 && trigramHits[row] == 0) {
+                        scratch.touched = push(scratch.touched, touchedCount++, row);
+                    }
+                    if (hits == minKeys && trigramHits[row] < minShared) {
+                        scratch.candidates = push(scratch.candidates, candidateCount++, row);
+                    }
+                }
+            }
+        }
+        
+        int prefix = prefix(query, from, to);
+        int prefixEnd = prefixOffsets.get(prefix + 1);
+        for (int p = prefixOffsets.get(prefix); p < prefixEnd; p++) {
+            int row = prefixRows.get(p);
+            boolean alreadyCandidate = trigramHits[row] >= minShared
+                || (minKeys > 0 && phoneticHits[row] >= minKeys);
+            if (!alreadyCandidate) {
+                scratch.candidates = push(scratch.candidates, candidateCount++, row);
+            }
+        }
+        
+        // Restablecer contadores para la siguiente consulta del hilo
+        for (int i = 0; i < touchedCount; i++) {
+            int row = scratch.touched[i];
+            trigramHits[row] = 0;
+            phoneticHits[row] = 0;
+        }
+        
+        int[] result = Arrays.copyOf(scratch.candidates, candidateCount);
+        Arrays.sort(result);
+        return result;
+    }
+    
+    int[] allRows() {
+        int[] rows = new int[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            rows[row] = row;
+        }
+        return rows;
+    }
+    
+    /**
+     * Trigramas de un nombre normalizado con relleno por palabra ("  a", " ab", ..., "z ").
+     * {@code out} debe tener capacidad para {@code 2 * (to - from) + 1} códigos.
+     */
+    static int trigrams(char[] chars, int from, int to, int[] out) {
+        int n = 0;
+        int start = from;
+        for (int i = from; i <= to; i++) {
+            if (i < to && chars[i] != ' ') continue;
+            if (i > start) {
+                int c0 = 0;
+                int c1 = 0;
+                for (int j = start; j <= i; j++) {
+                    int c2 = j < i ? symbol(chars[j]) : 0;
+                    out[n++] = (c0 * ALPHABET_SIZE + c1) * ALPHABET_SIZE + c2;
+                    c0 = c1;
+                    c1 = c2;
+                }
+            }
+            start = i + 1;
+        }
+        return n;
+    }
+    
+    /**
+     * Código de los tres primeros caracteres del nombre, completado con espacios.
+     */
+    static int prefix(char[] chars, int from, int to) {
+        int code = 0;
+        for (int i = 0; i < 3; i++) {
+            code = code * ALPHABET_SIZE + (from + i < to ? symbol(chars[from + i]) : 0);
+        }
+        return code;
+    }
+    
+    private static int[] ensureCapacity(int[] buffer, int nameLength) {
+        // Cada palabra de longitud L aporta L + 1 trigramas
+        int required = 2 * nameLength + 1;
+        return buffer.length >= required ? buffer : new int[required];
+    }
+    
+    private static int symbol(char c) {
+        if (c >= 'a' && c <= 'z') return c - 'a' + 1;
+        if (c >= '0' && c <= '9') return c - '0' + 27;
+        return 0;
+    }
+    
+    private static int[] push(int[] array, int index, int value) {
+        if (index == array.length) {
+            array = Arrays.copyOf(array, Math.max(16, array.length * 2));
+        }
+        array[index] = value;
+        return array;
+    }
+    
+    /**
+     * Buffers reutilizables por hilo para evitar asignar contadores por consulta.
+     */
+    static final class Scratch {
+        
+        private int[] trigramHits = new int[0];
+        private int[] phoneticHits = new int[0];
+        private int[] touched = new int[256];
+        private int[] candidates = new int[256];
+        private int[] queryTrigrams = new int[64];
+        private int queryTrigramCount;
+        
+        private void ensureRows(int rows) {
+            if (trigramHits.length < rows) {
+                trigramHits = new int[rows];
+                phoneticHits = new int[rows];
+            }
+        }
+        
+        /**
+         * Trigramas distintos del nombre consultado.
+         */
+        private int[] queryTrigrams(char[] query, int from, int to) {
+            queryTrigrams = ensureCapacity(queryTrigrams, to - from);
+            int n = trigrams(query, from, to, queryTrigrams);
+            Arrays.sort(queryTrigrams, 0, n);
+            int distinct = 0;
+            for (int i = 0; i < n; i++) {
+                if (distinct == 0 || queryTrigrams[distinct - 1] != queryTrigrams[i]) {
+                    queryTrigrams[distinct++] = queryTrigrams[i];
+                }
+            }
+            queryTrigramCount = distinct;
+            return queryTrigrams;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.siar.screening.service;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Normalización de nombres en una sola pasada, sin expresiones regulares.
+ * 
+ * Produce el mismo resultado que minúsculas + NFD + eliminar marcas
+ * diacríticas + conservar solo [a-z0-9] y espacios + colapsar espacios: cada
+ * carácter del BMP se resuelve con una tabla precalculada con esas mismas
+ * reglas, de modo que la NFD solo se aplica al construir la tabla.
+ */
+public final class NameFolder {
+    
+    // Marcas de la tabla: el carácter se descarta o separa tokens
+    private static final char DROP = 0;
+    private static final char SPACE = ' ';
+    
+    // El carácter se descompone en más de un carácter conservado
+    private static final char MULTIPLE = 1;
+    
+    private static final char[] FOLD = buildTable();
+    
+    private NameFolder() {
+    }
+    
+    /**
+     * Normaliza un nombre: minúsculas, sin acentos, sin caracteres especiales
+     * y con espacios simples.
+     */
+    public static String fold(String str) {
+        if (str == null) {
+            return "";
+        }
+        
+        int length = str.length();
+        StringBuilder folded = null;
+        char[] out = new char[length];
+        int size = 0;
+        boolean pendingSpace = false;
+        
+        for (int i = 0; i < length; i++) {
+            char c = FOLD[str.charAt(i)];
+            if (c == DROP) {
+                continue;
+            }
+            if (c == SPACE) {
+                pendingSpace = size > 0 || folded != null;
+                continue;
+            }
+            if (c == MULTIPLE) {
+                // Excepcional: pasar a un buffer que pueda crecer
+                if (folded == null) {
+                    folded = new StringBuilder(length + 8).append(out, 0, size);
+                }
+                if (pendingSpace) {
+                    folded.append(' ');
+                    pendingSpace = false;
+                }
+                folded.append(foldSlow(str.charAt(i)));
+                continue;
+            }
+            if (folded != null) {
+                if (pendingSpace) {
+                    folded.append(' ');
+                }
+                folded.append(c);
+            } else {
+                if (pendingSpace) {
+                    out[size++] = ' ';
+                }
+                out[size++] = c;
+            }
+            pendingSpace = false;
+        }
+        
+        if (folded != null) {
+            return folded.toString();
+        }
+        return size == length && isSame(str, out) ? str : new String(out, 0, size);
+    }
+    
+    private static boolean isSame(String str, char[] out) {
+        for (int i = 0; i < out.length; i++) {
+            if (str.charAt(i) != out[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static char[] buildTable() {
+        char[] table = new char[Character.MAX_VALUE + 1];
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            String folded = foldSlow((char) c);
+            if (isRegexSpace((char) c)) {
+                table[c] = SPACE;
+            } else if (folded.isEmpty()) {
+                table[c] = DROP;
+            } else if (folded.length() == 1 && folded.charAt(0) != ' ') {
+                table[c] = folded.charAt(0);
+            } else {
+                table[c] = MULTIPLE;
+            }
+        }
+        return table;
+    }
+    
+    /**
+     * Reglas de referencia aplicadas a un carácter aislado
+     */
+    private static String foldSlow(char c) {
+        String decomposed = Normalizer.normalize(String.valueOf(c).toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        StringBuilder kept = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char d = decomposed.charAt(i);
+            if ((d >= 'a' && d <= 'z') || (d >= '0' && d <= '9')) {
+                kept.append(d);
+            }
+        }
+        return kept.toString();
+    }
+    
+    // Equivalente a \s sin UNICODE_CHARACTER_CLASS
+    private static boolean isRegexSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
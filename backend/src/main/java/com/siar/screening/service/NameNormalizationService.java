@@ -0,0 +1,226 @@
+package com.siar.screening.service;
+
+import com.siar.screening.config.ScreeningConfiguration;
+import com.siar.screening.dto.NormalizationCacheStats;
+import com.siar.screening.model.EntityType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Normalización de nombres con caché acotada por nombre original.
+ * 
+ * Los nombres de las listas se vuelven a normalizar en cada reconstrucción
+ * del índice y los de los expedientes en cada re-screening; con la caché
+ * cada nombre distinto se normaliza una vez mientras siga en uso.
+ * 
+ * La caché tiene dos generaciones: las lecturas no bloquean y, cuando la
+ * generación actual llega a la mitad del máximo, pasa a ser la anterior y se
+ * descarta la anterior. Un acierto en la generación anterior promueve el
+ * nombre, de modo que se conservan los nombres usados recientemente.
+ */
+@Service
+public class NameNormalizationService {
+    
+    /**
+     * Formas jurídicas con más de este número de tokens no se reconocen
+     */
+    private static final int MAX_SUFFIX_TOKENS = 5;
+    
+    /**
+     * Versión de las reglas de {@link NameFolder}; se incrementa al cambiar
+     * el plegado para que no se reutilicen nombres normalizados con las anteriores
+     */
+    private static final int FOLD_RULES_VERSION = 1;
+    
+    @Autowired
+    private ScreeningConfiguration screeningConfiguration;
+    
+    private volatile Map<String, String> current = new ConcurrentHashMap<>();
+    private volatile Map<String, String> previous = new ConcurrentHashMap<>();
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    
+    private volatile OrganizationWords organizationWords;
+    
+    public NameNormalizationService() {
+    }
+    
+    /**
+     * Instancia fuera del contexto de Spring (pruebas y benchmarks)
+     */
+    NameNormalizationService(ScreeningConfiguration screeningConfiguration) {
+        this.screeningConfiguration = screeningConfiguration;
+    }
+    
+    /**
+     * Normaliza un nombre con las reglas de {@link NameFolder#fold(String)}.
+     */
+    public String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        
+        ScreeningConfiguration.NormalizationConfig config = screeningConfiguration.getNormalization();
+        if (!config.isCacheEnabled()) {
+            return NameFolder.fold(name);
+        }
+        
+        Map<String, String> generation = current;
+        String normalized = generation.get(name);
+        if (normalized != null) {
+            hits.increment();
+            return normalized;
+        }
+        
+        normalized = previous.get(name);
+        if (normalized != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            normalized = NameFolder.fold(name);
+        }
+        
+        int generationSize = Math.max(1, config.getCacheMaxSize() / 2);
+        if (generation.size() >= generationSize) {
+            generation = rotate(generationSize);
+        }
+        generation.put(name, normalized);
+        return normalized;
+    }
+    
+    /**
+     * Normaliza un nombre como se compara contra el bucket del tipo de
+     * entidad: las personas jurídicas por su nombre canónico
+     * ({@link #canonicalOrganizationName(String)}), igual que
+     * {@link OrganizationMatchingStrategy}.
+     */
+    public String normalize(String name, EntityType entityType) {
+        String normalized = normalize(name);
+        return entityType == EntityType.COMPANY ? canonicalOrganizationName(normalized) : normalized;
+    }
+    
+    /**
+     * Nombre de persona jurídica ya normalizado sin forma jurídica final
+     * ("C.A.", "S.A.", "LLC", ...) ni palabras vacías, para compararlo por
+     * su parte distintiva. Si no queda ningún token se devuelve sin cambios.
+     */
+    public String canonicalOrganizationName(String normalizedName) {
+        OrganizationWords words = organizationWords();
+        List<String> tokens = new ArrayList<>(List.of(normalizedName.split(" ")));
+        
+        // Formas jurídicas al final, también repetidas ("inversiones x c a sucursal s a")
+        boolean stripped = true;
+        while (stripped && tokens.size() > 1) {
+            stripped = false;
+            for (int n = Math.min(MAX_SUFFIX_TOKENS, tokens.size() - 1); n >= 1; n--) {
+                String suffix = String.join("", tokens.subList(tokens.size() - n, tokens.size()));
+                if (words.legalSuffixes.contains(suffix)) {
+                    tokens.subList(tokens.size() - n, tokens.size()).clear();
+                    stripped = true;
+                    break;
+                }
+            }
+        }
+        
+        List<String> kept = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            if (!words.stopwords.contains(token)) {
+                kept.add(token);
+            }
+        }
+        return kept.isEmpty() ? String.join(" ", tokens) : String.join(" ", kept);
+    }
+    
+    /**
+     * Huella de las reglas de normalización y de las formas jurídicas y
+     * palabras vacías configuradas. Los nombres normalizados con otra huella
+     * (índices en archivo, resultados reutilizados) no son comparables.
+     */
+    public String configurationHash() {
+        return organizationWords().hash;
+    }
+    
+    private OrganizationWords organizationWords() {
+        OrganizationWords words = organizationWords;
+        if (words == null) {
+            ScreeningConfiguration.OrganizationConfig config = screeningConfiguration.getOrganization();
+            Set<String> suffixes = new HashSet<>();
+            for (String suffix : config.getLegalSuffixes()) {
+                suffixes.add(NameFolder.fold(suffix).replace(" ", ""));
+            }
+            Set<String> stopwords = new HashSet<>();
+            for (String stopword : config.getStopwords()) {
+                stopwords.add(NameFolder.fold(stopword));
+            }
+            words = new OrganizationWords(suffixes, stopwords);
+            organizationWords = words;
+        }
+        return words;
+    }
+    
+    /**
+     * Aciertos, fallos y ocupación de la caché desde el arranque o el último reinicio.
+     */
+    public NormalizationCacheStats getCacheStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        
+        NormalizationCacheStats stats = new NormalizationCacheStats();
+        stats.setEnabled(screeningConfiguration.getNormalization().isCacheEnabled());
+        stats.setMaxSize(screeningConfiguration.getNormalization().getCacheMaxSize());
+        stats.setSize(current.size() + previous.size());
+        stats.setHits(hitCount);
+        stats.setMisses(missCount);
+        stats.setEvictions(evictions.sum());
+        stats.setHitRate(requests == 0 ? 0.0 : (double) hitCount / requests);
+        return stats;
+    }
+    
+    /**
+     * Vacía la caché y sus contadores.
+     */
+    public synchronized void clear() {
+        current = new ConcurrentHashMap<>();
+        previous = new ConcurrentHashMap<>();
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+    
+    private synchronized Map<String, String> rotate(int generationSize) {
+        // Otro hilo pudo haber rotado mientras se esperaba el bloqueo
+        if (current.size() >= generationSize) {
+            evictions.add(previous.size());
+            previous = current;
+            current = new ConcurrentHashMap<>();
+        }
+        return current;
+    }
+    
+    private static final class OrganizationWords {
+        private final Set<String> legalSuffixes;
+        private final Set<String> stopwords;
+        private final String hash;
+        
+        private OrganizationWords(Set<String> legalSuffixes, Set<String> stopwords) {
+            this.legalSuffixes = legalSuffixes;
+            this.stopwords = stopwords;
+            String rules = FOLD_RULES_VERSION + "|" + new TreeSet<>(legalSuffixes) + "|" + new TreeSet<>(stopwords);
+            this.hash = UUID.nameUUIDFromBytes(rules.getBytes(StandardCharsets.UTF_8)).toString();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.siar.screening.service;
+
+/**
+ * Tokens de un nombre normalizado, sin partículas ("de", "del", "y", ...).
+ * 
+ * Cada token es un rango [inicio, fin) sobre el arreglo del nombre, de modo
+ * que la comparación por tokens no copia ni vuelve a separar el nombre en
+ * cada par. Los nombres del índice de listas guardan sus tokens en
+ * {@link WatchlistIndexBucket}; el nombre consultado se separa una sola vez
+ * por screening con {@link #of(char[])}.
+ */
+public final class NameTokens {
+    
+    /**
+     * Máximo de tokens considerados por nombre; los siguientes se ignoran
+     */
+    static final int MAX_TOKENS = 8;
+    
+    private final char[] chars;
+    private final int[] bounds;
+    private final int count;
+    
+    private NameTokens(char[] chars, int[] bounds, int count) {
+        this.chars = chars;
+        this.bounds = bounds;
+        this.count = count;
+    }
+    
+    /**
+     * Separa un nombre normalizado con {@link JaroWinklerService#normalizeString(String)}
+     */
+    public static NameTokens of(char[] normalizedName) {
+        int[] bounds = new int[2 * MAX_TOKENS];
+        int count = split(normalizedName, 0, normalizedName.length, bounds, 0);
+        return new NameTokens(normalizedName, bounds, count);
+    }
+    
+    public int count() {
+        return count;
+    }
+    
+    public char[] getChars() {
+        return chars;
+    }
+    
+    public int start(int token) {
+        return bounds[2 * token];
+    }
+    
+    public int end(int token) {
+        return bounds[2 * token + 1];
+    }
+    
+    /**
+     * Escribe en {@code out} a partir de {@code offset} los pares [inicio, fin)
+     * de los tokens de chars[from, to), omitiendo partículas. {@code out} debe
+     * tener capacidad para {@code 2 * MAX_TOKENS} valores desde {@code offset}.
+     * 
+     * @return Número de tokens escritos
+     */
+    static int split(char[] chars, int from, int to, int[] out, int offset) {
+        int count = 0;
+        int start = from;
+        for (int i = from; i <= to && count < MAX_TOKENS; i++) {
+            if (i < to && chars[i] != ' ') continue;
+            if (i > start && !SpanishPhoneticEncoder.isParticle(chars, start, i)) {
+                out[offset + 2 * count] = start;
+                out[offset + 2 * count + 1] = i;
+                count++;
+            }
+            start = i + 1;
+        }
+        return count;
+    }
+}
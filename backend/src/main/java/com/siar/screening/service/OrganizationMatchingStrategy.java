@@ -0,0 +1,44 @@
+package com.siar.screening.service;
+
+import com.siar.screening.model.EntityType;
+import com.siar.screening.model.Match;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Personas jurídicas: se compara la parte distintiva del nombre, sin forma
+ * jurídica ni palabras vacías
+ * ({@link NameNormalizationService#canonicalOrganizationName(String)}).
+ * 
+ * Los nombres de las entradas ya están en esa forma en el índice
+ * ({@link WatchlistIndexService}); aquí solo se lleva el nombre consultado a
+ * la misma forma. Así "Inversiones del Sur, C.A." y "Inversiones Sur S.A."
+ * se comparan como nombres iguales, y la comparación por tokens no depende
+ * del orden de las palabras. Los nombres más cortos también reducen las
+ * filas candidatas que deja la etapa de bloqueo.
+ */
+@Service
+public class OrganizationMatchingStrategy implements EntityMatchingStrategy {
+    
+    @Autowired
+    private WatchlistMatchingService watchlistMatchingService;
+    
+    @Autowired
+    private NameNormalizationService nameNormalizationService;
+    
+    @Override
+    public Set<EntityType> getEntityTypes() {
+        return EnumSet.of(EntityType.COMPANY);
+    }
+    
+    @Override
+    public List<Match> findMatches(WatchlistIndexBucket entries, ScreeningSubject subject) {
+        String canonicalName = nameNormalizationService.canonicalOrganizationName(
+            new String(subject.getNormalizedName()));
+        return watchlistMatchingService.findMatches(entries, subject.withNormalizedName(canonicalName.toCharArray()));
+    }
+}
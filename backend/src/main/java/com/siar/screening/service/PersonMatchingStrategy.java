@@ -0,0 +1,32 @@
+package com.siar.screening.service;
+
+import com.siar.screening.model.EntityType;
+import com.siar.screening.model.Match;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Personas naturales y entidades sin tipo específico: nombre completo con
+ * Jaro-Winkler y por conjunto de tokens sobre las filas candidatas de la
+ * etapa de bloqueo.
+ */
+@Service
+public class PersonMatchingStrategy implements EntityMatchingStrategy {
+    
+    @Autowired
+    private WatchlistMatchingService watchlistMatchingService;
+    
+    @Override
+    public Set<EntityType> getEntityTypes() {
+        return EnumSet.of(EntityType.PERSON, EntityType.OTHER);
+    }
+    
+    @Override
+    public List<Match> findMatches(WatchlistIndexBucket entries, ScreeningSubject subject) {
+        return watchlistMatchingService.findMatches(entries, subject);
+    }
+}
@@ -0,0 +1,126 @@
+package com.siar.screening.service;
+
+import com.siar.screening.dto.ScreeningBatchStatus;
+import com.siar.screening.model.ScreeningStatus;
+import com.siar.screening.model.ScreeningType;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Estado en memoria de un trabajo de screening masivo.
+ * 
+ * Lo actualiza el hilo que conduce el trabajo y lo leen las consultas de
+ * avance, por lo que los contadores son atómicos y el estado es volátil.
+ */
+final class ScreeningBatchJob {
+    
+    private final String jobId;
+    private final ScreeningType screeningType;
+    private final Long executedBy;
+    private final Map<String, String> watchlistVersions = new LinkedHashMap<>();
+    
+    private final AtomicLong processedDossiers = new AtomicLong();
+    private final AtomicLong screeningsWithMatches = new AtomicLong();
+    private final AtomicLong screeningsFromCache = new AtomicLong();
+    private final AtomicLong totalMatches = new AtomicLong();
+    
+    private volatile ScreeningStatus status = ScreeningStatus.PENDING;
+    private volatile long totalDossiers;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String errorMessage;
+    private volatile boolean cancelRequested;
+    
+    ScreeningBatchJob(String jobId, ScreeningType screeningType, Long executedBy) {
+        this.jobId = jobId;
+        this.screeningType = screeningType;
+        this.executedBy = executedBy;
+    }
+    
+    String getJobId() {
+        return jobId;
+    }
+    
+    ScreeningType getScreeningType() {
+        return screeningType;
+    }
+    
+    Long getExecutedBy() {
+        return executedBy;
+    }
+    
+    boolean isCancelRequested() {
+        return cancelRequested;
+    }
+    
+    boolean isFinished() {
+        return finishedAt != null;
+    }
+    
+    Instant getFinishedAt() {
+        return finishedAt;
+    }
+    
+    void requestCancel() {
+        cancelRequested = true;
+    }
+    
+    synchronized void start(long totalDossiers, Map<String, String> watchlistVersions) {
+        this.totalDossiers = totalDossiers;
+        this.watchlistVersions.putAll(watchlistVersions);
+        this.startedAt = Instant.now();
+        this.status = ScreeningStatus.IN_PROGRESS;
+    }
+    
+    void recordPage(int dossiers, int withMatches, int fromCache, long matches) {
+        screeningsWithMatches.addAndGet(withMatches);
+        screeningsFromCache.addAndGet(fromCache);
+        totalMatches.addAndGet(matches);
+        processedDossiers.addAndGet(dossiers);
+    }
+    
+    void finish() {
+        status = cancelRequested ? ScreeningStatus.CANCELLED : ScreeningStatus.COMPLETED;
+        finishedAt = Instant.now();
+    }
+    
+    void fail(String message) {
+        errorMessage = message;
+        status = ScreeningStatus.ERROR;
+        finishedAt = Instant.now();
+    }
+    
+    synchronized ScreeningBatchStatus toStatus() {
+        long processed = processedDossiers.get();
+        long elapsedMs = startedAt == null ? 0
+            : Duration.between(startedAt, finishedAt != null ? finishedAt : Instant.now()).toMillis();
+        double dossiersPerSecond = elapsedMs == 0 ? 0.0 : processed * 1000.0 / elapsedMs;
+        
+        ScreeningBatchStatus batchStatus = new ScreeningBatchStatus();
+        batchStatus.setJobId(jobId);
+        batchStatus.setStatus(status);
+        batchStatus.setScreeningType(screeningType);
+        batchStatus.setWatchlistVersions(new LinkedHashMap<>(watchlistVersions));
+        batchStatus.setTotalDossiers(totalDossiers);
+        batchStatus.setProcessedDossiers(processed);
+        batchStatus.setScreeningsWithMatches(screeningsWithMatches.get());
+        batchStatus.setScreeningsFromCache(screeningsFromCache.get());
+        batchStatus.setTotalMatches(totalMatches.get());
+        batchStatus.setProgressPercentage(totalDossiers == 0 ? 0.0 : processed * 100.0 / totalDossiers);
+        batchStatus.setDossiersPerSecond(dossiersPerSecond);
+        if (status == ScreeningStatus.IN_PROGRESS && dossiersPerSecond > 0) {
+            batchStatus.setEstimatedRemainingSeconds(
+                (long) Math.ceil(Math.max(0, totalDossiers - processed) / dossiersPerSecond)
+            );
+        }
+        batchStatus.setStartedAt(startedAt);
+        batchStatus.setFinishedAt(finishedAt);
+        batchStatus.setElapsedMs(elapsedMs);
+        batchStatus.setErrorMessage(errorMessage);
+        return batchStatus;
+    }
+}
@@ -0,0 +1,517 @@
+package com.siar.screening.service;
+
+import com.siar.alert.service.AlertService;
+import com.siar.audit.model.ActionType;
+import com.siar.audit.model.EventCategory;
+import com.siar.audit.model.EventLevel;
+import com.siar.audit.service.AuditService;
+import com.siar.screening.config.ScreeningConfiguration;
+import com.siar.screening.dto.ScreeningBatchStatus;
+import com.siar.screening.model.EntityType;
+import com.siar.screening.model.Match;
+import com.siar.screening.model.ScreeningResult;
+import com.siar.screening.model.ScreeningStatus;
+import com.siar.screening.model.ScreeningType;
+import com.siar.screening.model.Watchlist;
+import com.siar.screening.repository.WatchlistRepository;
+import com.siar.user.model.User;
+import com.siar.user.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+/**
+ * Re-screening masivo de la cartera de expedientes.
+ * 
+ * Cada trabajo toma una única fotografía de las listas activas al iniciar,
+ * recorre los expedientes por páginas (keyset sobre dossier.id), reparte el
+ * cálculo de cada página en el ejecutor de screening y persiste la página
+ * completa con inserciones JDBC por lotes en una sola transacción. Los
+ * identificadores se reservan por bloques desde las secuencias BIGSERIAL
+ * ({@link ScreeningResultWriter}).
+ * 
+ * Cada expediente se evalúa según su propio tipo de entidad (dossier.entity_type):
+ * el tipo elige el bucket de cada lista, la estrategia de comparación y la
+ * huella del resultado reutilizable. El trabajo queda en auditoría al iniciar
+ * y al terminar, y cada screening con coincidencias con su propio evento.
+ */
+@Service
+@Slf4j
+public class ScreeningBatchService {
+    
+    private static final String COUNT_DOSSIERS =
+        "SELECT COUNT(*) FROM dossier WHERE entity_name IS NOT NULL";
+    
+    private static final String SELECT_DOSSIER_PAGE =
+        "SELECT id, entity_name, entity_type FROM dossier " +
+        "WHERE id > ? AND entity_name IS NOT NULL " +
+        "ORDER BY id LIMIT ?";
+    
+    private static final String INSERT_SCREENING =
+        "INSERT INTO screening (id, dossier_id, screening_type, execution_date, " +
+        "screened_entity_name, screened_entity_type, status, total_lists_checked, " +
+        "total_matches_found, has_relevant_matches, overall_result, executed_by, " +
+        "execution_duration_ms, subject_fingerprint, cached_from_screening_id) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    // Valores de overall_result admitidos por chk_screening_overall_result
+    private static final String RESULT_CLEAR = "CLEAR";
+    private static final String RESULT_REVIEW_REQUIRED = "REVIEW_REQUIRED";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private WatchlistRepository watchlistRepository;
+    
+    @Autowired
+    private WatchlistIndexService watchlistIndexService;
+    
+    @Autowired
+    private EntityMatchingStrategies entityMatchingStrategies;
+    
+    @Autowired
+    private NameNormalizationService nameNormalizationService;
+    
+    @Autowired
+    private MatchScoringService matchScoringService;
+    
+    @Autowired
+    private AlertService alertService;
+    
+    @Autowired
+    private AuditService auditService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ScreeningConfiguration screeningConfiguration;
+    
+    @Autowired
+    private ScreeningResultWriter screeningResultWriter;
+    
+    @Autowired
+    private ScreeningResultCache screeningResultCache;
+    
+    @Autowired
+    @Qualifier("screeningExecutor")
+    private ExecutorService screeningExecutor;
+    
+    @Autowired
+    @Qualifier("screeningBatchExecutor")
+    private ExecutorService screeningBatchExecutor;
+    
+    private final Map<String, ScreeningBatchJob> jobs = new ConcurrentHashMap<>();
+    
+    /**
+     * Encola un trabajo de screening masivo sobre todos los expedientes.
+     */
+    public ScreeningBatchStatus startJob(ScreeningType screeningType, Long executedBy) {
+        pruneFinishedJobs();
+        
+        ScreeningBatchJob job = new ScreeningBatchJob(
+            UUID.randomUUID().toString(),
+            screeningType,
+            executedBy
+        );
+        jobs.put(job.getJobId(), job);
+        screeningBatchExecutor.submit(() -> run(job));
+        
+        log.info("Batch screening job queued: jobId={}, type={}", job.getJobId(), screeningType);
+        
+        return job.toStatus();
+    }
+    
+    /**
+     * Obtiene el avance de un trabajo
+     */
+    public ScreeningBatchStatus getJobStatus(String jobId) {
+        return getJob(jobId).toStatus();
+    }
+    
+    /**
+     * Solicita la cancelación de un trabajo; se detiene al terminar la página en curso.
+     */
+    public ScreeningBatchStatus cancelJob(String jobId) {
+        ScreeningBatchJob job = getJob(jobId);
+        job.requestCancel();
+        return job.toStatus();
+    }
+    
+    private ScreeningBatchJob getJob(String jobId) {
+        ScreeningBatchJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new RuntimeException("Batch screening job not found: " + jobId);
+        }
+        return job;
+    }
+    
+    private void run(ScreeningBatchJob job) {
+        User executedBy = null;
+        try {
+            executedBy = userRepository.findById(String.valueOf(job.getExecutedBy()))
+                .orElseThrow(() -> new RuntimeException("Batch screening user not found: " + job.getExecutedBy()));
+            
+            // Fotografía compartida: todos los expedientes del trabajo se evalúan
+            // contra la misma versión de cada lista
+            List<ListBucket> lists = new ArrayList<>();
+            List<WatchlistSnapshot> snapshots = new ArrayList<>();
+            Map<String, String> versions = new LinkedHashMap<>();
+            for (Watchlist watchlist : watchlistRepository.findActiveWatchlistsOrderedByPriority()) {
+                WatchlistSnapshot snapshot = watchlistIndexService.getSnapshot(watchlist);
+                lists.add(new ListBucket(watchlist, snapshot));
+                snapshots.add(snapshot);
+                versions.put(watchlist.getCode(), snapshot.getVersion());
+            }
+            String listsSignature = screeningResultCache.listsSignature(snapshots);
+            
+            job.start(jdbcTemplate.queryForObject(COUNT_DOSSIERS, Long.class), versions);
+            log.info("Batch screening job started: jobId={}, lists={}", job.getJobId(), versions);
+            auditJob(executedBy, job, "START", "Inicio del screening masivo " + job.getJobId()
+                + " sobre " + job.toStatus().getTotalDossiers() + " expedientes; listas " + versions);
+            
+            int pageSize = screeningConfiguration.getBatch().getPageSize();
+            long lastDossierId = 0;
+            while (!job.isCancelRequested()) {
+                List<DossierName> page = jdbcTemplate.query(
+                    SELECT_DOSSIER_PAGE,
+                    (rs, rowNum) -> new DossierName(
+                        rs.getLong("id"),
+                        rs.getString("entity_name"),
+                        DossierNameIndexService.entityType(rs.getString("entity_type"))
+                    ),
+                    lastDossierId,
+                    pageSize
+                );
+                if (page.isEmpty()) {
+                    break;
+                }
+                lastDossierId = page.get(page.size() - 1).dossierId;
+                
+                // Falsos positivos ya decididos para los expedientes de la página, en una consulta
+                Map<Long, Set<Long>> suppressed = matchScoringService.findSuppressedEntries(
+                    page.stream().map(dossier -> dossier.dossierId).collect(Collectors.toList())
+                );
+                
+                List<DossierScreening> screenings = screenPage(job, page, lists, listsSignature, suppressed);
+                transactionTemplate.executeWithoutResult(status -> persistPage(job, lists, screenings));
+                
+                int withMatches = 0;
+                int fromCache = 0;
+                long matches = 0;
+                for (DossierScreening screening : screenings) {
+                    matches += screening.totalMatches;
+                    if (screening.cachedFromScreeningId != null) {
+                        fromCache++;
+                    }
+                    if (screening.hasRelevantMatches) {
+                        withMatches++;
+                        // Generar alerta para Oficial de Cumplimiento
+                        alertService.createScreeningAlert(screening.screeningId, screening.dossierId);
+                        auditMatches(executedBy, job, screening);
+                    }
+                }
+                job.recordPage(page.size(), withMatches, fromCache, matches);
+            }
+            
+            job.finish();
+            ScreeningBatchStatus finished = job.toStatus();
+            log.info("Batch screening job finished: {}", describe(finished));
+            auditJob(executedBy, job, "COMPLETE", "Fin del screening masivo " + job.getJobId()
+                + " (" + finished.getStatus() + "): " + finished.getProcessedDossiers() + " expedientes, "
+                + finished.getScreeningsWithMatches() + " con coincidencias, "
+                + finished.getTotalMatches() + " coincidencias");
+        
+        } catch (RuntimeException e) {
+            log.error("Batch screening job failed: jobId={}", job.getJobId(), e);
+            job.fail(e.getMessage());
+            if (executedBy != null) {
+                auditJob(executedBy, job, "FAIL", "Fallo del screening masivo " + job.getJobId() + ": " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Evalúa una página de expedientes en paralelo contra todas las listas.
+     * Los expedientes cuyo sujeto ya se evaluó contra las mismas versiones de
+     * listas reutilizan ese resultado sin volver a compararse.
+     */
+    private List<DossierScreening> screenPage(
+        ScreeningBatchJob job,
+        List<DossierName> page,
+        List<ListBucket> lists,
+        String listsSignature,
+        Map<Long, Set<Long>> suppressed
+    ) {
+        List<ScreeningSubject> subjects = new ArrayList<>(page.size());
+        List<String> fingerprints = new ArrayList<>(page.size());
+        for (DossierName dossier : page) {
+            ScreeningSubject subject = new ScreeningSubject(
+                dossier.entityName,
+                nameNormalizationService.normalize(dossier.entityName).toCharArray(),
+                SubjectAttributes.NONE,
+                suppressed.get(dossier.dossierId)
+            );
+            subjects.add(subject);
+            fingerprints.add(screeningResultCache.fingerprint(subject, dossier.entityType, listsSignature));
+        }
+        
+        // Resultados reutilizables de la página: dos consultas en total
+        Map<String, Long> sources = screeningResultCache.findSources(fingerprints);
+        Map<Long, Map<Long, List<Match>>> cachedMatches = screeningResultCache.loadMatches(sources.values());
+        
+        List<CompletableFuture<DossierScreening>> pending = new ArrayList<>(page.size());
+        for (int i = 0; i < page.size(); i++) {
+            DossierName dossier = page.get(i);
+            ScreeningSubject subject = subjects.get(i);
+            String fingerprint = fingerprints.get(i);
+            Long sourceScreeningId = sources.get(fingerprint);
+            
+            if (sourceScreeningId != null) {
+                DossierScreening screening = reuseDossier(
+                    dossier, lists, subject, sourceScreeningId,
+                    cachedMatches.getOrDefault(sourceScreeningId, Collections.emptyMap())
+                );
+                screening.fingerprint = fingerprint;
+                pending.add(CompletableFuture.completedFuture(screening));
+            } else {
+                pending.add(CompletableFuture.supplyAsync(
+                    () -> screenDossier(dossier, lists, subject, fingerprint),
+                    screeningExecutor
+                ));
+            }
+        }
+        return pending.stream()
+            .map(CompletableFuture::join)
+            .collect(Collectors.toList());
+    }
+    
+    private DossierScreening screenDossier(
+        DossierName dossier,
+        List<ListBucket> lists,
+        ScreeningSubject subject,
+        String fingerprint
+    ) {
+        long startTime = System.currentTimeMillis();
+        DossierScreening screening = new DossierScreening(dossier, lists.size());
+        screening.fingerprint = fingerprint;
+        for (ListBucket list : lists) {
+            long listStart = System.currentTimeMillis();
+            List<Match> matches = entityMatchingStrategies.findMatches(
+                dossier.entityType, list.entries(dossier.entityType), subject
+            );
+            screening.addList(matches, System.currentTimeMillis() - listStart);
+        }
+        screening.durationMs = System.currentTimeMillis() - startTime;
+        return screening;
+    }
+    
+    private DossierScreening reuseDossier(
+        DossierName dossier,
+        List<ListBucket> lists,
+        ScreeningSubject subject,
+        Long sourceScreeningId,
+        Map<Long, List<Match>> cachedByList
+    ) {
+        DossierScreening screening = new DossierScreening(dossier, lists.size());
+        screening.cachedFromScreeningId = sourceScreeningId;
+        for (ListBucket list : lists) {
+            screening.addList(screeningResultCache.reuse(cachedByList.get(list.watchlist.getId()), subject), 0);
+        }
+        return screening;
+    }
+    
+    /**
+     * Inserta por lotes los screenings, resultados por lista y coincidencias de una página.
+     */
+    private void persistPage(ScreeningBatchJob job, List<ListBucket> lists, List<DossierScreening> screenings) {
+        long[] screeningIds = screeningResultWriter.nextIds("screening_id_seq", screenings.size());
+        
+        Timestamp executionDate = Timestamp.from(Instant.now());
+        List<Object[]> screeningRows = new ArrayList<>(screenings.size());
+        List<ScreeningResult> results = new ArrayList<>(screenings.size() * lists.size());
+        List<List<Match>> matchesByResult = new ArrayList<>(screenings.size() * lists.size());
+        
+        for (int i = 0; i < screenings.size(); i++) {
+            DossierScreening screening = screenings.get(i);
+            screening.screeningId = screeningIds[i];
+            
+            screeningRows.add(new Object[] {
+                screening.screeningId,
+                screening.dossierId,
+                job.getScreeningType().name(),
+                executionDate,
+                screening.entityName,
+                screening.entityType.name(),
+                ScreeningStatus.COMPLETED.name(),
+                lists.size(),
+                screening.totalMatches,
+                screening.hasRelevantMatches,
+                screening.hasRelevantMatches ? RESULT_REVIEW_REQUIRED : RESULT_CLEAR,
+                job.getExecutedBy(),
+                screening.durationMs,
+                screening.fingerprint,
+                screening.cachedFromScreeningId
+            });
+            
+            for (int l = 0; l < lists.size(); l++) {
+                ListBucket list = lists.get(l);
+                List<Match> matches = screening.matchesByList.get(l);
+                
+                ScreeningResult result = new ScreeningResult();
+                result.setScreeningId(screening.screeningId);
+                result.setWatchlistId(list.watchlist.getId());
+                result.setWatchlistName(list.watchlist.getName());
+                result.setTotalEntriesChecked(list.entries(screening.entityType).size());
+                result.setMatchesFound(matches.size());
+                result.setExecutionTimeMs(screening.timeByList[l]);
+                results.add(result);
+                matchesByResult.add(matches);
+            }
+        }
+        
+        jdbcTemplate.batchUpdate(INSERT_SCREENING, screeningRows);
+        screeningResultWriter.insertResults(results, matchesByResult);
+    }
+    
+    /**
+     * Registra en auditoría el inicio o el fin de un trabajo (AUD-015)
+     */
+    private void auditJob(User executedBy, ScreeningBatchJob job, String actionVerb, String description) {
+        auditService.logEvent(
+            executedBy,
+            "AUD-015",
+            "Ejecución de screening",
+            EventCategory.SCREENING,
+            EventLevel.INFO,
+            "ScreeningBatchJob",
+            job.getJobId(),
+            "Screening masivo " + job.getScreeningType(),
+            ActionType.SCREENING_EXECUTE,
+            actionVerb,
+            description
+        );
+    }
+    
+    /**
+     * Registra en auditoría un screening del trabajo con coincidencias (AUD-016)
+     */
+    private void auditMatches(User executedBy, ScreeningBatchJob job, DossierScreening screening) {
+        auditService.logEvent(
+            executedBy,
+            "AUD-016",
+            "Match detectado",
+            EventCategory.SCREENING,
+            EventLevel.CRITICAL,
+            "Screening",
+            String.valueOf(screening.screeningId),
+            screening.entityName,
+            ActionType.SCREENING_EXECUTE,
+            "EXECUTE",
+            screening.totalMatches + " coincidencias para el expediente " + screening.dossierId
+                + " en el screening masivo " + job.getJobId()
+        );
+    }
+    
+    /**
+     * Conserva solo los trabajos finalizados más recientes
+     */
+    private void pruneFinishedJobs() {
+        int retained = screeningConfiguration.getBatch().getRetainedJobs();
+        List<ScreeningBatchJob> finished = jobs.values().stream()
+            .filter(ScreeningBatchJob::isFinished)
+            .sorted(Comparator.comparing(ScreeningBatchJob::getFinishedAt).reversed())
+            .collect(Collectors.toList());
+        for (int i = retained; i < finished.size(); i++) {
+            jobs.remove(finished.get(i).getJobId());
+        }
+    }
+    
+    private String describe(ScreeningBatchStatus status) {
+        return String.format("jobId=%s, status=%s, processed=%d/%d, withMatches=%d, fromCache=%d, matches=%d, elapsedMs=%d, dossiersPerSecond=%.1f",
+            status.getJobId(), status.getStatus(), status.getProcessedDossiers(), status.getTotalDossiers(),
+            status.getScreeningsWithMatches(), status.getScreeningsFromCache(), status.getTotalMatches(), status.getElapsedMs(),
+            status.getDossiersPerSecond());
+    }
+    
+    private static final class ListBucket {
+        private final Watchlist watchlist;
+        private final WatchlistSnapshot snapshot;
+        
+        private ListBucket(Watchlist watchlist, WatchlistSnapshot snapshot) {
+            this.watchlist = watchlist;
+            this.snapshot = snapshot;
+        }
+        
+        private WatchlistIndexBucket entries(EntityType entityType) {
+            return snapshot.getBucket(entityType);
+        }
+    }
+    
+    private static final class DossierName {
+        private final long dossierId;
+        private final String entityName;
+        private final EntityType entityType;
+        
+        private DossierName(long dossierId, String entityName, EntityType entityType) {
+            this.dossierId = dossierId;
+            this.entityName = entityName;
+            this.entityType = entityType;
+        }
+    }
+    
+    /**
+     * Resultado en memoria de un expediente, pendiente de persistir
+     */
+    private static final class DossierScreening {
+        private final long dossierId;
+        private final String entityName;
+        private final EntityType entityType;
+        private final List<List<Match>> matchesByList;
+        private final long[] timeByList;
+        private int totalMatches;
+        private boolean hasRelevantMatches;
+        private long durationMs;
+        private long screeningId;
+        private String fingerprint;
+        private Long cachedFromScreeningId;
+        
+        private DossierScreening(DossierName dossier, int listCount) {
+            this.dossierId = dossier.dossierId;
+            this.entityName = dossier.entityName;
+            this.entityType = dossier.entityType;
+            this.matchesByList = new ArrayList<>(listCount);
+            this.timeByList = new long[listCount];
+        }
+        
+        private void addList(List<Match> matches, long timeMs) {
+            timeByList[matchesByList.size()] = timeMs;
+            matchesByList.add(matches);
+            totalMatches += matches.size();
+            // Toda coincidencia registrada supera el umbral del 70%
+            hasRelevantMatches |= !matches.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.siar.screening.service;
+
+import com.siar.screening.config.ScreeningConfiguration;
+import com.siar.screening.dto.DecisionOutboxDeadLetter;
+import com.siar.screening.model.DecisionType;
+import com.siar.alert.service.AlertService;
+import com.siar.audit.model.ActionType;
+import com.siar.audit.model.EventCategory;
+import com.siar.audit.model.EventLevel;
+import com.siar.audit.service.AuditService;
+import com.siar.risk.service.RiskEvaluationService;
+import com.siar.user.model.User;
+import com.siar.user.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Aplica los efectos de las decisiones registradas en
+ * screening_decision_outbox: incremento de riesgo y alerta crítica para
+ * TRUE_MATCH, y auditoría para todas.
+ * 
+ * Cada decisión se procesa en su propia transacción, que toma la fila con
+ * FOR UPDATE SKIP LOCKED y la marca como procesada junto con los efectos:
+ * varias instancias pueden procesar la bandeja a la vez sin aplicar dos
+ * veces la misma decisión. Si un efecto falla la transacción se revierte y
+ * la fila se reintenta más tarde, hasta el máximo de intentos configurado.
+ * 
+ * Al fallar el último intento la fila queda marcada en dead_lettered_at, se
+ * registra en la métrica siar.screening.decision.outbox.dead.letter y deja
+ * de procesarse hasta que se reencola con {@link #redriveDeadLetters}.
+ */
+@Service
+@Slf4j
+public class ScreeningDecisionOutboxProcessor {
+    
+    private static final String SELECT_NEXT =
+        "SELECT o.id, o.decision_id, o.match_id, o.screening_id, o.dossier_id, o.decision, " +
+        "d.decided_by, d.justification " +
+        "FROM screening_decision_outbox o JOIN screening_decision d ON d.id = o.decision_id " +
+        "WHERE o.processed_at IS NULL AND o.dead_lettered_at IS NULL AND o.available_at <= CURRENT_TIMESTAMP " +
+        "ORDER BY o.available_at, o.id LIMIT 1 FOR UPDATE OF o SKIP LOCKED";
+    
+    private static final String MARK_PROCESSED =
+        "UPDATE screening_decision_outbox SET processed_at = CURRENT_TIMESTAMP, attempts = attempts + 1, " +
+        "last_error = NULL WHERE id = :id";
+    
+    private static final String MARK_FAILED =
+        "UPDATE screening_decision_outbox SET attempts = attempts + 1, last_error = :error, " +
+        "available_at = CURRENT_TIMESTAMP + make_interval(secs => :retryDelaySeconds * (attempts + 1)), " +
+        "dead_lettered_at = CASE WHEN attempts + 1 >= :maxAttempts THEN CURRENT_TIMESTAMP END " +
+        "WHERE id = :id RETURNING dead_lettered_at IS NOT NULL";
+    
+    private static final String SELECT_DEAD_LETTERS =
+        "SELECT id, decision_id, match_id, screening_id, dossier_id, decision, attempts, last_error, " +
+        "created_at, dead_lettered_at FROM screening_decision_outbox " +
+        "WHERE processed_at IS NULL AND dead_lettered_at IS NOT NULL " +
+        "ORDER BY dead_lettered_at, id LIMIT :limit";
+    
+    private static final String REDRIVE_ALL =
+        "UPDATE screening_decision_outbox SET dead_lettered_at = NULL, attempts = 0, " +
+        "available_at = CURRENT_TIMESTAMP " +
+        "WHERE processed_at IS NULL AND dead_lettered_at IS NOT NULL";
+    
+    private static final String REDRIVE_BY_IDS = REDRIVE_ALL + " AND id IN (:ids)";
+    
+    private static final int MAX_ERROR_LENGTH = 2000;
+    
+    private static final RowMapper<DecisionOutboxDeadLetter> DEAD_LETTER_MAPPER = (rs, rowNum) -> {
+        DecisionOutboxDeadLetter deadLetter = new DecisionOutboxDeadLetter();
+        deadLetter.setId(rs.getLong("id"));
+        deadLetter.setDecisionId(rs.getLong("decision_id"));
+        deadLetter.setMatchId(rs.getLong("match_id"));
+        deadLetter.setScreeningId(rs.getLong("screening_id"));
+        deadLetter.setDossierId(rs.getLong("dossier_id"));
+        deadLetter.setDecision(DecisionType.valueOf(rs.getString("decision")));
+        deadLetter.setAttempts(rs.getInt("attempts"));
+        deadLetter.setLastError(rs.getString("last_error"));
+        deadLetter.setCreatedAt(rs.getTimestamp("created_at").toInstant());
+        deadLetter.setDeadLetteredAt(rs.getTimestamp("dead_lettered_at").toInstant());
+        return deadLetter;
+    };
+    
+    private static final RowMapper<OutboxEvent> EVENT_MAPPER = (rs, rowNum) -> new OutboxEvent(
+        rs.getLong("id"),
+        rs.getLong("decision_id"),
+        rs.getLong("match_id"),
+        rs.getLong("screening_id"),
+        rs.getLong("dossier_id"),
+        DecisionType.valueOf(rs.getString("decision")),
+        rs.getLong("decided_by"),
+        rs.getString("justification")
+    );
+    
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private RiskEvaluationService riskEvaluationService;
+    
+    @Autowired
+    private AlertService alertService;
+    
+    @Autowired
+    private AuditService auditService;
+    
+    @Autowired
+    private ScreeningConfiguration screeningConfiguration;
+    
+    @Autowired
+    private ScreeningMetrics screeningMetrics;
+    
+    /**
+     * Procesa decisiones pendientes hasta vaciar la bandeja o completar el lote.
+     * 
+     * @return Decisiones procesadas con éxito
+     */
+    public int processPending() {
+        ScreeningConfiguration.DecisionOutboxConfig config = screeningConfiguration.getDecisionOutbox();
+        int processed = 0;
+        for (int i = 0; i < config.getBatchSize(); i++) {
+            OutboxEvent[] current = new OutboxEvent[1];
+            try {
+                Boolean found = transactionTemplate.execute(status -> {
+                    List<OutboxEvent> next = namedParameterJdbcTemplate.query(SELECT_NEXT,
+                        new MapSqlParameterSource(), EVENT_MAPPER);
+                    if (next.isEmpty()) {
+                        return false;
+                    }
+                    current[0] = next.get(0);
+                    apply(current[0]);
+                    namedParameterJdbcTemplate.update(MARK_PROCESSED, new MapSqlParameterSource("id", current[0].id));
+                    return true;
+                });
+                if (!Boolean.TRUE.equals(found)) {
+                    break;
+                }
+                processed++;
+            } catch (RuntimeException e) {
+                if (current[0] == null) {
+                    throw e;
+                }
+                log.error("Screening decision effects failed: decision={}, match={}",
+                    current[0].decisionId, current[0].matchId, e);
+                markFailed(current[0], e, config);
+            }
+        }
+        return processed;
+    }
+    
+    /**
+     * Decisiones agotadas, de la más antigua a la más reciente.
+     */
+    public List<DecisionOutboxDeadLetter> findDeadLetters(int limit) {
+        return namedParameterJdbcTemplate.query(SELECT_DEAD_LETTERS,
+            new MapSqlParameterSource("limit", Math.max(1, limit)), DEAD_LETTER_MAPPER);
+    }
+    
+    /**
+     * Reencola decisiones agotadas con los intentos en cero.
+     * 
+     * @param ids Filas de la bandeja a reencolar; todas las agotadas si es null o vacía
+     * @return Decisiones reencoladas
+     */
+    public int redriveDeadLetters(List<Long> ids) {
+        int redriven = ids == null || ids.isEmpty()
+            ? namedParameterJdbcTemplate.update(REDRIVE_ALL, new MapSqlParameterSource())
+            : namedParameterJdbcTemplate.update(REDRIVE_BY_IDS, new MapSqlParameterSource("ids", ids));
+        log.info("Screening decision dead letters redriven: decisions={}", redriven);
+        return redriven;
+    }
+    
+    private void apply(OutboxEvent event) {
+        if (event.decision == DecisionType.TRUE_MATCH) {
+            // Incrementar nivel de riesgo
+            riskEvaluationService.handleScreeningTrueMatch(event.dossierId, event.matchId);
+            
+            // Alerta crítica
+            alertService.createCriticalScreeningMatchAlert(event.screeningId, event.dossierId, event.matchId);
+        }
+        
+        // Auditoría (AUD-017), atribuida al revisor registrado en la decisión
+        User reviewer = userRepository.findById(String.valueOf(event.decidedBy))
+            .orElseThrow(() -> new RuntimeException("Screening decision reviewer not found: " + event.decidedBy));
+        auditService.logEvent(
+            reviewer,
+            "AUD-017",
+            "Decisión sobre match",
+            EventCategory.SCREENING,
+            EventLevel.CRITICAL,
+            "ScreeningDecision",
+            String.valueOf(event.decisionId),
+            "Match " + event.matchId,
+            ActionType.SCREENING_DECISION,
+            "DECIDE",
+            "Decisión " + event.decision + " sobre la coincidencia " + event.matchId
+                + " del screening " + event.screeningId + " (expediente " + event.dossierId + ")",
+            null,
+            null,
+            event.justification
+        );
+    }
+    
+    private void markFailed(OutboxEvent event, RuntimeException error, ScreeningConfiguration.DecisionOutboxConfig config) {
+        String message = String.valueOf(error.getMessage());
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("id", event.id)
+            .addValue("error", message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message)
+            .addValue("retryDelaySeconds", config.getRetryDelaySeconds())
+            .addValue("maxAttempts", config.getMaxAttempts());
+        Boolean deadLettered = namedParameterJdbcTemplate.queryForObject(MARK_FAILED, params, Boolean.class);
+        if (Boolean.TRUE.equals(deadLettered)) {
+            log.error("Screening decision effects exhausted retries, dead-lettered: outbox={}, decision={}, match={}",
+                event.id, event.decisionId, event.matchId);
+            screeningMetrics.recordDecisionOutboxDeadLetter(event.decision);
+        }
+    }
+    
+    private static final class OutboxEvent {
+        private final long id;
+        private final long decisionId;
+        private final long matchId;
+        private final long screeningId;
+        private final long dossierId;
+        private final DecisionType decision;
+        private final long decidedBy;
+        private final String justification;
+        
+        private OutboxEvent(long id, long decisionId, long matchId, long screeningId, long dossierId,
+                            DecisionType decision, long decidedBy, String justification) {
+            this.id = id;
+            this.decisionId = decisionId;
+            this.matchId = matchId;
+            this.screeningId = screeningId;
+            this.dossierId = dossierId;
+            this.decision = decision;
+            this.decidedBy = decidedBy;
+            this.justification = justification;
+        }
+    }
+}
@@ -2,18 +2,51 @@ package com.siar.screening.service;
 
 import com.siar.screening.model.*;
 import com.siar.screening.repository.*;
-import com.siar.alert.service.AlertService;
-import com.siar.audit.service.AuditService;
-import com.siar.risk.service.RiskEvaluationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
+/**
+ * Registro de decisiones del Oficial de Cumplimiento.
+ * 
+ * La decisión se registra con una sola sentencia: el INSERT resuelve el
+ * screening desde la coincidencia, respeta la asignación de la cola de
+ * revisión y la restricción única sobre match_id (ON CONFLICT DO NOTHING),
+ * e inserta en la misma sentencia la fila de screening_decision_outbox. Los
+ * efectos (riesgo, alerta crítica, auditoría) los aplica
+ * {@link ScreeningDecisionOutboxProcessor} en segundo plano.
+ * 
+ * Repetir la misma decisión del mismo revisor devuelve la ya registrada, de
+ * modo que los reintentos del cliente no fallan ni duplican efectos.
+ */
 @Service
 public class ScreeningDecisionService {
     
+    private static final String INSERT_DECISION =
+        "WITH decided AS (" +
+        "INSERT INTO screening_decision (match_id, screening_id, decision, justification, decided_by, " +
+        "decided_at, requires_escalation, impact_on_risk, requires_enhanced_due_diligence, created_at, updated_at) " +
+        "SELECT m.id, sr.screening_id, :decision, :justification, :decidedBy, :decidedAt, " +
+        ":requiresEscalation, :impactOnRisk, :requiresEnhancedDueDiligence, :decidedAt, :decidedAt " +
+        "FROM match m JOIN screening_result sr ON sr.id = m.screening_result_id " +
+        "WHERE m.id = :matchId " +
+        "AND NOT EXISTS (SELECT 1 FROM match_review_queue q WHERE q.match_id = m.id " +
+        "AND q.claimed_by <> :decidedBy AND q.lease_expires_at > CURRENT_TIMESTAMP) " +
+        "ON CONFLICT (match_id) DO NOTHING " +
+        "RETURNING id, screening_id), " +
+        "outbox AS (" +
+        "INSERT INTO screening_decision_outbox (decision_id, match_id, screening_id, dossier_id, decision) " +
+        "SELECT d.id, :matchId, d.screening_id, s.dossier_id, :decision " +
+        "FROM decided d JOIN screening s ON s.id = d.screening_id) " +
+        "SELECT id, screening_id FROM decided";
+    
     @Autowired
     private ScreeningDecisionRepository decisionRepository;
     
@@ -21,21 +54,14 @@ public class ScreeningDecisionService {
     private MatchRepository matchRepository;
     
     @Autowired
-    private ScreeningRepository screeningRepository;
-    
-    @Autowired
-    private RiskEvaluationService riskEvaluationService;
-    
-    @Autowired
-    private AlertService alertService;
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
     
     @Autowired
-    private AuditService auditService;
+    private MatchReviewQueueService matchReviewQueueService;
     
     /**
      * Registra decisión del Oficial de Cumplimiento sobre una coincidencia
      */
-    @Transactional
     public ScreeningDecision registerDecision(
         Long matchId,
         DecisionType decision,
@@ -47,55 +73,32 @@ public class ScreeningDecisionService {
             throw new RuntimeException("Only Compliance Officers can make screening decisions");
         }
         
-        // Verificar que no exista decisión previa
-        if (decisionRepository.findByMatchId(matchId).isPresent()) {
-            throw new RuntimeException("Decision already exists for match: " + matchId);
+        // El escalamiento requiere destinatario y motivo (chk_decision_escalation),
+        // que este registro aún no recibe
+        if (decision == DecisionType.ESCALATE) {
+            throw new RuntimeException("Escalation decisions are not supported yet; register PENDING_INFO instead");
         }
         
-        Match match = matchRepository.findById(matchId)
-            .orElseThrow(() -> new RuntimeException("Match not found: " + matchId));
-        
-        Screening screening = screeningRepository.findById(
-            match.getScreeningResultId()
-        ).orElseThrow(() -> new RuntimeException("Screening not found"));
-        
         // Crear decisión
         ScreeningDecision screeningDecision = new ScreeningDecision();
         screeningDecision.setMatchId(matchId);
-        screeningDecision.setScreeningId(screening.getId());
         screeningDecision.setDecision(decision);
         screeningDecision.setJustification(justification);
         screeningDecision.setDecidedBy(complianceOfficer.getId());
         screeningDecision.setDecidedAt(Instant.now());
+        screeningDecision.setRequiresEscalation(false);
+        screeningDecision.setImpactOnRisk(false);
+        screeningDecision.setRequiresEnhancedDueDiligence(false);
         
-        // Determinar acciones según el tipo de decisión
+        // Determinar acciones según el tipo de decisión; el riesgo y la
+        // alerta crítica de TRUE_MATCH se aplican desde la bandeja de salida
         switch (decision) {
             case TRUE_MATCH:
                 screeningDecision.setImpactOnRisk(true);
                 screeningDecision.setRequiresEnhancedDueDiligence(true);
-                
-                // Incrementar nivel de riesgo
-                riskEvaluationService.handleScreeningTrueMatch(
-                    screening.getDossierId(),
-                    matchId
-                );
-                
-                // Alerta crítica
-                alertService.createCriticalScreeningMatchAlert(
-                    screening.getId(),
-                    screening.getDossierId(),
-                    matchId
-                );
                 break;
                 
             case FALSE_POSITIVE:
-                screeningDecision.setImpactOnRisk(false);
-                screeningDecision.setRequiresEnhancedDueDiligence(false);
-                break;
-                
-            case ESCALATE:
-                screeningDecision.setRequiresEscalation(true);
-                // TODO: Implementar lógica de escalamiento
                 break;
                 
             case PENDING_INFO:
@@ -103,14 +106,47 @@ public class ScreeningDecisionService {
                 break;
         }
         
-        screeningDecision = decisionRepository.save(screeningDecision);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("matchId", matchId)
+            .addValue("decision", decision.name())
+            .addValue("justification", justification)
+            .addValue("decidedBy", screeningDecision.getDecidedBy())
+            .addValue("decidedAt", Timestamp.from(screeningDecision.getDecidedAt()))
+            .addValue("requiresEscalation", screeningDecision.getRequiresEscalation())
+            .addValue("impactOnRisk", screeningDecision.getImpactOnRisk())
+            .addValue("requiresEnhancedDueDiligence", screeningDecision.getRequiresEnhancedDueDiligence());
         
-        // Auditoría
-        auditService.logScreeningDecision(screeningDecision, complianceOfficer);
+        List<Map<String, Object>> inserted = namedParameterJdbcTemplate.queryForList(INSERT_DECISION, params);
+        if (inserted.isEmpty()) {
+            return resolveNotInserted(matchId, decision, complianceOfficer.getId());
+        }
         
+        Map<String, Object> row = inserted.get(0);
+        screeningDecision.setId(((Number) row.get("id")).longValue());
+        screeningDecision.setScreeningId(((Number) row.get("screening_id")).longValue());
         return screeningDecision;
     }
     
+    /**
+     * Explica por qué no se insertó la decisión: ya existía (reintento o
+     * decisión de otro revisor), la coincidencia no existe o está asignada a
+     * otro revisor. Solo se consulta en este caso, fuera del camino normal.
+     */
+    private ScreeningDecision resolveNotInserted(Long matchId, DecisionType decision, Long reviewerId) {
+        ScreeningDecision existing = decisionRepository.findByMatchId(matchId).orElse(null);
+        if (existing != null) {
+            if (existing.getDecision() == decision && Objects.equals(existing.getDecidedBy(), reviewerId)) {
+                return existing;
+            }
+            throw new RuntimeException("Decision already exists for match: " + matchId);
+        }
+        if (!matchRepository.existsById(matchId)) {
+            throw new RuntimeException("Match not found: " + matchId);
+        }
+        matchReviewQueueService.checkNotClaimedByOther(matchId, reviewerId);
+        throw new RuntimeException("Decision not registered for match: " + matchId);
+    }
+    
     /**
      * Obtiene decisión de una coincidencia
      */
@@ -1,39 +1,65 @@
 package com.siar.screening.service;
 
+import com.siar.screening.config.ScreeningConfiguration;
+import com.siar.screening.dto.ScreeningProgress;
 import com.siar.screening.model.*;
 import com.siar.screening.repository.*;
 import com.siar.alert.service.AlertService;
 import com.siar.audit.service.AuditService;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 @Service
+@Slf4j
 public class ScreeningExecutionService {
     
     @Autowired
     private ScreeningRepository screeningRepository;
     
     @Autowired
-    private ScreeningResultRepository screeningResultRepository;
+    private ScreeningResultWriter screeningResultWriter;
     
     @Autowired
-    private MatchRepository matchRepository;
+    private WatchlistRepository watchlistRepository;
     
     @Autowired
-    private WatchlistRepository watchlistRepository;
+    private WatchlistIndexService watchlistIndexService;
+    
+    @Autowired
+    private EntityMatchingStrategies entityMatchingStrategies;
     
     @Autowired
-    private WatchlistEntryRepository watchlistEntryRepository;
+    private NameNormalizationService nameNormalizationService;
     
     @Autowired
-    private JaroWinklerService jaroWinklerService;
+    private MatchScoringService matchScoringService;
+    
+    @Autowired
+    private ScreeningConfiguration screeningConfiguration;
+    
+    @Autowired
+    @Qualifier("screeningExecutor")
+    private ExecutorService screeningExecutor;
     
     @Autowired
     private AlertService alertService;
@@ -41,14 +67,93 @@ public class ScreeningExecutionService {
     @Autowired
     private AuditService auditService;
     
+    @Autowired
+    @Qualifier("screeningAsyncExecutor")
+    private ExecutorService screeningAsyncExecutor;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ScreeningResultCache screeningResultCache;
+    
+    @Autowired
+    private ScreeningMetrics screeningMetrics;
+    
     /**
-     * Ejecuta screening para un expediente
+     * Listas ya evaluadas de los screenings en ejecución en esta instancia
+     */
+    private final Map<Long, ScreeningProgressCounter> inFlight = new ConcurrentHashMap<>();
+    
+    /**
+     * Ejecuta screening para un expediente y espera el resultado
      */
-    @Transactional
     public Screening executeScreening(Long dossierId, ScreeningType screeningType, User currentUser) {
-        long startTime = System.currentTimeMillis();
+        Screening screening = startScreening(dossierId, screeningType, currentUser);
+        return runScreening(screening, currentUser);
+    }
+    
+    /**
+     * Registra el screening en estado IN_PROGRESS y lo ejecuta en el pool de
+     * screenings asíncronos; el avance se consulta con {@link #getScreeningProgress(Long)}.
+     */
+    public Screening submitScreening(Long dossierId, ScreeningType screeningType, User currentUser) {
+        Screening screening = startScreening(dossierId, screeningType, currentUser);
+        try {
+            screeningAsyncExecutor.execute(() -> {
+                try {
+                    runScreening(screening, currentUser);
+                } catch (RuntimeException e) {
+                    log.error("Async screening failed: screeningId={}, dossierId={}",
+                        screening.getId(), dossierId, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(screening.getId());
+            failScreening(screening, "Screening queue is full");
+            throw new RuntimeException("Screening queue is full, retry later");
+        }
+        return screening;
+    }
+    
+    /**
+     * Estado y avance de un screening, sin cargar sus resultados
+     */
+    public ScreeningProgress getScreeningProgress(Long screeningId) {
+        Screening screening = getScreeningDetails(screeningId);
+        
+        ScreeningProgress progress = new ScreeningProgress();
+        progress.setScreeningId(screening.getId());
+        progress.setDossierId(screening.getDossierId());
+        progress.setStatus(screening.getStatus());
+        progress.setExecutionDate(screening.getExecutionDate());
+        progress.setTotalMatchesFound(screening.getTotalMatchesFound());
+        progress.setHasRelevantMatches(screening.getHasRelevantMatches());
+        progress.setErrorMessage(screening.getErrorMessage());
+        progress.setCachedFromScreeningId(screening.getCachedFromScreeningId());
         
-        // Crear registro de screening
+        ScreeningProgressCounter counter = inFlight.get(screeningId);
+        if (counter != null) {
+            progress.setTotalListsChecked(counter.totalLists);
+            progress.setListsCompleted(counter.completedLists.get());
+        } else {
+            progress.setTotalListsChecked(screening.getTotalListsChecked());
+            progress.setListsCompleted(screening.getTotalListsChecked());
+        }
+        
+        if (screening.getExecutionDurationMs() != null) {
+            progress.setExecutionDurationMs(screening.getExecutionDurationMs());
+        } else if (screening.getExecutionDate() != null) {
+            progress.setExecutionDurationMs(
+                Duration.between(screening.getExecutionDate(), Instant.now()).toMillis());
+        }
+        return progress;
+    }
+    
+    /**
+     * Registra el screening en su propia transacción corta
+     */
+    private Screening startScreening(Long dossierId, ScreeningType screeningType, User currentUser) {
         Screening screening = new Screening();
         screening.setDossierId(dossierId);
         screening.setScreeningType(screeningType);
@@ -64,29 +169,77 @@ public class ScreeningExecutionService {
         screening.setScreenedEntityName(entityName);
         screening.setScreenedEntityType(entityType);
         
-        screening = screeningRepository.save(screening);
+        Screening saved = transactionTemplate.execute(status -> screeningRepository.save(screening));
+        inFlight.put(saved.getId(), new ScreeningProgressCounter());
+        return saved;
+    }
+    
+    /**
+     * Evalúa las listas fuera de toda transacción y persiste el resultado en
+     * una transacción corta, de modo que la conexión solo se retiene durante
+     * las escrituras y no durante el cálculo.
+     */
+    private Screening runScreening(Screening screening, User currentUser) {
+        long startTime = screening.getExecutionDate().toEpochMilli();
+        Long dossierId = screening.getDossierId();
+        String entityName = screening.getScreenedEntityName();
+        EntityType entityType = screening.getScreenedEntityType();
+        ScreeningProgressCounter counter = inFlight.get(screening.getId());
         
         try {
+            // Nombre normalizado, atributos y falsos positivos ya decididos: una vez para todas las listas
+            ScreeningSubject subject = new ScreeningSubject(
+                entityName,
+                nameNormalizationService.normalize(entityName).toCharArray(),
+                SubjectAttributes.of(screening.getScreenedEntityDocument(), null, null),
+                matchScoringService.findSuppressedEntries(dossierId)
+            );
+            
             // Obtener listas activas ordenadas por prioridad
             List<Watchlist> activeLists = watchlistRepository.findActiveWatchlistsOrderedByPriority();
+            counter.totalLists = activeLists.size();
+            
+            // Las fotografías se resuelven en este hilo porque su reconstrucción
+            // consulta la base de datos
+            List<WatchlistSnapshot> snapshots = new ArrayList<>(activeLists.size());
+            for (Watchlist watchlist : activeLists) {
+                snapshots.add(watchlistIndexService.getSnapshot(watchlist));
+            }
+            
+            // Mismo sujeto contra las mismas versiones de listas: reutilizar el resultado
+            String fingerprint = screeningResultCache.fingerprint(
+                subject, entityType, screeningResultCache.listsSignature(snapshots));
+            screening.setSubjectFingerprint(fingerprint);
+            Long sourceScreeningId = screeningResultCache.findSources(List.of(fingerprint)).get(fingerprint);
             
+            Long screeningId = screening.getId();
+            List<WatchlistScreening> outcomes;
+            if (sourceScreeningId != null) {
+                outcomes = reuseResults(screeningId, activeLists, snapshots, entityType, subject, sourceScreeningId);
+                counter.completedLists.set(activeLists.size());
+                screening.setCachedFromScreeningId(sourceScreeningId);
+            } else {
+                // Evaluar las listas en paralelo
+                List<CompletableFuture<WatchlistScreening>> pending = new ArrayList<>(activeLists.size());
+                for (int i = 0; i < activeLists.size(); i++) {
+                    Watchlist watchlist = activeLists.get(i);
+                    WatchlistIndexBucket entries = snapshots.get(i).getBucket(entityType);
+                    pending.add(CompletableFuture.supplyAsync(
+                        () -> screenAgainstWatchlist(screeningId, watchlist, entityType, entries, subject),
+                        screeningExecutor
+                    ).whenComplete((outcome, error) -> counter.completedLists.incrementAndGet()));
+                }
+                outcomes = awaitAll(pending);
+            }
+            
+            // Consolidar en memoria, en orden de prioridad de las listas
             int totalMatches = 0;
             boolean hasRelevantMatches = false;
-            
-            // Ejecutar screening contra cada lista
-            for (Watchlist watchlist : activeLists) {
-                ScreeningResult result = screenAgainstWatchlist(
-                    screening.getId(),
-                    watchlist,
-                    entityName,
-                    entityType
-                );
-                
-                totalMatches += result.getMatchesFound();
+            for (WatchlistScreening outcome : outcomes) {
+                totalMatches += outcome.result.getMatchesFound();
                 
                 // Verificar si hay coincidencias relevantes (> 70%)
-                List<Match> matches = matchRepository.findByScreeningId(screening.getId());
-                for (Match match : matches) {
+                for (Match match : outcome.matches) {
                     if (match.getSimilarityScore().compareTo(BigDecimal.valueOf(70)) >= 0) {
                         hasRelevantMatches = true;
                         break;
@@ -105,106 +258,144 @@ public class ScreeningExecutionService {
                 screening.setOverallResult(ScreeningResult.CLEAR);
             } else {
                 screening.setOverallResult(ScreeningResult.REQUIRES_REVIEW);
-                
-                // Generar alerta para Oficial de Cumplimiento
-                alertService.createScreeningAlert(screening.getId(), dossierId);
             }
             
             screening.setExecutionDurationMs(System.currentTimeMillis() - startTime);
-            screening = screeningRepository.save(screening);
-            
-            // Auditoría
-            auditService.logScreeningExecution(screening, currentUser);
             
-        } catch (Exception e) {
-            screening.setStatus(ScreeningStatus.ERROR);
-            screening.setErrorMessage(e.getMessage());
-            screening = screeningRepository.save(screening);
+            boolean requiresReview = hasRelevantMatches;
+            Screening completed = transactionTemplate.execute(status -> {
+                persistResults(outcomes);
+                Screening saved = screeningRepository.save(screening);
+                
+                // Generar alerta para Oficial de Cumplimiento
+                if (requiresReview) {
+                    alertService.createScreeningAlert(saved.getId(), dossierId);
+                }
+                
+                // Auditoría
+                auditService.logScreeningExecution(saved, currentUser);
+                return saved;
+            });
+            screeningMetrics.recordScreening(completed);
+            return completed;
+        
+        } catch (RuntimeException e) {
+            failScreening(screening, e.getMessage());
             throw e;
+        } finally {
+            inFlight.remove(screening.getId());
         }
-        
-        return screening;
+    }
+    
+    private void failScreening(Screening screening, String errorMessage) {
+        screening.setStatus(ScreeningStatus.ERROR);
+        screening.setErrorMessage(errorMessage);
+        screening.setExecutionDurationMs(System.currentTimeMillis() - screening.getExecutionDate().toEpochMilli());
+        transactionTemplate.executeWithoutResult(status -> screeningRepository.save(screening));
+        screeningMetrics.recordScreening(screening);
     }
     
     /**
-     * Ejecuta screening contra una lista específica
+     * Ejecuta screening contra una lista específica.
+     * Solo calcula en memoria; se ejecuta en el ejecutor de screening.
      */
-    private ScreeningResult screenAgainstWatchlist(
+    private WatchlistScreening screenAgainstWatchlist(
         Long screeningId,
         Watchlist watchlist,
-        String entityName,
-        EntityType entityType
+        EntityType entityType,
+        WatchlistIndexBucket entries,
+        ScreeningSubject subject
     ) {
-        long startTime = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
         
         ScreeningResult result = new ScreeningResult();
         result.setScreeningId(screeningId);
         result.setWatchlistId(watchlist.getId());
         result.setWatchlistName(watchlist.getName());
         
-        // Obtener entradas activas de la lista
-        List<WatchlistEntry> entries = watchlistEntryRepository
-            .findActiveEntriesByWatchlistAndType(watchlist.getId(), entityType);
-        
         result.setTotalEntriesChecked(entries.size());
         
-        int matchesFound = 0;
+        List<Match> matches = entityMatchingStrategies.findMatches(entityType, entries, subject);
         
-        // Comparar contra cada entrada
-        for (WatchlistEntry entry : entries) {
-            double similarity = jaroWinklerService.calculateSimilarity(
-                entityName,
-                entry.getName()
-            );
-            
-            BigDecimal similarityPercentage = jaroWinklerService.toPercentage(similarity);
+        long elapsedNanos = System.nanoTime() - startNanos;
+        result.setMatchesFound(matches.size());
+        result.setExecutionTimeMs(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        screeningMetrics.recordWatchlist(watchlist, elapsedNanos, entries.size(), matches);
+        
+        return new WatchlistScreening(result, matches);
+    }
+    
+    /**
+     * Resultados por lista a partir de las coincidencias de un screening
+     * anterior con la misma huella.
+     */
+    private List<WatchlistScreening> reuseResults(
+        Long screeningId,
+        List<Watchlist> activeLists,
+        List<WatchlistSnapshot> snapshots,
+        EntityType entityType,
+        ScreeningSubject subject,
+        Long sourceScreeningId
+    ) {
+        Map<Long, List<Match>> cachedByList = screeningResultCache
+            .loadMatches(List.of(sourceScreeningId))
+            .getOrDefault(sourceScreeningId, Collections.emptyMap());
+        
+        List<WatchlistScreening> outcomes = new ArrayList<>(activeLists.size());
+        for (int i = 0; i < activeLists.size(); i++) {
+            Watchlist watchlist = activeLists.get(i);
+            List<Match> matches = screeningResultCache.reuse(cachedByList.get(watchlist.getId()), subject);
             
-            // Si la similitud es >= 70%, registrar como coincidencia
-            if (similarityPercentage.compareTo(BigDecimal.valueOf(70)) >= 0) {
-                Match match = createMatch(result, entry, entityName, similarityPercentage);
-                matchRepository.save(match);
-                matchesFound++;
+            ScreeningResult result = new ScreeningResult();
+            result.setScreeningId(screeningId);
+            result.setWatchlistId(watchlist.getId());
+            result.setWatchlistName(watchlist.getName());
+            result.setTotalEntriesChecked(snapshots.get(i).getBucket(entityType).size());
+            result.setMatchesFound(matches.size());
+            result.setExecutionTimeMs(0L);
+            outcomes.add(new WatchlistScreening(result, matches));
+        }
+        return outcomes;
+    }
+    
+    /**
+     * Espera los resultados de todas las listas, en el orden en que se enviaron.
+     */
+    private List<WatchlistScreening> awaitAll(List<CompletableFuture<WatchlistScreening>> pending) {
+        long timeoutSeconds = screeningConfiguration.getExecutor().getTimeoutSeconds();
+        try {
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture[0]))
+                .get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            pending.forEach(future -> future.cancel(true));
+            throw new RuntimeException("Screening timed out after " + timeoutSeconds + "s");
+        } catch (InterruptedException e) {
+            pending.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Screening interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
             }
+            throw new RuntimeException("Screening failed: " + e.getCause().getMessage(), e.getCause());
         }
         
-        result.setMatchesFound(matchesFound);
-        result.setExecutionTimeMs(System.currentTimeMillis() - startTime);
-        
-        return screeningResultRepository.save(result);
+        return pending.stream()
+            .map(CompletableFuture::join)
+            .collect(Collectors.toList());
     }
     
     /**
-     * Crea un registro de coincidencia
+     * Persiste en un solo paso los resultados por lista y sus coincidencias.
      */
-    private Match createMatch(
-        ScreeningResult result,
-        WatchlistEntry entry,
-        String screenedName,
-        BigDecimal similarityScore
-    ) {
-        Match match = new Match();
-        match.setScreeningResultId(result.getId());
-        match.setWatchlistEntryId(entry.getId());
-        match.setScreenedName(screenedName);
-        match.setMatchedName(entry.getName());
-        match.setSimilarityScore(similarityScore);
-        
-        // Determinar tipo de coincidencia
-        if (similarityScore.compareTo(BigDecimal.valueOf(95)) >= 0) {
-            match.setMatchType(MatchType.HIGH);
-            match.setIsRelevant(true);
-            match.setRequiresReview(true);
-        } else if (similarityScore.compareTo(BigDecimal.valueOf(85)) >= 0) {
-            match.setMatchType(MatchType.MEDIUM);
-            match.setIsRelevant(true);
-            match.setRequiresReview(true);
-        } else {
-            match.setMatchType(MatchType.LOW);
-            match.setIsRelevant(false);
-            match.setRequiresReview(false);
+    private void persistResults(List<WatchlistScreening> outcomes) {
+        List<ScreeningResult> results = new ArrayList<>(outcomes.size());
+        List<List<Match>> matchesByResult = new ArrayList<>(outcomes.size());
+        for (WatchlistScreening outcome : outcomes) {
+            results.add(outcome.result);
+            matchesByResult.add(outcome.matches);
         }
-        
-        return match;
+        screeningResultWriter.insertResults(results, matchesByResult);
     }
     
     /**
@@ -221,4 +412,25 @@ public class ScreeningExecutionService {
     public List<Screening> getDossierScreenings(Long dossierId) {
         return screeningRepository.findByDossierId(dossierId);
     }
+    
+    /**
+     * Resultado en memoria de una lista, pendiente de persistir
+     */
+    private static final class WatchlistScreening {
+        private final ScreeningResult result;
+        private final List<Match> matches;
+        
+        private WatchlistScreening(ScreeningResult result, List<Match> matches) {
+            this.result = result;
+            this.matches = matches;
+        }
+    }
+    
+    /**
+     * Avance en memoria de un screening en ejecución
+     */
+    private static final class ScreeningProgressCounter {
+        private volatile int totalLists;
+        private final AtomicInteger completedLists = new AtomicInteger();
+    }
 }
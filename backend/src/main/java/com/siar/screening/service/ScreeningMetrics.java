@@ -0,0 +1,175 @@
+package com.siar.screening.service;
+
+import com.siar.screening.model.DecisionType;
+import com.siar.screening.model.Match;
+import com.siar.screening.model.MatchType;
+import com.siar.screening.model.Screening;
+import com.siar.screening.model.Watchlist;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas del motor de screening, exportadas por Micrometer (actuator/prometheus).
+ * 
+ * - siar.screening.duration: screenings individuales por tipo, estado y
+ *   si se reutilizó un resultado anterior.
+ * - siar.screening.watchlist.duration: latencia por lista, con histograma.
+ * - siar.screening.watchlist.entries: entradas de la lista por screening
+ *   (las que compararía un barrido completo).
+ * - siar.screening.matches: coincidencias por lista y tipo de coincidencia.
+ * - siar.screening.blocking.candidates y siar.screening.blocking.rows: filas
+ *   candidatas que deja la etapa de bloqueo frente a las filas del índice.
+ * - siar.screening.result.cache: búsquedas de resultados reutilizables
+ *   por resultado (hit o miss).
+ * - siar.screening.decision.outbox.dead.letter: decisiones cuyos efectos
+ *   agotaron los reintentos, por tipo de decisión.
+ * 
+ * Los medidores por lista se crean una vez y se reutilizan, para que el
+ * registro no se consulte en cada screening.
+ */
+@Service
+public class ScreeningMetrics {
+    
+    public static final String SCREENING_DURATION = "siar.screening.duration";
+    public static final String WATCHLIST_DURATION = "siar.screening.watchlist.duration";
+    public static final String WATCHLIST_ENTRIES = "siar.screening.watchlist.entries";
+    public static final String MATCHES = "siar.screening.matches";
+    public static final String BLOCKING_CANDIDATES = "siar.screening.blocking.candidates";
+    public static final String BLOCKING_ROWS = "siar.screening.blocking.rows";
+    public static final String RESULT_CACHE = "siar.screening.result.cache";
+    public static final String DECISION_OUTBOX_DEAD_LETTER = "siar.screening.decision.outbox.dead.letter";
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private final Map<String, WatchlistMeters> watchlistMeters = new ConcurrentHashMap<>();
+    
+    private volatile DistributionSummary blockingCandidates;
+    private volatile Counter blockingRows;
+    
+    public ScreeningMetrics() {
+    }
+    
+    /**
+     * Instancia fuera del contexto de Spring (pruebas y benchmarks)
+     */
+    ScreeningMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    /**
+     * Registra un screening individual terminado (completado o con error).
+     */
+    public void recordScreening(Screening screening) {
+        if (screening.getExecutionDurationMs() == null) {
+            return;
+        }
+        Timer.builder(SCREENING_DURATION)
+            .description("Duración de screenings individuales")
+            .tag("type", String.valueOf(screening.getScreeningType()))
+            .tag("status", String.valueOf(screening.getStatus()))
+            .tag("cached", String.valueOf(screening.getCachedFromScreeningId() != null))
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(screening.getExecutionDurationMs(), TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Registra la evaluación de un sujeto contra una lista.
+     */
+    public void recordWatchlist(Watchlist watchlist, long durationNanos, int entriesChecked, List<Match> matches) {
+        WatchlistMeters meters = watchlistMeters.computeIfAbsent(watchlistTag(watchlist), this::createWatchlistMeters);
+        meters.duration.record(durationNanos, TimeUnit.NANOSECONDS);
+        meters.entries.increment(entriesChecked);
+        for (Match match : matches) {
+            meters.matches.get(match.getMatchType()).increment();
+        }
+    }
+    
+    /**
+     * Registra las filas candidatas de una consulta a la etapa de bloqueo.
+     */
+    public void recordBlocking(int rowCount, int candidates) {
+        DistributionSummary summary = blockingCandidates;
+        Counter rows = blockingRows;
+        if (summary == null || rows == null) {
+            summary = DistributionSummary.builder(BLOCKING_CANDIDATES)
+                .description("Filas candidatas por consulta tras la etapa de bloqueo")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+            rows = Counter.builder(BLOCKING_ROWS)
+                .description("Filas del índice consultado por la etapa de bloqueo")
+                .register(meterRegistry);
+            blockingCandidates = summary;
+            blockingRows = rows;
+        }
+        summary.record(candidates);
+        rows.increment(rowCount);
+    }
+    
+    /**
+     * Registra una búsqueda de resultados reutilizables.
+     * 
+     * @param lookups Huellas consultadas
+     * @param hits Huellas con un screening reutilizable
+     */
+    public void recordResultCache(int lookups, int hits) {
+        meterRegistry.counter(RESULT_CACHE, "outcome", "hit").increment(hits);
+        meterRegistry.counter(RESULT_CACHE, "outcome", "miss").increment(lookups - hits);
+    }
+    
+    /**
+     * Registra una decisión cuyos efectos agotaron los reintentos.
+     */
+    public void recordDecisionOutboxDeadLetter(DecisionType decision) {
+        meterRegistry.counter(DECISION_OUTBOX_DEAD_LETTER, "decision", decision.name()).increment();
+    }
+    
+    private WatchlistMeters createWatchlistMeters(String watchlist) {
+        Timer duration = Timer.builder(WATCHLIST_DURATION)
+            .description("Duración de la evaluación de un sujeto contra una lista")
+            .tag("watchlist", watchlist)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        Counter entries = Counter.builder(WATCHLIST_ENTRIES)
+            .description("Entradas de la lista por sujeto evaluado")
+            .tag("watchlist", watchlist)
+            .register(meterRegistry);
+        
+        Map<MatchType, Counter> matches = new EnumMap<>(MatchType.class);
+        for (MatchType matchType : MatchType.values()) {
+            matches.put(matchType, Counter.builder(MATCHES)
+                .description("Coincidencias encontradas")
+                .tag("watchlist", watchlist)
+                .tag("match_type", matchType.name())
+                .register(meterRegistry));
+        }
+        return new WatchlistMeters(duration, entries, matches);
+    }
+    
+    private static String watchlistTag(Watchlist watchlist) {
+        return watchlist.getCode() != null ? watchlist.getCode() : String.valueOf(watchlist.getId());
+    }
+    
+    private static final class WatchlistMeters {
+        private final Timer duration;
+        private final Counter entries;
+        private final Map<MatchType, Counter> matches;
+        
+        private WatchlistMeters(Timer duration, Counter entries, Map<MatchType, Counter> matches) {
+            this.duration = duration;
+            this.entries = entries;
+            this.matches = matches;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.siar.screening.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siar.screening.config.ScreeningConfiguration;
+import com.siar.screening.model.EntityType;
+import com.siar.screening.model.Match;
+import com.siar.screening.model.MatchType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Reutilización de resultados de screening.
+ * 
+ * Un screening queda identificado por una huella del sujeto (nombre
+ * normalizado, tipo de entidad, atributos secundarios y entradas descartadas
+ * como falso positivo para su expediente) y de las listas
+ * evaluadas (id, versión y checksum de cada una). Si ya existe un screening
+ * calculado con la misma huella, sus coincidencias siguen siendo válidas:
+ * se copian al nuevo screening, que registra de cuál proviene, en lugar de
+ * volver a comparar contra las listas. Un screening sin coincidencias se
+ * reutiliza como CLEAR.
+ * 
+ * Las decisiones de falso positivo forman parte de la huella porque el
+ * resultado de origen ya las excluye: dos expedientes con el mismo nombre
+ * solo comparten resultado si tienen las mismas entradas descartadas.
+ * 
+ * La huella también incluye la configuración efectiva de comparación
+ * (umbrales, bloqueo, token set, pesos del puntaje y normalización): un
+ * resultado calculado con otros umbrales no se reutiliza.
+ */
+@Service
+public class ScreeningResultCache {
+    
+    private static final String SELECT_SOURCES =
+        "SELECT DISTINCT ON (subject_fingerprint) subject_fingerprint, id FROM screening " +
+        "WHERE subject_fingerprint IN (:fingerprints) AND status = 'COMPLETED' " +
+        "AND cached_from_screening_id IS NULL AND execution_date >= :since " +
+        "ORDER BY subject_fingerprint, id DESC";
+    
+    private static final String SELECT_SOURCE_MATCHES =
+        "SELECT sr.screening_id, sr.watchlist_id, m.watchlist_entry_id, m.matched_name, " +
+        "m.similarity_score, m.is_relevant, m.match_type, m.matched_fields::text AS matched_fields, " +
+        "m.requires_review " +
+        "FROM screening_result sr JOIN match m ON m.screening_result_id = sr.id " +
+        "WHERE sr.screening_id IN (:screeningIds) " +
+        "ORDER BY sr.screening_id, sr.watchlist_id, m.similarity_score DESC, m.id";
+    
+    private static final TypeReference<Map<String, Object>> FIELDS_TYPE = new TypeReference<>() {};
+    
+    /**
+     * Versión de los algoritmos de comparación y puntaje; se incrementa al
+     * cambiarlos para no reutilizar resultados calculados con los anteriores
+     */
+    private static final int MATCHING_RULES_VERSION = 1;
+    
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ScreeningConfiguration screeningConfiguration;
+    
+    @Autowired
+    private ScreeningMetrics screeningMetrics;
+    
+    @Autowired
+    private NameNormalizationService nameNormalizationService;
+    
+    private volatile String configurationSignature;
+    
+    public boolean isEnabled() {
+        return screeningConfiguration.getResultCache().isEnabled();
+    }
+    
+    /**
+     * Parte de la huella común a todos los sujetos evaluados contra las mismas listas.
+     * 
+     * @param snapshots Fotografías efectivamente evaluadas, en orden de prioridad
+     */
+    public String listsSignature(List<WatchlistSnapshot> snapshots) {
+        StringBuilder signature = new StringBuilder(snapshots.size() * 48);
+        for (WatchlistSnapshot snapshot : snapshots) {
+            signature.append(snapshot.getWatchlistId()).append(':')
+                .append(snapshot.getVersion()).append(':')
+                .append(snapshot.getChecksumMd5()).append(';');
+        }
+        return signature.toString();
+    }
+    
+    /**
+     * Huella SHA-256 (hexadecimal) del sujeto evaluado contra un conjunto de listas.
+     */
+    public String fingerprint(ScreeningSubject subject, EntityType entityType, String listsSignature) {
+        SubjectAttributes attributes = subject.getAttributes();
+        String key = new StringBuilder(128 + listsSignature.length())
+            .append(subject.getNormalizedName()).append('|')
+            .append(entityType).append('|')
+            .append(attributes.getDocument()).append('|')
+            .append(attributes.getDateOfBirth()).append('|')
+            .append(attributes.getNationality()).append('|')
+            .append(subject.getSuppressedEntryIds().stream().sorted().collect(Collectors.toList())).append('|')
+            .append(configurationSignature()).append('|')
+            .append(listsSignature)
+            .toString();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    /**
+     * Configuración que determina las coincidencias de un sujeto. Se
+     * calcula una vez: las propiedades no cambian con la aplicación en marcha.
+     */
+    private String configurationSignature() {
+        String signature = configurationSignature;
+        if (signature == null) {
+            ScreeningConfiguration.BlockingConfig blocking = screeningConfiguration.getBlocking();
+            ScreeningConfiguration.TokenSetConfig tokenSet = screeningConfiguration.getTokenSet();
+            ScreeningConfiguration.ScoringConfig scoring = screeningConfiguration.getScoring();
+            signature = new StringBuilder(160)
+                .append(MATCHING_RULES_VERSION).append(';')
+                .append(WatchlistMatchingService.MATCH_THRESHOLD).append(';')
+                .append(blocking.isEnabled()).append(':')
+                .append(blocking.getMinTrigramOverlap()).append(':')
+                .append(blocking.getMinPhoneticTokens()).append(';')
+                .append(tokenSet.isEnabled()).append(':')
+                .append(tokenSet.getTokenThreshold()).append(':')
+                .append(tokenSet.getExtraTokenPenalty()).append(';')
+                .append(scoring.getDocumentMatchBoost()).append(':')
+                .append(scoring.getDateOfBirthMatchBoost()).append(':')
+                .append(scoring.getDateOfBirthMismatchPenalty()).append(':')
+                .append(scoring.getNationalityMatchBoost()).append(':')
+                .append(scoring.getNationalityMismatchPenalty()).append(':')
+                .append(scoring.isSuppressFalsePositives()).append(';')
+                .append(nameNormalizationService.configurationHash())
+                .toString();
+            configurationSignature = signature;
+        }
+        return signature;
+    }
+    
+    /**
+     * Último screening calculado por huella, dentro de la antigüedad máxima configurada.
+     * 
+     * @return Id del screening de origen por huella; las huellas sin resultado no aparecen
+     */
+    public Map<String, Long> findSources(Collection<String> fingerprints) {
+        if (!isEnabled() || fingerprints.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        
+        Duration maxAge = Duration.ofHours(screeningConfiguration.getResultCache().getMaxAgeHours());
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("fingerprints", fingerprints)
+            .addValue("since", Timestamp.from(Instant.now().minus(maxAge)));
+        
+        Map<String, Long> sources = new HashMap<>();
+        namedParameterJdbcTemplate.query(SELECT_SOURCES, params, rs -> {
+            sources.put(rs.getString("subject_fingerprint"), rs.getLong("id"));
+        });
+        screeningMetrics.recordResultCache(fingerprints.size(), sources.size());
+        return sources;
+    }
+    
+    /**
+     * Coincidencias de los screenings de origen, agrupadas por lista.
+     * 
+     * @return Por screening de origen, las coincidencias de cada lista; las
+     *         listas sin coincidencias no aparecen
+     */
+    public Map<Long, Map<Long, List<Match>>> loadMatches(Collection<Long> sourceScreeningIds) {
+        Map<Long, Map<Long, List<Match>>> matches = new HashMap<>();
+        if (sourceScreeningIds.isEmpty()) {
+            return matches;
+        }
+        
+        MapSqlParameterSource params = new MapSqlParameterSource("screeningIds", sourceScreeningIds);
+        namedParameterJdbcTemplate.query(SELECT_SOURCE_MATCHES, params, rs -> {
+            Match match = new Match();
+            match.setWatchlistEntryId(rs.getLong("watchlist_entry_id"));
+            match.setMatchedName(rs.getString("matched_name"));
+            match.setSimilarityScore(rs.getBigDecimal("similarity_score"));
+            match.setIsRelevant(rs.getBoolean("is_relevant"));
+            match.setMatchType(MatchType.valueOf(rs.getString("match_type")));
+            match.setMatchedFields(fromJson(rs.getString("matched_fields")));
+            match.setRequiresReview(rs.getBoolean("requires_review"));
+            
+            matches.computeIfAbsent(rs.getLong("screening_id"), id -> new LinkedHashMap<>())
+                .computeIfAbsent(rs.getLong("watchlist_id"), id -> new ArrayList<>())
+                .add(match);
+        });
+        return matches;
+    }
+    
+    /**
+     * Copia para el sujeto actual las coincidencias de una lista.
+     */
+    public List<Match> reuse(List<Match> cached, ScreeningSubject subject) {
+        if (cached == null || cached.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        List<Match> matches = new ArrayList<>(cached.size());
+        for (Match source : cached) {
+            Match match = new Match();
+            match.setWatchlistEntryId(source.getWatchlistEntryId());
+            match.setScreenedName(subject.getName());
+            match.setMatchedName(source.getMatchedName());
+            match.setSimilarityScore(source.getSimilarityScore());
+            match.setIsRelevant(source.getIsRelevant());
+            match.setMatchType(source.getMatchType());
+            match.setMatchedFields(source.getMatchedFields() != null
+                ? new LinkedHashMap<>(source.getMatchedFields()) : null);
+            match.setRequiresReview(source.getRequiresReview());
+            matches.add(match);
+        }
+        return matches;
+    }
+    
+    private Map<String, Object> fromJson(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(value, FIELDS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Cannot deserialize matched fields", e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.siar.screening.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siar.screening.model.Match;
+import com.siar.screening.model.ScreeningResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persistencia por lotes de los resultados por lista y sus coincidencias.
+ * 
+ * Las entidades usan IDENTITY, por lo que Hibernate inserta fila por fila.
+ * Aquí los identificadores se reservan por bloques desde las secuencias
+ * BIGSERIAL en una sola consulta y las filas se envían con inserciones JDBC
+ * por lotes (el driver las reescribe como INSERT multi-fila con
+ * reWriteBatchedInserts): un screening con cientos de coincidencias cuesta
+ * cuatro viajes a la base de datos en lugar de uno por fila.
+ * 
+ * Debe invocarse dentro de la transacción del screening.
+ */
+@Service
+public class ScreeningResultWriter {
+    
+    private static final String NEXT_IDS =
+        "SELECT nextval(?::regclass) FROM generate_series(1, ?)";
+    
+    private static final String INSERT_SCREENING_RESULT =
+        "INSERT INTO screening_result (id, screening_id, watchlist_id, watchlist_name, " +
+        "total_entries_checked, matches_found, execution_time_ms) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String INSERT_MATCH =
+        "INSERT INTO match (id, screening_result_id, watchlist_entry_id, screened_name, " +
+        "matched_name, similarity_score, is_relevant, match_type, matched_fields, requires_review) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?::jsonb, ?)";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    /**
+     * Inserta los resultados y las coincidencias de cada uno.
+     * 
+     * Asigna los identificadores reservados a las entidades recibidas y el
+     * resultado correspondiente a cada coincidencia.
+     * 
+     * @param results Resultados por lista con el screening ya asignado
+     * @param matchesByResult Coincidencias de cada resultado, en el mismo orden
+     */
+    public void insertResults(List<ScreeningResult> results, List<List<Match>> matchesByResult) {
+        if (results.size() != matchesByResult.size()) {
+            throw new IllegalArgumentException("Expected matches for " + results.size()
+                + " results, got " + matchesByResult.size());
+        }
+        if (results.isEmpty()) {
+            return;
+        }
+        
+        int matchCount = 0;
+        for (List<Match> matches : matchesByResult) {
+            matchCount += matches.size();
+        }
+        
+        long[] resultIds = nextIds("screening_result_id_seq", results.size());
+        long[] matchIds = nextIds("match_id_seq", matchCount);
+        
+        List<Object[]> resultRows = new ArrayList<>(results.size());
+        List<Object[]> matchRows = new ArrayList<>(matchCount);
+        
+        int nextMatch = 0;
+        for (int r = 0; r < results.size(); r++) {
+            ScreeningResult result = results.get(r);
+            result.setId(resultIds[r]);
+            
+            resultRows.add(new Object[] {
+                result.getId(),
+                result.getScreeningId(),
+                result.getWatchlistId(),
+                result.getWatchlistName(),
+                result.getTotalEntriesChecked(),
+                result.getMatchesFound(),
+                result.getExecutionTimeMs()
+            });
+            
+            for (Match match : matchesByResult.get(r)) {
+                match.setId(matchIds[nextMatch++]);
+                match.setScreeningResultId(result.getId());
+                
+                matchRows.add(new Object[] {
+                    match.getId(),
+                    match.getScreeningResultId(),
+                    match.getWatchlistEntryId(),
+                    match.getScreenedName(),
+                    match.getMatchedName(),
+                    match.getSimilarityScore(),
+                    match.getIsRelevant(),
+                    match.getMatchType().name(),
+                    toJson(match.getMatchedFields()),
+                    match.getRequiresReview()
+                });
+            }
+        }
+        
+        jdbcTemplate.batchUpdate(INSERT_SCREENING_RESULT, resultRows);
+        if (!matchRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_MATCH, matchRows);
+        }
+    }
+    
+    /**
+     * Reserva un bloque de identificadores de una secuencia en una sola consulta.
+     */
+    public long[] nextIds(String sequence, int count) {
+        if (count == 0) {
+            return new long[0];
+        }
+        return jdbcTemplate.queryForList(NEXT_IDS, Long.class, sequence, count).stream()
+            .mapToLong(Long::longValue)
+            .toArray();
+    }
+    
+    private String toJson(Map<String, Object> value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Cannot serialize matched fields", e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.siar.screening.service;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Sujeto evaluado en un screening, preparado una sola vez y compartido por
+ * la comparación contra todas las listas: nombre normalizado y separado en
+ * tokens, atributos secundarios y entradas ya descartadas como falso
+ * positivo para su expediente.
+ */
+public final class ScreeningSubject {
+    
+    private final String name;
+    private final char[] normalizedName;
+    private final NameTokens nameTokens;
+    private final SubjectAttributes attributes;
+    private final Set<Long> suppressedEntryIds;
+    
+    /**
+     * @param normalizedName Nombre normalizado con {@link JaroWinklerService#normalizeString(String)}
+     * @param suppressedEntryIds Entradas cuya última decisión para el expediente fue FALSE_POSITIVE
+     */
+    public ScreeningSubject(
+        String name,
+        char[] normalizedName,
+        SubjectAttributes attributes,
+        Set<Long> suppressedEntryIds
+    ) {
+        this.name = name;
+        this.normalizedName = normalizedName;
+        this.nameTokens = NameTokens.of(normalizedName);
+        this.attributes = attributes != null ? attributes : SubjectAttributes.NONE;
+        this.suppressedEntryIds = suppressedEntryIds != null ? suppressedEntryIds : Collections.emptySet();
+    }
+    
+    /**
+     * Nombre original, se registra en cada coincidencia
+     */
+    public String getName() {
+        return name;
+    }
+    
+    public char[] getNormalizedName() {
+        return normalizedName;
+    }
+    
+    public NameTokens getNameTokens() {
+        return nameTokens;
+    }
+    
+    public SubjectAttributes getAttributes() {
+        return attributes;
+    }
+    
+    /**
+     * Mismo sujeto con otra forma del nombre normalizado (por ejemplo, sin forma jurídica)
+     */
+    public ScreeningSubject withNormalizedName(char[] normalizedName) {
+        return new ScreeningSubject(name, normalizedName, attributes, suppressedEntryIds);
+    }
+    
+    public Set<Long> getSuppressedEntryIds() {
+        return suppressedEntryIds;
+    }
+    
+    public boolean isSuppressed(long watchlistEntryId) {
+        return suppressedEntryIds.contains(watchlistEntryId);
+    }
+}
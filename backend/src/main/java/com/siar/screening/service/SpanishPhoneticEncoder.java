@@ -0,0 +1,141 @@
+package com.siar.screening.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Claves fonéticas para nombres en español.
+ * 
+ * Opera sobre nombres ya normalizados (minúsculas, sin acentos, solo
+ * [a-z0-9] y espacios) y produce una clave por token, de forma que
+ * variantes como "Gonzalez"/"Gonsales", "Yepez"/"Llepes" o
+ * "Javier"/"Xavier" compartan clave.
+ */
+public final class SpanishPhoneticEncoder {
+    
+    /**
+     * Partículas que no aportan a la identidad del nombre
+     */
+    static final Set<String> PARTICLES = Set.of(
+        "de", "del", "la", "las", "los", "y", "e", "da", "di", "van", "von"
+    );
+    
+    private SpanishPhoneticEncoder() {
+    }
+    
+    /**
+     * Genera las claves fonéticas de cada token de un nombre normalizado,
+     * omitiendo partículas y tokens cuya clave tenga menos de dos símbolos.
+     */
+    public static List<String> encodeTokens(char[] chars, int from, int to) {
+        List<String> keys = new ArrayList<>(4);
+        int start = from;
+        for (int i = from; i <= to; i++) {
+            if (i == to || chars[i] == ' ') {
+                if (i > start && !isParticle(chars, start, i)) {
+                    String key = encodeToken(chars, start, i);
+                    if (key.length() >= 2) {
+                        keys.add(key);
+                    }
+                }
+                start = i + 1;
+            }
+        }
+        return keys;
+    }
+    
+    /**
+     * Codifica un token: consonantes agrupadas por sonido, vocales eliminadas
+     * salvo la inicial y sin símbolos repetidos consecutivos.
+     */
+    static String encodeToken(char[] chars, int from, int to) {
+        StringBuilder key = new StringBuilder(to - from);
+        char last = 0;
+        
+        for (int i = from; i < to; i++) {
+            char c = chars[i];
+            char next = i + 1 < to ? chars[i + 1] : 0;
+            char code;
+            
+            switch (c) {
+                case 'a': case 'e': case 'i': case 'o': case 'u':
+                    if (i > from && !(i == from + 1 && chars[from] == 'h')) {
+                        // Las vocales internas separan consonantes repetidas
+                        last = 0;
+                        continue;
+                    }
+                    code = 'a';
+                    break;
+                case 'h':
+                    code = 0;
+                    break;
+                case 'b': case 'v': case 'w':
+                    code = 'b';
+                    break;
+                case 'c':
+                    if (next == 'h') {
+                        code = 'x';
+                        i++;
+                    } else if (next == 'e' || next == 'i') {
+                        code = 's';
+                    } else {
+                        code = 'k';
+                    }
+                    break;
+                case 'q':
+                    code = 'k';
+                    if (next == 'u') i++;
+                    break;
+                case 'k':
+                    code = 'k';
+                    break;
+                case 'g':
+                    if (next == 'e' || next == 'i') {
+                        code = 'j';
+                    } else {
+                        code = 'g';
+                        if (next == 'u' && i + 2 < to && (chars[i + 2] == 'e' || chars[i + 2] == 'i')) i++;
+                    }
+                    break;
+                case 'j':
+                    code = 'j';
+                    break;
+                case 'x':
+                    code = i == from ? 'j' : 's';
+                    break;
+                case 'z': case 's':
+                    code = 's';
+                    break;
+                case 'l':
+                    if (next == 'l') {
+                        code = 'y';
+                        i++;
+                    } else {
+                        code = 'l';
+                    }
+                    break;
+                case 'y': {
+                    // "y" final o entre consonantes suena como vocal
+                    boolean vowelNext = next == 'a' || next == 'e' || next == 'i' || next == 'o' || next == 'u';
+                    code = vowelNext ? 'y' : (i == from ? 'a' : 0);
+                    break;
+                }
+                default:
+                    code = c;
+                    break;
+            }
+            
+            if (code != 0 && code != last) {
+                key.append(code);
+                last = code;
+            }
+        }
+        
+        return key.toString();
+    }
+    
+    static boolean isParticle(char[] chars, int from, int to) {
+        return to - from <= 3 && PARTICLES.contains(new String(chars, from, to - from));
+    }
+}
@@ -0,0 +1,81 @@
+package com.siar.screening.service;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Atributos secundarios de un sujeto o de una entrada de lista usados para
+ * confirmar o descartar una coincidencia de nombre: documento, fecha de
+ * nacimiento y nacionalidad.
+ * 
+ * El documento se guarda normalizado (mayúsculas, solo letras y dígitos, sin
+ * prefijo de tipo "V-", "E-", "J-") para compararlo por igualdad.
+ */
+public final class SubjectAttributes {
+    
+    /**
+     * Sin atributos conocidos: no ajusta el puntaje
+     */
+    public static final SubjectAttributes NONE = new SubjectAttributes(null, null, null);
+    
+    private final String document;
+    private final LocalDate dateOfBirth;
+    private final String nationality;
+    
+    private SubjectAttributes(String document, LocalDate dateOfBirth, String nationality) {
+        this.document = document;
+        this.dateOfBirth = dateOfBirth;
+        this.nationality = nationality;
+    }
+    
+    public static SubjectAttributes of(String document, LocalDate dateOfBirth, String nationality) {
+        String normalizedDocument = normalizeDocument(document);
+        String normalizedNationality = nationality == null || nationality.isBlank()
+            ? null : nationality.trim().toUpperCase(Locale.ROOT);
+        if (normalizedDocument == null && dateOfBirth == null && normalizedNationality == null) {
+            return NONE;
+        }
+        return new SubjectAttributes(normalizedDocument, dateOfBirth, normalizedNationality);
+    }
+    
+    /**
+     * Atributos ya normalizados por {@link #of}, leídos de un archivo del índice.
+     */
+    static SubjectAttributes restore(String document, LocalDate dateOfBirth, String nationality) {
+        if (document == null && dateOfBirth == null && nationality == null) {
+            return NONE;
+        }
+        return new SubjectAttributes(document, dateOfBirth, nationality);
+    }
+    
+    public String getDocument() {
+        return document;
+    }
+    
+    public LocalDate getDateOfBirth() {
+        return dateOfBirth;
+    }
+    
+    public String getNationality() {
+        return nationality;
+    }
+    
+    static String normalizeDocument(String document) {
+        if (document == null) {
+            return null;
+        }
+        StringBuilder normalized = new StringBuilder(document.length());
+        for (int i = 0; i < document.length(); i++) {
+            char c = Character.toUpperCase(document.charAt(i));
+            if ((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+                normalized.append(c);
+            }
+        }
+        // Prefijo de tipo de documento venezolano (cédula V/E, RIF J/G/P)
+        if (normalized.length() > 1 && "VEJGP".indexOf(normalized.charAt(0)) >= 0
+            && Character.isDigit(normalized.charAt(1))) {
+            normalized.deleteCharAt(0);
+        }
+        return normalized.length() == 0 ? null : normalized.toString();
+    }
+}
@@ -0,0 +1,150 @@
+package com.siar.screening.service;
+
+import com.siar.screening.config.ScreeningConfiguration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Similitud por conjunto de tokens para nombres compuestos.
+ * 
+ * Jaro-Winkler sobre el nombre completo penaliza el orden de los tokens:
+ * "perez garcia jose luis" contra "jose luis perez" queda por debajo del
+ * umbral aunque se trate de la misma persona. Esta comparación empareja
+ * cada token con su token más parecido del otro nombre (Jaro-Winkler por
+ * token, sin importar la posición), ignora partículas ("de", "del", "y") y
+ * promedia sobre el nombre más corto, con una penalización acotada por los
+ * tokens sobrantes del más largo (segundo apellido o segundo nombre omitido).
+ * 
+ * Los tokens de las listas vienen precalculados en {@link WatchlistIndexBucket}
+ * y los del nombre consultado en {@link NameTokens}; antes de comparar tokens
+ * se descartan los pares que no pueden alcanzar el umbral solo por el número
+ * de tokens.
+ */
+@Service
+public class TokenSetSimilarityService {
+    
+    private static final int MAX_TOKENS = NameTokens.MAX_TOKENS;
+    
+    // Mínimo de tokens emparejados: un solo token en común no identifica a una persona
+    private static final int MIN_MATCHED_TOKENS = 2;
+    
+    private static final double BOUND_TOLERANCE = 1e-9;
+    
+    private static final ThreadLocal<double[]> PAIR_SCORES =
+        ThreadLocal.withInitial(() -> new double[MAX_TOKENS * MAX_TOKENS]);
+    
+    @Autowired
+    private JaroWinklerService jaroWinklerService;
+    
+    @Autowired
+    private ScreeningConfiguration screeningConfiguration;
+    
+    public TokenSetSimilarityService() {
+    }
+    
+    /**
+     * Instancia fuera del contexto de Spring (pruebas y benchmarks)
+     */
+    TokenSetSimilarityService(JaroWinklerService jaroWinklerService, ScreeningConfiguration screeningConfiguration) {
+        this.jaroWinklerService = jaroWinklerService;
+        this.screeningConfiguration = screeningConfiguration;
+    }
+    
+    /**
+     * Calcula la similitud por tokens entre un nombre y una fila del índice,
+     * solo si puede alcanzar el umbral.
+     * 
+     * @param threshold Similitud mínima de interés (0.0 a 1.0)
+     * @return La similitud si es mayor o igual al umbral, o
+     *         {@link JaroWinklerService#BELOW_THRESHOLD} en caso contrario
+     */
+    public double similarityAtLeast(NameTokens name, WatchlistIndexBucket bucket, int row, double threshold) {
+        ScreeningConfiguration.TokenSetConfig config = screeningConfiguration.getTokenSet();
+        if (!config.isEnabled()) {
+            return JaroWinklerService.BELOW_THRESHOLD;
+        }
+        
+        int nameTokens = name.count();
+        int rowTokens = bucket.tokenCount(row);
+        int shorter = Math.min(nameTokens, rowTokens);
+        int longer = Math.max(nameTokens, rowTokens);
+        
+        // Nombres de un solo token se comparan solo completos
+        if (shorter < MIN_MATCHED_TOKENS) {
+            return JaroWinklerService.BELOW_THRESHOLD;
+        }
+        
+        // Cota por número de tokens: todos los del más corto emparejados al 100%
+        double coverage = 1.0 - config.getExtraTokenPenalty() * (longer - shorter) / longer;
+        if (coverage < threshold - BOUND_TOLERANCE) {
+            return JaroWinklerService.BELOW_THRESHOLD;
+        }
+        double requiredSum = threshold / coverage * shorter - BOUND_TOLERANCE;
+        
+        // Similitud de cada par de tokens que alcanza el umbral por token
+        char[] nameChars = name.getChars();
+        char[] rowChars = bucket.getChars();
+        double tokenThreshold = config.getTokenThreshold();
+        double[] pairs = PAIR_SCORES.get();
+        double bestSum = 0.0;
+        
+        for (int i = 0; i < nameTokens; i++) {
+            double best = 0.0;
+            for (int j = 0; j < rowTokens; j++) {
+                double similarity = jaroWinklerService.similarityAtLeast(
+                    nameChars, name.start(i), name.end(i),
+                    rowChars, bucket.tokenStart(row, j), bucket.tokenEnd(row, j),
+                    tokenThreshold
+                );
+                pairs[i * MAX_TOKENS + j] = similarity;
+                if (similarity > best) {
+                    best = similarity;
+                }
+            }
+            bestSum += best;
+        }
+        
+        // Cota por mejores pares: el emparejamiento no puede superar la suma de máximos
+        if (bestSum < requiredSum) {
+            return JaroWinklerService.BELOW_THRESHOLD;
+        }
+        
+        // Emparejamiento voraz: el mejor par disponible en cada paso
+        int usedName = 0;
+        int usedRow = 0;
+        int matched = 0;
+        double matchedSum = 0.0;
+        
+        while (matched < shorter) {
+            int bestI = -1;
+            int bestJ = -1;
+            double best = 0.0;
+            for (int i = 0; i < nameTokens; i++) {
+                if ((usedName & (1 << i)) != 0) continue;
+                for (int j = 0; j < rowTokens; j++) {
+                    if ((usedRow & (1 << j)) != 0) continue;
+                    double similarity = pairs[i * MAX_TOKENS + j];
+                    if (similarity > best) {
+                        best = similarity;
+                        bestI = i;
+                        bestJ = j;
+                    }
+                }
+            }
+            if (bestI < 0) {
+                break;
+            }
+            usedName |= 1 << bestI;
+            usedRow |= 1 << bestJ;
+            matchedSum += best;
+            matched++;
+        }
+        
+        if (matched < MIN_MATCHED_TOKENS) {
+            return JaroWinklerService.BELOW_THRESHOLD;
+        }
+        
+        double similarity = matchedSum / shorter * coverage;
+        return similarity >= threshold ? similarity : JaroWinklerService.BELOW_THRESHOLD;
+    }
+}
@@ -0,0 +1,80 @@
+package com.siar.screening.service;
+
+import com.siar.screening.model.EntityType;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Entradas agregadas o modificadas de una lista desde el último re-screening.
+ * 
+ * La carga de listas desactiva las entradas modificadas o retiradas e inserta
+ * una fila nueva por cada entrada agregada o modificada, por lo que el id de
+ * watchlist_entry crece con cada cambio: las entradas pendientes de comparar
+ * son las de la fotografía vigente con id mayor que la marca de agua
+ * persistida. Las entradas retiradas no pueden generar coincidencias nuevas.
+ */
+public final class WatchlistDelta {
+    
+    private final Map<EntityType, int[]> changedEntries;
+    private final int changedCount;
+    private final long lastEntryId;
+    
+    private WatchlistDelta(Map<EntityType, int[]> changedEntries, int changedCount, long lastEntryId) {
+        this.changedEntries = changedEntries;
+        this.changedCount = changedCount;
+        this.lastEntryId = lastEntryId;
+    }
+    
+    /**
+     * Entradas de la fotografía con id mayor que la marca de agua, en todos
+     * los tipos de entidad.
+     */
+    static WatchlistDelta since(WatchlistSnapshot current, long lastEntryId) {
+        Map<EntityType, int[]> changed = new EnumMap<>(EntityType.class);
+        int total = 0;
+        long maxEntryId = lastEntryId;
+        
+        for (EntityType type : EntityType.values()) {
+            WatchlistIndexBucket bucket = current.getBucket(type);
+            int[] entries = new int[bucket.size()];
+            int count = 0;
+            for (int entry = 0; entry < bucket.size(); entry++) {
+                long entryId = bucket.getEntryId(entry);
+                if (entryId > lastEntryId) {
+                    entries[count++] = entry;
+                    maxEntryId = Math.max(maxEntryId, entryId);
+                }
+            }
+            if (count > 0) {
+                changed.put(type, Arrays.copyOf(entries, count));
+                total += count;
+            }
+        }
+        
+        return new WatchlistDelta(changed, total, maxEntryId);
+    }
+    
+    /**
+     * Filas (entradas) agregadas o modificadas en el bucket actual del tipo indicado
+     */
+    public int[] getChangedEntries(EntityType entityType) {
+        return changedEntries.getOrDefault(entityType, new int[0]);
+    }
+    
+    public boolean isEmpty() {
+        return changedEntries.isEmpty();
+    }
+    
+    public int getChangedCount() {
+        return changedCount;
+    }
+    
+    /**
+     * Nueva marca de agua: el mayor id de entrada de la fotografía comparada
+     */
+    public long getLastEntryId() {
+        return lastEntryId;
+    }
+}
@@ -0,0 +1,435 @@
+package com.siar.screening.service;
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entradas activas de una lista para un tipo de entidad, con los nombres
+ * ya normalizados y empaquetados en un único arreglo de caracteres.
+ * 
+ * Cada nombre ocupa una fila [rowStart, rowEnd) dentro de {@link #getChars()}.
+ * Las filas [0, size()) son los nombres principales de cada entrada, en el
+ * mismo orden que las entradas; las filas siguientes son alias y apuntan a
+ * su entrada mediante {@link #ownerOf(int)}. Los alias de una entrada ocupan
+ * filas consecutivas [aliasStart(entry), aliasEnd(entry)).
+ * 
+ * Los tokens de cada fila ({@link NameTokens}) se calculan al construir el
+ * bucket, para que la comparación por tokens no vuelva a separar los nombres
+ * en cada screening.
+ * 
+ * Los arreglos de enteros son {@link IntBuffer}: arreglos del heap cuando el
+ * bucket se construye desde la base de datos, o vistas fuera del heap cuando
+ * se lee de un archivo mapeado ({@link WatchlistSnapshotFile}). En ese caso
+ * los nombres originales y los atributos se decodifican solo al consultarlos,
+ * es decir, al registrar una coincidencia.
+ * 
+ * La instancia es inmutable y puede compartirse entre hilos.
+ */
+public final class WatchlistIndexBucket {
+    
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    
+    private static final int[] NO_ENTRIES = new int[0];
+    
+    private final int entryCount;
+    private final LongBuffer entryIds;
+    private final EntryDetails details;
+    private final char[] chars;
+    private final IntBuffer rowOffsets;
+    private final IntBuffer rowOwners;
+    private final IntBuffer aliasOffsets;
+    private final IntBuffer tokenOffsets;
+    private final IntBuffer tokenBounds;
+    private final NameBlockingIndex blockingIndex;
+    
+    // Se construye en la primera búsqueda por documento
+    private volatile Map<String, int[]> documentIndex;
+    
+    private WatchlistIndexBucket(
+        LongBuffer entryIds,
+        EntryDetails details,
+        char[] chars,
+        IntBuffer rowOffsets,
+        IntBuffer rowOwners,
+        IntBuffer aliasOffsets,
+        IntBuffer tokenOffsets,
+        IntBuffer tokenBounds,
+        NameBlockingIndex blockingIndex
+    ) {
+        this.entryCount = entryIds.limit();
+        this.entryIds = entryIds;
+        this.details = details;
+        this.chars = chars;
+        this.rowOffsets = rowOffsets;
+        this.rowOwners = rowOwners;
+        this.aliasOffsets = aliasOffsets;
+        this.tokenOffsets = tokenOffsets;
+        this.tokenBounds = tokenBounds;
+        this.blockingIndex = blockingIndex;
+    }
+    
+    /**
+     * Número de entradas (y de filas de nombre principal).
+     */
+    public int size() {
+        return entryCount;
+    }
+    
+    /**
+     * Número total de filas: nombres principales más alias.
+     */
+    public int rowCount() {
+        return rowOwners.limit();
+    }
+    
+    public long getEntryId(int entry) {
+        return entryIds.get(entry);
+    }
+    
+    /**
+     * Nombre original (sin normalizar) de la entrada, usado al registrar la coincidencia.
+     */
+    public String getEntryName(int entry) {
+        return details.name(entry);
+    }
+    
+    /**
+     * Documento, fecha de nacimiento y nacionalidad de la entrada
+     */
+    public SubjectAttributes getEntryAttributes(int entry) {
+        return details.attributes(entry);
+    }
+    
+    public char[] getChars() {
+        return chars;
+    }
+    
+    public int rowStart(int row) {
+        return rowOffsets.get(row);
+    }
+    
+    public int rowEnd(int row) {
+        return rowOffsets.get(row + 1);
+    }
+    
+    public int ownerOf(int row) {
+        return rowOwners.get(row);
+    }
+    
+    public boolean isAlias(int row) {
+        return row >= entryCount;
+    }
+    
+    /**
+     * Primera fila de alias de la entrada
+     */
+    public int aliasStart(int entry) {
+        return entryCount + aliasOffsets.get(entry);
+    }
+    
+    /**
+     * Fila siguiente a la última fila de alias de la entrada
+     */
+    public int aliasEnd(int entry) {
+        return entryCount + aliasOffsets.get(entry + 1);
+    }
+    
+    public int tokenCount(int row) {
+        return tokenOffsets.get(row + 1) - tokenOffsets.get(row);
+    }
+    
+    /**
+     * Inicio en {@link #getChars()} del token {@code token} (0-based) de la fila
+     */
+    public int tokenStart(int row, int token) {
+        return tokenBounds.get(2 * (tokenOffsets.get(row) + token));
+    }
+    
+    public int tokenEnd(int row, int token) {
+        return tokenBounds.get(2 * (tokenOffsets.get(row) + token) + 1);
+    }
+    
+    /**
+     * Índice de bloqueo (trigramas y claves fonéticas) sobre todas las filas:
+     * nombres principales y alias.
+     */
+    public NameBlockingIndex getBlockingIndex() {
+        return blockingIndex;
+    }
+    
+    /**
+     * Entradas con el documento indicado, normalizado como en
+     * {@link SubjectAttributes}. La tabla hash por documento se construye en
+     * la primera consulta y se conserva mientras el bucket esté en uso.
+     */
+    public int[] entriesWithDocument(String document) {
+        Map<String, int[]> index = documentIndex;
+        if (index == null) {
+            index = buildDocumentIndex();
+            documentIndex = index;
+        }
+        return index.getOrDefault(document, NO_ENTRIES);
+    }
+    
+    private Map<String, int[]> buildDocumentIndex() {
+        Map<String, int[]> index = new HashMap<>();
+        for (int entry = 0; entry < entryCount; entry++) {
+            String document = details.attributes(entry).getDocument();
+            if (document != null) {
+                int[] entries = index.get(document);
+                if (entries == null) {
+                    index.put(document, new int[] {entry});
+                } else {
+                    int[] grown = Arrays.copyOf(entries, entries.length + 1);
+                    grown[entries.length] = entry;
+                    index.put(document, grown);
+                }
+            }
+        }
+        return index;
+    }
+    
+    /**
+     * Escribe las secciones del bucket; {@link #read} las recupera en el mismo orden.
+     */
+    void write(WatchlistSnapshotFile.Writer out) throws IOException {
+        String[] names = new String[entryCount];
+        String[] documents = new String[entryCount];
+        String[] nationalities = new String[entryCount];
+        int[] birthDays = new int[entryCount];
+        for (int entry = 0; entry < entryCount; entry++) {
+            SubjectAttributes attributes = details.attributes(entry);
+            names[entry] = details.name(entry);
+            documents[entry] = attributes.getDocument();
+            nationalities[entry] = attributes.getNationality();
+            birthDays[entry] = attributes.getDateOfBirth() != null
+                ? (int) attributes.getDateOfBirth().toEpochDay() : NO_DATE;
+        }
+        
+        out.longs(entryIds);
+        out.strings(names);
+        out.strings(documents);
+        out.strings(nationalities);
+        out.ints(IntBuffer.wrap(birthDays));
+        out.chars(chars);
+        out.ints(rowOffsets);
+        out.ints(rowOwners);
+        out.ints(aliasOffsets);
+        out.ints(tokenOffsets);
+        out.ints(tokenBounds);
+        blockingIndex.write(out);
+    }
+    
+    /**
+     * Bucket sobre las secciones de un archivo mapeado.
+     */
+    static WatchlistIndexBucket read(WatchlistSnapshotFile.Reader in) {
+        LongBuffer entryIds = in.longs();
+        WatchlistSnapshotFile.StringTable names = in.strings();
+        WatchlistSnapshotFile.StringTable documents = in.strings();
+        WatchlistSnapshotFile.StringTable nationalities = in.strings();
+        IntBuffer birthDays = in.ints();
+        char[] chars = in.chars();
+        IntBuffer rowOffsets = in.ints();
+        IntBuffer rowOwners = in.ints();
+        IntBuffer aliasOffsets = in.ints();
+        IntBuffer tokenOffsets = in.ints();
+        IntBuffer tokenBounds = in.ints();
+        NameBlockingIndex blockingIndex = NameBlockingIndex.read(in);
+        
+        return new WatchlistIndexBucket(
+            entryIds, new MappedEntryDetails(names, documents, nationalities, birthDays),
+            chars, rowOffsets, rowOwners, aliasOffsets,
+            tokenOffsets, tokenBounds, blockingIndex
+        );
+    }
+    
+    static Builder builder() {
+        return new Builder();
+    }
+    
+    static final class Builder {
+        
+        private final List<Long> entryIds = new ArrayList<>();
+        private final List<String> entryNames = new ArrayList<>();
+        private final List<SubjectAttributes> entryAttributes = new ArrayList<>();
+        private final List<String> normalizedNames = new ArrayList<>();
+        private final List<String> aliasNames = new ArrayList<>();
+        private final List<Integer> aliasOwners = new ArrayList<>();
+        
+        /**
+         * Agrega una entrada con su nombre principal y sus alias ya normalizados.
+         */
+        Builder add(long entryId, String entryName, String normalizedName, List<String> normalizedAliases) {
+            return add(entryId, entryName, normalizedName, normalizedAliases, SubjectAttributes.NONE);
+        }
+        
+        /**
+         * Agrega una entrada con sus atributos secundarios.
+         */
+        Builder add(
+            long entryId,
+            String entryName,
+            String normalizedName,
+            List<String> normalizedAliases,
+            SubjectAttributes attributes
+        ) {
+            int entry = entryIds.size();
+            entryIds.add(entryId);
+            entryNames.add(entryName);
+            entryAttributes.add(attributes);
+            normalizedNames.add(normalizedName);
+            
+            for (String alias : normalizedAliases) {
+                if (alias.isEmpty() || alias.equals(normalizedName)) {
+                    continue;
+                }
+                aliasNames.add(alias);
+                aliasOwners.add(entry);
+            }
+            return this;
+        }
+        
+        WatchlistIndexBucket build() {
+            int entryCount = entryIds.size();
+            int rowCount = entryCount + aliasNames.size();
+            
+            int totalChars = 0;
+            for (String name : normalizedNames) totalChars += name.length();
+            for (String alias : aliasNames) totalChars += alias.length();
+            
+            long[] ids = new long[entryCount];
+            String[] names = new String[entryCount];
+            SubjectAttributes[] attributes = entryAttributes.toArray(new SubjectAttributes[0]);
+            char[] chars = new char[totalChars];
+            int[] offsets = new int[rowCount + 1];
+            int[] owners = new int[rowCount];
+            int[] aliasOffsets = new int[entryCount + 1];
+            
+            int position = 0;
+            for (int entry = 0; entry < entryCount; entry++) {
+                ids[entry] = entryIds.get(entry);
+                names[entry] = entryNames.get(entry);
+                
+                String name = normalizedNames.get(entry);
+                name.getChars(0, name.length(), chars, position);
+                offsets[entry] = position;
+                owners[entry] = entry;
+                position += name.length();
+            }
+            
+            for (int alias = 0; alias < aliasNames.size(); alias++) {
+                int row = entryCount + alias;
+                String name = aliasNames.get(alias);
+                name.getChars(0, name.length(), chars, position);
+                offsets[row] = position;
+                owners[row] = aliasOwners.get(alias);
+                aliasOffsets[owners[row] + 1] = alias + 1;
+                position += name.length();
+            }
+            offsets[rowCount] = position;
+            
+            // Entradas sin alias heredan el final de la anterior
+            for (int entry = 0; entry < entryCount; entry++) {
+                aliasOffsets[entry + 1] = Math.max(aliasOffsets[entry + 1], aliasOffsets[entry]);
+            }
+            
+            // Tokens de todas las filas, en formato CSR
+            int[] bounds = new int[4 * rowCount + 2 * NameTokens.MAX_TOKENS];
+            int[] tokenOffsets = new int[rowCount + 1];
+            int tokens = 0;
+            for (int row = 0; row < rowCount; row++) {
+                if (bounds.length < 2 * (tokens + NameTokens.MAX_TOKENS)) {
+                    bounds = Arrays.copyOf(bounds, bounds.length * 2);
+                }
+                tokens += NameTokens.split(chars, offsets[row], offsets[row + 1], bounds, 2 * tokens);
+                tokenOffsets[row + 1] = tokens;
+            }
+            
+            return new WatchlistIndexBucket(
+                LongBuffer.wrap(ids),
+                new ArrayEntryDetails(names, attributes),
+                chars,
+                IntBuffer.wrap(offsets),
+                IntBuffer.wrap(owners),
+                IntBuffer.wrap(aliasOffsets),
+                IntBuffer.wrap(tokenOffsets),
+                IntBuffer.wrap(Arrays.copyOf(bounds, 2 * tokens)),
+                NameBlockingIndex.build(chars, offsets, rowCount)
+            );
+        }
+    }
+    
+    /**
+     * Nombre original y atributos secundarios de cada entrada.
+     */
+    private interface EntryDetails {
+        
+        String name(int entry);
+        
+        SubjectAttributes attributes(int entry);
+    }
+    
+    private static final class ArrayEntryDetails implements EntryDetails {
+        
+        private final String[] names;
+        private final SubjectAttributes[] attributes;
+        
+        private ArrayEntryDetails(String[] names, SubjectAttributes[] attributes) {
+            this.names = names;
+            this.attributes = attributes;
+        }
+        
+        @Override
+        public String name(int entry) {
+            return names[entry];
+        }
+        
+        @Override
+        public SubjectAttributes attributes(int entry) {
+            return attributes[entry];
+        }
+    }
+    
+    private static final class MappedEntryDetails implements EntryDetails {
+        
+        private final WatchlistSnapshotFile.StringTable names;
+        private final WatchlistSnapshotFile.StringTable documents;
+        private final WatchlistSnapshotFile.StringTable nationalities;
+        private final IntBuffer birthDays;
+        
+        private MappedEntryDetails(
+            WatchlistSnapshotFile.StringTable names,
+            WatchlistSnapshotFile.StringTable documents,
+            WatchlistSnapshotFile.StringTable nationalities,
+            IntBuffer birthDays
+        ) {
+            this.names = names;
+            this.documents = documents;
+            this.nationalities = nationalities;
+            this.birthDays = birthDays;
+        }
+        
+        @Override
+        public String name(int entry) {
+            return names.get(entry);
+        }
+        
+        @Override
+        public SubjectAttributes attributes(int entry) {
+            int birthDay = birthDays.get(entry);
+            return SubjectAttributes.restore(
+                documents.get(entry),
+                birthDay != NO_DATE ? LocalDate.ofEpochDay(birthDay) : null,
+                nationalities.get(entry)
+            );
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.siar.screening.service;
+
+import com.siar.screening.config.ScreeningConfiguration;
+import com.siar.screening.model.EntityType;
+import com.siar.screening.model.Watchlist;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice residente de listas restrictivas.
+ * 
+ * Mantiene una {@link WatchlistSnapshot} por lista con los nombres y alias
+ * ya normalizados y los atributos secundarios de cada entrada. La fotografía se reconstruye completa cuando cambia la
+ * versión o el checksum de la lista y se publica de forma atómica: los
+ * screenings en curso siguen usando la fotografía anterior hasta terminar.
+ * 
+ * Cada versión construida se escribe en un archivo binario
+ * ({@link WatchlistSnapshotFile}) y se usa mapeada en memoria, fuera del
+ * heap. Si el archivo de la versión vigente ya existe (por ejemplo, tras un
+ * reinicio) se mapea directamente sin leer watchlist_entry. El nombre y la
+ * cabecera del archivo incluyen la huella de la normalización, de modo que
+ * un cambio en las formas jurídicas o palabras vacías configuradas obliga a
+ * reconstruirlo.
+ */
+@Service
+@Slf4j
+public class WatchlistIndexService {
+    
+    /**
+     * Solo las columnas que usa el índice; los alias se expanden a text[]
+     */
+    private static final String SELECT_ACTIVE_ENTRIES =
+        "SELECT id, entity_type, name, " +
+        "ARRAY(SELECT jsonb_array_elements_text(aliases)) AS aliases, " +
+        "document, date_of_birth, nationality " +
+        "FROM watchlist_entry WHERE watchlist_id = ? AND is_active = true";
+    
+    private static final int FETCH_SIZE = 5000;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private NameNormalizationService nameNormalizationService;
+    
+    @Autowired
+    private ScreeningConfiguration screeningConfiguration;
+    
+    private final Map<Long, WatchlistSnapshot> snapshots = new ConcurrentHashMap<>();
+    
+    /**
+     * Un candado por lista para que solo un hilo construya cada versión
+     */
+    private final Map<Long, Object> loadLocks = new ConcurrentHashMap<>();
+    
+    /**
+     * Obtiene la fotografía vigente de una lista, reconstruyéndola si la
+     * versión o el checksum registrados en la lista han cambiado.
+     */
+    public WatchlistSnapshot getSnapshot(Watchlist watchlist) {
+        WatchlistSnapshot current = snapshots.get(watchlist.getId());
+        if (current != null && current.isCurrent(watchlist)) {
+            return current;
+        }
+        
+        // La construcción ocurre fuera del mapa: las lecturas de otras listas
+        // no esperan y la fotografía anterior sigue publicada hasta el put
+        synchronized (loadLocks.computeIfAbsent(watchlist.getId(), id -> new Object())) {
+            WatchlistSnapshot existing = snapshots.get(watchlist.getId());
+            if (existing != null && existing.isCurrent(watchlist)) {
+                return existing;
+            }
+            WatchlistSnapshot loaded = loadSnapshot(watchlist);
+            snapshots.put(watchlist.getId(), loaded);
+            return loaded;
+        }
+    }
+    
+    /**
+     * Descarta la fotografía de una lista; se reconstruye en el próximo uso.
+     */
+    public void evict(Long watchlistId) {
+        snapshots.remove(watchlistId);
+    }
+    
+    /**
+     * Mapea el archivo de la versión vigente o, si no existe, construye la
+     * fotografía desde watchlist_entry, la escribe y mapea el archivo escrito.
+     * Si el archivo no puede escribirse se usa la fotografía en el heap.
+     */
+    private WatchlistSnapshot loadSnapshot(Watchlist watchlist) {
+        ScreeningConfiguration.SnapshotConfig config = screeningConfiguration.getSnapshot();
+        if (!config.isEnabled()) {
+            return buildSnapshot(watchlist);
+        }
+        
+        Path directory = Paths.get(config.getDirectory());
+        String normalizationHash = nameNormalizationService.configurationHash();
+        Path file = directory.resolve(fileName(watchlist, normalizationHash));
+        if (Files.exists(file)) {
+            try {
+                long startTime = System.currentTimeMillis();
+                WatchlistSnapshot mapped = WatchlistSnapshotFile.read(file);
+                if (mapped.isCurrent(watchlist) && normalizationHash.equals(mapped.getNormalizationHash())) {
+                    log.info("Watchlist index mapped: list={}, version={}, entries={}, durationMs={}",
+                        watchlist.getCode(), watchlist.getVersion(), mapped.totalEntries(),
+                        System.currentTimeMillis() - startTime);
+                    return mapped;
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Watchlist index file unreadable, rebuilding: file={}", file, e);
+            }
+        }
+        
+        WatchlistSnapshot built = buildSnapshot(watchlist);
+        try {
+            Files.createDirectories(directory);
+            Path temporary = directory.resolve(file.getFileName() + ".tmp");
+            WatchlistSnapshotFile.write(built, temporary);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            deleteOtherVersions(directory, watchlist.getId(), file);
+            
+            // Los arreglos del heap se liberan al publicar la versión mapeada
+            return WatchlistSnapshotFile.read(file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Watchlist index file not written, using heap index: list={}", watchlist.getCode(), e);
+            return built;
+        }
+    }
+    
+    /**
+     * Un archivo por lista y combinación de versión, checksum y normalización
+     */
+    private static String fileName(Watchlist watchlist, String normalizationHash) {
+        String version = watchlist.getVersion() + "|" + watchlist.getChecksumMd5() + "|" + normalizationHash;
+        return "watchlist-" + watchlist.getId() + "-"
+            + UUID.nameUUIDFromBytes(version.getBytes(StandardCharsets.UTF_8)) + ".idx";
+    }
+    
+    /**
+     * Elimina los archivos de versiones anteriores de la lista. Las
+     * fotografías que aún los tienen mapeados siguen siendo válidas: el
+     * sistema libera el contenido al desmapearlos.
+     */
+    private void deleteOtherVersions(Path directory, Long watchlistId, Path current) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "watchlist-" + watchlistId + "-*.idx")) {
+            for (Path file : files) {
+                if (!file.equals(current)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Old watchlist index files not deleted: list={}", watchlistId, e);
+        }
+    }
+    
+    /**
+     * Recorre las entradas activas de la lista fila a fila y las agrega
+     * directamente a los builders de cada tipo de entidad, sin materializar
+     * entidades. La transacción permite al driver leer por bloques de
+     * {@link #FETCH_SIZE} filas.
+     */
+    private WatchlistSnapshot buildSnapshot(Watchlist watchlist) {
+        long startTime = System.currentTimeMillis();
+        
+        Map<EntityType, WatchlistIndexBucket.Builder> builders = new EnumMap<>(EntityType.class);
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(
+            connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT_ACTIVE_ENTRIES);
+                statement.setFetchSize(FETCH_SIZE);
+                statement.setLong(1, watchlist.getId());
+                return statement;
+            },
+            rs -> {
+                EntityType entityType = EntityType.valueOf(rs.getString("entity_type"));
+                String name = rs.getString("name");
+                Array aliases = rs.getArray("aliases");
+                builders.computeIfAbsent(entityType, type -> WatchlistIndexBucket.builder())
+                    .add(
+                        rs.getLong("id"),
+                        name,
+                        normalizeName(entityType, name),
+                        normalizeAliases(entityType, aliases != null
+                            ? Arrays.asList((String[]) aliases.getArray())
+                            : Collections.emptyList()),
+                        SubjectAttributes.of(
+                            rs.getString("document"),
+                            rs.getObject("date_of_birth", LocalDate.class),
+                            rs.getString("nationality")
+                        )
+                    );
+            }
+        ));
+        
+        Map<EntityType, WatchlistIndexBucket> buckets = new EnumMap<>(EntityType.class);
+        builders.forEach((type, builder) -> buckets.put(type, builder.build()));
+        
+        WatchlistSnapshot snapshot = new WatchlistSnapshot(
+            watchlist.getId(),
+            watchlist.getVersion(),
+            watchlist.getChecksumMd5(),
+            nameNormalizationService.configurationHash(),
+            buckets
+        );
+        
+        log.info("Watchlist index built: list={}, version={}, entries={}, durationMs={}",
+            watchlist.getCode(), watchlist.getVersion(), snapshot.totalEntries(),
+            System.currentTimeMillis() - startTime);
+        
+        return snapshot;
+    }
+    
+    /**
+     * Los nombres de personas jurídicas se guardan sin forma jurídica ni
+     * palabras vacías, como los compara {@link OrganizationMatchingStrategy}.
+     */
+    private String normalizeName(EntityType entityType, String name) {
+        return nameNormalizationService.normalize(name, entityType);
+    }
+    
+    private List<String> normalizeAliases(EntityType entityType, List<String> aliases) {
+        if (aliases == null || aliases.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        List<String> normalized = new ArrayList<>(aliases.size());
+        for (String alias : aliases) {
+            if (alias != null) {
+                normalized.add(normalizeName(entityType, alias));
+            }
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,211 @@
+package com.siar.screening.service;
+
+import com.siar.screening.model.Match;
+import com.siar.screening.model.MatchType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Comparación de un nombre contra las entradas de una lista.
+ * 
+ * Compartido por el screening individual y el masivo para que ambos apliquen
+ * el mismo umbral y la misma clasificación de coincidencias. Solo calcula en
+ * memoria: las coincidencias se devuelven sin persistir.
+ * 
+ * Cada nombre se compara contra el nombre principal y los alias de las
+ * entradas, con Jaro-Winkler sobre el nombre completo y por conjunto de
+ * tokens ({@link TokenSetSimilarityService}); se registra una coincidencia
+ * por entrada con la mayor similitud, ajustada por atributos secundarios.
+ */
+@Service
+public class WatchlistMatchingService {
+    
+    /**
+     * Similitud mínima (%) para registrar una coincidencia
+     */
+    public static final BigDecimal MATCH_THRESHOLD = BigDecimal.valueOf(70);
+    
+    /**
+     * Métodos de comparación registrados en matched_fields
+     */
+    public static final String METHOD_FULL_NAME = "JARO_WINKLER";
+    public static final String METHOD_TOKEN_SET = "TOKEN_SET";
+    public static final String METHOD_IDENTIFIER = "IDENTIFIER";
+    
+    @Autowired
+    private CandidateBlockingService candidateBlockingService;
+    
+    @Autowired
+    private JaroWinklerService jaroWinklerService;
+    
+    @Autowired
+    private TokenSetSimilarityService tokenSetSimilarityService;
+    
+    @Autowired
+    private MatchScoringService matchScoringService;
+    
+    public WatchlistMatchingService() {
+    }
+    
+    /**
+     * Instancia fuera del contexto de Spring (pruebas y benchmarks)
+     */
+    WatchlistMatchingService(
+        CandidateBlockingService candidateBlockingService,
+        JaroWinklerService jaroWinklerService,
+        TokenSetSimilarityService tokenSetSimilarityService,
+        MatchScoringService matchScoringService
+    ) {
+        this.candidateBlockingService = candidateBlockingService;
+        this.jaroWinklerService = jaroWinklerService;
+        this.tokenSetSimilarityService = tokenSetSimilarityService;
+        this.matchScoringService = matchScoringService;
+    }
+    
+    /**
+     * Busca coincidencias de un sujeto entre las entradas candidatas.
+     * 
+     * Primero obtiene la mejor similitud de nombre por entrada y después
+     * aplica el puntaje compuesto ({@link MatchScoringService}); las entradas
+     * ya descartadas como falso positivo para el expediente no se comparan.
+     */
+    public List<Match> findMatches(WatchlistIndexBucket entries, ScreeningSubject subject) {
+        char[] normalizedName = subject.getNormalizedName();
+        char[] entryChars = entries.getChars();
+        double threshold = jaroWinklerService.thresholdFor(MATCH_THRESHOLD);
+        
+        // Mejor fila (nombre principal o alias) por entrada
+        Map<Integer, NameHit> bestByEntry = new TreeMap<>();
+        
+        // Comparar solo contra las filas candidatas de la etapa de bloqueo
+        for (int row : candidateBlockingService.findCandidates(entries, normalizedName)) {
+            int entry = entries.ownerOf(row);
+            if (subject.isSuppressed(entries.getEntryId(entry))) {
+                continue;
+            }
+            
+            double similarity = jaroWinklerService.similarityAtLeast(
+                normalizedName, 0, normalizedName.length,
+                entryChars, entries.rowStart(row), entries.rowEnd(row),
+                threshold
+            );
+            String method = METHOD_FULL_NAME;
+            
+            // Por tokens solo si puede mejorar la similitud del nombre completo
+            if (similarity < 1.0) {
+                double tokenSimilarity = tokenSetSimilarityService.similarityAtLeast(
+                    subject.getNameTokens(), entries, row, Math.max(threshold, similarity)
+                );
+                if (tokenSimilarity > similarity) {
+                    similarity = tokenSimilarity;
+                    method = METHOD_TOKEN_SET;
+                }
+            }
+            if (similarity == JaroWinklerService.BELOW_THRESHOLD) {
+                continue;
+            }
+            
+            NameHit best = bestByEntry.get(entry);
+            if (best == null || similarity > best.similarity) {
+                bestByEntry.put(entry, new NameHit(row, similarity, method));
+            }
+        }
+        
+        List<Match> matches = new ArrayList<>(bestByEntry.size());
+        for (Map.Entry<Integer, NameHit> hit : bestByEntry.entrySet()) {
+            int entry = hit.getKey();
+            NameHit name = hit.getValue();
+            
+            Map<String, Object> fields = matchedFields(entries, name.row, name.method);
+            BigDecimal score = matchScoringService.compositeScore(
+                jaroWinklerService.toPercentage(name.similarity),
+                subject.getAttributes(),
+                entries.getEntryAttributes(entry),
+                fields
+            );
+            
+            // Si el puntaje compuesto es >= 70%, registrar como coincidencia
+            if (score.compareTo(MATCH_THRESHOLD) >= 0) {
+                Match match = createMatch(
+                    entries.getEntryId(entry),
+                    entries.getEntryName(entry),
+                    subject.getName(),
+                    score
+                );
+                match.setMatchedFields(fields);
+                matches.add(match);
+            }
+        }
+        
+        return matches;
+    }
+    
+    /**
+     * Detalle de la comparación que produjo la coincidencia: fila del índice
+     * (nombre principal o alias) y método de comparación.
+     */
+    public Map<String, Object> matchedFields(WatchlistIndexBucket entries, int row, String method) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("name", entries.isAlias(row) ? "ALIAS" : "PRIMARY");
+        if (entries.isAlias(row)) {
+            fields.put("alias", new String(entries.getChars(), entries.rowStart(row), entries.rowEnd(row) - entries.rowStart(row)));
+        }
+        fields.put("method", method);
+        return fields;
+    }
+    
+    /**
+     * Crea un registro de coincidencia
+     */
+    public Match createMatch(
+        Long watchlistEntryId,
+        String matchedName,
+        String screenedName,
+        BigDecimal similarityScore
+    ) {
+        Match match = new Match();
+        match.setWatchlistEntryId(watchlistEntryId);
+        match.setScreenedName(screenedName);
+        match.setMatchedName(matchedName);
+        match.setSimilarityScore(similarityScore);
+        
+        // Determinar tipo de coincidencia
+        if (similarityScore.compareTo(BigDecimal.valueOf(95)) >= 0) {
+            match.setMatchType(MatchType.HIGH);
+            match.setIsRelevant(true);
+            match.setRequiresReview(true);
+        } else if (similarityScore.compareTo(BigDecimal.valueOf(85)) >= 0) {
+            match.setMatchType(MatchType.MEDIUM);
+            match.setIsRelevant(true);
+            match.setRequiresReview(true);
+        } else {
+            match.setMatchType(MatchType.LOW);
+            match.setIsRelevant(false);
+            match.setRequiresReview(false);
+        }
+        
+        return match;
+    }
+    
+    /**
+     * Mejor comparación de nombre de una entrada
+     */
+    private static final class NameHit {
+        private final int row;
+        private final double similarity;
+        private final String method;
+        
+        private NameHit(int row, double similarity, String method) {
+            this.row = row;
+            this.similarity = similarity;
+            this.method = method;
+        }
+    }
+}
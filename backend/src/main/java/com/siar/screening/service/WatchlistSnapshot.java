@@ -0,0 +1,87 @@
+package com.siar.screening.service;
+
+import com.siar.screening.model.EntityType;
+import com.siar.screening.model.Watchlist;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Fotografía inmutable de una lista restrictiva en memoria, agrupada por
+ * tipo de entidad y asociada a la versión y checksum con que fue construida.
+ */
+public final class WatchlistSnapshot {
+    
+    private static final WatchlistIndexBucket EMPTY_BUCKET = WatchlistIndexBucket.builder().build();
+    
+    private final Long watchlistId;
+    private final String version;
+    private final String checksumMd5;
+    private final String normalizationHash;
+    private final Instant builtAt;
+    private final Map<EntityType, WatchlistIndexBucket> buckets;
+    
+    WatchlistSnapshot(
+        Long watchlistId,
+        String version,
+        String checksumMd5,
+        String normalizationHash,
+        Map<EntityType, WatchlistIndexBucket> buckets
+    ) {
+        this.watchlistId = watchlistId;
+        this.version = version;
+        this.checksumMd5 = checksumMd5;
+        this.normalizationHash = normalizationHash;
+        this.builtAt = Instant.now();
+        this.buckets = new EnumMap<>(buckets);
+    }
+    
+    /**
+     * Indica si la fotografía corresponde a la versión vigente de la lista.
+     */
+    public boolean isCurrent(Watchlist watchlist) {
+        return Objects.equals(version, watchlist.getVersion())
+            && Objects.equals(checksumMd5, watchlist.getChecksumMd5());
+    }
+    
+    public WatchlistIndexBucket getBucket(EntityType entityType) {
+        return buckets.getOrDefault(entityType, EMPTY_BUCKET);
+    }
+    
+    /**
+     * Buckets por tipo de entidad, para escribir la fotografía en archivo
+     */
+    Map<EntityType, WatchlistIndexBucket> buckets() {
+        return buckets;
+    }
+    
+    public int totalEntries() {
+        return buckets.values().stream().mapToInt(WatchlistIndexBucket::size).sum();
+    }
+    
+    public Long getWatchlistId() {
+        return watchlistId;
+    }
+    
+    public String getVersion() {
+        return version;
+    }
+    
+    public String getChecksumMd5() {
+        return checksumMd5;
+    }
+    
+    /**
+     * Huella de la normalización con que se construyeron los nombres
+     * ({@link NameNormalizationService#configurationHash()})
+     */
+    public String getNormalizationHash() {
+        return normalizationHash;
+    }
+    
+    public Instant getBuiltAt() {
+        return builtAt;
+    }
+}
@@ -0,0 +1,325 @@
+package com.siar.screening.service;
+
+import com.siar.screening.model.EntityType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Formato binario de una {@link WatchlistSnapshot}.
+ * 
+ * El archivo empieza con una cabecera (lista, versión, checksum, huella de
+ * la normalización y la posición de cada bucket) seguida de un bloque por tipo de entidad. Cada
+ * bloque es una sucesión de secciones alineadas a 8 bytes (cantidad y
+ * datos en little-endian), de modo que al leerlo los arreglos de enteros
+ * quedan como vistas {@link IntBuffer} sobre el archivo mapeado en memoria,
+ * fuera del heap. Solo los caracteres de los nombres se copian a un arreglo,
+ * a propósito: Jaro-Winkler y el bloqueo recorren ese arreglo en su ciclo
+ * interno, y un {@link java.nio.CharBuffer} directo agregaría comprobaciones
+ * por carácter en cada comparación a cambio de ahorrar una copia por carga
+ * (medida en WatchlistSnapshotFileBenchmark).
+ * 
+ * Cada bloque se mapea por separado, por lo que el límite de 2 GB de
+ * {@link java.nio.MappedByteBuffer} se aplica por tipo de entidad y no a
+ * la lista completa.
+ */
+final class WatchlistSnapshotFile {
+    
+    private static final int MAGIC = 0x53494152;
+    private static final int FORMAT_VERSION = 3;
+    private static final int HEADER_SIZE = 4096;
+    private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    
+    private WatchlistSnapshotFile() {
+    }
+    
+    /**
+     * Escribe la fotografía completa en el archivo, reemplazando su contenido.
+     */
+    static void write(WatchlistSnapshot snapshot, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            
+            // Bloques a continuación de la cabecera, que se escribe al final
+            channel.position(HEADER_SIZE);
+            Writer out = new Writer(channel);
+            Map<EntityType, long[]> regions = new EnumMap<>(EntityType.class);
+            for (Map.Entry<EntityType, WatchlistIndexBucket> bucket : snapshot.buckets().entrySet()) {
+                long start = out.position();
+                bucket.getValue().write(out);
+                out.flush();
+                regions.put(bucket.getKey(), new long[] {start, out.position() - start});
+            }
+            
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ORDER);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(snapshot.getWatchlistId());
+            putString(header, snapshot.getVersion());
+            putString(header, snapshot.getChecksumMd5());
+            putString(header, snapshot.getNormalizationHash());
+            header.putInt(regions.size());
+            regions.forEach((type, region) -> {
+                putString(header, type.name());
+                header.putLong(region[0]).putLong(region[1]);
+            });
+            header.flip();
+            channel.write(header, 0);
+            channel.force(true);
+        }
+    }
+    
+    /**
+     * Mapea un archivo escrito con {@link #write}.
+     */
+    static WatchlistSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ORDER);
+            while (header.hasRemaining() && channel.read(header) > 0) {
+                // Leer la cabecera completa
+            }
+            header.flip();
+            if (header.remaining() < 8 || header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+                throw new IOException("Not a watchlist snapshot: " + file);
+            }
+            
+            Long watchlistId = header.getLong();
+            String version = getString(header);
+            String checksumMd5 = getString(header);
+            String normalizationHash = getString(header);
+            int bucketCount = header.getInt();
+            
+            Map<EntityType, WatchlistIndexBucket> buckets = new EnumMap<>(EntityType.class);
+            for (int i = 0; i < bucketCount; i++) {
+                EntityType type = EntityType.valueOf(getString(header));
+                long start = header.getLong();
+                long length = header.getLong();
+                if (length > Integer.MAX_VALUE) {
+                    throw new IOException("Snapshot bucket too large to map: " + type + ", bytes=" + length);
+                }
+                ByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, start, length).order(ORDER);
+                buckets.put(type, WatchlistIndexBucket.read(new Reader(region)));
+            }
+            // El mapeo sigue vigente después de cerrar el canal
+            return new WatchlistSnapshot(watchlistId, version, checksumMd5, normalizationHash, buckets);
+        }
+    }
+    
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length).put(bytes);
+    }
+    
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Escritura secuencial de secciones a través de un buffer.
+     */
+    static final class Writer {
+        
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ORDER);
+        
+        private Writer(FileChannel channel) {
+            this.channel = channel;
+        }
+        
+        long position() throws IOException {
+            return channel.position() + buffer.position();
+        }
+        
+        void ints(IntBuffer values) throws IOException {
+            int count = values.limit();
+            header(count);
+            for (int i = 0; i < count; i++) {
+                ensure(Integer.BYTES);
+                buffer.putInt(values.get(i));
+            }
+            align();
+        }
+        
+        void longs(LongBuffer values) throws IOException {
+            int count = values.limit();
+            header(count);
+            for (int i = 0; i < count; i++) {
+                ensure(Long.BYTES);
+                buffer.putLong(values.get(i));
+            }
+        }
+        
+        void chars(char[] values) throws IOException {
+            header(values.length);
+            for (char value : values) {
+                ensure(Character.BYTES);
+                buffer.putChar(value);
+            }
+            align();
+        }
+        
+        /**
+         * Tabla de textos: pares (inicio, longitud) en bytes UTF-8, con
+         * longitud -1 para null, seguidos de los bytes.
+         */
+        void strings(String[] values) throws IOException {
+            byte[][] encoded = new byte[values.length][];
+            int[] bounds = new int[2 * values.length];
+            int position = 0;
+            for (int i = 0; i < values.length; i++) {
+                bounds[2 * i] = position;
+                if (values[i] == null) {
+                    bounds[2 * i + 1] = -1;
+                    continue;
+                }
+                encoded[i] = values[i].getBytes(StandardCharsets.UTF_8);
+                bounds[2 * i + 1] = encoded[i].length;
+                position += encoded[i].length;
+            }
+            
+            ints(IntBuffer.wrap(bounds));
+            header(position);
+            for (byte[] bytes : encoded) {
+                if (bytes == null) continue;
+                for (int offset = 0; offset < bytes.length; ) {
+                    ensure(1);
+                    int chunk = Math.min(buffer.remaining(), bytes.length - offset);
+                    buffer.put(bytes, offset, chunk);
+                    offset += chunk;
+                }
+            }
+            align();
+        }
+        
+        private void header(int count) throws IOException {
+            ensure(2 * Integer.BYTES);
+            buffer.putInt(count).putInt(0);
+        }
+        
+        private void align() throws IOException {
+            while (position() % Long.BYTES != 0) {
+                ensure(1);
+                buffer.put((byte) 0);
+            }
+        }
+        
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+        
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+    
+    /**
+     * Lectura secuencial de secciones sobre un bloque mapeado.
+     * 
+     * La alineación se calcula sobre el buffer del bloque, que empieza en
+     * una posición múltiplo de 8 del archivo.
+     */
+    static final class Reader {
+        
+        private final ByteBuffer region;
+        private int position;
+        
+        private Reader(ByteBuffer region) {
+            this.region = region;
+        }
+        
+        IntBuffer ints() {
+            int count = header();
+            IntBuffer values = slice(count * Integer.BYTES).asIntBuffer();
+            align();
+            return values;
+        }
+        
+        LongBuffer longs() {
+            int count = header();
+            return slice(count * Long.BYTES).asLongBuffer();
+        }
+        
+        char[] chars() {
+            int count = header();
+            char[] values = new char[count];
+            slice(count * Character.BYTES).asCharBuffer().get(values);
+            align();
+            return values;
+        }
+        
+        StringTable strings() {
+            IntBuffer bounds = ints();
+            int length = header();
+            ByteBuffer bytes = slice(length);
+            align();
+            return new StringTable(bounds, bytes);
+        }
+        
+        private int header() {
+            int count = region.getInt(position);
+            position += 2 * Integer.BYTES;
+            return count;
+        }
+        
+        private ByteBuffer slice(int length) {
+            ByteBuffer slice = region.slice(position, length).order(ORDER);
+            position += length;
+            return slice;
+        }
+        
+        private void align() {
+            position = (position + Long.BYTES - 1) & -Long.BYTES;
+        }
+    }
+    
+    /**
+     * Textos de una tabla mapeada; se decodifican al consultarlos.
+     */
+    static final class StringTable {
+        
+        private final IntBuffer bounds;
+        private final ByteBuffer bytes;
+        
+        private StringTable(IntBuffer bounds, ByteBuffer bytes) {
+            this.bounds = bounds;
+            this.bytes = bytes;
+        }
+        
+        int size() {
+            return bounds.limit() / 2;
+        }
+        
+        String get(int index) {
+            int length = bounds.get(2 * index + 1);
+            if (length < 0) {
+                return null;
+            }
+            byte[] value = new byte[length];
+            bytes.get(bounds.get(2 * index), value);
+            return new String(value, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.siar.risk.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.siar.risk.dto.CategoryScore;
+import com.siar.risk.dto.RiskCalculationResult;
+import com.siar.risk.model.RiskCategory;
+import com.siar.risk.model.RiskConfiguration;
+import com.siar.risk.model.RiskLevel;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * El modelo compilado debe calcular lo mismo que el recorrido anterior de los
+ * JSON de la configuración, que se conserva aquí como referencia.
+ */
+class CompiledRiskModelTest {
+    
+    private static final double EPSILON = 1e-12;
+    
+    // Matriz de docs/SIAR-Risk-Assessment-Model.md
+    private static final String CONFIGURATION = "{"
+        + "\"categoryWeights\": {\"SUBJECT_RISK\": 35, \"PRODUCT_RISK\": 20, \"CHANNEL_RISK\": 15,"
+        + "  \"GEOGRAPHIC_RISK\": 20, \"INTERNAL_CONTROLS\": 10},"
+        + "\"factorWeights\": {"
+        + "  \"SUBJECT_RISK\": {\"personType\": 20, \"economicActivity\": 30, \"fundsOrigin\": 25,"
+        + "    \"beneficiaryComplexity\": 15, \"pepStatus\": 10},"
+        + "  \"PRODUCT_RISK\": {\"productType\": 40, \"productUsage\": 35, \"productComplexity\": 25},"
+        + "  \"CHANNEL_RISK\": {\"distributionChannel\": 60, \"channelControls\": 40},"
+        + "  \"GEOGRAPHIC_RISK\": {\"countryRisk\": 30, \"highRiskRegion\": 25, \"borderZone\": 20,"
+        + "    \"miningArc\": 15, \"prisonProximity\": 10},"
+        + "  \"INTERNAL_CONTROLS\": {\"controlExistence\": 50, \"controlEffectiveness\": 50}"
+        + "},"
+        + "\"thresholds\": {\"lowToMedium\": 2.0, \"mediumToHigh\": 3.5}"
+        + "}";
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RiskCalculationEngine riskCalculationEngine = new RiskCalculationEngine(objectMapper);
+    
+    @Test
+    void matchesPreviousCalculation() throws Exception {
+        RiskConfiguration config = configuration(1);
+        CompiledRiskModel model = CompiledRiskModel.compile(config);
+        Random random = new Random(21);
+        
+        for (int i = 0; i < 2000; i++) {
+            JsonNode riskFactors = riskFactors(config, random);
+            RiskCalculationResult expected = ReferenceRiskCalculation.calculate(riskFactors, config);
+            RiskCalculationResult actual = riskCalculationEngine.calculateRisk(riskFactors, config, model);
+            
+            assertEquals(expected.getGrossScore(), actual.getGrossScore(), EPSILON);
+            assertEquals(expected.getMitigationFactor(), actual.getMitigationFactor(), EPSILON);
+            assertEquals(expected.getAdjustedScore(), actual.getAdjustedScore(), EPSILON);
+            assertEquals(expected.getRiskLevel(), actual.getRiskLevel(), riskFactors::toString);
+            assertEquals(expected.getCategoryScores().keySet(), actual.getCategoryScores().keySet());
+            for (Map.Entry<String, CategoryScore> category : expected.getCategoryScores().entrySet()) {
+                CategoryScore actualScore = actual.getCategoryScores().get(category.getKey());
+                assertEquals(category.getValue().getRawScore(), actualScore.getRawScore(), EPSILON);
+                assertEquals(category.getValue().getWeightedScore(), actualScore.getWeightedScore(), EPSILON);
+                assertEquals(category.getValue().getWeight(), actualScore.getWeight(), EPSILON);
+            }
+        }
+    }
+    
+    @Test
+    void riskLevelBoundariesAreInclusive() throws Exception {
+        CompiledRiskModel model = CompiledRiskModel.compile(configuration(1));
+        
+        assertEquals(RiskLevel.BAJO, model.riskLevel(2.0));
+        assertEquals(RiskLevel.MEDIO, model.riskLevel(2.0000001));
+        assertEquals(RiskLevel.MEDIO, model.riskLevel(3.5));
+        assertEquals(RiskLevel.ALTO, model.riskLevel(3.5000001));
+    }
+    
+    @Test
+    void missingCategoriesAndFactorsDoNotApply() throws Exception {
+        CompiledRiskModel model = CompiledRiskModel.compile(configuration(1));
+        JsonNode riskFactors = objectMapper.readTree(
+            "{\"subjectRisk\": {\"pepStatus\": {\"value\": 5}}}");
+        
+        double[] rawScores = new double[model.categoryCount()];
+        double adjustedScore = model.score(model.values(riskFactors), rawScores);
+        
+        assertEquals(5.0, rawScores[RiskCategory.SUBJECT_RISK.ordinal()], EPSILON);
+        assertEquals(0.0, rawScores[RiskCategory.PRODUCT_RISK.ordinal()], EPSILON);
+        assertEquals(5.0 * 35 / 100.0, adjustedScore, EPSILON);
+    }
+    
+    @Test
+    void rejectsUnknownFactors() throws Exception {
+        CompiledRiskModel model = CompiledRiskModel.compile(configuration(1));
+        JsonNode riskFactors = objectMapper.readTree(
+            "{\"subjectRisk\": {\"shoeSize\": {\"value\": 3}}}");
+        
+        assertThrows(IllegalArgumentException.class, () -> model.values(riskFactors));
+    }
+    
+    @Test
+    void rejectsConfigurationsWithoutWeights() throws Exception {
+        RiskConfiguration config = configuration(1);
+        ((ObjectNode) config.getCategoryWeightsJson()).remove("CHANNEL_RISK");
+        
+        assertThrows(IllegalArgumentException.class, () -> CompiledRiskModel.compile(config));
+    }
+    
+    @Test
+    void engineRecompilesWhenVersionChanges() throws Exception {
+        CompiledRiskModel first = riskCalculationEngine.getModel(configuration(1));
+        
+        assertSame(first, riskCalculationEngine.getModel(configuration(1)));
+        assertNotSame(first, riskCalculationEngine.getModel(configuration(2)));
+    }
+    
+    private RiskConfiguration configuration(int version) throws Exception {
+        JsonNode json = objectMapper.readTree(CONFIGURATION);
+        return RiskConfiguration.builder()
+            .configurationId("CFG-2024-001")
+            .version(version)
+            .categoryWeightsJson(json.get("categoryWeights"))
+            .factorWeightsJson(json.get("factorWeights"))
+            .thresholdsJson(json.get("thresholds"))
+            .build();
+    }
+    
+    /**
+     * Factores de todas las categorías con valores de 0 (no aplica) a 5
+     */
+    private JsonNode riskFactors(RiskConfiguration config, Random random) {
+        ObjectNode riskFactors = objectMapper.createObjectNode();
+        for (RiskCategory category : RiskCategory.values()) {
+            ObjectNode factors = riskFactors.putObject(CompiledRiskModel.factorKey(category));
+            Iterator<String> names = config.getFactorWeightsJson().get(category.name()).fieldNames();
+            while (names.hasNext()) {
+                factors.putObject(names.next()).put("value", random.nextInt(6));
+            }
+        }
+        return riskFactors;
+    }
+    
+    /**
+     * Cálculo anterior, recorriendo los JSON en cada evaluación
+     */
+    static final class ReferenceRiskCalculation {
+        
+        private static final String[][] CATEGORIES = {
+            {"subjectRisk", "SUBJECT_RISK"},
+            {"productRisk", "PRODUCT_RISK"},
+            {"channelRisk", "CHANNEL_RISK"},
+            {"geographicRisk", "GEOGRAPHIC_RISK"},
+            {"internalControls", "INTERNAL_CONTROLS"}
+        };
+        
+        private ReferenceRiskCalculation() {
+        }
+        
+        static RiskCalculationResult calculate(JsonNode riskFactors, RiskConfiguration config) {
+            Map<String, CategoryScore> categoryScores = new HashMap<>();
+            for (String[] category : CATEGORIES) {
+                categoryScores.put(category[0], categoryScore(
+                    riskFactors.get(category[0]),
+                    config.getFactorWeightsJson().get(category[1]),
+                    config.getCategoryWeightsJson().get(category[1]).asDouble()
+                ));
+            }
+            
+            double grossScore = categoryScores.values().stream()
+                .mapToDouble(CategoryScore::getWeightedScore)
+                .sum();
+            double controlScore = categoryScores.get("internalControls").getRawScore();
+            double mitigationFactor = 1.0 - (controlScore / 10.0);
+            double adjustedScore = grossScore * mitigationFactor;
+            
+            JsonNode thresholds = config.getThresholdsJson();
+            RiskLevel riskLevel;
+            if (adjustedScore <= thresholds.get("lowToMedium").asDouble()) {
+                riskLevel = RiskLevel.BAJO;
+            } else if (adjustedScore <= thresholds.get("mediumToHigh").asDouble()) {
+                riskLevel = RiskLevel.MEDIO;
+            } else {
+                riskLevel = RiskLevel.ALTO;
+            }
+            
+            return RiskCalculationResult.builder()
+                .categoryScores(categoryScores)
+                .grossScore(grossScore)
+                .mitigationFactor(mitigationFactor)
+                .adjustedScore(adjustedScore)
+                .riskLevel(riskLevel)
+                .build();
+        }
+        
+        private static CategoryScore categoryScore(JsonNode factors, JsonNode factorWeights, double categoryWeight) {
+            double totalWeightedValue = 0.0;
+            double totalApplicableWeight = 0.0;
+            
+            Iterator<String> fieldNames = factors.fieldNames();
+            while (fieldNames.hasNext()) {
+                String factorName = fieldNames.next();
+                int value = factors.get(factorName).get("value").asInt();
+                if (value > 0) {
+                    double weight = factorWeights.get(factorName).asDouble();
+                    totalWeightedValue += value * weight;
+                    totalApplicableWeight += weight;
+                }
+            }
+            
+            double rawScore = totalApplicableWeight > 0 ? totalWeightedValue / totalApplicableWeight : 0.0;
+            return CategoryScore.builder()
+                .rawScore(rawScore)
+                .weightedScore((rawScore * categoryWeight) / 100.0)
+                .weight(categoryWeight)
+                .build();
+        }
+    }
+}
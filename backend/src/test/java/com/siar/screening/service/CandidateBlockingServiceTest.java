@@ -0,0 +1,192 @@
+package com.siar.screening.service;
+
+import com.siar.screening.config.ScreeningConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Recall de la etapa de bloqueo frente al barrido completo sobre una muestra
+ * fija: una lista sintética de nombres hispanos y nombres a evaluar presentes
+ * en la lista, con variaciones y sin relación con ella.
+ */
+class CandidateBlockingServiceTest {
+    
+    private static final String[] GIVEN_NAMES = {
+        "José", "Juan", "Luis", "Carlos", "Jesús", "Manuel", "Pedro", "Miguel", "Rafael", "Francisco",
+        "Antonio", "Alejandro", "Fernando", "Ricardo", "Jorge", "Andrés", "Héctor", "Javier", "Víctor",
+        "María", "Ana", "Carmen", "Rosa", "Gabriela", "Daniela", "Isabel", "Yolanda", "Xiomara", "Nohemí"
+    };
+    
+    private static final String[] SURNAMES = {
+        "Pérez", "García", "Rodríguez", "González", "Hernández", "López", "Martínez", "Sánchez", "Ramírez",
+        "Torres", "Flores", "Rivera", "Gómez", "Díaz", "Chávez", "Vásquez", "Castillo", "Jiménez", "Moreno",
+        "Quintero", "Zambrano", "Yépez", "Villalobos", "Urdaneta", "Briceño", "Guevara", "Rondón", "Peña",
+        "de la Cruz", "del Valle", "Echeverría", "Uzcátegui"
+    };
+    
+    private static final int ENTRIES = 5000;
+    private static final int SUBJECTS = 300;
+    
+    private static final double MATCH_THRESHOLD = 0.70;
+    private static final double RELEVANT_THRESHOLD = 0.85;
+    
+    private static final JaroWinklerService jaroWinklerService = new JaroWinklerService();
+    private static final ScreeningConfiguration configuration = new ScreeningConfiguration();
+    private static final CandidateBlockingService candidateBlockingService = new CandidateBlockingService(
+        configuration, jaroWinklerService, new ScreeningMetrics(new SimpleMeterRegistry())
+    );
+    
+    private static WatchlistIndexBucket bucket;
+    private static List<char[]> subjects;
+    
+    // Entrada de la que proviene cada nombre a evaluar; -1 si no tiene relación con la lista
+    private static List<Integer> sources;
+    
+    @BeforeAll
+    static void buildSample() {
+        Random random = new Random(7);
+        WatchlistIndexBucket.Builder builder = WatchlistIndexBucket.builder();
+        List<String> names = new ArrayList<>(ENTRIES);
+        for (int entry = 0; entry < ENTRIES; entry++) {
+            String name = personName(random);
+            names.add(name);
+            List<String> aliases = random.nextInt(100) < 30
+                ? List.of(jaroWinklerService.normalizeString(reorder(name)))
+                : List.of();
+            builder.add(entry + 1L, name, jaroWinklerService.normalizeString(name), aliases);
+        }
+        bucket = builder.build();
+        
+        subjects = new ArrayList<>(SUBJECTS);
+        sources = new ArrayList<>(SUBJECTS);
+        for (int i = 0; i < SUBJECTS; i++) {
+            int source = random.nextInt(ENTRIES);
+            String name = names.get(source);
+            String subject;
+            switch (i % 4) {
+                case 0:
+                    subject = name;
+                    break;
+                case 1:
+                    subject = typo(name, random);
+                    break;
+                case 2:
+                    subject = reorder(name);
+                    break;
+                default:
+                    subject = personName(random);
+                    source = -1;
+            }
+            subjects.add(jaroWinklerService.normalizeString(subject).toCharArray());
+            sources.add(source);
+        }
+    }
+    
+    @Test
+    void keepsRecallAgainstFullScan() {
+        long fullScanMatches = 0;
+        long blockedMatches = 0;
+        long fullScanRelevant = 0;
+        long blockedRelevant = 0;
+        long candidates = 0;
+        
+        for (char[] subject : subjects) {
+            int[] rows = candidateBlockingService.findCandidates(bucket, subject);
+            candidates += rows.length;
+            for (int row = 0; row < bucket.rowCount(); row++) {
+                double similarity = jaroWinklerService.calculateNormalizedSimilarity(
+                    subject, 0, subject.length,
+                    bucket.getChars(), bucket.rowStart(row), bucket.rowEnd(row)
+                );
+                boolean candidate = Arrays.binarySearch(rows, row) >= 0;
+                if (similarity >= MATCH_THRESHOLD) {
+                    fullScanMatches++;
+                    if (candidate) blockedMatches++;
+                }
+                if (similarity >= RELEVANT_THRESHOLD) {
+                    fullScanRelevant++;
+                    if (candidate) blockedRelevant++;
+                }
+            }
+        }
+        
+        double recall = (double) blockedMatches / fullScanMatches;
+        double relevantRecall = (double) blockedRelevant / fullScanRelevant;
+        double candidateRatio = (double) candidates / ((long) bucket.rowCount() * subjects.size());
+        
+        assertTrue(fullScanRelevant >= SUBJECTS / 2, "sample has relevant matches: " + fullScanRelevant);
+        assertEquals(1.0, relevantRecall, "recall at 85%: " + blockedRelevant + "/" + fullScanRelevant);
+        // Al 70% Jaro-Winkler también acepta nombres que solo comparten un nombre de pila;
+        // el bloqueo deja fuera parte de esos (alrededor del 15%) a cambio de comparar pocas filas
+        assertTrue(recall >= 0.85, "recall at 70%: " + blockedMatches + "/" + fullScanMatches);
+        assertTrue(candidateRatio <= 0.25, "candidate ratio: " + candidateRatio);
+    }
+    
+    @Test
+    void findsListedNamesAndTheirVariants() {
+        for (int i = 0; i < subjects.size(); i++) {
+            int source = sources.get(i);
+            if (source < 0) {
+                continue;
+            }
+            boolean found = false;
+            for (int row : candidateBlockingService.findCandidates(bucket, subjects.get(i))) {
+                found |= bucket.ownerOf(row) == source;
+            }
+            assertTrue(found, new String(subjects.get(i)) + " -> " + bucket.getEntryName(source));
+        }
+    }
+    
+    @Test
+    void returnsAllRowsWhenDisabled() {
+        ScreeningConfiguration disabled = new ScreeningConfiguration();
+        disabled.getBlocking().setEnabled(false);
+        CandidateBlockingService service = new CandidateBlockingService(
+            disabled, jaroWinklerService, new ScreeningMetrics(new SimpleMeterRegistry())
+        );
+        
+        int[] all = new int[bucket.rowCount()];
+        Arrays.setAll(all, row -> row);
+        assertArrayEquals(all, service.findCandidates(bucket, subjects.get(0)));
+    }
+    
+    private static String personName(Random random) {
+        StringBuilder name = new StringBuilder(40);
+        name.append(GIVEN_NAMES[random.nextInt(GIVEN_NAMES.length)]);
+        if (random.nextInt(100) < 55) {
+            name.append(' ').append(GIVEN_NAMES[random.nextInt(GIVEN_NAMES.length)]);
+        }
+        name.append(' ').append(SURNAMES[random.nextInt(SURNAMES.length)]);
+        if (random.nextInt(100) < 70) {
+            name.append(' ').append(SURNAMES[random.nextInt(SURNAMES.length)]);
+        }
+        return name.toString();
+    }
+    
+    private static String typo(String name, Random random) {
+        char[] chars = name.toCharArray();
+        int position = random.nextInt(chars.length);
+        if (chars[position] != ' ') {
+            chars[position] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+    
+    /**
+     * "José Luis Pérez García" -> "Pérez García José Luis"
+     */
+    private static String reorder(String name) {
+        int split = name.indexOf(' ');
+        return name.substring(split + 1) + " " + name.substring(0, split);
+    }
+}
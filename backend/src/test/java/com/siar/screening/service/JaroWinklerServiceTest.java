@@ -0,0 +1,231 @@
+package com.siar.screening.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * El kernel sin asignaciones y con umbral debe dar la misma similitud que la
+ * implementación anterior sobre cadenas, que se conserva aquí como referencia.
+ */
+class JaroWinklerServiceTest {
+    
+    private static final double EPSILON = 1e-12;
+    
+    private static final String[] WORDS = {
+        "José", "Jose", "Luis", "María", "Maria", "Pérez", "Perez", "Peres", "García", "Garcia",
+        "González", "Gonzales", "Rodríguez", "Rodrigues", "Hernández", "de la Cruz", "del Valle",
+        "Yépez", "Yepes", "Uzcátegui", "Echeverría", "Ana", "Al", "O'Neil", "Muñoz", "Ñañez"
+    };
+    
+    private final JaroWinklerService jaroWinklerService = new JaroWinklerService();
+    
+    @Test
+    void calculateSimilarityMatchesPreviousImplementation() {
+        for (String[] pair : samplePairs()) {
+            assertEquals(
+                ReferenceJaroWinkler.similarity(pair[0], pair[1]),
+                jaroWinklerService.calculateSimilarity(pair[0], pair[1]),
+                EPSILON,
+                () -> pair[0] + " / " + pair[1]
+            );
+        }
+    }
+    
+    @Test
+    void similarityAtLeastReturnsExactSimilarityOrBelowThreshold() {
+        double[] thresholds = {0.0, 0.5, 0.7, 0.85, 0.9, 0.95, 1.0};
+        for (String[] pair : samplePairs()) {
+            char[] s1 = jaroWinklerService.normalizeString(pair[0]).toCharArray();
+            char[] s2 = jaroWinklerService.normalizeString(pair[1]).toCharArray();
+            double expected = ReferenceJaroWinkler.similarity(pair[0], pair[1]);
+            
+            for (double threshold : thresholds) {
+                double actual = jaroWinklerService.similarityAtLeast(s1, s2, threshold);
+                if (expected >= threshold) {
+                    assertEquals(expected, actual, EPSILON, () -> pair[0] + " / " + pair[1] + " @ " + threshold);
+                } else {
+                    assertEquals(JaroWinklerService.BELOW_THRESHOLD, actual,
+                        () -> pair[0] + " / " + pair[1] + " @ " + threshold);
+                }
+            }
+        }
+    }
+    
+    @Test
+    void calculateNormalizedSimilarityComparesRangesInPlace() {
+        char[] packed = "xx jose perez garcia yy jose peres garcia".toCharArray();
+        String first = "jose perez garcia";
+        String second = "jose peres garcia";
+        int firstFrom = 3;
+        int secondFrom = 24;
+        
+        assertEquals(
+            ReferenceJaroWinkler.similarity(first, second),
+            jaroWinklerService.calculateNormalizedSimilarity(
+                packed, firstFrom, firstFrom + first.length(),
+                packed, secondFrom, secondFrom + second.length()
+            ),
+            EPSILON
+        );
+    }
+    
+    @Test
+    void edgeCasesMatchPreviousImplementation() {
+        assertEquals(0.0, jaroWinklerService.calculateSimilarity(null, "jose"));
+        assertEquals(1.0, jaroWinklerService.calculateSimilarity("", ""));
+        assertEquals(0.0, jaroWinklerService.calculateSimilarity("", "jose"));
+        assertEquals(1.0, jaroWinklerService.calculateSimilarity("JOSÉ  Pérez", "jose perez"));
+        assertEquals(0.0, jaroWinklerService.calculateSimilarity("abc", "xyz"));
+    }
+    
+    @Test
+    void thresholdForAcceptsSimilaritiesThatRoundToThePercentage() {
+        double threshold = jaroWinklerService.thresholdFor(BigDecimal.valueOf(70));
+        assertEquals(new BigDecimal("70.00"), jaroWinklerService.toPercentage(threshold));
+        assertEquals(new BigDecimal("69.99"), jaroWinklerService.toPercentage(threshold - 1e-6));
+        assertEquals(new BigDecimal("85.67"), jaroWinklerService.toPercentage(0.8567));
+    }
+    
+    /**
+     * Pares fijos: nombres completos, con errores de tipeo, reordenados y cortos
+     */
+    private static List<String[]> samplePairs() {
+        Random random = new Random(42);
+        List<String[]> pairs = new ArrayList<>();
+        pairs.add(new String[] {"MARTHA", "MARHTA"});
+        pairs.add(new String[] {"DWAYNE", "DUANE"});
+        pairs.add(new String[] {"DIXON", "DICKSONX"});
+        pairs.add(new String[] {"a", "b"});
+        pairs.add(new String[] {"ab", "ba"});
+        
+        for (int i = 0; i < 5000; i++) {
+            String name = name(random);
+            String other;
+            switch (i % 4) {
+                case 0:
+                    other = name(random);
+                    break;
+                case 1:
+                    other = typo(name, random);
+                    break;
+                case 2:
+                    other = typo(typo(name, random), random);
+                    break;
+                default:
+                    int space = name.indexOf(' ');
+                    other = space > 0 ? name.substring(space + 1) + " " + name.substring(0, space) : name;
+            }
+            pairs.add(new String[] {name, other});
+        }
+        return pairs;
+    }
+    
+    private static String name(Random random) {
+        int tokens = 1 + random.nextInt(4);
+        StringBuilder name = new StringBuilder();
+        for (int t = 0; t < tokens; t++) {
+            if (t > 0) name.append(' ');
+            name.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return name.toString();
+    }
+    
+    private static String typo(String name, Random random) {
+        char[] chars = name.toCharArray();
+        int position = random.nextInt(chars.length);
+        chars[position] = (char) ('a' + random.nextInt(26));
+        return new String(chars);
+    }
+    
+    /**
+     * Implementación anterior sobre String, sin umbral
+     */
+    static final class ReferenceJaroWinkler {
+        
+        private ReferenceJaroWinkler() {
+        }
+        
+        static double similarity(String s1, String s2) {
+            s1 = normalize(s1);
+            s2 = normalize(s2);
+            
+            if (s1.equals(s2)) {
+                return 1.0;
+            }
+            if (s1.isEmpty() || s2.isEmpty()) {
+                return 0.0;
+            }
+            
+            double jaro = jaro(s1, s2);
+            int prefixLength = 0;
+            int maxPrefixLength = Math.min(4, Math.min(s1.length(), s2.length()));
+            while (prefixLength < maxPrefixLength && s1.charAt(prefixLength) == s2.charAt(prefixLength)) {
+                prefixLength++;
+            }
+            return jaro + (prefixLength * 0.1 * (1.0 - jaro));
+        }
+        
+        private static double jaro(String s1, String s2) {
+            int s1Len = s1.length();
+            int s2Len = s2.length();
+            int matchDistance = Math.max(0, Math.max(s1Len, s2Len) / 2 - 1);
+            
+            boolean[] s1Matches = new boolean[s1Len];
+            boolean[] s2Matches = new boolean[s2Len];
+            int matches = 0;
+            
+            for (int i = 0; i < s1Len; i++) {
+                int start = Math.max(0, i - matchDistance);
+                int end = Math.min(i + matchDistance + 1, s2Len);
+                for (int j = start; j < end; j++) {
+                    if (s2Matches[j] || s1.charAt(i) != s2.charAt(j)) {
+                        continue;
+                    }
+                    s1Matches[i] = true;
+                    s2Matches[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+            
+            if (matches == 0) {
+                return 0.0;
+            }
+            
+            int transpositions = 0;
+            int k = 0;
+            for (int i = 0; i < s1Len; i++) {
+                if (!s1Matches[i]) continue;
+                while (!s2Matches[k]) k++;
+                if (s1.charAt(i) != s2.charAt(k)) {
+                    transpositions++;
+                }
+                k++;
+            }
+            
+            return ((double) matches / s1Len +
+                    (double) matches / s2Len +
+                    (double) (matches - transpositions / 2.0) / matches) / 3.0;
+        }
+        
+        /**
+         * Normalización anterior, con expresiones regulares
+         */
+        static String normalize(String str) {
+            if (str == null) return "";
+            str = str.toLowerCase(Locale.ROOT);
+            str = Normalizer.normalize(str, Normalizer.Form.NFD);
+            str = str.replaceAll("\\p{M}", "");
+            str = str.replaceAll("[^a-z0-9\\s]", "");
+            return str.replaceAll("\\s+", " ").trim();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.siar.screening.service;
+
+import com.siar.screening.config.ScreeningConfiguration;
+import com.siar.screening.dto.ReviewQueueItem;
+import com.siar.screening.dto.ReviewQueuePage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+
+/**
+ * Paginación por keyset de la cola de revisión. La base de datos se simula
+ * sobre una lista en memoria con el orden (similitud DESC, coincidencia) y el
+ * predicado de SELECT_PAGE_AFTER.
+ */
+@ExtendWith(MockitoExtension.class)
+class MatchReviewQueueServiceTest {
+    
+    private static final Comparator<ReviewQueueItem> ORDER = Comparator
+        .comparing(ReviewQueueItem::getSimilarityScore, Comparator.reverseOrder())
+        .thenComparing(ReviewQueueItem::getMatchId);
+    
+    @Mock
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    
+    @Mock
+    private ScreeningConfiguration screeningConfiguration;
+    
+    @InjectMocks
+    private MatchReviewQueueService matchReviewQueueService;
+    
+    private final ScreeningConfiguration.ReviewQueueConfig reviewQueueConfig = new ScreeningConfiguration.ReviewQueueConfig();
+    
+    private final List<ReviewQueueItem> queue = new ArrayList<>();
+    
+    @BeforeEach
+    void setUp() {
+        lenient().when(screeningConfiguration.getReviewQueue()).thenReturn(reviewQueueConfig);
+        
+        // Puntajes repetidos y ids fuera de orden para que el desempate importe
+        String[] scores = {"99.10", "95.00", "95.00", "95.00", "92.37", "90.00", "90.00", "88.00", "85.00", "85.00", "85.00"};
+        long[] matchIds = {40, 7, 3, 12, 5, 30, 2, 18, 9, 1, 25};
+        for (int i = 0; i < scores.length; i++) {
+            ReviewQueueItem item = new ReviewQueueItem();
+            item.setMatchId(matchIds[i]);
+            item.setSimilarityScore(new BigDecimal(scores[i]));
+            queue.add(item);
+        }
+        
+        lenient().when(namedParameterJdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+            .thenAnswer(invocation -> select(invocation.getArgument(1)));
+    }
+    
+    @Test
+    void pagesCoverTheQueueInOrderWithoutRepeats() {
+        List<Long> expected = queue.stream()
+            .sorted(ORDER)
+            .map(ReviewQueueItem::getMatchId)
+            .collect(Collectors.toList());
+        
+        for (int limit = 1; limit <= queue.size() + 1; limit++) {
+            List<Long> seen = new ArrayList<>();
+            BigDecimal afterScore = null;
+            Long afterMatchId = null;
+            ReviewQueuePage page;
+            do {
+                page = matchReviewQueueService.getPage(afterScore, afterMatchId, limit);
+                assertTrue(page.getItems().size() <= limit);
+                page.getItems().forEach(item -> seen.add(item.getMatchId()));
+                afterScore = page.getNextAfterScore();
+                afterMatchId = page.getNextAfterMatchId();
+            } while (page.getHasMore());
+            
+            assertEquals(expected, seen, "limit " + limit);
+            Set<Long> distinct = new HashSet<>(seen);
+            assertEquals(seen.size(), distinct.size());
+        }
+    }
+    
+    @Test
+    void lastPageHasNoMore() {
+        ReviewQueuePage page = matchReviewQueueService.getPage(null, null, queue.size());
+        
+        assertEquals(queue.size(), page.getItems().size());
+        assertFalse(page.getHasMore());
+        assertEquals(new BigDecimal("85.00"), page.getNextAfterScore());
+        assertEquals(25L, page.getNextAfterMatchId());
+    }
+    
+    @Test
+    void emptyPageHasNoCursor() {
+        queue.clear();
+        
+        ReviewQueuePage page = matchReviewQueueService.getPage(null, null, 10);
+        
+        assertTrue(page.getItems().isEmpty());
+        assertFalse(page.getHasMore());
+        assertNull(page.getNextAfterScore());
+        assertNull(page.getNextAfterMatchId());
+    }
+    
+    @Test
+    void requiresMatchIdWithScore() {
+        assertThrows(IllegalArgumentException.class,
+            () -> matchReviewQueueService.getPage(new BigDecimal("90.00"), null, 10));
+    }
+    
+    /**
+     * ORDER BY similarity_score DESC, match_id LIMIT :limit, con el predicado
+     * de la página siguiente si hay cursor
+     */
+    private List<ReviewQueueItem> select(SqlParameterSource params) {
+        BigDecimal afterScore = params.hasValue("afterScore") ? (BigDecimal) params.getValue("afterScore") : null;
+        Long afterMatchId = params.hasValue("afterMatchId") ? (Long) params.getValue("afterMatchId") : null;
+        int limit = (Integer) params.getValue("limit");
+        
+        return queue.stream()
+            .filter(item -> afterScore == null
+                || item.getSimilarityScore().compareTo(afterScore) <= 0
+                && (item.getSimilarityScore().compareTo(afterScore) < 0 || item.getMatchId() > afterMatchId))
+            .sorted(ORDER)
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+}
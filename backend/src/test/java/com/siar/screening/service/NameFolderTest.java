@@ -0,0 +1,65 @@
+package com.siar.screening.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * La normalización en una pasada debe coincidir con la anterior basada en
+ * expresiones regulares, que se conserva aquí como referencia.
+ */
+class NameFolderTest {
+    
+    @Test
+    void foldsEveryBmpCharacterLikeTheRegexNormalization() {
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            String name = "a" + (char) c + "b";
+            assertEquals(reference(name), NameFolder.fold(name), () -> "U+" + Integer.toHexString(name.charAt(1)));
+        }
+    }
+    
+    @Test
+    void foldsNamesLikeTheRegexNormalization() {
+        String[] names = {
+            "",
+            "   ",
+            "José Luis Pérez García",
+            "  MARÍA  DE LA\tCRUZ\n",
+            "Ñañez, Yépez-Uzcátegui",
+            "O'Neil & Asociados, C.A.",
+            "Straße Œuvre Æther",
+            "İstanbul Ticaret A.Ş.",
+            "ǅemal ﬁnanzas",
+            "ｆｕｌｌｗｉｄｔｈ １２３",
+            "Grupo 😀 Emoji",
+            "Café́ combinado",
+            " espacio no separable em"
+        };
+        for (String name : names) {
+            assertEquals(reference(name), NameFolder.fold(name), name);
+        }
+    }
+    
+    @Test
+    void returnsSameInstanceWhenAlreadyFolded() {
+        String folded = "jose luis perez garcia";
+        assertSame(folded, NameFolder.fold(folded));
+    }
+    
+    @Test
+    void foldsNullToEmpty() {
+        assertEquals("", NameFolder.fold(null));
+    }
+    
+    private static String reference(String str) {
+        str = str.toLowerCase(Locale.ROOT);
+        str = Normalizer.normalize(str, Normalizer.Form.NFD);
+        str = str.replaceAll("\\p{M}", "");
+        str = str.replaceAll("[^a-z0-9\\s]", "");
+        return str.replaceAll("\\s+", " ").trim();
+    }
+}
@@ -0,0 +1,72 @@
+package com.siar.screening.service;
+
+import com.siar.screening.config.ScreeningConfiguration;
+import com.siar.screening.model.EntityType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class NameNormalizationServiceTest {
+    
+    private final ScreeningConfiguration configuration = new ScreeningConfiguration();
+    private final NameNormalizationService nameNormalizationService = new NameNormalizationService(configuration);
+    
+    @Test
+    void canonicalOrganizationNameStripsTrailingLegalSuffixes() {
+        assertEquals("inversiones sol", canonical("Inversiones El Sol, C.A."));
+        assertEquals("inversiones sol", canonical("Inversiones El Sol C. A."));
+        assertEquals("banco venezuela", canonical("Banco de Venezuela S.A.C.A."));
+        assertEquals("distribuidora guaira", canonical("Distribuidora La Guaira Compañía Anónima"));
+        assertEquals("acme holdings", canonical("ACME Holdings Ltd. Inc."));
+    }
+    
+    @Test
+    void canonicalOrganizationNameKeepsSuffixesThatAreNotTrailing() {
+        assertEquals("sa inversiones", canonical("S.A. Inversiones"));
+        assertEquals("corporacion andina", canonical("Corporación Andina"));
+    }
+    
+    @Test
+    void canonicalOrganizationNameKeepsTokensWhenNothingWouldRemain() {
+        assertEquals("the", canonical("The Corporation"));
+        assertEquals("de la", canonical("De La"));
+        assertEquals("llc", canonical("LLC"));
+    }
+    
+    @Test
+    void normalizeAppliesCanonicalNameOnlyToCompanies() {
+        assertEquals("inversiones sol", nameNormalizationService.normalize("Inversiones El Sol, C.A.", EntityType.COMPANY));
+        assertEquals("inversiones el sol ca", nameNormalizationService.normalize("Inversiones El Sol, C.A.", EntityType.PERSON));
+    }
+    
+    @Test
+    void configuredSuffixesChangeTheConfigurationHash() {
+        String hash = nameNormalizationService.configurationHash();
+        
+        ScreeningConfiguration other = new ScreeningConfiguration();
+        other.getOrganization().setLegalSuffixes(List.of("C.A."));
+        NameNormalizationService otherService = new NameNormalizationService(other);
+        
+        assertNotEquals(hash, otherService.configurationHash());
+        assertEquals("inversiones sol sa", otherService.canonicalOrganizationName(
+            otherService.normalize("Inversiones El Sol S.A.")));
+    }
+    
+    @Test
+    void cacheReturnsSameNormalization() {
+        String first = nameNormalizationService.normalize("José Pérez");
+        String second = nameNormalizationService.normalize("José Pérez");
+        
+        assertEquals("jose perez", first);
+        assertEquals(first, second);
+        assertEquals(1, nameNormalizationService.getCacheStats().getHits());
+        assertEquals(1, nameNormalizationService.getCacheStats().getMisses());
+    }
+    
+    private String canonical(String name) {
+        return nameNormalizationService.canonicalOrganizationName(nameNormalizationService.normalize(name));
+    }
+}
@@ -0,0 +1,102 @@
+package com.siar.screening.service;
+
+import com.siar.screening.config.ScreeningConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenSetSimilarityServiceTest {
+    
+    private static final double EPSILON = 1e-12;
+    
+    private final JaroWinklerService jaroWinklerService = new JaroWinklerService();
+    private final ScreeningConfiguration configuration = new ScreeningConfiguration();
+    private final TokenSetSimilarityService tokenSetSimilarityService =
+        new TokenSetSimilarityService(jaroWinklerService, configuration);
+    
+    @Test
+    void reorderedTokensMatchCompletely() {
+        assertEquals(1.0, similarity("perez garcia jose luis", "jose luis perez garcia", 0.85), EPSILON);
+    }
+    
+    @Test
+    void extraTokensArePenalizedByCoverage() {
+        // 3 de 4 tokens emparejados al 100%: 1 - 0.25 * 1 / 4
+        assertEquals(0.9375, similarity("jose perez garcia", "jose luis perez garcia", 0.85), EPSILON);
+        assertEquals(0.9375, similarity("jose luis perez garcia", "jose perez garcia", 0.85), EPSILON);
+    }
+    
+    @Test
+    void tokensAreMatchedByJaroWinkler() {
+        double expected = (1.0 + jaroWinklerService.calculateSimilarity("peres", "perez")) / 2;
+        assertEquals(expected, similarity("peres jose", "jose perez", 0.85), EPSILON);
+    }
+    
+    @Test
+    void eachTokenIsMatchedOnce() {
+        // "jose jose" no cubre los dos tokens de "jose perez"
+        assertEquals(JaroWinklerService.BELOW_THRESHOLD, similarity("jose jose", "jose perez", 0.85));
+    }
+    
+    @Test
+    void singleTokenNamesAreNotComparedByTokens() {
+        assertEquals(JaroWinklerService.BELOW_THRESHOLD, similarity("perez", "perez", 0.0));
+        assertEquals(JaroWinklerService.BELOW_THRESHOLD, similarity("jose perez", "perez", 0.0));
+    }
+    
+    @Test
+    void unrelatedNamesAreBelowThreshold() {
+        assertEquals(JaroWinklerService.BELOW_THRESHOLD, similarity("maria gonzalez", "jose perez", 0.85));
+    }
+    
+    @Test
+    void disabledReturnsBelowThreshold() {
+        configuration.getTokenSet().setEnabled(false);
+        assertEquals(JaroWinklerService.BELOW_THRESHOLD, similarity("perez jose", "jose perez", 0.0));
+    }
+    
+    @Test
+    void thresholdOnlyPrunesScoresBelowIt() {
+        String[][] pairs = {
+            {"perez garcia jose luis", "jose luis perez garcia"},
+            {"jose perez garcia", "jose luis perez garcia"},
+            {"peres jose", "jose perez"},
+            {"garcia rodriguez maria", "maria rodrigues"},
+            {"maria de la cruz", "cruz maria"},
+            {"luis garcia", "jose luis perez garcia"}
+        };
+        double[] thresholds = {0.5, 0.7, 0.85, 0.9, 0.95, 1.0};
+        for (String[] pair : pairs) {
+            // Con umbral 0 solo se descartan los pares por el mínimo de tokens
+            double exact = similarity(pair[0], pair[1], 0.0);
+            assertTrue(exact >= 0.0, pair[0] + " / " + pair[1]);
+            for (double threshold : thresholds) {
+                double expected = exact >= threshold ? exact : JaroWinklerService.BELOW_THRESHOLD;
+                assertEquals(expected, similarity(pair[0], pair[1], threshold), EPSILON,
+                    pair[0] + " / " + pair[1] + " @ " + threshold);
+            }
+        }
+    }
+    
+    @Test
+    void comparesAliasRows() {
+        WatchlistIndexBucket bucket = WatchlistIndexBucket.builder()
+            .add(1L, "José Luis Pérez García", "jose luis perez garcia", List.of("pepe perez"))
+            .build();
+        NameTokens name = NameTokens.of("perez pepe".toCharArray());
+        
+        int alias = bucket.aliasStart(0);
+        assertEquals(1.0, tokenSetSimilarityService.similarityAtLeast(name, bucket, alias, 0.85), EPSILON);
+        assertEquals(0, bucket.ownerOf(alias));
+    }
+    
+    private double similarity(String name, String entry, double threshold) {
+        WatchlistIndexBucket bucket = WatchlistIndexBucket.builder()
+            .add(1L, entry, entry, List.of())
+            .build();
+        return tokenSetSimilarityService.similarityAtLeast(NameTokens.of(name.toCharArray()), bucket, 0, threshold);
+    }
+}
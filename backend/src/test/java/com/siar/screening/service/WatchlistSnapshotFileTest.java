@@ -0,0 +1,135 @@
+package com.siar.screening.service;
+
+import com.siar.screening.model.EntityType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WatchlistSnapshotFileTest {
+    
+    private static final double MIN_TRIGRAM_OVERLAP = 0.2;
+    private static final int MIN_PHONETIC_TOKENS = 2;
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void readsBackWhatWasWritten() throws IOException {
+        WatchlistIndexBucket persons = WatchlistIndexBucket.builder()
+            .add(10L, "José Luis Pérez García", "jose luis perez garcia",
+                List.of("perez garcia jose luis", "jose luis perez"),
+                SubjectAttributes.of("V-12.345.678", LocalDate.of(1970, 5, 17), "ven"))
+            .add(11L, "María de la Cruz Yépez", "maria de la cruz yepez", List.of(),
+                SubjectAttributes.of(null, null, "COL"))
+            .add(12L, "Ñañez Uzcátegui", "nanez uzcategui", List.of("nanez"), SubjectAttributes.NONE)
+            .build();
+        WatchlistIndexBucket companies = WatchlistIndexBucket.builder()
+            .add(20L, "Inversiones El Sol, C.A.", "inversiones sol", List.of("sol inversiones"),
+                SubjectAttributes.of("J-30123456-7", null, null))
+            .build();
+        WatchlistSnapshot snapshot = new WatchlistSnapshot(
+            7L, "2024.06", "5d41402abc4b2a76b9719d911017c592", "hash-1",
+            Map.of(EntityType.PERSON, persons, EntityType.COMPANY, companies)
+        );
+        
+        Path file = directory.resolve("watchlist-7.bin");
+        WatchlistSnapshotFile.write(snapshot, file);
+        WatchlistSnapshot read = WatchlistSnapshotFile.read(file);
+        
+        assertEquals(7L, read.getWatchlistId());
+        assertEquals("2024.06", read.getVersion());
+        assertEquals("5d41402abc4b2a76b9719d911017c592", read.getChecksumMd5());
+        assertEquals("hash-1", read.getNormalizationHash());
+        assertEquals(4, read.totalEntries());
+        assertBucketEquals(persons, read.getBucket(EntityType.PERSON));
+        assertBucketEquals(companies, read.getBucket(EntityType.COMPANY));
+        assertEquals(0, read.getBucket(EntityType.VESSEL).size());
+    }
+    
+    @Test
+    void readsBackEmptySnapshot() throws IOException {
+        WatchlistSnapshot snapshot = new WatchlistSnapshot(
+            1L, "v1", "checksum", "hash", new EnumMap<>(EntityType.class)
+        );
+        
+        Path file = directory.resolve("empty.bin");
+        WatchlistSnapshotFile.write(snapshot, file);
+        WatchlistSnapshot read = WatchlistSnapshotFile.read(file);
+        
+        assertEquals(0, read.totalEntries());
+        assertEquals("v1", read.getVersion());
+    }
+    
+    @Test
+    void rejectsFilesThatAreNotSnapshots() throws IOException {
+        Path file = directory.resolve("other.bin");
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9});
+        
+        assertThrows(IOException.class, () -> WatchlistSnapshotFile.read(file));
+    }
+    
+    private static void assertBucketEquals(WatchlistIndexBucket expected, WatchlistIndexBucket actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.rowCount(), actual.rowCount());
+        assertArrayEquals(expected.getChars(), actual.getChars());
+        
+        for (int entry = 0; entry < expected.size(); entry++) {
+            assertEquals(expected.getEntryId(entry), actual.getEntryId(entry));
+            assertEquals(expected.getEntryName(entry), actual.getEntryName(entry));
+            assertEquals(expected.aliasStart(entry), actual.aliasStart(entry));
+            assertEquals(expected.aliasEnd(entry), actual.aliasEnd(entry));
+            
+            SubjectAttributes expectedAttributes = expected.getEntryAttributes(entry);
+            SubjectAttributes actualAttributes = actual.getEntryAttributes(entry);
+            if (expectedAttributes == SubjectAttributes.NONE) {
+                assertSame(SubjectAttributes.NONE, actualAttributes);
+            } else {
+                assertEquals(expectedAttributes.getDocument(), actualAttributes.getDocument());
+                assertEquals(expectedAttributes.getDateOfBirth(), actualAttributes.getDateOfBirth());
+                assertEquals(expectedAttributes.getNationality(), actualAttributes.getNationality());
+                if (expectedAttributes.getDocument() != null) {
+                    assertArrayEquals(
+                        expected.entriesWithDocument(expectedAttributes.getDocument()),
+                        actual.entriesWithDocument(expectedAttributes.getDocument())
+                    );
+                }
+            }
+        }
+        
+        NameBlockingIndex.Scratch expectedScratch = new NameBlockingIndex.Scratch();
+        NameBlockingIndex.Scratch actualScratch = new NameBlockingIndex.Scratch();
+        for (int row = 0; row < expected.rowCount(); row++) {
+            assertEquals(expected.rowStart(row), actual.rowStart(row));
+            assertEquals(expected.rowEnd(row), actual.rowEnd(row));
+            assertEquals(expected.ownerOf(row), actual.ownerOf(row));
+            assertEquals(expected.isAlias(row), actual.isAlias(row));
+            assertEquals(expected.tokenCount(row), actual.tokenCount(row));
+            for (int token = 0; token < expected.tokenCount(row); token++) {
+                assertEquals(expected.tokenStart(row, token), actual.tokenStart(row, token));
+                assertEquals(expected.tokenEnd(row, token), actual.tokenEnd(row, token));
+            }
+            
+            // Cada nombre del bucket como consulta de bloqueo
+            char[] query = Arrays.copyOfRange(expected.getChars(), expected.rowStart(row), expected.rowEnd(row));
+            assertArrayEquals(
+                expected.getBlockingIndex().candidates(query, 0, query.length,
+                    MIN_TRIGRAM_OVERLAP, MIN_PHONETIC_TOKENS, expectedScratch),
+                actual.getBlockingIndex().candidates(query, 0, query.length,
+                    MIN_TRIGRAM_OVERLAP, MIN_PHONETIC_TOKENS, actualScratch)
+            );
+        }
+    }
+}
@@ -0,0 +1,56 @@
+-- ============================================================================
+-- SIAR - Script de Carga Incremental de Listas Restrictivas
+-- Versión: 1.0
+-- Fecha: 2024
+-- Descripción: Clave natural y huella de contenido en watchlist_entry y tabla
+--              de staging para la carga por streaming de archivos de listas
+-- ============================================================================
+
+-- ============================================================================
+-- 1. CLAVE NATURAL DE ENTRADAS
+-- ============================================================================
+
+-- Identificador de la entrada en la fuente (uid OFAC, DATAID ONU, etc.)
+ALTER TABLE watchlist_entry ADD COLUMN IF NOT EXISTS external_id VARCHAR(100);
+
+-- MD5 del contenido normalizado de la entrada; detecta entradas modificadas
+ALTER TABLE watchlist_entry ADD COLUMN IF NOT EXISTS content_hash VARCHAR(32);
+
+-- Una sola entrada activa por clave natural dentro de cada lista
+CREATE UNIQUE INDEX IF NOT EXISTS idx_entry_external_active
+    ON watchlist_entry(watchlist_id, external_id)
+    WHERE is_active = true AND external_id IS NOT NULL;
+
+-- ============================================================================
+-- 2. STAGING DE CARGA
+-- ============================================================================
+
+-- Registros leídos de un archivo, pendientes de comparar con las entradas activas.
+-- Sin log de escritura: su contenido se descarta al terminar cada carga.
+CREATE UNLOGGED TABLE IF NOT EXISTS watchlist_entry_staging (
+    load_id UUID NOT NULL,
+    watchlist_id BIGINT NOT NULL,
+    external_id VARCHAR(100) NOT NULL,
+    content_hash VARCHAR(32) NOT NULL,
+
+    entity_type VARCHAR(50) NOT NULL,
+    name VARCHAR(500) NOT NULL,
+    aliases JSONB,
+    document VARCHAR(100),
+    date_of_birth DATE,
+    nationality VARCHAR(3),
+    country VARCHAR(100),
+    address TEXT,
+    sanction_program VARCHAR(100),
+    sanction_date DATE,
+    remarks TEXT
+);
+
+CREATE INDEX IF NOT EXISTS idx_entry_staging_load
+    ON watchlist_entry_staging(load_id, external_id);
+
+COMMENT ON TABLE watchlist_entry_staging IS 'Staging temporal de la carga por streaming de listas restrictivas';
+
+-- ============================================================================
+-- FIN DEL SCRIPT
+-- ============================================================================
@@ -0,0 +1,34 @@
+-- ============================================================================
+-- SIAR - Script de Caché de Resultados de Screening
+-- Versión: 1.0
+-- Fecha: 2024
+-- Descripción: Huella del sujeto y de las versiones de listas evaluadas en
+--              cada screening, y referencia al screening reutilizado
+-- ============================================================================
+
+-- ============================================================================
+-- 1. HUELLA DEL SCREENING
+-- ============================================================================
+
+-- SHA-256 del nombre normalizado, tipo de entidad, atributos secundarios y
+-- (id, versión, checksum) de cada lista activa evaluada
+ALTER TABLE screening ADD COLUMN IF NOT EXISTS subject_fingerprint VARCHAR(64);
+
+-- Screening cuyo resultado se reutilizó; NULL si se calculó
+ALTER TABLE screening ADD COLUMN IF NOT EXISTS cached_from_screening_id BIGINT REFERENCES screening(id);
+
+COMMENT ON COLUMN screening.subject_fingerprint IS 'Huella del sujeto y de las versiones de listas evaluadas';
+COMMENT ON COLUMN screening.cached_from_screening_id IS 'Screening calculado cuyo resultado se reutilizó (auditoría)';
+
+-- ============================================================================
+-- 2. BÚSQUEDA DE RESULTADOS REUTILIZABLES
+-- ============================================================================
+
+-- Último screening calculado (no reutilizado) por huella
+CREATE INDEX IF NOT EXISTS idx_screening_fingerprint
+    ON screening(subject_fingerprint, id DESC)
+    WHERE status = 'COMPLETED' AND cached_from_screening_id IS NULL AND subject_fingerprint IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_screening_cached_from
+    ON screening(cached_from_screening_id)
+    WHERE cached_from_screening_id IS NOT NULL;
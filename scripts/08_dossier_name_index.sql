@@ -0,0 +1,41 @@
+-- ============================================================================
+-- SIAR - Script de Notificación de Cambios de Nombres de Expedientes
+-- Versión: 1.0
+-- Fecha: 2024
+-- Descripción: Notifica por LISTEN/NOTIFY el alta, cambio de nombre o tipo y
+--              baja de cada expediente para que los nodos actualicen el índice
+--              inverso de nombres en memoria sin reconstruirlo
+-- ============================================================================
+
+-- La tabla dossier es la que referencia screening.dossier_id
+-- (04_screening_schema.sql); este script se ejecuta después de que exista.
+
+-- ============================================================================
+-- 1. NOTIFICACIÓN
+-- ============================================================================
+
+-- El canal coincide con DossierNameChangeListener.CHANNEL; el payload es el
+-- id del expediente. NOTIFY se entrega al confirmarse la transacción, por lo
+-- que el nodo lee el nombre ya confirmado o no encuentra el expediente dado
+-- de baja y lo retira del índice.
+CREATE OR REPLACE FUNCTION notify_dossier_name_changed()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM pg_notify('dossier_name_changed', OLD.id::text);
+        RETURN OLD;
+    END IF;
+    IF TG_OP = 'UPDATE'
+        AND NEW.entity_name IS NOT DISTINCT FROM OLD.entity_name
+        AND NEW.entity_type IS NOT DISTINCT FROM OLD.entity_type THEN
+        RETURN NEW;
+    END IF;
+    PERFORM pg_notify('dossier_name_changed', NEW.id::text);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_notify_dossier_name_changed ON dossier;
+CREATE TRIGGER trg_notify_dossier_name_changed
+    AFTER INSERT OR UPDATE OF entity_name, entity_type OR DELETE ON dossier
+    FOR EACH ROW EXECUTE FUNCTION notify_dossier_name_changed();
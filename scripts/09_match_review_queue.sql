@@ -0,0 +1,89 @@
+-- ============================================================================
+-- SIAR - Script de Cola de Revisión de Coincidencias
+-- Versión: 1.0
+-- Fecha: 2024
+-- Descripción: Coincidencias pendientes de decisión del Oficial de
+--              Cumplimiento, mantenidas por triggers, con asignación
+--              temporal (lease) a un revisor
+-- ============================================================================
+
+-- ============================================================================
+-- 1. COLA DE REVISIÓN
+-- ============================================================================
+
+-- Una fila por coincidencia que requiere revisión y aún no tiene decisión.
+-- La fila se elimina al registrarse la decisión, por lo que la tabla solo
+-- contiene trabajo pendiente y la cola no depende de NOT EXISTS sobre
+-- screening_decision.
+CREATE TABLE IF NOT EXISTS match_review_queue (
+    match_id BIGINT PRIMARY KEY REFERENCES match(id),
+    screening_id BIGINT NOT NULL REFERENCES screening(id),
+    similarity_score NUMERIC(5,2) NOT NULL,
+    enqueued_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    
+    -- Asignación temporal; vencida la lease la coincidencia vuelve a la cola
+    claimed_by BIGINT REFERENCES users(id),
+    claimed_at TIMESTAMPTZ,
+    lease_expires_at TIMESTAMPTZ
+);
+
+COMMENT ON TABLE match_review_queue IS 'Coincidencias pendientes de decisión, ordenadas por similitud';
+COMMENT ON COLUMN match_review_queue.lease_expires_at IS 'Fin de la asignación al revisor; NULL si no está asignada';
+
+-- Paginación por (similarity_score DESC, match_id) y búsqueda de trabajo libre
+CREATE INDEX IF NOT EXISTS idx_review_queue_order
+    ON match_review_queue(similarity_score DESC, match_id) INCLUDE (lease_expires_at);
+
+CREATE INDEX IF NOT EXISTS idx_review_queue_claimed_by
+    ON match_review_queue(claimed_by, lease_expires_at)
+    WHERE claimed_by IS NOT NULL;
+
+-- ============================================================================
+-- 2. MANTENIMIENTO
+-- ============================================================================
+
+-- 2.1 Encolar coincidencias que requieren revisión
+CREATE OR REPLACE FUNCTION enqueue_match_for_review()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF NEW.requires_review THEN
+        INSERT INTO match_review_queue (match_id, screening_id, similarity_score)
+        SELECT NEW.id, sr.screening_id, NEW.similarity_score
+        FROM screening_result sr
+        WHERE sr.id = NEW.screening_result_id
+        ON CONFLICT (match_id) DO NOTHING;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- 2.2 Retirar de la cola al registrarse la decisión
+CREATE OR REPLACE FUNCTION dequeue_decided_match()
+RETURNS TRIGGER AS $$
+BEGIN
+    DELETE FROM match_review_queue WHERE match_id = NEW.match_id;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_enqueue_match_for_review ON match;
+CREATE TRIGGER trg_enqueue_match_for_review
+    AFTER INSERT ON match
+    FOR EACH ROW EXECUTE FUNCTION enqueue_match_for_review();
+
+DROP TRIGGER IF EXISTS trg_dequeue_decided_match ON screening_decision;
+CREATE TRIGGER trg_dequeue_decided_match
+    AFTER INSERT ON screening_decision
+    FOR EACH ROW EXECUTE FUNCTION dequeue_decided_match();
+
+-- ============================================================================
+-- 3. CARGA INICIAL
+-- ============================================================================
+
+INSERT INTO match_review_queue (match_id, screening_id, similarity_score, enqueued_at)
+SELECT m.id, sr.screening_id, m.similarity_score, m.created_at
+FROM match m
+JOIN screening_result sr ON sr.id = m.screening_result_id
+WHERE m.requires_review = true
+  AND NOT EXISTS (SELECT 1 FROM screening_decision sd WHERE sd.match_id = m.id)
+ON CONFLICT (match_id) DO NOTHING;
@@ -0,0 +1,40 @@
+-- ============================================================================
+-- SIAR - Script de Bandeja de Salida de Decisiones de Screening
+-- Versión: 1.0
+-- Fecha: 2024
+-- Descripción: Efectos de cada decisión del Oficial de Cumplimiento
+--              (riesgo, alerta crítica, auditoría) registrados en la misma
+--              sentencia que la decisión y procesados en segundo plano
+-- ============================================================================
+
+-- ============================================================================
+-- 1. BANDEJA DE SALIDA
+-- ============================================================================
+
+-- Una fila por decisión registrada. La decisión y su fila se insertan en la
+-- misma sentencia, por lo que ningún efecto se pierde ni se registra sin
+-- decisión; el procesamiento es asíncrono y se reintenta ante errores.
+CREATE TABLE IF NOT EXISTS screening_decision_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    decision_id BIGINT NOT NULL UNIQUE REFERENCES screening_decision(id),
+    match_id BIGINT NOT NULL REFERENCES match(id),
+    screening_id BIGINT NOT NULL REFERENCES screening(id),
+    dossier_id BIGINT NOT NULL,
+    decision VARCHAR(30) NOT NULL,
+    
+    created_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    
+    -- Procesamiento
+    available_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error TEXT,
+    processed_at TIMESTAMPTZ
+);
+
+COMMENT ON TABLE screening_decision_outbox IS 'Efectos pendientes de las decisiones de screening';
+COMMENT ON COLUMN screening_decision_outbox.available_at IS 'Momento desde el que puede (re)intentarse el procesamiento';
+
+-- Solo las filas pendientes se recorren al procesar
+CREATE INDEX IF NOT EXISTS idx_decision_outbox_pending
+    ON screening_decision_outbox(available_at, id)
+    WHERE processed_at IS NULL;
@@ -0,0 +1,34 @@
+-- ============================================================================
+-- SIAR - Script de Notificación de Cambios de Configuración de Riesgo
+-- Versión: 1.0
+-- Fecha: 2024
+-- Descripción: Notifica por LISTEN/NOTIFY cada cambio en risk_configurations
+--              para que los nodos invaliden la configuración activa en memoria
+-- ============================================================================
+
+-- La tabla risk_configurations la crea el mapeo JPA del módulo de riesgo;
+-- este script se ejecuta después de que exista.
+
+-- ============================================================================
+-- 1. NOTIFICACIÓN
+-- ============================================================================
+
+-- El canal coincide con RiskConfigurationChangeListener.CHANNEL; el payload
+-- es el identificador de la configuración modificada. NOTIFY se entrega al
+-- confirmarse la transacción, por lo que los nodos no leen datos sin confirmar.
+CREATE OR REPLACE FUNCTION notify_risk_configuration_changed()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM pg_notify('risk_configuration_changed', OLD.configuration_id);
+        RETURN OLD;
+    END IF;
+    PERFORM pg_notify('risk_configuration_changed', NEW.configuration_id);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_notify_risk_configuration_changed ON risk_configurations;
+CREATE TRIGGER trg_notify_risk_configuration_changed
+    AFTER INSERT OR UPDATE OR DELETE ON risk_configurations
+    FOR EACH ROW EXECUTE FUNCTION notify_risk_configuration_changed();
@@ -0,0 +1,51 @@
+-- ============================================================================
+-- SIAR - Script de Versionado de Evaluaciones de Riesgo
+-- Versión: 1.0
+-- Fecha: 2024
+-- Descripción: Contador de versiones y evaluación vigente por expediente,
+--              para asignar versión y obtener la evaluación APPROVED sin
+--              recorrer el historial del expediente
+-- ============================================================================
+
+-- La tabla risk_evaluations la crea el mapeo JPA del módulo de riesgo;
+-- este script se ejecuta después de que exista.
+
+-- ============================================================================
+-- 1. PUNTERO POR EXPEDIENTE
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS dossier_evaluation_pointers (
+    dossier_id VARCHAR(50) PRIMARY KEY,
+    
+    -- Última versión asignada; se incrementa con UPDATE ... RETURNING
+    last_version INTEGER NOT NULL,
+    
+    -- Evaluación APPROVED vigente; NULL si el expediente no tiene
+    current_evaluation_id VARCHAR(50),
+    current_version INTEGER,
+    
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE dossier_evaluation_pointers IS 'Versión asignada y evaluación de riesgo vigente por expediente';
+
+-- Supersesión masiva de versiones anteriores de un expediente
+CREATE INDEX IF NOT EXISTS idx_dossier_status_version
+    ON risk_evaluations(dossier_id, status, version);
+
+-- ============================================================================
+-- 2. CARGA INICIAL
+-- ============================================================================
+
+INSERT INTO dossier_evaluation_pointers
+    (dossier_id, last_version, current_evaluation_id, current_version, updated_at)
+SELECT
+    e.dossier_id,
+    MAX(e.version),
+    (ARRAY_AGG(e.evaluation_id ORDER BY e.version DESC)
+        FILTER (WHERE e.status = 'APPROVED'))[1],
+    MAX(e.version) FILTER (WHERE e.status = 'APPROVED'),
+    CURRENT_TIMESTAMP
+FROM risk_evaluations e
+GROUP BY e.dossier_id
+ON CONFLICT (dossier_id) DO NOTHING;
@@ -0,0 +1,46 @@
+-- ============================================================================
+-- SIAR - Script de Estado del Re-screening Delta
+-- Versión: 1.0
+-- Fecha: 2024
+-- Descripción: Última versión de cada lista ya comparada contra los
+--              expedientes y marca de agua de entradas, compartidas por
+--              todos los nodos y persistentes entre reinicios
+-- ============================================================================
+
+-- ============================================================================
+-- 1. ESTADO POR LISTA
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS watchlist_delta_state (
+    watchlist_id BIGINT PRIMARY KEY REFERENCES watchlist(id),
+
+    -- Versión y checksum de la lista en el último re-screening
+    rescreened_version VARCHAR(50),
+    rescreened_checksum VARCHAR(32),
+
+    -- Mayor watchlist_entry.id ya comparado. La carga inserta una fila
+    -- nueva por cada entrada agregada o modificada, así que las entradas
+    -- pendientes son las activas con id mayor
+    last_entry_id BIGINT NOT NULL DEFAULT 0,
+
+    rescreened_at TIMESTAMPTZ
+);
+
+COMMENT ON TABLE watchlist_delta_state IS 'Marca de agua del re-screening delta por lista; la fila se bloquea durante cada ejecución';
+
+-- ============================================================================
+-- 2. CARGA INICIAL
+-- ============================================================================
+
+-- Las versiones vigentes al instalar se consideran ya comparadas
+-- (el re-screening completo corresponde al screening masivo)
+INSERT INTO watchlist_delta_state
+    (watchlist_id, rescreened_version, rescreened_checksum, last_entry_id, rescreened_at)
+SELECT
+    w.id,
+    w.version,
+    w.checksum_md5,
+    COALESCE((SELECT MAX(e.id) FROM watchlist_entry e WHERE e.watchlist_id = w.id), 0),
+    CURRENT_TIMESTAMP
+FROM watchlist w
+ON CONFLICT (watchlist_id) DO NOTHING;
@@ -0,0 +1,37 @@
+-- ============================================================================
+-- SIAR - Script de Decisiones Agotadas de la Bandeja de Salida
+-- Versión: 1.0
+-- Fecha: 2024
+-- Descripción: Estado visible para las decisiones cuyos efectos agotaron
+--              los reintentos, para consultarlas y volver a procesarlas
+-- ============================================================================
+
+-- ============================================================================
+-- 1. ESTADO DE DECISIÓN AGOTADA
+-- ============================================================================
+
+-- Se marca al fallar el último intento permitido; el procesamiento omite
+-- estas filas hasta que se reencolan
+ALTER TABLE screening_decision_outbox ADD COLUMN IF NOT EXISTS dead_lettered_at TIMESTAMPTZ;
+
+COMMENT ON COLUMN screening_decision_outbox.dead_lettered_at IS 'Momento en que la decisión agotó sus reintentos; NULL si sigue pendiente o fue procesada';
+
+-- Filas que ya agotaron los intentos con el máximo por defecto (10)
+UPDATE screening_decision_outbox
+SET dead_lettered_at = CURRENT_TIMESTAMP
+WHERE processed_at IS NULL AND dead_lettered_at IS NULL AND attempts >= 10;
+
+-- ============================================================================
+-- 2. ÍNDICES
+-- ============================================================================
+
+-- Las pendientes excluyen las agotadas
+DROP INDEX IF EXISTS idx_decision_outbox_pending;
+CREATE INDEX IF NOT EXISTS idx_decision_outbox_pending
+    ON screening_decision_outbox(available_at, id)
+    WHERE processed_at IS NULL AND dead_lettered_at IS NULL;
+
+-- Consulta y reencolado de las agotadas
+CREATE INDEX IF NOT EXISTS idx_decision_outbox_dead_letter
+    ON screening_decision_outbox(dead_lettered_at, id)
+    WHERE processed_at IS NULL AND dead_lettered_at IS NOT NULL;